@@ -0,0 +1,61 @@
+package com.cs6650.group13.colocated;
+
+import com.cs6650.group13.shoppingcart.ShoppingCartServiceApplication;
+import com.cs6650.group13.warehouse.WarehouseServiceApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Arrays;
+
+/**
+ * Runs the warehouse and the shopping cart in one JVM, with orders handed over
+ * through the warehouse's in-process ring buffer instead of RabbitMQ
+ *
+ * The two services run as separate application contexts, each reading its own
+ * service's application.properties and serving its own port (warehouse 8084, cart
+ * 8083). The warehouse starts first; its {@code inProcessOrderSink} bean is then
+ * registered in the cart's context before the cart refreshes. The broker is not used:
+ * the warehouse's listeners are not started and the cart's RabbitMQ configuration is
+ * disabled.
+ *
+ * Any --key=value arguments are passed to both contexts.
+ */
+public class ColocatedApplication {
+
+  private static final String SINK_BEAN = "inProcessOrderSink";
+
+  public static void main(String[] args) {
+    ConfigurableApplicationContext warehouse = new SpringApplicationBuilder(WarehouseServiceApplication.class)
+        .properties("spring.config.location=classpath:/warehouse/application.properties")
+        .run(withOverrides(args,
+            "--app.transport.in-process.enabled=true",
+            "--spring.rabbitmq.listener.simple.auto-startup=false",
+            "--spring.rabbitmq.listener.direct.auto-startup=false",
+            "--management.health.rabbit.enabled=false"));
+
+    Object sink = warehouse.getBean(SINK_BEAN);
+    ConfigurableApplicationContext cart = new SpringApplicationBuilder(ShoppingCartServiceApplication.class)
+        .properties("spring.config.location=classpath:/shopping-cart/application.properties")
+        .initializers(context -> context.getBeanFactory().registerSingleton(SINK_BEAN, sink))
+        .run(withOverrides(args,
+            "--app.transport.in-process.enabled=true",
+            "--app.rabbitmq.enabled=false",
+            "--management.health.rabbit.enabled=false"));
+
+    // Stop the cart first so no order is handed to a warehouse that is shutting down
+    Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+      cart.close();
+      warehouse.close();
+    }, "colocated-shutdown"));
+  }
+
+  /**
+   * Co-located settings go in as command-line arguments so they win over the
+   * services' own application.properties; the user's arguments come last and win over both
+   */
+  private static String[] withOverrides(String[] args, String... overrides) {
+    String[] combined = Arrays.copyOf(overrides, overrides.length + args.length);
+    System.arraycopy(args, 0, combined, overrides.length, args.length);
+    return combined;
+  }
+}
@@ -0,0 +1,52 @@
+package com.ecommerce.cca.admission;
+
+/**
+ * CoDel-style overload detection on request queue sojourn times
+ *
+ * Tracks the minimum sojourn seen in each interval. A minimum above the target means even
+ * the luckiest request waited too long for a whole interval: the queue is standing, not
+ * absorbing a burst, so the server is overloaded for the next interval. While overloaded,
+ * requests that waited more than twice the target are shed; those that got through quickly
+ * are still served. This is the server variant of CoDel (as used by RPC frameworks) rather
+ * than the packet one, which drops at an increasing rate instead of by sojourn.
+ */
+public class CoDelAdmission {
+
+    private final long targetNanos;
+    private final long intervalNanos;
+
+    private long intervalEndNanos;
+    private long minSojournNanos = Long.MAX_VALUE;
+    private boolean overloaded;
+
+    public CoDelAdmission(long targetNanos, long intervalNanos, long nowNanos) {
+        this.targetNanos = targetNanos;
+        this.intervalNanos = intervalNanos;
+        this.intervalEndNanos = nowNanos + intervalNanos;
+    }
+
+    /**
+     * Record a request's sojourn and decide whether to shed it
+     *
+     * @param sojournNanos How long the request waited for a worker thread
+     * @param nowNanos Current System.nanoTime()
+     * @return true to reject the request
+     */
+    public synchronized boolean shouldShed(long sojournNanos, long nowNanos) {
+        if (nowNanos - intervalEndNanos >= 0) {
+            overloaded = minSojournNanos > targetNanos;
+            minSojournNanos = sojournNanos;
+            intervalEndNanos = nowNanos + intervalNanos;
+            // The first request of an interval always gets through
+            return false;
+        }
+        if (sojournNanos < minSojournNanos) {
+            minSojournNanos = sojournNanos;
+        }
+        return overloaded && sojournNanos > 2 * targetNanos;
+    }
+
+    public synchronized boolean isOverloaded() {
+        return overloaded;
+    }
+}
@@ -0,0 +1,70 @@
+package com.ecommerce.cca.admission;
+
+import com.ecommerce.cca.model.ErrorResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queue-sojourn load shedding for POST /credit-card-authorizer/authorize
+ *
+ * Replaces Tomcat's worker pool with a {@link SojournTrackingExecutor} of the same size and
+ * puts a {@link LoadSheddingFilter} in front of the authorize endpoint. Health and admin
+ * endpoints are never shed, so the load balancer keeps seeing the instance as alive.
+ *
+ * On by default; a healthy server never sheds. Disable with {@code LOAD_SHEDDING_ENABLED=false}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.shedding.enabled", havingValue = "true", matchIfMissing = true)
+public class LoadSheddingConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public SojournTrackingExecutor sojournTrackingExecutor(ServerProperties serverProperties,
+                                                           MeterRegistry meterRegistry) {
+        ServerProperties.Tomcat.Threads threads = serverProperties.getTomcat().getThreads();
+        SojournTrackingExecutor executor = new SojournTrackingExecutor(
+                threads.getMinSpare(), threads.getMax(), threads.getMaxQueueCapacity(), "cca-http-exec-");
+        Gauge.builder("cca.admission.queue.size", executor, e -> e.getQueue().size())
+                .description("Requests waiting for a worker thread")
+                .register(meterRegistry);
+        return executor;
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> sojournTrackingProtocolHandler(SojournTrackingExecutor executor) {
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    @Bean
+    public FilterRegistrationBean<LoadSheddingFilter> loadSheddingFilter(
+            @Value("${app.shedding.target-ms:10}") long targetMs,
+            @Value("${app.shedding.interval-ms:100}") long intervalMs,
+            @Value("${app.shedding.retry-after-seconds:1}") int retryAfterSeconds,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) throws JsonProcessingException {
+        CoDelAdmission admission = new CoDelAdmission(TimeUnit.MILLISECONDS.toNanos(targetMs),
+                TimeUnit.MILLISECONDS.toNanos(intervalMs), System.nanoTime());
+        byte[] overloadedBody = objectMapper.writeValueAsBytes(new ErrorResponse(
+                "SERVICE_OVERLOADED",
+                "Credit card authorizer is overloaded",
+                "Please retry after " + retryAfterSeconds + " seconds"
+        ));
+        FilterRegistrationBean<LoadSheddingFilter> registration = new FilterRegistrationBean<>(
+                new LoadSheddingFilter(admission, retryAfterSeconds, overloadedBody, meterRegistry));
+        registration.addUrlPatterns("/credit-card-authorizer/authorize");
+        // Ahead of observation and encoding filters: a shed request should cost as little as possible
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,82 @@
+package com.ecommerce.cca.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Sheds authorization requests with 503 and Retry-After when {@link CoDelAdmission} finds
+ * the worker queue standing, before any parsing or authorization work is spent on them
+ *
+ * Metrics:
+ * - cca.admission.sojourn - time requests waited for a worker (percentiles)
+ * - cca.admission.shed - requests rejected
+ * - cca.admission.overloaded - 1 while in the overloaded state
+ */
+public class LoadSheddingFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = Logger.getLogger(LoadSheddingFilter.class.getName());
+
+    private final CoDelAdmission admission;
+    private final String retryAfterSeconds;
+    private final byte[] overloadedBody;
+    private final Timer sojournTimer;
+    private final Counter shedCounter;
+
+    public LoadSheddingFilter(CoDelAdmission admission, int retryAfterSeconds, byte[] overloadedBody,
+                              MeterRegistry meterRegistry) {
+        this.admission = admission;
+        this.retryAfterSeconds = Integer.toString(retryAfterSeconds);
+        this.overloadedBody = overloadedBody;
+        this.sojournTimer = Timer.builder("cca.admission.sojourn")
+                .description("Time authorization requests waited for a worker thread")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(10_000))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(meterRegistry);
+        this.shedCounter = Counter.builder("cca.admission.shed")
+                .description("Authorization requests rejected with 503 while overloaded")
+                .register(meterRegistry);
+        Gauge.builder("cca.admission.overloaded", admission, a -> a.isOverloaded() ? 1 : 0)
+                .description("1 while the worker queue has stood above the target sojourn")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long sojournNanos = SojournTrackingExecutor.currentSojournNanos();
+        if (sojournNanos < 0) {
+            // Not dispatched through the tracking executor (tests, lean endpoint)
+            chain.doFilter(request, response);
+            return;
+        }
+        sojournTimer.record(sojournNanos, TimeUnit.NANOSECONDS);
+        if (!admission.shouldShed(sojournNanos, System.nanoTime())) {
+            chain.doFilter(request, response);
+            return;
+        }
+        shedCounter.increment();
+        logger.fine(() -> "Shedding authorization after " + sojournNanos / 1_000_000 + "ms in queue");
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(overloadedBody.length);
+        response.getOutputStream().write(overloadedBody);
+    }
+}
@@ -0,0 +1,50 @@
+package com.ecommerce.cca.admission;
+
+import org.apache.tomcat.util.threads.TaskQueue;
+import org.apache.tomcat.util.threads.TaskThreadFactory;
+import org.apache.tomcat.util.threads.ThreadPoolExecutor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tomcat's worker pool, built the way Tomcat builds its own, that stamps each task when it
+ * is queued so the worker thread running it knows how long it waited
+ *
+ * Covers the wait for a worker after the poller has read a request; time spent in the
+ * kernel's accept backlog before that is not visible to the JVM.
+ */
+public class SojournTrackingExecutor extends ThreadPoolExecutor {
+
+    private static final ThreadLocal<long[]> SOJOURN = ThreadLocal.withInitial(() -> new long[] {-1});
+
+    public SojournTrackingExecutor(int minSpareThreads, int maxThreads, int maxQueueSize, String namePrefix) {
+        this(minSpareThreads, maxThreads, new TaskQueue(maxQueueSize), namePrefix);
+    }
+
+    private SojournTrackingExecutor(int minSpareThreads, int maxThreads, TaskQueue queue, String namePrefix) {
+        super(minSpareThreads, maxThreads, 60, TimeUnit.SECONDS, queue,
+                new TaskThreadFactory(namePrefix, true, Thread.NORM_PRIORITY));
+        queue.setParent(this);
+    }
+
+    /**
+     * How long the task running on this thread waited in the queue, or -1 outside a tracked task
+     */
+    public static long currentSojournNanos() {
+        return SOJOURN.get()[0];
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        long queuedAt = System.nanoTime();
+        super.execute(() -> {
+            long[] sojourn = SOJOURN.get();
+            sojourn[0] = System.nanoTime() - queuedAt;
+            try {
+                command.run();
+            } finally {
+                sojourn[0] = -1;
+            }
+        });
+    }
+}
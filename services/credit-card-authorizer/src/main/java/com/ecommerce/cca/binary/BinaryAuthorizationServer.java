@@ -0,0 +1,352 @@
+package com.ecommerce.cca.binary;
+
+import com.ecommerce.cca.service.AuthorizationService;
+import com.ecommerce.cca.service.Decision;
+import com.ecommerce.cca.validation.CardNumberValidator;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static com.ecommerce.cca.binary.BinaryProtocol.*;
+
+/**
+ * Second listener speaking {@link BinaryProtocol}, next to the HTTP API
+ *
+ * One selector thread serves every connection: it parses all complete frames in each
+ * read, decides them through the same {@link AuthorizationService} as the HTTP path, and
+ * writes the responses back in one batch. Decisions delayed by the simulation profile are
+ * completed by the simulator's thread, queued on their connection and written by the
+ * selector thread after a wakeup.
+ *
+ * Backpressure: a connection stops being read while it has max-in-flight delayed requests
+ * or responses its client has not read yet.
+ *
+ * Off by default: enable with {@code BINARY_PROTOCOL_ENABLED=true}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.binary.enabled", havingValue = "true")
+public class BinaryAuthorizationServer {
+
+    private static final Logger logger = Logger.getLogger(BinaryAuthorizationServer.class.getName());
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * A response waiting for room in the output buffer; async if it was a delayed decision
+     */
+    private record Result(int requestId, byte status, boolean async) {
+    }
+
+    private final AuthorizationService authorizationService;
+    private final int configuredPort;
+    private final int maxInFlight;
+    private final ConcurrentLinkedQueue<Connection> ready = new ConcurrentLinkedQueue<>();
+
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private Thread loop;
+    private volatile boolean running;
+
+    public BinaryAuthorizationServer(AuthorizationService authorizationService,
+                                     @Value("${app.binary.port:8092}") int port,
+                                     @Value("${app.binary.max-in-flight:1024}") int maxInFlight) {
+        this.authorizationService = authorizationService;
+        this.configuredPort = port;
+        this.maxInFlight = maxInFlight;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(configuredPort), 1024);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        running = true;
+        loop = new Thread(this::run, "cca-binary");
+        loop.setDaemon(true);
+        loop.start();
+        logger.info("Binary authorization protocol listening on port " + getPort());
+    }
+
+    /**
+     * The bound port (useful when configured as 0)
+     */
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        selector.wakeup();
+        loop.join(5000);
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                selector.select();
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Binary protocol selector failed", e);
+                break;
+            }
+            Connection connection;
+            while ((connection = ready.poll()) != null) {
+                connection.onResults();
+            }
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                if (!key.isValid()) {
+                    continue;
+                }
+                if (key.isAcceptable()) {
+                    accept();
+                } else {
+                    ((Connection) key.attachment()).onReady(key);
+                }
+            }
+        }
+        for (SelectionKey key : selector.keys()) {
+            try {
+                key.channel().close();
+            } catch (IOException ignored) {
+                // shutting down
+            }
+        }
+        try {
+            selector.close();
+        } catch (IOException ignored) {
+            // shutting down
+        }
+    }
+
+    private void accept() {
+        try {
+            SocketChannel channel;
+            while ((channel = serverChannel.accept()) != null) {
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+                key.attach(new Connection(channel, key));
+            }
+        } catch (IOException e) {
+            logger.warning("Binary protocol accept failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * One client connection; everything but result queueing runs on the selector thread
+     */
+    private final class Connection {
+        private final SocketChannel channel;
+        private final SelectionKey key;
+        private final ByteBuffer in = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private final ByteBuffer out = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private final byte[] card = new byte[MAX_CARD_LENGTH];
+        private final byte[] authorizationId = new byte[MAX_AUTHORIZATION_ID_LENGTH];
+        private final ConcurrentLinkedQueue<Result> results = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean queued = new AtomicBoolean();
+        private int inFlight;
+        private boolean closed;
+
+        private Connection(SocketChannel channel, SelectionKey key) {
+            this.channel = channel;
+            this.key = key;
+        }
+
+        void onReady(SelectionKey readyKey) {
+            try {
+                if (readyKey.isWritable()) {
+                    flush();
+                    drainResults();
+                }
+                if (readyKey.isValid() && readyKey.isReadable() && channel.read(in) < 0) {
+                    close();
+                    return;
+                }
+                process();
+            } catch (IOException | CancelledKeyException e) {
+                logger.fine("Binary protocol connection closed: " + e.getMessage());
+                close();
+            }
+        }
+
+        void onResults() {
+            queued.set(false);
+            try {
+                drainResults();
+                process();
+            } catch (IOException | CancelledKeyException e) {
+                logger.fine("Binary protocol connection closed: " + e.getMessage());
+                close();
+            }
+        }
+
+        /**
+         * Handle every complete frame the in-flight limit allows, then flush the responses
+         * (including those before a malformed frame, which then closes the connection)
+         */
+        private void process() throws IOException {
+            if (closed) {
+                return;
+            }
+            String malformed = null;
+            in.flip();
+            while (inFlight < maxInFlight && in.remaining() >= 4) {
+                int length = in.getInt(in.position());
+                if (length < REQUEST_HEADER_LENGTH
+                        || length > REQUEST_HEADER_LENGTH + MAX_CARD_LENGTH + MAX_AUTHORIZATION_ID_LENGTH) {
+                    malformed = "bad frame length " + length;
+                    break;
+                }
+                if (in.remaining() < 4 + length) {
+                    break;
+                }
+                in.position(in.position() + 4);
+                if (in.get() != TYPE_AUTHORIZE) {
+                    malformed = "unknown frame type";
+                    break;
+                }
+                int requestId = in.getInt();
+                long amountCents = in.getLong();
+                int cardLength = in.get() & 0xFF;
+                if (cardLength > MAX_CARD_LENGTH || cardLength > length - REQUEST_HEADER_LENGTH) {
+                    malformed = "card length does not match the frame";
+                    break;
+                }
+                in.get(card, 0, cardLength);
+                int authorizationIdLength = in.get() & 0xFF;
+                if (authorizationIdLength > MAX_AUTHORIZATION_ID_LENGTH
+                        || cardLength + authorizationIdLength != length - REQUEST_HEADER_LENGTH) {
+                    malformed = "authorization ID length does not match the frame";
+                    break;
+                }
+                in.get(authorizationId, 0, authorizationIdLength);
+                authorize(requestId, amountCents, cardLength, authorizationIdLength);
+            }
+            in.compact();
+            flush();
+            if (malformed != null) {
+                throw new IOException(malformed);
+            }
+            updateInterest();
+        }
+
+        private void authorize(int requestId, long amountCents, int cardLength, int authorizationIdLength)
+                throws IOException {
+            if (!CardNumberValidator.isValidFormat(card, cardLength) || amountCents < 0) {
+                respond(requestId, STATUS_INVALID_CARD);
+                return;
+            }
+            CompletableFuture<Decision> decision;
+            try {
+                decision = authorizationService.authorize(
+                        new String(card, 0, cardLength, StandardCharsets.US_ASCII), amountCents,
+                        authorizationIdLength == 0 ? null
+                                : new String(authorizationId, 0, authorizationIdLength, StandardCharsets.UTF_8));
+            } catch (RuntimeException e) {
+                logger.warning("Binary authorization failed: " + e.getMessage());
+                respond(requestId, STATUS_ERROR);
+                return;
+            }
+            if (decision.isDone() && !decision.isCompletedExceptionally()) {
+                respond(requestId, status(decision.join()));
+                return;
+            }
+            inFlight++;
+            decision.whenComplete((result, error) -> {
+                results.add(new Result(requestId, error == null ? status(result) : STATUS_ERROR, true));
+                if (queued.compareAndSet(false, true)) {
+                    ready.add(this);
+                    selector.wakeup();
+                }
+            });
+        }
+
+        private void respond(int requestId, byte status) throws IOException {
+            if (out.remaining() < RESPONSE_FRAME_SIZE) {
+                flush();
+            }
+            if (out.remaining() < RESPONSE_FRAME_SIZE) {
+                // Client is not reading; keep it until the socket is writable
+                results.add(new Result(requestId, status, false));
+                return;
+            }
+            put(requestId, status);
+        }
+
+        private void drainResults() throws IOException {
+            if (closed) {
+                return;
+            }
+            Result result;
+            while ((result = results.peek()) != null) {
+                if (out.remaining() < RESPONSE_FRAME_SIZE) {
+                    flush();
+                    if (out.remaining() < RESPONSE_FRAME_SIZE) {
+                        break;
+                    }
+                }
+                results.poll();
+                put(result.requestId(), result.status());
+                if (result.async()) {
+                    inFlight--;
+                }
+            }
+        }
+
+        private void put(int requestId, byte status) {
+            out.putInt(RESPONSE_LENGTH).put(TYPE_RESULT).putInt(requestId).put(status);
+        }
+
+        private void flush() throws IOException {
+            out.flip();
+            channel.write(out);
+            out.compact();
+        }
+
+        /**
+         * Write while responses are pending; read only when there is room for more work
+         */
+        private void updateInterest() {
+            boolean backlog = out.position() > 0;
+            int ops = backlog ? SelectionKey.OP_WRITE : 0;
+            if (!backlog && inFlight < maxInFlight) {
+                ops |= SelectionKey.OP_READ;
+            }
+            key.interestOps(ops);
+        }
+
+        private void close() {
+            closed = true;
+            key.cancel();
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // already gone
+            }
+        }
+    }
+}
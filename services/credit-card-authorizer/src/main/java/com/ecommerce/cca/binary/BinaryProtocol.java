@@ -0,0 +1,60 @@
+package com.ecommerce.cca.binary;
+
+import com.ecommerce.cca.service.Decision;
+
+/**
+ * Binary authorization protocol: length-prefixed frames over TCP, big-endian
+ *
+ * Request (34 bytes for a 19-character card number and no authorization ID):
+ * <pre>
+ * int32 length               bytes after this field
+ * int8  type                 1 = authorize
+ * int32 request_id           chosen by the client, echoed in the response
+ * int64 amount_cents         0 if unknown
+ * int8  card_length
+ * byte[card_length]          card number, ASCII, XXXX-XXXX-XXXX-XXXX
+ * int8  authorization_id_length   0 if the client sent none
+ * byte[authorization_id_length]   client-chosen ID, UTF-8; repeats share one decision
+ * </pre>
+ *
+ * Response (10 bytes):
+ * <pre>
+ * int32 length          always 6
+ * int8  type            2 = authorization result
+ * int32 request_id
+ * int8  status          see STATUS_*
+ * </pre>
+ *
+ * Clients may pipeline any number of requests on a connection; responses can arrive in
+ * a different order (requests with simulated latency finish later), so they are matched
+ * by request_id. A malformed frame closes the connection.
+ */
+public final class BinaryProtocol {
+
+    public static final byte TYPE_AUTHORIZE = 1;
+    public static final byte TYPE_RESULT = 2;
+
+    public static final byte STATUS_APPROVED = 0;
+    public static final byte STATUS_DECLINED = 1;
+    public static final byte STATUS_INVALID_CARD = 2;
+    public static final byte STATUS_UNAVAILABLE = 3;
+    public static final byte STATUS_ERROR = 4;
+
+    /** Request frame length without the card number and authorization ID */
+    public static final int REQUEST_HEADER_LENGTH = 1 + 4 + 8 + 1 + 1;
+    public static final int MAX_CARD_LENGTH = 32;
+    /** Same limit as the HTTP request's authorization_id */
+    public static final int MAX_AUTHORIZATION_ID_LENGTH = 64;
+    public static final int RESPONSE_LENGTH = 1 + 4 + 1;
+    public static final int RESPONSE_FRAME_SIZE = 4 + RESPONSE_LENGTH;
+
+    private BinaryProtocol() {
+    }
+
+    public static byte status(Decision decision) {
+        if (decision.isApproved()) {
+            return STATUS_APPROVED;
+        }
+        return decision == Decision.UNAVAILABLE ? STATUS_UNAVAILABLE : STATUS_DECLINED;
+    }
+}
@@ -0,0 +1,221 @@
+package com.ecommerce.cca.cache;
+
+import com.ecommerce.cca.service.Decision;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Decisions by client-supplied authorization ID, so retries and hedged duplicates of one
+ * authorization get the same answer instead of a fresh draw
+ *
+ * - Entries hold the decision's future from the moment it is requested: a duplicate that
+ *   arrives while the first is still in flight waits on it instead of deciding again
+ * - Split into stripes, each a small insertion-ordered map under its own lock; the oldest
+ *   entries are at the head, so expired ones are dropped from there and a full stripe
+ *   evicts its oldest entry
+ * - Entries expire after the TTL, counted from the first request
+ * - UNAVAILABLE (simulated brownout) and failed decisions are not kept: retrying those
+ *   is the point of a retry
+ *
+ * The first request's decision is returned for an ID even if a duplicate carries a
+ * different card or amount; IDs are expected to identify one payment attempt.
+ */
+@Component
+public class DecisionCache implements MeterBinder {
+
+    /**
+     * One lock's share of the entries
+     */
+    private static final class Stripe {
+        final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+    }
+
+    private record Entry(CompletableFuture<Decision> decision, long expiresAtNanos) {
+    }
+
+    private final Stripe[] stripes;
+    private final int stripeCapacity;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder inFlightHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    @Autowired
+    public DecisionCache(@Value("${app.decision-cache.capacity:100000}") int capacity,
+                         @Value("${app.decision-cache.ttl-seconds:600}") long ttlSeconds,
+                         @Value("${app.decision-cache.stripes:64}") int stripes) {
+        this(capacity, TimeUnit.SECONDS.toNanos(ttlSeconds), stripes, System::nanoTime);
+    }
+
+    DecisionCache(int capacity, long ttlNanos, int stripes, LongSupplier clock) {
+        if (Integer.bitCount(stripes) != 1 || capacity < stripes) {
+            throw new IllegalArgumentException("stripes must be a power of two no larger than capacity, got "
+                    + stripes + " for capacity " + capacity);
+        }
+        this.stripes = new Stripe[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new Stripe();
+        }
+        this.stripeCapacity = capacity / stripes;
+        this.ttlNanos = ttlNanos;
+        this.clock = clock;
+    }
+
+    /**
+     * The decision for an authorization ID: the cached or in-flight one, or a new one
+     *
+     * @param authorizationId Client-supplied ID of the payment attempt
+     * @param decide Computes the decision on a miss; called outside any lock
+     */
+    public CompletableFuture<Decision> decide(String authorizationId, Supplier<CompletableFuture<Decision>> decide) {
+        Stripe stripe = stripes[spread(authorizationId.hashCode()) & (stripes.length - 1)];
+        long now = clock.getAsLong();
+        CompletableFuture<Decision> decision;
+        synchronized (stripe) {
+            Entry entry = stripe.entries.get(authorizationId);
+            if (entry != null && entry.expiresAtNanos() - now > 0) {
+                (entry.decision().isDone() ? hits : inFlightHits).increment();
+                return entry.decision();
+            }
+            misses.increment();
+            expire(stripe, now);
+            if (entry == null && stripe.entries.size() >= stripeCapacity) {
+                Iterator<Entry> eldest = stripe.entries.values().iterator();
+                eldest.next();
+                eldest.remove();
+                evictions.increment();
+            }
+            decision = new CompletableFuture<>();
+            // Removing first moves a re-added (expired) key to the tail
+            stripe.entries.remove(authorizationId);
+            stripe.entries.put(authorizationId, new Entry(decision, now + ttlNanos));
+        }
+        CompletableFuture<Decision> computed;
+        try {
+            computed = decide.get();
+        } catch (RuntimeException e) {
+            computed = CompletableFuture.failedFuture(e);
+        }
+        computed.whenComplete((result, error) -> {
+            if (error != null || result == Decision.UNAVAILABLE) {
+                forget(stripe, authorizationId, decision);
+            }
+            if (error != null) {
+                decision.completeExceptionally(error);
+            } else {
+                decision.complete(result);
+            }
+        });
+        return decision;
+    }
+
+    private void forget(Stripe stripe, String authorizationId, CompletableFuture<Decision> decision) {
+        synchronized (stripe) {
+            Entry entry = stripe.entries.get(authorizationId);
+            if (entry != null && entry.decision() == decision) {
+                stripe.entries.remove(authorizationId);
+            }
+        }
+    }
+
+    /**
+     * Drop expired entries from the head; insertion order means they are all there
+     */
+    private void expire(Stripe stripe, long now) {
+        Iterator<Entry> iterator = stripe.entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().expiresAtNanos() - now > 0) {
+                return;
+            }
+            iterator.remove();
+            expirations.increment();
+        }
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.entries.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Share of lookups answered from the cache, finished or in flight
+     */
+    public double hitRate() {
+        long answered = hits.sum() + inFlightHits.sum();
+        long total = answered + misses.sum();
+        return total == 0 ? 0 : (double) answered / total;
+    }
+
+    long hits() {
+        return hits.sum();
+    }
+
+    long inFlightHits() {
+        return inFlightHits.sum();
+    }
+
+    long evictions() {
+        return evictions.sum();
+    }
+
+    long expirations() {
+        return expirations.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cca.decision.cache.requests", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .description("Authorizations answered with a cached decision")
+                .register(registry);
+        FunctionCounter.builder("cca.decision.cache.requests", inFlightHits, LongAdder::sum)
+                .tag("result", "in_flight")
+                .description("Duplicate authorizations that waited on the first one's decision")
+                .register(registry);
+        FunctionCounter.builder("cca.decision.cache.requests", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .description("Authorizations decided afresh")
+                .register(registry);
+        FunctionCounter.builder("cca.decision.cache.evictions", evictions, LongAdder::sum)
+                .tag("cause", "size")
+                .description("Decisions dropped to make room")
+                .register(registry);
+        FunctionCounter.builder("cca.decision.cache.evictions", expirations, LongAdder::sum)
+                .tag("cause", "expired")
+                .description("Decisions dropped after their TTL")
+                .register(registry);
+        Gauge.builder("cca.decision.cache.size", this, DecisionCache::size)
+                .description("Cached and in-flight decisions")
+                .register(registry);
+        Gauge.builder("cca.decision.cache.hit.rate", this, DecisionCache::hitRate)
+                .description("Share of authorizations with an ID answered from the cache")
+                .register(registry);
+    }
+}
@@ -3,6 +3,7 @@ package com.ecommerce.cca.controller;
 import com.ecommerce.cca.model.AuthorizationRequest;
 import com.ecommerce.cca.model.ErrorResponse;
 import com.ecommerce.cca.service.AuthorizationService;
+import com.ecommerce.cca.service.Decision;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -11,6 +12,7 @@ import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Logger;
 
 /**
@@ -50,12 +52,15 @@ public class CreditCardController {
      * - 200 OK: Payment authorized
      * - 400 BAD REQUEST: Invalid card format
      * - 402 PAYMENT REQUIRED: Payment declined
+     * - 503 SERVICE UNAVAILABLE: Simulated card network failure (brownout)
      *
-     * @param request Authorization request with credit card number
+     * Completes asynchronously, so simulated latency does not hold a request thread.
+     *
+     * @param request Authorization request with credit card number, optional amount and authorization ID
      * @return ResponseEntity with appropriate status code
      */
     @PostMapping("/authorize")
-    public ResponseEntity<?> authorize(@Valid @RequestBody AuthorizationRequest request) {
+    public CompletableFuture<ResponseEntity<?>> authorize(@Valid @RequestBody AuthorizationRequest request) {
 
         String cardNumber = request.getCreditCardNumber();
         logger.info("Received authorization request");
@@ -63,34 +68,46 @@ public class CreditCardController {
         // Double-check format validation (should be caught by @Valid annotation)
         if (!authorizationService.validateFormat(cardNumber)) {
             logger.warning("Invalid card format received: " + cardNumber);
-            return ResponseEntity
+            return CompletableFuture.completedFuture(ResponseEntity
                     .status(HttpStatus.BAD_REQUEST)
                     .body(new ErrorResponse(
                             "INVALID_CARD_FORMAT",
                             "Credit card number must be in format XXXX-XXXX-XXXX-XXXX",
                             "Received format does not match required pattern"
-                    ));
+                    )));
         }
 
         // Attempt authorization
-        // 90% of requests will be authorized, 10% will be declined
-        boolean isAuthorized = authorizationService.authorize(cardNumber);
+        long amountCents = request.getAmount() == null ? 0 : request.getAmount().movePointRight(2).longValueExact();
+        return authorizationService.authorize(cardNumber, amountCents, request.getAuthorizationId())
+                .thenApply(this::toResponse);
+    }
 
-        if (isAuthorized) {
+    private ResponseEntity<?> toResponse(Decision decision) {
+        if (decision.isApproved()) {
             logger.info("Authorization APPROVED");
             // Return 200 OK with empty body for authorized transactions
             return ResponseEntity.ok().build();
-        } else {
-            logger.info("Authorization DECLINED");
-            // Return 402 Payment Required for declined transactions
+        }
+        if (decision == Decision.UNAVAILABLE) {
+            logger.info("Authorization UNAVAILABLE (simulated brownout)");
             return ResponseEntity
-                    .status(HttpStatus.PAYMENT_REQUIRED) // 402
+                    .status(HttpStatus.SERVICE_UNAVAILABLE)
                     .body(new ErrorResponse(
-                            "PAYMENT_DECLINED",
-                            "Credit card authorization was declined",
-                            "Please try a different payment method"
+                            "SERVICE_UNAVAILABLE",
+                            "Card network is unavailable",
+                            "Please try again later"
                     ));
         }
+        logger.info("Authorization DECLINED: " + decision);
+        // Return 402 Payment Required for declined transactions
+        return ResponseEntity
+                .status(HttpStatus.PAYMENT_REQUIRED) // 402
+                .body(new ErrorResponse(
+                        "PAYMENT_DECLINED",
+                        "Credit card authorization was declined",
+                        "Please try a different payment method"
+                ));
     }
 
     /**
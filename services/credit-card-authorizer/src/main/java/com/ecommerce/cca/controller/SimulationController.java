@@ -0,0 +1,51 @@
+package com.ecommerce.cca.controller;
+
+import com.ecommerce.cca.model.ErrorResponse;
+import com.ecommerce.cca.simulation.PaymentSimulator;
+import com.ecommerce.cca.simulation.SimulationProfile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Admin endpoints for the card network simulation
+ * Endpoints:
+ * - GET /credit-card-authorizer/admin/simulation - The active profile
+ * - PUT /credit-card-authorizer/admin/simulation - Apply a profile (JSON body)
+ * - POST /credit-card-authorizer/admin/simulation/presets/{name} - Apply instant, realistic or degraded
+ */
+@RestController
+@RequestMapping("/credit-card-authorizer/admin/simulation")
+public class SimulationController {
+
+    private final PaymentSimulator simulator;
+
+    public SimulationController(PaymentSimulator simulator) {
+        this.simulator = simulator;
+    }
+
+    @GetMapping
+    public SimulationProfile get() {
+        return simulator.getProfile();
+    }
+
+    @PutMapping
+    public SimulationProfile apply(@RequestBody SimulationProfile profile) {
+        simulator.apply(profile);
+        return profile;
+    }
+
+    @PostMapping("/presets/{name}")
+    public SimulationProfile applyPreset(@PathVariable String name) {
+        SimulationProfile profile = SimulationProfile.preset(name);
+        simulator.apply(profile);
+        return profile;
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidProfile(IllegalArgumentException ex) {
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(new ErrorResponse("INVALID_PROFILE", ex.getMessage()));
+    }
+}
@@ -0,0 +1,95 @@
+package com.ecommerce.cca.fraud;
+
+import java.security.SecureRandom;
+
+/**
+ * Turns card numbers into 64-bit tokens for the fraud tables
+ * Card numbers are never stored: each one is reduced to a SipHash-2-4 of its digits
+ * under a key drawn at startup, so tokens are uniform (good hash table keys) and
+ * cannot be turned back into card numbers without the key.
+ */
+public final class CardTokenizer {
+
+    private final long k0;
+    private final long k1;
+
+    public CardTokenizer() {
+        SecureRandom random = new SecureRandom();
+        this.k0 = random.nextLong();
+        this.k1 = random.nextLong();
+    }
+
+    CardTokenizer(long k0, long k1) {
+        this.k0 = k0;
+        this.k1 = k1;
+    }
+
+    /**
+     * Parse a 16-digit card number, dashes allowed, without allocating
+     *
+     * @param creditCardNumber Card number such as 1234-5678-9012-3456
+     * @return The digits as a number, or -1 if there are not exactly 16 digits
+     */
+    public static long digits(String creditCardNumber) {
+        long digits = 0;
+        int count = 0;
+        for (int i = 0; i < creditCardNumber.length(); i++) {
+            char c = creditCardNumber.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits = digits * 10 + (c - '0');
+                count++;
+            } else if (c != '-') {
+                return -1;
+            }
+        }
+        return count == 16 ? digits : -1;
+    }
+
+    /**
+     * Bank identification number: the first 6 digits
+     */
+    public static int bin(long digits) {
+        return (int) (digits / 10_000_000_000L);
+    }
+
+    /**
+     * Token of a card, never 0 (the fraud tables use 0 for empty slots)
+     *
+     * @param digits Card digits from {@link #digits(String)}
+     */
+    public long token(long digits) {
+        long v0 = k0 ^ 0x736f6d6570736575L;
+        long v1 = k1 ^ 0x646f72616e646f6dL;
+        long v2 = k0 ^ 0x6c7967656e657261L;
+        long v3 = k1 ^ 0x7465646279746573L;
+
+        // One 8-byte message word, then the final word holding the length (8) in its top byte
+        long m = digits;
+        long last = 8L << 56;
+        v3 ^= m;
+        for (int i = 0; i < 2; i++) {
+            v0 += v1; v1 = Long.rotateLeft(v1, 13); v1 ^= v0; v0 = Long.rotateLeft(v0, 32);
+            v2 += v3; v3 = Long.rotateLeft(v3, 16); v3 ^= v2;
+            v0 += v3; v3 = Long.rotateLeft(v3, 21); v3 ^= v0;
+            v2 += v1; v1 = Long.rotateLeft(v1, 17); v1 ^= v2; v2 = Long.rotateLeft(v2, 32);
+        }
+        v0 ^= m;
+        v3 ^= last;
+        for (int i = 0; i < 2; i++) {
+            v0 += v1; v1 = Long.rotateLeft(v1, 13); v1 ^= v0; v0 = Long.rotateLeft(v0, 32);
+            v2 += v3; v3 = Long.rotateLeft(v3, 16); v3 ^= v2;
+            v0 += v3; v3 = Long.rotateLeft(v3, 21); v3 ^= v0;
+            v2 += v1; v1 = Long.rotateLeft(v1, 17); v1 ^= v2; v2 = Long.rotateLeft(v2, 32);
+        }
+        v0 ^= last;
+        v2 ^= 0xff;
+        for (int i = 0; i < 4; i++) {
+            v0 += v1; v1 = Long.rotateLeft(v1, 13); v1 ^= v0; v0 = Long.rotateLeft(v0, 32);
+            v2 += v3; v3 = Long.rotateLeft(v3, 16); v3 ^= v2;
+            v0 += v3; v3 = Long.rotateLeft(v3, 21); v3 ^= v0;
+            v2 += v1; v1 = Long.rotateLeft(v1, 17); v1 ^= v2; v2 = Long.rotateLeft(v2, 32);
+        }
+        long token = v0 ^ v1 ^ v2 ^ v3;
+        return token == 0 ? 1 : token;
+    }
+}
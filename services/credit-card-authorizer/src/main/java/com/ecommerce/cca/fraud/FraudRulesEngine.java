@@ -0,0 +1,136 @@
+package com.ecommerce.cca.fraud;
+
+import com.ecommerce.cca.service.AuthorizationPolicy;
+import com.ecommerce.cca.service.Decision;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.logging.Logger;
+
+/**
+ * Rules-based authorization, checked in this order:
+ * 1. Blocklists: BINs (first 6 digits) and individual cards
+ * 2. Single transaction amount limit
+ * 3. Per-card velocity: attempts and total amount within a sliding window
+ * 4. Per-BIN velocity: attempts on all cards of a BIN within a sliding window
+ *
+ * Every attempt that reaches the velocity checks is counted, declined or not, so a card
+ * being tested stays declined while the attempts continue. A limit of 0 disables its rule.
+ * Cards are tracked by token (see {@link CardTokenizer}), never by number.
+ *
+ * Active unless the "random" profile is.
+ */
+@Component
+@Profile("!random")
+public class FraudRulesEngine implements AuthorizationPolicy {
+
+    private static final Logger logger = Logger.getLogger(FraudRulesEngine.class.getName());
+
+    private static final int BUCKETS = 6;
+    private static final int BIN_CAPACITY = 1 << 16;
+
+    private final CardTokenizer tokenizer = new CardTokenizer();
+    private final VelocityTable cards;
+    private final VelocityTable bins;
+
+    private final int cardMaxAttempts;
+    private final long cardMaxAmountCents;
+    private final int binMaxAttempts;
+    private final long maxTransactionCents;
+    private final long[] blockedCards;
+    private final int[] blockedBins;
+
+    public FraudRulesEngine(
+            @Value("${app.fraud.card.max-attempts:10}") int cardMaxAttempts,
+            @Value("${app.fraud.card.max-amount:5000.00}") BigDecimal cardMaxAmount,
+            @Value("${app.fraud.card.window-seconds:600}") int cardWindowSeconds,
+            @Value("${app.fraud.bin.max-attempts:5000}") int binMaxAttempts,
+            @Value("${app.fraud.bin.window-seconds:60}") int binWindowSeconds,
+            @Value("${app.fraud.max-transaction-amount:2500.00}") BigDecimal maxTransactionAmount,
+            @Value("${app.fraud.blocked-cards:}") String[] blockedCards,
+            @Value("${app.fraud.blocked-bins:}") String[] blockedBins,
+            @Value("${app.fraud.capacity:262144}") int capacity,
+            @Value("${app.fraud.stripes:64}") int stripes) {
+        if (cardMaxAttempts > 0xFFFF || binMaxAttempts > 0xFFFF) {
+            throw new IllegalArgumentException("Attempt limits above 65535 are not supported");
+        }
+        this.cardMaxAttempts = cardMaxAttempts;
+        this.cardMaxAmountCents = toCents(cardMaxAmount);
+        this.binMaxAttempts = binMaxAttempts;
+        this.maxTransactionCents = toCents(maxTransactionAmount);
+        this.cards = new VelocityTable(capacity, stripes, cardWindowSeconds, BUCKETS);
+        this.bins = new VelocityTable(BIN_CAPACITY, stripes, binWindowSeconds, BUCKETS);
+
+        this.blockedCards = Arrays.stream(blockedCards)
+                .map(String::trim)
+                .filter(card -> !card.isEmpty())
+                .mapToLong(card -> {
+                    long digits = CardTokenizer.digits(card);
+                    if (digits < 0) {
+                        throw new IllegalArgumentException("Blocked card is not a 16-digit card number");
+                    }
+                    return tokenizer.token(digits);
+                })
+                .sorted()
+                .toArray();
+        this.blockedBins = Arrays.stream(blockedBins)
+                .map(String::trim)
+                .filter(bin -> !bin.isEmpty())
+                .mapToInt(Integer::parseInt)
+                .sorted()
+                .toArray();
+
+        logger.info(String.format(
+                "Fraud rules: card %d attempts / %.2f per %ds, BIN %d attempts per %ds, "
+                        + "transaction limit %.2f, %d blocked cards, %d blocked BINs",
+                cardMaxAttempts, cardMaxAmountCents / 100.0, cardWindowSeconds, binMaxAttempts,
+                binWindowSeconds, maxTransactionCents / 100.0, this.blockedCards.length, this.blockedBins.length));
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).longValue();
+    }
+
+    @Override
+    public Decision decide(String creditCardNumber, long amountCents) {
+        return decide(creditCardNumber, amountCents, System.currentTimeMillis() / 1000);
+    }
+
+    Decision decide(String creditCardNumber, long amountCents, long nowSeconds) {
+        long digits = CardTokenizer.digits(creditCardNumber);
+        if (digits < 0) {
+            throw new IllegalArgumentException("Credit card number must have 16 digits");
+        }
+        if (amountCents < 0) {
+            throw new IllegalArgumentException("Amount must not be negative");
+        }
+        int bin = CardTokenizer.bin(digits);
+        long token = tokenizer.token(digits);
+
+        if (Arrays.binarySearch(blockedBins, bin) >= 0) {
+            return Decision.BLOCKED_BIN;
+        }
+        if (Arrays.binarySearch(blockedCards, token) >= 0) {
+            return Decision.BLOCKED_CARD;
+        }
+        if (maxTransactionCents > 0 && amountCents > maxTransactionCents) {
+            return Decision.AMOUNT_LIMIT;
+        }
+
+        long cardWindow = cards.add(token, nowSeconds, amountCents);
+        long binWindow = bins.add(bin + 1, nowSeconds, 0);
+        if (cardMaxAttempts > 0 && VelocityTable.count(cardWindow) > cardMaxAttempts) {
+            return Decision.CARD_VELOCITY;
+        }
+        if (cardMaxAmountCents > 0 && VelocityTable.amount(cardWindow) > cardMaxAmountCents) {
+            return Decision.CARD_AMOUNT_VELOCITY;
+        }
+        if (binMaxAttempts > 0 && VelocityTable.count(binWindow) > binMaxAttempts) {
+            return Decision.BIN_VELOCITY;
+        }
+        return Decision.APPROVED;
+    }
+}
@@ -0,0 +1,170 @@
+package com.ecommerce.cca.fraud;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sliding-window attempt and amount counters per key (card token or BIN)
+ *
+ * - Open addressing over primitive arrays, split into stripes that each have their own
+ *   lock, so there are no boxed keys, entry objects or per-call allocations
+ * - Each key has a ring of time buckets; the window is the last {@code buckets} buckets,
+ *   so it slides in steps of one bucket
+ * - A bucket packs its attempt count (top 16 bits) and amount (low 48 bits) into one long
+ * - A key whose window has passed frees its slot; when all probed slots are live, the
+ *   one seen longest ago is evicted, so a full table forgets the quietest keys first
+ *
+ * Memory is about (16 + 16 * buckets) bytes per slot.
+ */
+public final class VelocityTable {
+
+    private static final int MAX_PROBES = 8;
+    private static final int COUNT_SHIFT = 48;
+    private static final long AMOUNT_MASK = (1L << COUNT_SHIFT) - 1;
+    private static final long MAX_COUNT = 0xFFFF;
+    private static final long NEVER = Long.MIN_VALUE;
+
+    /**
+     * One lock's share of the slots
+     */
+    private static final class Stripe {
+        final long[] keys;
+        final long[] lastEpochs;
+        final long[] bucketEpochs;
+        final long[] buckets;
+
+        Stripe(int slots, int bucketsPerKey) {
+            keys = new long[slots];
+            lastEpochs = new long[slots];
+            bucketEpochs = new long[slots * bucketsPerKey];
+            buckets = new long[slots * bucketsPerKey];
+            Arrays.fill(bucketEpochs, NEVER);
+        }
+    }
+
+    private final Stripe[] stripes;
+    private final int slotMask;
+    private final int bucketsPerKey;
+    private final long bucketSeconds;
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param capacity Keys tracked, a power of two
+     * @param stripes Lock stripes, a power of two
+     * @param windowSeconds Window length
+     * @param buckets Buckets the window is split into
+     */
+    public VelocityTable(int capacity, int stripes, int windowSeconds, int buckets) {
+        if (Integer.bitCount(capacity) != 1 || Integer.bitCount(stripes) != 1
+                || capacity / stripes < MAX_PROBES) {
+            throw new IllegalArgumentException("capacity and stripes must be powers of two with at least "
+                    + MAX_PROBES + " slots per stripe, got " + capacity + " and " + stripes);
+        }
+        if (windowSeconds < 1 || buckets < 1) {
+            throw new IllegalArgumentException("window and buckets must be positive");
+        }
+        this.stripes = new Stripe[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new Stripe(capacity / stripes, buckets);
+        }
+        this.slotMask = capacity / stripes - 1;
+        this.bucketsPerKey = buckets;
+        this.bucketSeconds = (windowSeconds + buckets - 1) / buckets;
+    }
+
+    /**
+     * Count one attempt for a key
+     *
+     * @param key Non-zero key
+     * @param nowSeconds Current time
+     * @param amount Amount of the attempt, not negative
+     * @return The window including this attempt, read with {@link #count} and {@link #amount}
+     */
+    public long add(long key, long nowSeconds, long amount) {
+        if (key == 0) {
+            throw new IllegalArgumentException("key 0 is reserved for empty slots");
+        }
+        long hash = key * 0x9E3779B97F4A7C15L;
+        hash ^= hash >>> 29;
+        Stripe stripe = stripes[(int) (hash >>> 32) & (stripes.length - 1)];
+        long epoch = nowSeconds / bucketSeconds;
+
+        synchronized (stripe) {
+            int slot = findOrClaim(stripe, key, (int) hash & slotMask, epoch);
+            stripe.lastEpochs[slot] = epoch;
+            int base = slot * bucketsPerKey;
+
+            int current = base + (int) (epoch % bucketsPerKey);
+            if (stripe.bucketEpochs[current] != epoch) {
+                stripe.bucketEpochs[current] = epoch;
+                stripe.buckets[current] = 0;
+            }
+            long bucket = stripe.buckets[current];
+            stripe.buckets[current] = pack((bucket >>> COUNT_SHIFT) + 1, (bucket & AMOUNT_MASK) + amount);
+
+            long count = 0;
+            long total = 0;
+            for (int i = base; i < base + bucketsPerKey; i++) {
+                if (stripe.bucketEpochs[i] > epoch - bucketsPerKey) {
+                    count += stripe.buckets[i] >>> COUNT_SHIFT;
+                    total += stripe.buckets[i] & AMOUNT_MASK;
+                }
+            }
+            return pack(count, total);
+        }
+    }
+
+    private int findOrClaim(Stripe stripe, long key, int start, long epoch) {
+        int free = -1;
+        int oldest = -1;
+        long oldestEpoch = Long.MAX_VALUE;
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            int slot = (start + probe) & slotMask;
+            long slotKey = stripe.keys[slot];
+            if (slotKey == key) {
+                return slot;
+            }
+            if (free < 0 && (slotKey == 0 || stripe.lastEpochs[slot] <= epoch - bucketsPerKey)) {
+                free = slot;
+            }
+            if (stripe.lastEpochs[slot] < oldestEpoch) {
+                oldestEpoch = stripe.lastEpochs[slot];
+                oldest = slot;
+            }
+        }
+        if (free < 0) {
+            free = oldest;
+            evictions.increment();
+        }
+        stripe.keys[free] = key;
+        int base = free * bucketsPerKey;
+        Arrays.fill(stripe.bucketEpochs, base, base + bucketsPerKey, NEVER);
+        Arrays.fill(stripe.buckets, base, base + bucketsPerKey, 0);
+        return free;
+    }
+
+    private static long pack(long count, long amount) {
+        return Math.min(count, MAX_COUNT) << COUNT_SHIFT | Math.min(amount, AMOUNT_MASK);
+    }
+
+    /**
+     * Attempts in a window returned by {@link #add}, saturating at 65535
+     */
+    public static int count(long window) {
+        return (int) (window >>> COUNT_SHIFT);
+    }
+
+    /**
+     * Amount in a window returned by {@link #add}
+     */
+    public static long amount(long window) {
+        return window & AMOUNT_MASK;
+    }
+
+    /**
+     * Live keys evicted because their probe sequence was full
+     */
+    public long evictions() {
+        return evictions.sum();
+    }
+}
@@ -0,0 +1,298 @@
+package com.ecommerce.cca.lean;
+
+import com.ecommerce.cca.validation.CardNumberValidator;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Hand-written reader for the authorize request body:
+ * {"credit_card_number": "...", "amount": 12.34, "authorization_id": "..."}
+ *
+ * Accepts what the Spring endpoint's Jackson binding accepts: fields in any order, unknown
+ * fields (skipped, nested or not), null values, scalars as the card number, a quoted amount
+ * and trailing content after the object. Only the known fields are materialized.
+ * Validation mirrors the bean constraints on {@link com.ecommerce.cca.model.AuthorizationRequest}.
+ */
+final class AuthorizeBody {
+
+    /**
+     * The constraint a body breaks, with the message the Spring endpoint reports for it
+     */
+    enum Violation {
+        CARD_REQUIRED("Credit card number is required"),
+        CARD_FORMAT("Credit card must be in format: 1234-5678-9012-3456"),
+        AMOUNT_NEGATIVE("Amount must not be negative"),
+        AMOUNT_DIGITS("Amount must have at most 2 decimal places"),
+        AUTHORIZATION_ID_LENGTH("Authorization ID must be at most 64 characters");
+
+        private final String message;
+
+        Violation(String message) {
+            this.message = message;
+        }
+
+        String message() {
+            return message;
+        }
+    }
+
+    private static final int MAX_AMOUNT_INTEGER_DIGITS = 10;
+    private static final int MAX_AMOUNT_FRACTION_DIGITS = 2;
+    private static final int MAX_AUTHORIZATION_ID_LENGTH = 64;
+
+    private final byte[] bytes;
+    private final int end;
+    private int pos;
+
+    private String creditCardNumber;
+    private BigDecimal amount;
+    private String authorizationId;
+
+    private AuthorizeBody(byte[] bytes, int length) {
+        this.bytes = bytes;
+        this.end = length;
+    }
+
+    /**
+     * @throws IllegalArgumentException If the body is not a JSON object
+     */
+    static AuthorizeBody parse(byte[] bytes, int length) {
+        AuthorizeBody body = new AuthorizeBody(bytes, length);
+        body.readObject();
+        return body;
+    }
+
+    String creditCardNumber() {
+        return creditCardNumber;
+    }
+
+    BigDecimal amount() {
+        return amount;
+    }
+
+    String authorizationId() {
+        return authorizationId;
+    }
+
+    /**
+     * @return The first broken constraint, or null if the request is valid
+     */
+    Violation validate() {
+        if (creditCardNumber == null || creditCardNumber.isBlank()) {
+            return Violation.CARD_REQUIRED;
+        }
+        if (!CardNumberValidator.isValidFormat(creditCardNumber)) {
+            return Violation.CARD_FORMAT;
+        }
+        if (amount != null) {
+            if (amount.signum() < 0) {
+                return Violation.AMOUNT_NEGATIVE;
+            }
+            // Same digit counting as the @Digits validator
+            BigDecimal stripped = amount.stripTrailingZeros();
+            int fractionDigits = Math.max(stripped.scale(), 0);
+            int integerDigits = Math.max(stripped.precision() - stripped.scale(), 0);
+            if (integerDigits > MAX_AMOUNT_INTEGER_DIGITS || fractionDigits > MAX_AMOUNT_FRACTION_DIGITS) {
+                return Violation.AMOUNT_DIGITS;
+            }
+        }
+        if (authorizationId != null && authorizationId.length() > MAX_AUTHORIZATION_ID_LENGTH) {
+            return Violation.AUTHORIZATION_ID_LENGTH;
+        }
+        return null;
+    }
+
+    private void readObject() {
+        skipWhitespace();
+        expect('{');
+        skipWhitespace();
+        if (peek() == '}') {
+            pos++;
+            return;
+        }
+        while (true) {
+            skipWhitespace();
+            String field = readString();
+            skipWhitespace();
+            expect(':');
+            skipWhitespace();
+            switch (field) {
+                case "credit_card_number" -> creditCardNumber = readScalar();
+                case "amount" -> amount = readAmount();
+                case "authorization_id" -> authorizationId = readScalar();
+                default -> skipValue();
+            }
+            skipWhitespace();
+            byte next = next();
+            if (next == '}') {
+                return;
+            }
+            if (next != ',') {
+                throw malformed();
+            }
+        }
+    }
+
+    /**
+     * A string, or the text of a number or boolean; null for null
+     */
+    private String readScalar() {
+        byte first = peek();
+        if (first == '"') {
+            return readString();
+        }
+        if (first == '{' || first == '[') {
+            throw malformed();
+        }
+        String text = readLiteral();
+        return text.equals("null") ? null : text;
+    }
+
+    private BigDecimal readAmount() {
+        String text = readScalar();
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        try {
+            return new BigDecimal(text.trim());
+        } catch (NumberFormatException e) {
+            throw malformed();
+        }
+    }
+
+    private String readString() {
+        expect('"');
+        int start = pos;
+        // Card numbers never need escapes, so only fall back to a builder when one appears
+        while (pos < end && bytes[pos] != '"' && bytes[pos] != '\\') {
+            pos++;
+        }
+        if (pos < end && bytes[pos] == '"') {
+            return new String(bytes, start, pos++ - start, StandardCharsets.UTF_8);
+        }
+        StringBuilder text = new StringBuilder(new String(bytes, start, pos - start, StandardCharsets.UTF_8));
+        int run = pos;
+        while (true) {
+            if (pos >= end) {
+                throw malformed();
+            }
+            byte b = bytes[pos];
+            if (b == '"') {
+                text.append(new String(bytes, run, pos - run, StandardCharsets.UTF_8));
+                pos++;
+                return text.toString();
+            }
+            if (b != '\\') {
+                pos++;
+                continue;
+            }
+            text.append(new String(bytes, run, pos - run, StandardCharsets.UTF_8));
+            pos++;
+            byte escaped = next();
+            switch (escaped) {
+                case '"', '\\', '/' -> text.append((char) escaped);
+                case 'b' -> text.append('\b');
+                case 'f' -> text.append('\f');
+                case 'n' -> text.append('\n');
+                case 'r' -> text.append('\r');
+                case 't' -> text.append('\t');
+                case 'u' -> {
+                    if (pos + 4 > end) {
+                        throw malformed();
+                    }
+                    try {
+                        text.append((char) Integer.parseInt(new String(bytes, pos, 4, StandardCharsets.US_ASCII), 16));
+                    } catch (NumberFormatException e) {
+                        throw malformed();
+                    }
+                    pos += 4;
+                }
+                default -> throw malformed();
+            }
+            run = pos;
+        }
+    }
+
+    /**
+     * Skip any value, tracking nesting and strings (whose brackets do not count)
+     */
+    private void skipValue() {
+        byte first = peek();
+        if (first == '"') {
+            readString();
+            return;
+        }
+        if (first != '{' && first != '[') {
+            readLiteral();
+            return;
+        }
+        int depth = 0;
+        do {
+            byte b = peek();
+            if (b == '"') {
+                readString();
+                continue;
+            }
+            if (b == '{' || b == '[') {
+                depth++;
+            } else if (b == '}' || b == ']') {
+                depth--;
+            }
+            pos++;
+        } while (depth > 0);
+    }
+
+    /**
+     * true, false, null or a number
+     */
+    private String readLiteral() {
+        int start = pos;
+        while (pos < end) {
+            byte b = bytes[pos];
+            if (b == ',' || b == '}' || b == ']' || b == ' ' || b == '\t' || b == '\n' || b == '\r') {
+                break;
+            }
+            pos++;
+        }
+        String text = new String(bytes, start, pos - start, StandardCharsets.US_ASCII);
+        if (text.equals("true") || text.equals("false") || text.equals("null")) {
+            return text;
+        }
+        try {
+            new BigDecimal(text);
+            return text;
+        } catch (NumberFormatException e) {
+            throw malformed();
+        }
+    }
+
+    private void skipWhitespace() {
+        while (pos < end && (bytes[pos] == ' ' || bytes[pos] == '\t' || bytes[pos] == '\n' || bytes[pos] == '\r')) {
+            pos++;
+        }
+    }
+
+    private void expect(char c) {
+        if (next() != c) {
+            throw malformed();
+        }
+    }
+
+    private byte peek() {
+        if (pos >= end) {
+            throw malformed();
+        }
+        return bytes[pos];
+    }
+
+    private byte next() {
+        byte b = peek();
+        pos++;
+        return b;
+    }
+
+    private IllegalArgumentException malformed() {
+        return new IllegalArgumentException("Malformed JSON body at offset " + pos);
+    }
+}
@@ -0,0 +1,203 @@
+package com.ecommerce.cca.lean;
+
+import com.ecommerce.cca.model.ErrorResponse;
+import com.ecommerce.cca.service.AuthorizationService;
+import com.ecommerce.cca.service.Decision;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Logger;
+
+/**
+ * Lean HTTP listener for the authorize hot path, bypassing Spring MVC
+ *
+ * Endpoints:
+ * - POST /credit-card-authorizer/authorize - Same contract as the Spring endpoint
+ *
+ * Runs on the JDK's built-in HTTP server with one virtual thread per request, so waiting
+ * on simulated latency costs no platform thread. The body is read by {@link AuthorizeBody}
+ * instead of Jackson and every response body is serialized once at startup with the
+ * application's ObjectMapper, so status codes and bytes match the Spring endpoint.
+ * Decisions come from the same {@link AuthorizationService}.
+ * Health and admin endpoints stay on the Spring port.
+ *
+ * Off by default: enable with {@code LEAN_HTTP_ENABLED=true}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.lean.enabled", havingValue = "true")
+public class LeanAuthorizationServer {
+
+    private static final Logger logger = Logger.getLogger(LeanAuthorizationServer.class.getName());
+
+    static final String PATH = "/credit-card-authorizer/authorize";
+
+    /** Bodies are a card number and an amount; anything this large is not an authorization */
+    private static final int MAX_BODY_BYTES = 4096;
+
+    private final AuthorizationService authorizationService;
+    private final int configuredPort;
+
+    private final byte[] declinedBody;
+    private final byte[] unavailableBody;
+    private final byte[] internalErrorBody;
+    private final Map<AuthorizeBody.Violation, byte[]> violationBodies = new EnumMap<>(AuthorizeBody.Violation.class);
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public LeanAuthorizationServer(AuthorizationService authorizationService,
+                                   ObjectMapper objectMapper,
+                                   @Value("${app.lean.port:8093}") int port) throws JsonProcessingException {
+        this.authorizationService = authorizationService;
+        this.configuredPort = port;
+        this.declinedBody = objectMapper.writeValueAsBytes(new ErrorResponse(
+                "PAYMENT_DECLINED",
+                "Credit card authorization was declined",
+                "Please try a different payment method"
+        ));
+        this.unavailableBody = objectMapper.writeValueAsBytes(new ErrorResponse(
+                "SERVICE_UNAVAILABLE",
+                "Card network is unavailable",
+                "Please try again later"
+        ));
+        this.internalErrorBody = objectMapper.writeValueAsBytes(new ErrorResponse(
+                "INTERNAL_ERROR",
+                "An unexpected error occurred",
+                "Please try again later"
+        ));
+        for (AuthorizeBody.Violation violation : AuthorizeBody.Violation.values()) {
+            violationBodies.put(violation, objectMapper.writeValueAsBytes(new ErrorResponse(
+                    "VALIDATION_ERROR",
+                    violation.message(),
+                    "Check credit card number format: XXXX-XXXX-XXXX-XXXX"
+            )));
+        }
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        // Without TCP_NODELAY, keep-alive round trips stall on Nagle and took twice as long;
+        // the JDK server reads this once, when the first server is created
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server = HttpServer.create(new InetSocketAddress(configuredPort), 1024);
+        server.createContext(PATH, this::handle);
+        server.setExecutor(executor);
+        server.start();
+        logger.info("Lean authorize endpoint listening on port " + getPort());
+    }
+
+    /**
+     * The bound port (useful when configured as 0)
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    @PreDestroy
+    public void stop() {
+        server.stop(1);
+        executor.shutdown();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            // Contexts match by prefix; only the exact path is ours
+            if (!PATH.equals(exchange.getRequestURI().getPath())) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", "POST");
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] buffer = new byte[MAX_BODY_BYTES];
+            int length = readBody(exchange.getRequestBody(), buffer);
+            if (length < 0) {
+                exchange.sendResponseHeaders(413, -1);
+                return;
+            }
+            respond(exchange, authorize(buffer, length));
+        }
+    }
+
+    /**
+     * @return The status and body to send; a null body for 200 (approved has no body)
+     */
+    private Response authorize(byte[] buffer, int length) {
+        AuthorizeBody body;
+        try {
+            body = AuthorizeBody.parse(buffer, length);
+        } catch (IllegalArgumentException e) {
+            // Spring's generic handler answers missing and unreadable bodies with 500
+            return new Response(500, internalErrorBody);
+        }
+        AuthorizeBody.Violation violation = body.validate();
+        if (violation != null) {
+            return new Response(400, violationBodies.get(violation));
+        }
+        try {
+            long amountCents = body.amount() == null ? 0 : body.amount().movePointRight(2).longValueExact();
+            Decision decision = authorizationService.authorize(
+                    body.creditCardNumber(), amountCents, body.authorizationId()).join();
+            if (decision.isApproved()) {
+                return new Response(200, null);
+            }
+            if (decision == Decision.UNAVAILABLE) {
+                return new Response(503, unavailableBody);
+            }
+            return new Response(402, declinedBody);
+        } catch (RuntimeException e) {
+            logger.severe("Unexpected error: " + e.getMessage());
+            return new Response(500, internalErrorBody);
+        }
+    }
+
+    private void respond(HttpExchange exchange, Response response) throws IOException {
+        if (response.body() == null) {
+            exchange.sendResponseHeaders(response.status(), -1);
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(response.status(), response.body().length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(response.body());
+        }
+    }
+
+    /**
+     * @return Bytes read, or -1 if the body does not fit the buffer
+     */
+    private static int readBody(InputStream in, byte[] buffer) throws IOException {
+        int length = 0;
+        int read;
+        while ((read = in.read(buffer, length, buffer.length - length)) > 0) {
+            length += read;
+            if (length == buffer.length) {
+                return in.read() < 0 ? length : -1;
+            }
+        }
+        return length;
+    }
+
+    private record Response(int status, byte[] body) {
+    }
+}
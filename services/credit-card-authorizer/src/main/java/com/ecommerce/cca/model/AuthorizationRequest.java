@@ -1,23 +1,36 @@
 package com.ecommerce.cca.model;
 
+import com.ecommerce.cca.validation.CardNumber;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+import java.math.BigDecimal;
 
 /**
  * Request model for credit card authorization
  * Validates credit card number format: XXXX-XXXX-XXXX-XXXX
+ * The amount is optional; without it the amount rules do not apply
+ * The authorization ID is optional; retries and duplicates sharing one get the same decision
  */
 public class AuthorizationRequest {
 
     @NotBlank(message = "Credit card number is required")
-    @Pattern(
-            regexp = "^[0-9]{4}-[0-9]{4}-[0-9]{4}-[0-9]{4}$",
-            message = "Credit card must be in format: 1234-5678-9012-3456"
-    )
+    @CardNumber(message = "Credit card must be in format: 1234-5678-9012-3456")
     @JsonProperty("credit_card_number")
     private String creditCardNumber;
 
+    @DecimalMin(value = "0.00", message = "Amount must not be negative")
+    @Digits(integer = 10, fraction = 2, message = "Amount must have at most 2 decimal places")
+    @JsonProperty("amount")
+    private BigDecimal amount;
+
+    @Size(max = 64, message = "Authorization ID must be at most 64 characters")
+    @JsonProperty("authorization_id")
+    private String authorizationId;
+
     // Default constructor
     public AuthorizationRequest() {}
 
@@ -32,4 +45,20 @@ public class AuthorizationRequest {
     public void setCreditCardNumber(String creditCardNumber) {
         this.creditCardNumber = creditCardNumber;
     }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public String getAuthorizationId() {
+        return authorizationId;
+    }
+
+    public void setAuthorizationId(String authorizationId) {
+        this.authorizationId = authorizationId;
+    }
 }
\ No newline at end of file
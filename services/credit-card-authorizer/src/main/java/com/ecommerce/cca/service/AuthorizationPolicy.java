@@ -0,0 +1,15 @@
+package com.ecommerce.cca.service;
+
+/**
+ * Decides whether a payment is authorized
+ * The fraud rules engine by default; random approvals with the "random" profile.
+ */
+public interface AuthorizationPolicy {
+
+    /**
+     * @param creditCardNumber Card number, already format-checked
+     * @param amountCents Payment amount in cents, 0 if unknown
+     * @return The decision
+     */
+    Decision decide(String creditCardNumber, long amountCents);
+}
@@ -1,46 +1,67 @@
 package com.ecommerce.cca.service;
 
+import com.ecommerce.cca.cache.DecisionCache;
+import com.ecommerce.cca.simulation.PaymentSimulator;
+import com.ecommerce.cca.validation.CardNumberValidator;
 import org.springframework.stereotype.Service;
-import java.util.Random;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Logger;
 
 /**
  * Service for credit card authorization
- * Simulates credit card processing with 90% approval rate
+ * Validates the card format and delegates the decision to the active
+ * {@link AuthorizationPolicy}: fraud rules by default, random with the "random" profile.
+ * The {@link PaymentSimulator} then adds the card network's latency and extra declines.
+ * Requests carrying an authorization ID are answered once per ID through the {@link DecisionCache}.
  */
 @Service
 public class AuthorizationService {
 
     private static final Logger logger = Logger.getLogger(AuthorizationService.class.getName());
-    private final Random random = new Random();
 
-    // Configuration constants
-    private static final int AUTHORIZATION_RATE = 90; // 90% approval rate
+    private final AuthorizationPolicy policy;
+    private final PaymentSimulator simulator;
+    private final DecisionCache decisionCache;
+
+    public AuthorizationService(AuthorizationPolicy policy, PaymentSimulator simulator, DecisionCache decisionCache) {
+        this.policy = policy;
+        this.simulator = simulator;
+        this.decisionCache = decisionCache;
+    }
+
+    /**
+     * Authorizes a credit card transaction once per authorization ID
+     *
+     * @param creditCardNumber The validated credit card number
+     * @param amountCents Payment amount in cents, 0 if not given
+     * @param authorizationId Client-supplied ID of the payment attempt, or null to always decide afresh
+     * @return The decision; for a known ID, the one already made (or still being made) for it
+     */
+    public CompletableFuture<Decision> authorize(String creditCardNumber, long amountCents, String authorizationId) {
+        if (authorizationId == null) {
+            return authorize(creditCardNumber, amountCents);
+        }
+        return decisionCache.decide(authorizationId, () -> authorize(creditCardNumber, amountCents));
+    }
 
     /**
      * Authorizes credit card transaction
-     * Returns true 90% of the time, false 10% of the time (random)
      *
      * @param creditCardNumber The validated credit card number
-     * @return true if authorized, false if declined
+     * @param amountCents Payment amount in cents, 0 if not given
+     * @return The decision, approved or the decline reason, completed after the simulated latency
      */
-    public boolean authorize(String creditCardNumber) {
-        // Generate random number between 0-99
-        // Values 0-89 = authorized (90%)
-        // Values 90-99 = declined (10%)
-        int randomValue = random.nextInt(100);
-        boolean isAuthorized = randomValue < AUTHORIZATION_RATE;
+    public CompletableFuture<Decision> authorize(String creditCardNumber, long amountCents) {
+        Decision decision = policy.decide(creditCardNumber, amountCents);
 
         // Log authorization attempt (mask card number for security)
-        String maskedCard = maskCardNumber(creditCardNumber);
-        logger.info(String.format(
-                "Authorization attempt for card %s: %s (random=%d)",
-                maskedCard,
-                isAuthorized ? "AUTHORIZED" : "DECLINED",
-                randomValue
+        logger.info(() -> String.format(
+                "Authorization attempt for card %s: %s",
+                maskCardNumber(creditCardNumber),
+                decision
         ));
 
-        return isAuthorized;
+        return simulator.simulate(decision);
     }
 
     /**
@@ -51,11 +72,7 @@ public class AuthorizationService {
      * @return true if valid format, false otherwise
      */
     public boolean validateFormat(String creditCardNumber) {
-        if (creditCardNumber == null) {
-            return false;
-        }
-        // Regex: exactly 4 groups of 4 digits, separated by dashes
-        return creditCardNumber.matches("^[0-9]{4}-[0-9]{4}-[0-9]{4}-[0-9]{4}$");
+        return CardNumberValidator.isValidFormat(creditCardNumber);
     }
 
     /**
@@ -71,4 +88,4 @@ public class AuthorizationService {
         }
         return "****-****-****-" + creditCardNumber.substring(creditCardNumber.length() - 4);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,28 @@
+package com.ecommerce.cca.service;
+
+/**
+ * Outcome of an authorization and, when declined, the reason
+ */
+public enum Decision {
+    APPROVED,
+    /** Random mode's simulated decline */
+    DECLINED_RANDOM,
+    BLOCKED_CARD,
+    BLOCKED_BIN,
+    /** Single transaction over the amount limit */
+    AMOUNT_LIMIT,
+    /** Too many attempts on the card within its window */
+    CARD_VELOCITY,
+    /** Too much spent on the card within its window */
+    CARD_AMOUNT_VELOCITY,
+    /** Too many attempts on cards of the same BIN within its window */
+    BIN_VELOCITY,
+    /** Approved by the policy but declined by the simulation profile's decline rate */
+    DECLINED_SIMULATED,
+    /** Simulated card network failure during a brownout (503) */
+    UNAVAILABLE;
+
+    public boolean isApproved() {
+        return this == APPROVED;
+    }
+}
@@ -0,0 +1,27 @@
+package com.ecommerce.cca.service;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Simulated processing: approves 90% of requests at random, whatever the card
+ * Active with the "random" profile (SPRING_PROFILES_ACTIVE=random), used by load tests
+ * that send the same card for every checkout.
+ */
+@Component
+@Profile("random")
+public class RandomAuthorizationPolicy implements AuthorizationPolicy {
+
+    // Configuration constants
+    private static final int AUTHORIZATION_RATE = 90; // 90% approval rate
+
+    @Override
+    public Decision decide(String creditCardNumber, long amountCents) {
+        // Values 0-89 = authorized (90%), 90-99 = declined (10%)
+        return ThreadLocalRandom.current().nextInt(100) < AUTHORIZATION_RATE
+                ? Decision.APPROVED
+                : Decision.DECLINED_RANDOM;
+    }
+}
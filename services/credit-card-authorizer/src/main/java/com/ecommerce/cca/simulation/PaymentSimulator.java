@@ -0,0 +1,135 @@
+package com.ecommerce.cca.simulation;
+
+import com.ecommerce.cca.service.Decision;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Applies the active {@link SimulationProfile} to authorization decisions
+ *
+ * Delays never block a request thread: the result is a future completed by a single
+ * scheduler thread when the sampled latency has passed, so thousands of requests can be
+ * "in flight at the card network" while Tomcat threads keep serving new ones.
+ * The profile can be swapped at runtime; brownout and decline-rate cycles count from
+ * when it was applied.
+ */
+@Component
+public class PaymentSimulator {
+
+    private static final Logger logger = Logger.getLogger(PaymentSimulator.class.getName());
+
+    /**
+     * A profile and when it was applied
+     */
+    private record Active(SimulationProfile profile, long sinceMillis) {
+    }
+
+    private final ScheduledThreadPoolExecutor scheduler;
+    private volatile Active active;
+
+    public PaymentSimulator(@Value("${app.simulation.profile:instant}") String preset) {
+        this.scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "cca-simulated-latency");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.setRemoveOnCancelPolicy(true);
+        apply(SimulationProfile.preset(preset));
+    }
+
+    /**
+     * Make a profile active
+     *
+     * @throws IllegalArgumentException If the profile is invalid
+     */
+    public void apply(SimulationProfile profile) {
+        profile.validate();
+        active = new Active(profile, System.currentTimeMillis());
+        logger.info("Simulation profile applied: latency " + profile.getLatency().getType()
+                + ", decline rate " + profile.getDeclineRate()
+                + (profile.getBrownout() != null ? ", with brownouts" : ""));
+    }
+
+    public SimulationProfile getProfile() {
+        return active.profile();
+    }
+
+    /**
+     * Simulate the card network's answer to a decision
+     *
+     * @param decision The authorization policy's decision
+     * @return The final decision, completed after the simulated latency
+     */
+    public CompletableFuture<Decision> simulate(Decision decision) {
+        Active current = active;
+        long elapsedMillis = System.currentTimeMillis() - current.sinceMillis();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Decision outcome = outcome(current.profile(), decision, elapsedMillis, random);
+        long delayMillis = latencyMillis(current.profile(), elapsedMillis, random);
+        if (delayMillis <= 0) {
+            return CompletableFuture.completedFuture(outcome);
+        }
+        CompletableFuture<Decision> result = new CompletableFuture<>();
+        scheduler.schedule(() -> result.complete(outcome), delayMillis, TimeUnit.MILLISECONDS);
+        return result;
+    }
+
+    static Decision outcome(SimulationProfile profile, Decision decision, long elapsedMillis, Random random) {
+        boolean brownout = inBrownout(profile, elapsedMillis);
+        if (brownout && random.nextDouble() < profile.getBrownout().getErrorRate()) {
+            return Decision.UNAVAILABLE;
+        }
+        if (decision.isApproved() && random.nextDouble() < declineRate(profile, elapsedMillis)) {
+            return Decision.DECLINED_SIMULATED;
+        }
+        return decision;
+    }
+
+    /**
+     * Decline rate at a point of the cycle: the sine wave, or the brownout rate during a brownout
+     */
+    static double declineRate(SimulationProfile profile, long elapsedMillis) {
+        if (inBrownout(profile, elapsedMillis)) {
+            return Math.max(profile.getBrownout().getDeclineRate(), profile.getDeclineRate());
+        }
+        double phase = 2 * Math.PI * elapsedMillis / (profile.getDeclinePeriodSeconds() * 1000.0);
+        double rate = profile.getDeclineRate() + profile.getDeclineAmplitude() * Math.sin(phase);
+        return Math.min(1, Math.max(0, rate));
+    }
+
+    static boolean inBrownout(SimulationProfile profile, long elapsedMillis) {
+        SimulationProfile.Brownout brownout = profile.getBrownout();
+        return brownout != null
+                && elapsedMillis % (brownout.getEverySeconds() * 1000) < brownout.getDurationSeconds() * 1000;
+    }
+
+    static long latencyMillis(SimulationProfile profile, long elapsedMillis, Random random) {
+        SimulationProfile.Latency latency = profile.getLatency();
+        double millis = switch (latency.getType()) {
+            case FIXED -> latency.getMeanMs();
+            case NORMAL -> latency.getMeanMs() + latency.getStddevMs() * random.nextGaussian();
+            case LOGNORMAL -> latency.getMedianMs() * Math.exp(latency.getSigma() * random.nextGaussian());
+            case BIMODAL -> (random.nextDouble() < latency.getSpikeProbability()
+                    ? latency.getSpikeMs() : latency.getMeanMs())
+                    + latency.getStddevMs() * random.nextGaussian();
+        };
+        long total = Math.round(Math.max(0, Math.min(millis, latency.getMaxMs())));
+        if (inBrownout(profile, elapsedMillis)) {
+            total += profile.getBrownout().getExtraLatencyMs();
+        }
+        return total;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,335 @@
+package com.ecommerce.cca.simulation;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * How the simulated card network behaves: response latency, extra declines on top of the
+ * authorization policy, and periodic brownouts
+ *
+ * Example (the "realistic" preset):
+ * <pre>
+ * {
+ *   "latency": {"type": "lognormal", "median_ms": 120, "sigma": 0.5, "max_ms": 10000},
+ *   "decline_rate": 0.05, "decline_amplitude": 0.03, "decline_period_seconds": 3600
+ * }
+ * </pre>
+ */
+public class SimulationProfile {
+
+    /**
+     * Latency distribution
+     * - fixed: always mean_ms
+     * - normal: mean_ms +- stddev_ms
+     * - lognormal: median_ms * e^(sigma * N(0,1)), a long right tail
+     * - bimodal: normal around mean_ms, but with probability spike_probability normal around spike_ms
+     */
+    public enum LatencyType {
+        @JsonProperty("fixed") FIXED,
+        @JsonProperty("normal") NORMAL,
+        @JsonProperty("lognormal") LOGNORMAL,
+        @JsonProperty("bimodal") BIMODAL
+    }
+
+    public static class Latency {
+
+        @JsonProperty("type")
+        private LatencyType type = LatencyType.FIXED;
+
+        @JsonProperty("mean_ms")
+        private double meanMs;
+
+        @JsonProperty("stddev_ms")
+        private double stddevMs;
+
+        @JsonProperty("median_ms")
+        private double medianMs;
+
+        @JsonProperty("sigma")
+        private double sigma;
+
+        @JsonProperty("spike_probability")
+        private double spikeProbability;
+
+        @JsonProperty("spike_ms")
+        private double spikeMs;
+
+        @JsonProperty("max_ms")
+        private long maxMs = 30_000;
+
+        public Latency() {}
+
+        public LatencyType getType() {
+            return type;
+        }
+
+        public void setType(LatencyType type) {
+            this.type = type;
+        }
+
+        public double getMeanMs() {
+            return meanMs;
+        }
+
+        public void setMeanMs(double meanMs) {
+            this.meanMs = meanMs;
+        }
+
+        public double getStddevMs() {
+            return stddevMs;
+        }
+
+        public void setStddevMs(double stddevMs) {
+            this.stddevMs = stddevMs;
+        }
+
+        public double getMedianMs() {
+            return medianMs;
+        }
+
+        public void setMedianMs(double medianMs) {
+            this.medianMs = medianMs;
+        }
+
+        public double getSigma() {
+            return sigma;
+        }
+
+        public void setSigma(double sigma) {
+            this.sigma = sigma;
+        }
+
+        public double getSpikeProbability() {
+            return spikeProbability;
+        }
+
+        public void setSpikeProbability(double spikeProbability) {
+            this.spikeProbability = spikeProbability;
+        }
+
+        public double getSpikeMs() {
+            return spikeMs;
+        }
+
+        public void setSpikeMs(double spikeMs) {
+            this.spikeMs = spikeMs;
+        }
+
+        public long getMaxMs() {
+            return maxMs;
+        }
+
+        public void setMaxMs(long maxMs) {
+            this.maxMs = maxMs;
+        }
+    }
+
+    /**
+     * A brownout of duration_seconds every every_seconds (from when the profile was applied):
+     * extra latency, a higher decline rate and some requests failing with 503
+     */
+    public static class Brownout {
+
+        @JsonProperty("every_seconds")
+        private long everySeconds;
+
+        @JsonProperty("duration_seconds")
+        private long durationSeconds;
+
+        @JsonProperty("extra_latency_ms")
+        private long extraLatencyMs;
+
+        @JsonProperty("decline_rate")
+        private double declineRate;
+
+        @JsonProperty("error_rate")
+        private double errorRate;
+
+        public Brownout() {}
+
+        public long getEverySeconds() {
+            return everySeconds;
+        }
+
+        public void setEverySeconds(long everySeconds) {
+            this.everySeconds = everySeconds;
+        }
+
+        public long getDurationSeconds() {
+            return durationSeconds;
+        }
+
+        public void setDurationSeconds(long durationSeconds) {
+            this.durationSeconds = durationSeconds;
+        }
+
+        public long getExtraLatencyMs() {
+            return extraLatencyMs;
+        }
+
+        public void setExtraLatencyMs(long extraLatencyMs) {
+            this.extraLatencyMs = extraLatencyMs;
+        }
+
+        public double getDeclineRate() {
+            return declineRate;
+        }
+
+        public void setDeclineRate(double declineRate) {
+            this.declineRate = declineRate;
+        }
+
+        public double getErrorRate() {
+            return errorRate;
+        }
+
+        public void setErrorRate(double errorRate) {
+            this.errorRate = errorRate;
+        }
+    }
+
+    @JsonProperty("latency")
+    private Latency latency = new Latency();
+
+    /** Share of approved requests declined anyway, as an issuer would */
+    @JsonProperty("decline_rate")
+    private double declineRate;
+
+    /** The decline rate swings this much above and below decline_rate (a sine wave) */
+    @JsonProperty("decline_amplitude")
+    private double declineAmplitude;
+
+    @JsonProperty("decline_period_seconds")
+    private long declinePeriodSeconds = 3600;
+
+    /** No brownouts when absent */
+    @JsonProperty("brownout")
+    private Brownout brownout;
+
+    public SimulationProfile() {}
+
+    /**
+     * Check the profile makes sense
+     *
+     * @throws IllegalArgumentException Describing the first problem found
+     */
+    public void validate() {
+        if (latency == null || latency.type == null) {
+            throw new IllegalArgumentException("latency.type is required");
+        }
+        requireNonNegative("latency.mean_ms", latency.meanMs);
+        requireNonNegative("latency.stddev_ms", latency.stddevMs);
+        requireNonNegative("latency.median_ms", latency.medianMs);
+        requireNonNegative("latency.sigma", latency.sigma);
+        requireNonNegative("latency.spike_ms", latency.spikeMs);
+        requireRate("latency.spike_probability", latency.spikeProbability);
+        requireNonNegative("latency.max_ms", latency.maxMs);
+        requireRate("decline_rate", declineRate);
+        requireNonNegative("decline_amplitude", declineAmplitude);
+        if (declinePeriodSeconds < 1) {
+            throw new IllegalArgumentException("decline_period_seconds must be at least 1");
+        }
+        if (brownout != null) {
+            if (brownout.everySeconds < 1 || brownout.durationSeconds < 0
+                    || brownout.durationSeconds > brownout.everySeconds) {
+                throw new IllegalArgumentException(
+                        "brownout needs every_seconds >= 1 and 0 <= duration_seconds <= every_seconds");
+            }
+            requireNonNegative("brownout.extra_latency_ms", brownout.extraLatencyMs);
+            requireRate("brownout.decline_rate", brownout.declineRate);
+            requireRate("brownout.error_rate", brownout.errorRate);
+        }
+    }
+
+    private static void requireNonNegative(String name, double value) {
+        if (!(value >= 0)) {
+            throw new IllegalArgumentException(name + " must not be negative");
+        }
+    }
+
+    private static void requireRate(String name, double value) {
+        if (!(value >= 0 && value <= 1)) {
+            throw new IllegalArgumentException(name + " must be between 0 and 1");
+        }
+    }
+
+    /**
+     * Built-in profiles:
+     * - instant: no latency, no extra declines (the default)
+     * - realistic: lognormal latency around 120ms, decline rate swinging 2-8% over an hour
+     * - degraded: 80ms with 5% spikes around 2s, plus a 1-minute brownout every 10 minutes
+     *
+     * @throws IllegalArgumentException For an unknown name
+     */
+    public static SimulationProfile preset(String name) {
+        SimulationProfile profile = new SimulationProfile();
+        switch (name) {
+            case "instant" -> {
+            }
+            case "realistic" -> {
+                profile.latency.type = LatencyType.LOGNORMAL;
+                profile.latency.medianMs = 120;
+                profile.latency.sigma = 0.5;
+                profile.latency.maxMs = 10_000;
+                profile.declineRate = 0.05;
+                profile.declineAmplitude = 0.03;
+            }
+            case "degraded" -> {
+                profile.latency.type = LatencyType.BIMODAL;
+                profile.latency.meanMs = 80;
+                profile.latency.stddevMs = 20;
+                profile.latency.spikeProbability = 0.05;
+                profile.latency.spikeMs = 2000;
+                profile.declineRate = 0.05;
+                profile.brownout = new Brownout();
+                profile.brownout.everySeconds = 600;
+                profile.brownout.durationSeconds = 60;
+                profile.brownout.extraLatencyMs = 1500;
+                profile.brownout.declineRate = 0.3;
+                profile.brownout.errorRate = 0.1;
+            }
+            default -> throw new IllegalArgumentException(
+                    "Unknown simulation preset '" + name + "' (instant, realistic, degraded)");
+        }
+        return profile;
+    }
+
+    public Latency getLatency() {
+        return latency;
+    }
+
+    public void setLatency(Latency latency) {
+        this.latency = latency;
+    }
+
+    public double getDeclineRate() {
+        return declineRate;
+    }
+
+    public void setDeclineRate(double declineRate) {
+        this.declineRate = declineRate;
+    }
+
+    public double getDeclineAmplitude() {
+        return declineAmplitude;
+    }
+
+    public void setDeclineAmplitude(double declineAmplitude) {
+        this.declineAmplitude = declineAmplitude;
+    }
+
+    public long getDeclinePeriodSeconds() {
+        return declinePeriodSeconds;
+    }
+
+    public void setDeclinePeriodSeconds(long declinePeriodSeconds) {
+        this.declinePeriodSeconds = declinePeriodSeconds;
+    }
+
+    public Brownout getBrownout() {
+        return brownout;
+    }
+
+    public void setBrownout(Brownout brownout) {
+        this.brownout = brownout;
+    }
+}
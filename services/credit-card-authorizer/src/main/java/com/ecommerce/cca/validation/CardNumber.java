@@ -0,0 +1,32 @@
+package com.ecommerce.cca.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Card number in format XXXX-XXXX-XXXX-XXXX (4 groups of 4 digits separated by dashes)
+ * Null is valid; combine with @NotBlank to require a value.
+ */
+@Documented
+@Constraint(validatedBy = CardNumberValidator.class)
+@Target({ElementType.FIELD, ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CardNumber {
+
+    String message() default "Credit card must be in format: 1234-5678-9012-3456";
+
+    /**
+     * Also require a valid Luhn check digit
+     */
+    boolean luhn() default false;
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
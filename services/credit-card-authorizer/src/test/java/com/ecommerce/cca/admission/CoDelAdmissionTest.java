@@ -0,0 +1,40 @@
+package com.ecommerce.cca.admission;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoDelAdmissionTest {
+
+    private static final long MS = 1_000_000;
+
+    @Test
+    void testBurstIsAbsorbed() {
+        CoDelAdmission admission = new CoDelAdmission(10 * MS, 100 * MS, 0);
+        // Long waits, but the queue drained at least once in each interval
+        for (long now = 0; now < 1000 * MS; now += MS) {
+            long sojourn = (now / MS) % 50 == 0 ? 2 * MS : 80 * MS;
+            assertFalse(admission.shouldShed(sojourn, now), "at " + now / MS + "ms");
+        }
+        assertFalse(admission.isOverloaded());
+    }
+
+    @Test
+    void testStandingQueueShedsSlowRequestsUntilItDrains() {
+        CoDelAdmission admission = new CoDelAdmission(10 * MS, 100 * MS, 0);
+        for (long now = 0; now < 100 * MS; now += MS) {
+            assertFalse(admission.shouldShed(30 * MS, now), "not overloaded until a full interval");
+        }
+        assertFalse(admission.shouldShed(30 * MS, 100 * MS), "first request of an interval");
+        assertTrue(admission.isOverloaded());
+
+        assertTrue(admission.shouldShed(25 * MS, 101 * MS), "over twice the target");
+        assertFalse(admission.shouldShed(15 * MS, 102 * MS), "quick enough to serve");
+
+        // Shedding drains the queue; once an interval sees a short wait the state clears
+        assertFalse(admission.shouldShed(MS, 150 * MS));
+        assertFalse(admission.shouldShed(30 * MS, 200 * MS));
+        assertFalse(admission.isOverloaded());
+        assertFalse(admission.shouldShed(30 * MS, 201 * MS));
+    }
+}
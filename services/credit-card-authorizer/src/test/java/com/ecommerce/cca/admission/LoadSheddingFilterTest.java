@@ -0,0 +1,85 @@
+package com.ecommerce.cca.admission;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadSheddingFilterTest {
+
+    private static final long MS = 1_000_000;
+
+    private final SojournTrackingExecutor executor = new SojournTrackingExecutor(1, 1, Integer.MAX_VALUE, "test-exec-");
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private MockHttpServletResponse run(LoadSheddingFilter filter, MockFilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/credit-card-authorizer/authorize");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    @Test
+    void testShedsRequestsThatQueuedTooLongWhileOverloaded() throws Exception {
+        long start = System.nanoTime();
+        CoDelAdmission admission = new CoDelAdmission(MS, 100 * MS, start);
+        // A full interval of standing queue
+        admission.shouldShed(5 * MS, start + MS);
+        admission.shouldShed(5 * MS, start + 100 * MS);
+        assertTrue(admission.isOverloaded());
+
+        LoadSheddingFilter filter = new LoadSheddingFilter(admission, 2,
+                "{\"error\":\"SERVICE_OVERLOADED\"}".getBytes(StandardCharsets.UTF_8), meterRegistry);
+
+        // Untracked threads (no sojourn known) always pass
+        MockFilterChain chain = new MockFilterChain();
+        assertEquals(200, run(filter, chain).getStatus());
+        assertNotNull(chain.getRequest());
+
+        // Hold the only worker so the next request queues for ~50ms
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        CompletableFuture<MockHttpServletResponse> queued = new CompletableFuture<>();
+        MockFilterChain queuedChain = new MockFilterChain();
+        executor.execute(() -> {
+            try {
+                queued.complete(run(filter, queuedChain));
+            } catch (Exception e) {
+                queued.completeExceptionally(e);
+            }
+        });
+        Thread.sleep(50);
+        release.countDown();
+
+        MockHttpServletResponse shed = queued.get(5, TimeUnit.SECONDS);
+        assertEquals(503, shed.getStatus());
+        assertEquals("2", shed.getHeader("Retry-After"));
+        assertEquals("{\"error\":\"SERVICE_OVERLOADED\"}", shed.getContentAsString());
+        assertNull(queuedChain.getRequest(), "the endpoint never ran");
+
+        assertEquals(1, meterRegistry.get("cca.admission.shed").counter().count());
+        assertEquals(1, meterRegistry.get("cca.admission.sojourn").timer().count());
+        assertTrue(meterRegistry.get("cca.admission.sojourn").timer().max(TimeUnit.MILLISECONDS) >= 40);
+        assertEquals(1, meterRegistry.get("cca.admission.overloaded").gauge().value());
+    }
+}
@@ -0,0 +1,77 @@
+package com.ecommerce.cca.benchmark;
+
+import com.ecommerce.cca.validation.CardNumberValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Nanoseconds per card-number check over a mix of 7 valid numbers to 1 malformed one:
+ * String.matches (what the services used), a precompiled Pattern, and the scanner with and
+ * without the Luhn check. Run with -prof gc to compare allocation.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=CardNumberValidatorBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CardNumberValidatorBenchmark {
+
+    private static final int CARDS = 1024;
+    private static final String REGEX = "^[0-9]{4}-[0-9]{4}-[0-9]{4}-[0-9]{4}$";
+    private static final Pattern PATTERN = Pattern.compile(REGEX);
+
+    private String[] cards;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        cards = new String[CARDS];
+        for (int i = 0; i < CARDS; i++) {
+            String card = String.format("%04d-%04d-%04d-%04d", random.nextInt(10_000), random.nextInt(10_000),
+                    random.nextInt(10_000), random.nextInt(10_000));
+            cards[i] = i % 8 == 7 ? card.replace('-', ' ') : card;
+        }
+    }
+
+    private String nextCard() {
+        next = (next + 1) & (CARDS - 1);
+        return cards[next];
+    }
+
+    @Benchmark
+    public boolean stringMatches() {
+        return nextCard().matches(REGEX);
+    }
+
+    @Benchmark
+    public boolean compiledPattern() {
+        return PATTERN.matcher(nextCard()).matches();
+    }
+
+    @Benchmark
+    public boolean scanner() {
+        return CardNumberValidator.isValidFormat(nextCard());
+    }
+
+    @Benchmark
+    public boolean scannerWithLuhn() {
+        return CardNumberValidator.isValidWithLuhn(nextCard());
+    }
+}
@@ -0,0 +1,84 @@
+package com.ecommerce.cca.benchmark;
+
+import com.ecommerce.cca.fraud.FraudRulesEngine;
+import com.ecommerce.cca.service.Decision;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Authorizations per second through the fraud rules from 16 threads: 200k cards spread
+ * over 2000 BINs, amounts up to 300.00, default limits (so some velocity declines, which
+ * cost the same as approvals). Compare stripes = 1 (one lock) with the default 64; the
+ * target is well above 50k authorizations per second.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=FraudRulesEngineBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+public class FraudRulesEngineBenchmark {
+
+    private static final int REQUESTS = 1 << 16;
+
+    @Param({"1", "64"})
+    public int stripes;
+
+    private FraudRulesEngine engine;
+    private String[] cards;
+    private long[] amounts;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        engine = new FraudRulesEngine(10, new BigDecimal("5000.00"), 600, 5000, 60, new BigDecimal("2500.00"),
+                new String[0], new String[0], 1 << 18, stripes);
+        SplittableRandom random = new SplittableRandom(42);
+        cards = new String[REQUESTS];
+        amounts = new long[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++) {
+            int bin = 400000 + random.nextInt(2000);
+            int account = random.nextInt(100);
+            cards[i] = String.format("%04d-%02d%02d-0000-%04d", bin / 100, bin % 100, account / 100, account);
+            amounts[i] = 100 + random.nextInt(30_000);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            next = (int) (Thread.currentThread().threadId() * 7919) & (REQUESTS - 1);
+        }
+
+        private int next() {
+            next = (next + 1) & (REQUESTS - 1);
+            return next;
+        }
+    }
+
+    @Benchmark
+    public Decision authorize(Cursor cursor) {
+        int i = cursor.next();
+        return engine.decide(cards[i], amounts[i]);
+    }
+}
@@ -0,0 +1,162 @@
+package com.ecommerce.cca.binary;
+
+import com.ecommerce.cca.cache.DecisionCache;
+import com.ecommerce.cca.service.AuthorizationService;
+import com.ecommerce.cca.service.Decision;
+import com.ecommerce.cca.simulation.PaymentSimulator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryAuthorizationServerTest {
+
+    /**
+     * Cards ending in 0000 are declined; the group before the last is a delay in milliseconds
+     */
+    private static final class StubAuthorizationService extends AuthorizationService {
+        StubAuthorizationService() {
+            super((card, amount) -> Decision.APPROVED, new PaymentSimulator("instant"), new DecisionCache(1024, 600, 16));
+        }
+
+        @Override
+        public CompletableFuture<Decision> authorize(String creditCardNumber, long amountCents) {
+            Decision decision = creditCardNumber.endsWith("0000") ? Decision.CARD_VELOCITY : Decision.APPROVED;
+            int delayMillis = Integer.parseInt(creditCardNumber.substring(10, 14));
+            if (delayMillis == 0) {
+                return CompletableFuture.completedFuture(decision);
+            }
+            return CompletableFuture.supplyAsync(() -> decision,
+                    CompletableFuture.delayedExecutor(delayMillis, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    private BinaryAuthorizationServer server;
+
+    private Socket start(int maxInFlight) throws IOException {
+        server = new BinaryAuthorizationServer(new StubAuthorizationService(), 0, maxInFlight);
+        server.start();
+        Socket socket = new Socket("localhost", server.getPort());
+        socket.setSoTimeout(5000);
+        return socket;
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        server.stop();
+    }
+
+    private static void request(DataOutputStream out, int requestId, String card) throws IOException {
+        request(out, requestId, card, "");
+    }
+
+    private static void request(DataOutputStream out, int requestId, String card, String authorizationId)
+            throws IOException {
+        byte[] bytes = card.getBytes(StandardCharsets.US_ASCII);
+        byte[] id = authorizationId.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(BinaryProtocol.REQUEST_HEADER_LENGTH + bytes.length + id.length);
+        out.writeByte(BinaryProtocol.TYPE_AUTHORIZE);
+        out.writeInt(requestId);
+        out.writeLong(1999);
+        out.writeByte(bytes.length);
+        out.write(bytes);
+        out.writeByte(id.length);
+        out.write(id);
+    }
+
+    /**
+     * Read responses in arrival order: request ID -> status
+     */
+    private static Map<Integer, Byte> responses(DataInputStream in, int count, int[] order) throws IOException {
+        Map<Integer, Byte> statuses = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            assertEquals(BinaryProtocol.RESPONSE_LENGTH, in.readInt());
+            assertEquals(BinaryProtocol.TYPE_RESULT, in.readByte());
+            int requestId = in.readInt();
+            statuses.put(requestId, in.readByte());
+            if (order != null) {
+                order[i] = requestId;
+            }
+        }
+        return statuses;
+    }
+
+    @Test
+    void testPipelinedRequestsAreAnsweredByRequestId() throws IOException {
+        try (Socket socket = start(1024)) {
+            ByteArrayOutputStream batch = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(batch);
+            request(out, 1, "4111-1111-0300-1234");
+            request(out, 2, "4111-1111-1111");
+            request(out, 3, "4111-1111-0000-0000");
+            request(out, 4, "4111-1111-0000-1234");
+            request(out, 5, "4111-1111-0100-0000");
+            socket.getOutputStream().write(batch.toByteArray());
+
+            int[] order = new int[5];
+            Map<Integer, Byte> statuses = responses(new DataInputStream(socket.getInputStream()), 5, order);
+            assertEquals(Map.of(
+                    1, BinaryProtocol.STATUS_APPROVED,
+                    2, BinaryProtocol.STATUS_INVALID_CARD,
+                    3, BinaryProtocol.STATUS_DECLINED,
+                    4, BinaryProtocol.STATUS_APPROVED,
+                    5, BinaryProtocol.STATUS_DECLINED), statuses);
+            assertEquals(5, order[3], "100ms request answered before the 300ms one");
+            assertEquals(1, order[4]);
+        }
+    }
+
+    @Test
+    void testInFlightLimitHoldsRequestsBackWithoutLosingThem() throws IOException {
+        try (Socket socket = start(2)) {
+            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+            for (int i = 0; i < 20; i++) {
+                request(out, i, "4111-1111-0050-1234");
+            }
+            Map<Integer, Byte> statuses = responses(new DataInputStream(socket.getInputStream()), 20, null);
+            assertEquals(20, statuses.size());
+            assertTrue(statuses.values().stream().allMatch(status -> status == BinaryProtocol.STATUS_APPROVED));
+        }
+    }
+
+    @Test
+    void testRepeatedAuthorizationIdReusesTheDecision() throws IOException {
+        try (Socket socket = start(1024)) {
+            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            request(out, 1, "4111-1111-0000-1234", "cart-7-checkout");
+            assertEquals(BinaryProtocol.STATUS_APPROVED, responses(in, 1, null).get(1));
+
+            // A retry of the same payment gets the first answer, not a fresh decision
+            request(out, 2, "4111-1111-0000-0000", "cart-7-checkout");
+            request(out, 3, "4111-1111-0000-0000", "");
+            Map<Integer, Byte> statuses = responses(in, 2, null);
+            assertEquals(BinaryProtocol.STATUS_APPROVED, statuses.get(2));
+            assertEquals(BinaryProtocol.STATUS_DECLINED, statuses.get(3));
+        }
+    }
+
+    @Test
+    void testMalformedFrameClosesTheConnection() throws IOException {
+        try (Socket socket = start(1024)) {
+            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+            request(out, 1, "4111-1111-0000-1234");
+            out.writeInt(100_000);
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            assertEquals(BinaryProtocol.STATUS_APPROVED, responses(in, 1, null).get(1));
+            assertThrows(EOFException.class, in::readInt);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.ecommerce.cca.cache;
+
+import com.ecommerce.cca.service.Decision;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DecisionCacheTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicInteger decisions = new AtomicInteger();
+
+    private CompletableFuture<Decision> decide(DecisionCache cache, String id, Decision decision) {
+        return cache.decide(id, () -> {
+            decisions.incrementAndGet();
+            return CompletableFuture.completedFuture(decision);
+        });
+    }
+
+    @Test
+    void testConcurrentDuplicatesWaitOnTheInFlightDecision() throws Exception {
+        DecisionCache cache = new DecisionCache(1024, TimeUnit.MINUTES.toNanos(10), 16, System::nanoTime);
+        CompletableFuture<Decision> network = new CompletableFuture<>();
+        CountDownLatch ready = new CountDownLatch(1);
+        ExecutorService threads = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<CompletableFuture<Decision>>> duplicates = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                duplicates.add(threads.submit(() -> {
+                    ready.await();
+                    return cache.decide("auth-1", () -> {
+                        decisions.incrementAndGet();
+                        return network;
+                    });
+                }));
+            }
+            ready.countDown();
+            List<CompletableFuture<Decision>> answers = new ArrayList<>();
+            for (Future<CompletableFuture<Decision>> duplicate : duplicates) {
+                answers.add(duplicate.get(5, TimeUnit.SECONDS));
+            }
+            assertTrue(answers.stream().noneMatch(CompletableFuture::isDone), "all wait on the one decision");
+            network.complete(Decision.CARD_VELOCITY);
+            for (CompletableFuture<Decision> answer : answers) {
+                assertEquals(Decision.CARD_VELOCITY, answer.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            threads.shutdown();
+        }
+        assertEquals(1, decisions.get());
+        assertEquals(7, cache.inFlightHits());
+
+        // A retry after the decision gets the same decline, not a fresh draw
+        assertEquals(Decision.CARD_VELOCITY, decide(cache, "auth-1", Decision.APPROVED).join());
+        assertEquals(1, cache.hits());
+        assertEquals(8.0 / 9, cache.hitRate(), 1e-9);
+    }
+
+    @Test
+    void testExpiryEvictionAndUncachedOutcomes() {
+        DecisionCache cache = new DecisionCache(4, 1000, 1, clock::get);
+
+        assertEquals(Decision.APPROVED, decide(cache, "a", Decision.APPROVED).join());
+        clock.set(999);
+        assertEquals(Decision.APPROVED, decide(cache, "a", Decision.DECLINED_RANDOM).join());
+        clock.set(1000);
+        assertEquals(Decision.DECLINED_RANDOM, decide(cache, "a", Decision.DECLINED_RANDOM).join(), "expired");
+        assertEquals(1, cache.expirations());
+
+        // Full stripe: the oldest entry makes room
+        for (String id : new String[] {"b", "c", "d", "e"}) {
+            decide(cache, id, Decision.APPROVED);
+        }
+        assertEquals(4, cache.size());
+        assertEquals(1, cache.evictions());
+        assertEquals(Decision.BLOCKED_CARD, decide(cache, "a", Decision.BLOCKED_CARD).join(), "a was evicted");
+
+        // Brownouts and failures are not remembered, so a retry tries again
+        assertEquals(Decision.UNAVAILABLE, decide(cache, "f", Decision.UNAVAILABLE).join());
+        assertEquals(Decision.APPROVED, decide(cache, "f", Decision.APPROVED).join());
+        CompletableFuture<Decision> failed = cache.decide("g", () -> {
+            throw new IllegalStateException("policy failed");
+        });
+        assertTrue(failed.isCompletedExceptionally());
+        assertEquals(Decision.APPROVED, decide(cache, "g", Decision.APPROVED).join());
+    }
+}
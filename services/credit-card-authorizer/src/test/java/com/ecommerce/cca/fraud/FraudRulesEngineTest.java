@@ -0,0 +1,61 @@
+package com.ecommerce.cca.fraud;
+
+import com.ecommerce.cca.service.Decision;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FraudRulesEngineTest {
+
+    private static final long NOW = 1_700_000_000L;
+
+    /**
+     * Card: 3 attempts or 100.00 per 60s; BIN: 5 attempts per 60s; 80.00 per transaction
+     */
+    private static FraudRulesEngine engine(String blockedCards, String blockedBins) {
+        return new FraudRulesEngine(3, new BigDecimal("100.00"), 60, 5, 60, new BigDecimal("80.00"),
+                blockedCards.split(","), blockedBins.split(","), 1024, 4);
+    }
+
+    @Test
+    void testCardVelocityCountsEveryAttemptInTheWindow() {
+        FraudRulesEngine engine = engine("", "");
+        for (int i = 0; i < 3; i++) {
+            assertEquals(Decision.APPROVED, engine.decide("4111-1111-1111-1111", 0, NOW + i));
+        }
+        assertEquals(Decision.CARD_VELOCITY, engine.decide("4111-1111-1111-1111", 0, NOW + 3));
+        assertEquals(Decision.CARD_VELOCITY, engine.decide("4111-1111-1111-1111", 0, NOW + 30));
+        assertEquals(Decision.APPROVED, engine.decide("5105-1051-0510-5100", 0, NOW + 30), "other card");
+        assertEquals(Decision.APPROVED, engine.decide("4111-1111-1111-1111", 0, NOW + 200), "window passed");
+    }
+
+    @Test
+    void testAmountRules() {
+        FraudRulesEngine engine = engine("", "");
+        assertEquals(Decision.AMOUNT_LIMIT, engine.decide("5500-0000-0000-0004", 8001, NOW));
+        assertEquals(Decision.APPROVED, engine.decide("5500-0000-0000-0004", 8000, NOW));
+        assertEquals(Decision.CARD_AMOUNT_VELOCITY, engine.decide("5500-0000-0000-0004", 2001, NOW + 1));
+        assertThrows(IllegalArgumentException.class, () -> engine.decide("5500-0000-0000-0004", -1, NOW));
+    }
+
+    @Test
+    void testBinVelocityAcrossCards() {
+        FraudRulesEngine engine = engine("", "");
+        for (int card = 0; card < 5; card++) {
+            assertEquals(Decision.APPROVED, engine.decide(String.format("4000-1200-0000-%04d", card), 0, NOW));
+        }
+        assertEquals(Decision.BIN_VELOCITY, engine.decide("4000-1200-0000-0099", 0, NOW));
+        assertEquals(Decision.APPROVED, engine.decide("4000-1300-0000-0099", 0, NOW), "other BIN");
+    }
+
+    @Test
+    void testBlocklists() {
+        FraudRulesEngine engine = engine(" 4111-1111-1111-1111 ,6011000000000004", "400012");
+        assertEquals(Decision.BLOCKED_CARD, engine.decide("4111-1111-1111-1111", 0, NOW));
+        assertEquals(Decision.BLOCKED_CARD, engine.decide("6011-0000-0000-0004", 0, NOW));
+        assertEquals(Decision.BLOCKED_BIN, engine.decide("4000-1234-5678-9010", 0, NOW));
+        assertEquals(Decision.APPROVED, engine.decide("4111-1111-1111-1112", 0, NOW));
+    }
+}
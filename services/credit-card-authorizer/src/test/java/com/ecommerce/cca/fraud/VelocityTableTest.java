@@ -0,0 +1,57 @@
+package com.ecommerce.cca.fraud;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VelocityTableTest {
+
+    @Test
+    void testWindowSlidesOneBucketAtATime() {
+        // 60s window in 6 buckets of 10s
+        VelocityTable table = new VelocityTable(64, 4, 60, 6);
+        long window = 0;
+        for (int second = 0; second < 60; second += 10) {
+            window = table.add(42, 1000 + second, 150);
+        }
+        assertEquals(6, VelocityTable.count(window));
+        assertEquals(900, VelocityTable.amount(window));
+
+        // The attempt at 1000s leaves the window once the bucket at 1060s starts
+        window = table.add(42, 1060, 1);
+        assertEquals(6, VelocityTable.count(window));
+        assertEquals(751, VelocityTable.amount(window));
+
+        // After a whole quiet window, only the new attempt counts
+        window = table.add(42, 1200, 5);
+        assertEquals(1, VelocityTable.count(window));
+        assertEquals(5, VelocityTable.amount(window));
+
+        assertEquals(1, VelocityTable.count(table.add(7, 1200, 0)), "keys are counted separately");
+    }
+
+    @Test
+    void testFullTableEvictsTheQuietestKey() {
+        // One stripe of 8 slots: every key probes all of them
+        VelocityTable table = new VelocityTable(8, 1, 60, 6);
+        for (long key = 1; key <= 8; key++) {
+            table.add(key, key, 0);
+            table.add(key, key, 0);
+        }
+        assertEquals(0, table.evictions());
+
+        // Key 1 was seen longest ago, so key 9 takes its slot
+        assertEquals(1, VelocityTable.count(table.add(9, 20, 0)));
+        assertEquals(1, table.evictions());
+        assertEquals(3, VelocityTable.count(table.add(8, 20, 0)), "other keys keep their counts");
+        assertEquals(1, VelocityTable.count(table.add(1, 21, 0)), "key 1 starts over");
+
+        // Once every window has passed, slots are reused without evicting
+        long evictions = table.evictions();
+        for (long key = 100; key < 108; key++) {
+            table.add(key, 500, 0);
+        }
+        assertEquals(evictions, table.evictions());
+        assertThrows(IllegalArgumentException.class, () -> table.add(0, 500, 0));
+    }
+}
@@ -0,0 +1,165 @@
+package com.ecommerce.cca.lean;
+
+import com.ecommerce.cca.model.ErrorResponse;
+import com.ecommerce.cca.cache.DecisionCache;
+import com.ecommerce.cca.service.AuthorizationService;
+import com.ecommerce.cca.service.Decision;
+import com.ecommerce.cca.simulation.PaymentSimulator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeanAuthorizationServerTest {
+
+    /**
+     * Cards ending in 0000 are declined, 9999 unavailable; the group before the last is a delay in milliseconds
+     */
+    private static final class StubAuthorizationService extends AuthorizationService {
+        private volatile long lastAmountCents;
+
+        StubAuthorizationService() {
+            super((card, amount) -> Decision.APPROVED, new PaymentSimulator("instant"), new DecisionCache(1024, 600, 16));
+        }
+
+        @Override
+        public CompletableFuture<Decision> authorize(String creditCardNumber, long amountCents) {
+            lastAmountCents = amountCents;
+            Decision decision = creditCardNumber.endsWith("0000") ? Decision.CARD_VELOCITY
+                    : creditCardNumber.endsWith("9999") ? Decision.UNAVAILABLE : Decision.APPROVED;
+            int delayMillis = Integer.parseInt(creditCardNumber.substring(10, 14));
+            if (delayMillis == 0) {
+                return CompletableFuture.completedFuture(decision);
+            }
+            return CompletableFuture.supplyAsync(() -> decision,
+                    CompletableFuture.delayedExecutor(delayMillis, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final StubAuthorizationService service = new StubAuthorizationService();
+    private final HttpClient client = HttpClient.newHttpClient();
+    private LeanAuthorizationServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new LeanAuthorizationServer(service, objectMapper, 0);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    private HttpResponse<String> post(String body) throws Exception {
+        return client.send(HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + server.getPort() + LeanAuthorizationServer.PATH))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private ErrorResponse error(HttpResponse<String> response) throws IOException {
+        return objectMapper.readValue(response.body(), ErrorResponse.class);
+    }
+
+    @Test
+    void testResponsesMatchTheSpringEndpoint() throws Exception {
+        HttpResponse<String> approved = post("{\"credit_card_number\": \"4111-1111-0000-1111\", \"amount\": 12.5}");
+        assertEquals(200, approved.statusCode());
+        assertEquals("", approved.body());
+        assertEquals(1250, service.lastAmountCents);
+
+        HttpResponse<String> declined = post("{\"credit_card_number\":\"4111-1111-0000-0000\"}");
+        assertEquals(402, declined.statusCode());
+        assertEquals("PAYMENT_DECLINED", error(declined).getError());
+        assertEquals("application/json", declined.headers().firstValue("Content-Type").orElseThrow());
+
+        assertEquals(503, post("{\"credit_card_number\":\"4111-1111-0000-9999\"}").statusCode());
+
+        HttpResponse<String> badFormat = post("{\"credit_card_number\":\"4111111100001111\"}");
+        assertEquals(400, badFormat.statusCode());
+        assertEquals("VALIDATION_ERROR", error(badFormat).getError());
+        assertEquals("Credit card must be in format: 1234-5678-9012-3456", error(badFormat).getMessage());
+
+        assertEquals("Credit card number is required", error(post("{}")).getMessage());
+        assertEquals("Amount must not be negative",
+                error(post("{\"credit_card_number\":\"4111-1111-0000-1111\",\"amount\":-1}")).getMessage());
+
+        assertEquals(500, post("{\"credit_card_number\":").statusCode());
+        assertEquals(500, post("").statusCode());
+
+        HttpResponse<String> get = client.send(HttpRequest.newBuilder(
+                URI.create("http://localhost:" + server.getPort() + LeanAuthorizationServer.PATH)).build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(405, get.statusCode());
+    }
+
+    @Test
+    void testParsesWhatJacksonAccepts() {
+        AuthorizeBody body = parse(
+                "{ \"note\": {\"nested\": [1, \"}\", {\"x\": null}]}, \"amount\" : \"19.99\",\n"
+                        + "  \"credit_card_number\" : \"4111\\u002d1111-1111-1111\", \"flag\": true } trailing");
+        assertEquals("4111-1111-1111-1111", body.creditCardNumber());
+        assertEquals(new BigDecimal("19.99"), body.amount());
+        assertNull(body.validate());
+
+        assertEquals("checkout-42", parse("{\"credit_card_number\":\"4111-1111-1111-1111\","
+                + "\"authorization_id\":\"checkout-42\"}").authorizationId());
+        assertEquals(AuthorizeBody.Violation.AUTHORIZATION_ID_LENGTH, parse("{\"credit_card_number\":"
+                + "\"4111-1111-1111-1111\",\"authorization_id\":\"" + "x".repeat(65) + "\"}").validate());
+
+        assertEquals(AuthorizeBody.Violation.AMOUNT_DIGITS, parse(
+                "{\"credit_card_number\":\"4111-1111-1111-1111\",\"amount\":1.999}").validate());
+        assertNull(parse(
+                "{\"credit_card_number\":\"4111-1111-1111-1111\",\"amount\":1.500}").validate());
+        assertEquals(AuthorizeBody.Violation.CARD_REQUIRED,
+                parse("{\"credit_card_number\":null}").validate());
+        assertEquals(AuthorizeBody.Violation.CARD_FORMAT,
+                parse("{\"credit_card_number\":4111}").validate());
+
+        assertThrows(IllegalArgumentException.class, () -> parse("[]"));
+        assertThrows(IllegalArgumentException.class,
+                () -> parse("{\"credit_card_number\":abc}"));
+        assertThrows(IllegalArgumentException.class,
+                () -> parse("{\"credit_card_number\":\"4111\" \"amount\":1}"));
+    }
+
+    @Test
+    void testDelayedDecisionsDoNotHoldPlatformThreads() throws Exception {
+        List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < 200; i++) {
+            responses.add(client.sendAsync(HttpRequest.newBuilder(
+                            URI.create("http://localhost:" + server.getPort() + LeanAuthorizationServer.PATH))
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"credit_card_number\":\"4111-1111-0500-1111\"}"))
+                    .build(), HttpResponse.BodyHandlers.discarding()));
+        }
+        for (CompletableFuture<HttpResponse<Void>> response : responses) {
+            assertEquals(200, response.get(10, TimeUnit.SECONDS).statusCode());
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        // 200 requests waiting 500ms each: serial would take 100s
+        assertTrue(elapsedMillis < 5000, "took " + elapsedMillis + "ms");
+    }
+
+    private static AuthorizeBody parse(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        return AuthorizeBody.parse(bytes, bytes.length);
+    }
+}
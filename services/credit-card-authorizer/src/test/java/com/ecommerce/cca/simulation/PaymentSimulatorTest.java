@@ -0,0 +1,95 @@
+package com.ecommerce.cca.simulation;
+
+import com.ecommerce.cca.service.Decision;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaymentSimulatorTest {
+
+    private static long[] samples(SimulationProfile profile, int count) {
+        Random random = new Random(42);
+        long[] samples = new long[count];
+        for (int i = 0; i < count; i++) {
+            samples[i] = PaymentSimulator.latencyMillis(profile, 0, random);
+        }
+        Arrays.sort(samples);
+        return samples;
+    }
+
+    @Test
+    void testLatencyDistributions() {
+        SimulationProfile realistic = SimulationProfile.preset("realistic");
+        long[] lognormal = samples(realistic, 20_000);
+        assertEquals(120, lognormal[10_000], 5, "median");
+        // e^(0.5 * 2.326) = 3.2 times the median at p99
+        assertEquals(384, lognormal[19_800], 30, "p99");
+
+        SimulationProfile degraded = SimulationProfile.preset("degraded");
+        degraded.setBrownout(null);
+        long spikes = Arrays.stream(samples(degraded, 20_000)).filter(ms -> ms > 1000).count();
+        assertEquals(1000, spikes, 100, "5% in the spike mode");
+
+        SimulationProfile fixed = new SimulationProfile();
+        fixed.getLatency().setMeanMs(250);
+        fixed.getLatency().setMaxMs(200);
+        assertEquals(200, PaymentSimulator.latencyMillis(fixed, 0, new Random()), "capped at max_ms");
+    }
+
+    @Test
+    void testDeclineRateCycleAndBrownouts() {
+        SimulationProfile realistic = SimulationProfile.preset("realistic");
+        assertEquals(0.05, PaymentSimulator.declineRate(realistic, 0), 1e-9);
+        assertEquals(0.08, PaymentSimulator.declineRate(realistic, 900_000), 1e-9, "quarter of the hour");
+        assertEquals(0.02, PaymentSimulator.declineRate(realistic, 2_700_000), 1e-9);
+
+        // 60s brownout every 600s, from when the profile was applied
+        SimulationProfile degraded = SimulationProfile.preset("degraded");
+        assertTrue(PaymentSimulator.inBrownout(degraded, 30_000));
+        assertFalse(PaymentSimulator.inBrownout(degraded, 61_000));
+        assertTrue(PaymentSimulator.inBrownout(degraded, 630_000));
+        assertEquals(0.3, PaymentSimulator.declineRate(degraded, 30_000), 1e-9);
+
+        Random random = new Random(7);
+        int unavailable = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (PaymentSimulator.outcome(degraded, Decision.BIN_VELOCITY, 30_000, random) == Decision.UNAVAILABLE) {
+                unavailable++;
+            }
+            assertEquals(Decision.BIN_VELOCITY, PaymentSimulator.outcome(degraded, Decision.BIN_VELOCITY, 61_000, random),
+                    "policy declines are kept outside brownouts");
+        }
+        assertEquals(1000, unavailable, 100);
+        assertTrue(PaymentSimulator.latencyMillis(degraded, 30_000, random) >= 1500, "brownout latency");
+    }
+
+    @Test
+    void testDelayedDecisionCompletesOffTheCallingThread() throws Exception {
+        PaymentSimulator simulator = new PaymentSimulator("instant");
+        try {
+            assertTrue(simulator.simulate(Decision.APPROVED).isDone(), "no latency, no scheduling");
+
+            SimulationProfile slow = new SimulationProfile();
+            slow.getLatency().setMeanMs(200);
+            simulator.apply(slow);
+            long start = System.nanoTime();
+            CompletableFuture<Decision> decision = simulator.simulate(Decision.APPROVED);
+            assertFalse(decision.isDone());
+            assertEquals(Decision.APPROVED, decision.get(5, TimeUnit.SECONDS));
+            assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(190));
+
+            SimulationProfile invalid = new SimulationProfile();
+            invalid.setDeclineRate(1.5);
+            assertThrows(IllegalArgumentException.class, () -> simulator.apply(invalid));
+            assertSame(slow, simulator.getProfile());
+            assertThrows(IllegalArgumentException.class, () -> SimulationProfile.preset("chaos"));
+        } finally {
+            simulator.shutdown();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.ecommerce.cca.validation;
+
+import com.ecommerce.cca.model.AuthorizationRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CardNumberValidatorTest {
+
+    private static final Pattern REGEX = Pattern.compile("^[0-9]{4}-[0-9]{4}-[0-9]{4}-[0-9]{4}$");
+
+    @Test
+    void testAgreesWithTheRegex() {
+        String[] cards = {
+                "4111-1111-1111-1111", "0000-0000-0000-0000", "9999-9999-9999-9999",
+                "4111-1111-1111-111", "4111-1111-1111-11111", "4111111111111111", "4111 1111 1111 1111",
+                "4111-1111-1111-111a", "/111-1111-1111-1111", ":111-1111-1111-1111", "4111-1111-1111+1111",
+                "4111-1111--111-1111", "４111-1111-1111-1111", "", "-------------------"
+        };
+        for (String card : cards) {
+            boolean expected = REGEX.matcher(card).matches();
+            assertEquals(expected, CardNumberValidator.isValidFormat(card), card);
+            byte[] bytes = card.getBytes(StandardCharsets.UTF_8);
+            assertEquals(expected, CardNumberValidator.isValidFormat(bytes, bytes.length), card);
+        }
+        assertFalse(CardNumberValidator.isValidFormat((String) null));
+    }
+
+    @Test
+    void testLuhn() {
+        assertTrue(CardNumberValidator.isValidWithLuhn("4111-1111-1111-1111"));
+        assertTrue(CardNumberValidator.isValidWithLuhn("5105-1051-0510-5100"));
+        assertTrue(CardNumberValidator.isValidWithLuhn("4012-8888-8888-1881"));
+        assertFalse(CardNumberValidator.isValidWithLuhn("4111-1111-1111-1112"));
+        assertFalse(CardNumberValidator.isValidWithLuhn("1234-5678-9012-3456"));
+        assertFalse(CardNumberValidator.isValidWithLuhn("4111111111111111"));
+    }
+
+    @Test
+    void testConstraintOnTheRequestModel() {
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        assertTrue(validator.validate(new AuthorizationRequest("1234-5678-9012-3456")).isEmpty());
+
+        Set<ConstraintViolation<AuthorizationRequest>> violations =
+                validator.validate(new AuthorizationRequest("1234-5678-9012-345X"));
+        assertEquals(1, violations.size());
+        assertEquals("Credit card must be in format: 1234-5678-9012-3456", violations.iterator().next().getMessage());
+    }
+}
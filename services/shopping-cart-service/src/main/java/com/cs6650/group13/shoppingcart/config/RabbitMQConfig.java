@@ -12,6 +12,9 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Configuration
 @ConditionalOnProperty(name = "app.rabbitmq.enabled", havingValue = "true", matchIfMissing = true)
 public class RabbitMQConfig {
@@ -27,13 +30,21 @@ public class RabbitMQConfig {
   @Value("${app.rabbitmq.routing-key}")
   private String routingKey;
 
+  @Value("${app.rabbitmq.partitions:1}")
+  private int partitions;
+
   /**
-   * Declare the queue for warehouse orders
+   * Queue name of an order partition; a single partition keeps the original queue name
    */
-  @Bean
-  public Queue warehouseQueue() {
-    logger.info("Creating queue: {}", queueName);
-    return QueueBuilder.durable(queueName).build();
+  public static String partitionQueueName(String queueName, int partition, int partitions) {
+    return partitions <= 1 ? queueName : queueName + "." + partition;
+  }
+
+  /**
+   * Routing key of an order partition; a single partition keeps the original routing key
+   */
+  public static String partitionRoutingKey(String routingKey, int partition, int partitions) {
+    return partitions <= 1 ? routingKey : routingKey + "." + partition;
   }
 
   /**
@@ -46,15 +57,26 @@ public class RabbitMQConfig {
   }
 
   /**
-   * Bind queue to exchange with routing key
+   * Declare one queue per order partition and bind each to the exchange with its
+   * own routing key
+   *
+   * A single RabbitMQ queue is served by one Erlang process (one broker core), so
+   * spreading orders over N queues lets the broker and the warehouse scale out.
+   * With one partition this is the original queue and routing key.
    */
   @Bean
-  public  binding(Queue warehouseQueue, DirectExchange warehouseExchange) {
-    logger.info("Binding queue {} to exchange {} with routing key {}",
-        queueName, exchangeName, routingKey);
-    return BindingBuilder.bind(warehouseQueue)
-        .to(warehouseExchange)
-        .with(routingKey);
+  public Declarables orderPartitionDeclarables(DirectExchange warehouseExchange) {
+    List<Declarable> declarables = new ArrayList<>();
+    for (int partition = 0; partition < Math.max(1, partitions); partition++) {
+      String partitionQueue = partitionQueueName(queueName, partition, partitions);
+      String partitionKey = partitionRoutingKey(routingKey, partition, partitions);
+      Queue queue = QueueBuilder.durable(partitionQueue).build();
+      declarables.add(queue);
+      declarables.add(BindingBuilder.bind(queue).to(warehouseExchange).with(partitionKey));
+      logger.info("Creating queue {} bound to exchange {} with routing key {}",
+          partitionQueue, exchangeName, partitionKey);
+    }
+    return new Declarables(declarables);
   }
 
   /**
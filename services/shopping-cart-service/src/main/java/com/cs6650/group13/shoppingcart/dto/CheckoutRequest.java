@@ -1,16 +1,13 @@
 package com.cs6650.group13.shoppingcart.dto;
 
+import com.cs6650.group13.shoppingcart.validation.CardNumber;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.NotNull;
-import jakarta.validation.constraints.Pattern;
 
 public class CheckoutRequest {
 
   @NotNull(message = "Credit card number is required")
-  @Pattern(
-      regexp = "^[0-9]{4}-[0-9]{4}-[0-9]{4}-[0-9]{4}$",
-      message = "Credit card number must be in format XXXX-XXXX-XXXX-XXXX"
-  )
+  @CardNumber
   @JsonProperty("credit_card_number")
   private String creditCardNumber;
 
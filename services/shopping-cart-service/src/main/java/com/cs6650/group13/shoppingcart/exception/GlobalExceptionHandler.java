@@ -21,6 +21,20 @@ public class GlobalExceptionHandler {
     return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
   }
 
+  @ExceptionHandler(OutOfStockException.class)
+  public ResponseEntity<ErrorResponse> handleOutOfStock(OutOfStockException ex) {
+    logger.warn("Out of stock: {}", ex.getMessage());
+    ErrorResponse error = new ErrorResponse("OUT_OF_STOCK", ex.getMessage());
+    return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+  }
+
+  @ExceptionHandler(OrderNotSentException.class)
+  public ResponseEntity<ErrorResponse> handleOrderNotSent(OrderNotSentException ex) {
+    logger.warn("Order not sent: {}", ex.getMessage());
+    ErrorResponse error = new ErrorResponse("ORDER_NOT_SENT", ex.getMessage());
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error);
+  }
+
   @ExceptionHandler(MethodArgumentNotValidException.class)
   public ResponseEntity<ErrorResponse> handleValidationException(MethodArgumentNotValidException ex) {
     String details = ex.getBindingResult()
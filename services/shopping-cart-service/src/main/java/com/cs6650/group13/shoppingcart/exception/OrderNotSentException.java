@@ -0,0 +1,8 @@
+package com.cs6650.group13.shoppingcart.exception;
+
+public class OrderNotSentException extends RuntimeException {
+
+  public OrderNotSentException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,8 @@
+package com.cs6650.group13.shoppingcart.exception;
+
+public class OutOfStockException extends RuntimeException {
+
+  public OutOfStockException(String message) {
+    super(message);
+  }
+}
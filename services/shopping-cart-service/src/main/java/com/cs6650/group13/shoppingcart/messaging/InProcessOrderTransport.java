@@ -0,0 +1,62 @@
+package com.cs6650.group13.shoppingcart.messaging;
+
+import com.cs6650.group13.shoppingcart.model.CartItem;
+import com.cs6650.group13.shoppingcart.model.ShoppingCart;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hands orders straight to a warehouse running in the same JVM
+ *
+ * The warehouse context (the parent of this one in the co-located launcher) exposes
+ * its ring buffer as the {@code inProcessOrderSink} bean. Orders cross as int frames,
+ * [orderId, shoppingCartId, customerId, itemCount, productId0, quantity0, ...], so
+ * the two services share no classes.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "app.transport.in-process.enabled", havingValue = "true")
+public class InProcessOrderTransport implements OrderTransport {
+
+  private static final Logger logger = LoggerFactory.getLogger(InProcessOrderTransport.class);
+
+  private static final int FRAME_HEADER = 4;
+
+  private final Consumer<int[]> sink;
+
+  public InProcessOrderTransport(@Qualifier("inProcessOrderSink") Consumer<int[]> sink) {
+    this.sink = sink;
+  }
+
+  @Override
+  public boolean sendOrderToWarehouse(Integer orderId, ShoppingCart cart) {
+    try {
+      List<CartItem> items = cart.getItemsList();
+      int[] frame = new int[FRAME_HEADER + items.size() * 2];
+      frame[0] = orderId;
+      frame[1] = cart.getShoppingCartId();
+      frame[2] = cart.getCustomerId() == null ? 0 : cart.getCustomerId();
+      frame[3] = items.size();
+      int i = FRAME_HEADER;
+      for (CartItem item : items) {
+        frame[i++] = item.getProductId();
+        frame[i++] = item.getQuantity();
+      }
+
+      sink.accept(frame);
+      logger.debug("Order {} handed to co-located warehouse", orderId);
+      return true;
+
+    } catch (Exception e) {
+      logger.error("Failed to hand order {} to co-located warehouse: {}", orderId, e.getMessage(), e);
+      return false;
+    }
+  }
+}
@@ -1,29 +1,73 @@
 package com.cs6650.group13.shoppingcart.messaging;
 
+import com.cs6650.group13.shoppingcart.config.RabbitMQConfig;
 import com.cs6650.group13.shoppingcart.model.ShoppingCart;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.MessageProperties;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Publishes checked-out orders to the warehouse's partition queues
+ *
+ * Each message carries its publish time and a trace ID in AMQP headers, so the
+ * warehouse can measure checkout-to-consume and checkout-to-ack latency:
+ * - x-publish-epoch-ns  publish time, nanoseconds since the epoch
+ * - x-publish-time      publish time, ISO-8601 (also in the AMQP timestamp property)
+ * - x-trace-id          128-bit random hex ID, logged on both sides
+ */
 @Service
 @ConditionalOnProperty(name = "app.rabbitmq.enabled", havingValue = "true", matchIfMissing = true)
-public class OrderMessageProducer {
+public class OrderMessageProducer implements OrderTransport {
 
   private static final Logger logger = LoggerFactory.getLogger(OrderMessageProducer.class);
 
+  public static final String PUBLISH_EPOCH_NS_HEADER = "x-publish-epoch-ns";
+  public static final String PUBLISH_TIME_HEADER = "x-publish-time";
+  public static final String TRACE_ID_HEADER = "x-trace-id";
+
   private final RabbitTemplate rabbitTemplate;
 
   @Value("${app.rabbitmq.exchange-name}")
   private String exchangeName;
 
-  @Value("${app.rabbitmq.routing-key}")
-  private String routingKey;
+  private final String[] partitionRoutingKeys;
 
-  public OrderMessageProducer(RabbitTemplate rabbitTemplate) {
+  public OrderMessageProducer(RabbitTemplate rabbitTemplate,
+                              @Value("${app.rabbitmq.routing-key}") String routingKey,
+                              @Value("${app.rabbitmq.partitions:1}") int partitions) {
     this.rabbitTemplate = rabbitTemplate;
+    this.partitionRoutingKeys = new String[Math.max(1, partitions)];
+    for (int partition = 0; partition < partitionRoutingKeys.length; partition++) {
+      partitionRoutingKeys[partition] = RabbitMQConfig.partitionRoutingKey(routingKey, partition, partitions);
+    }
+  }
+
+  /**
+   * Partition for an order, chosen by customer so one customer's orders stay in
+   * order on a single partition queue
+   *
+   * Customer IDs are often sequential, so they are mixed (MurmurHash3 finalizer)
+   * before the modulo to keep neighbouring IDs from striding across partitions.
+   */
+  public int partitionFor(Integer customerId) {
+    if (partitionRoutingKeys.length == 1) {
+      return 0;
+    }
+    int h = customerId == null ? 0 : customerId;
+    h ^= h >>> 16;
+    h *= 0x85ebca6b;
+    h ^= h >>> 13;
+    h *= 0xc2b2ae35;
+    h ^= h >>> 16;
+    return Math.floorMod(h, partitionRoutingKeys.length);
   }
 
   /**
@@ -32,6 +76,7 @@ public class OrderMessageProducer {
    * @param cart The shopping cart containing items
    * @return true if message sent successfully
    */
+  @Override
   public boolean sendOrderToWarehouse(Integer orderId, ShoppingCart cart) {
     try {
       OrderMessage message = new OrderMessage(
@@ -41,10 +86,15 @@ public class OrderMessageProducer {
           cart.getItemsList()
       );
 
-      logger.info("Sending order {} to warehouse. Cart: {}, Items: {}",
-          orderId, cart.getShoppingCartId(), cart.getItemsList().size());
+      int partition = partitionFor(cart.getCustomerId());
+      String traceId = newTraceId();
+      logger.info("Sending order {} to warehouse partition {}. Cart: {}, Items: {}, Trace: {}",
+          orderId, partition, cart.getShoppingCartId(), cart.getItemsList().size(), traceId);
 
-      rabbitTemplate.convertAndSend(exchangeName, routingKey, message);
+      rabbitTemplate.convertAndSend(exchangeName, partitionRoutingKeys[partition], message, amqpMessage -> {
+        stampPublishHeaders(amqpMessage.getMessageProperties(), traceId);
+        return amqpMessage;
+      });
 
       logger.info("Order {} sent to warehouse successfully", orderId);
       return true;
@@ -54,4 +104,20 @@ public class OrderMessageProducer {
       return false;
     }
   }
-}
\ No newline at end of file
+
+  /**
+   * Stamp the publish time and trace ID, just before the message is sent
+   */
+  static void stampPublishHeaders(MessageProperties properties, String traceId) {
+    Instant now = Instant.now();
+    properties.setHeader(PUBLISH_EPOCH_NS_HEADER, now.getEpochSecond() * 1_000_000_000L + now.getNano());
+    properties.setHeader(PUBLISH_TIME_HEADER, now.toString());
+    properties.setHeader(TRACE_ID_HEADER, traceId);
+    properties.setTimestamp(Date.from(now));
+  }
+
+  static String newTraceId() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    return String.format("%016x%016x", random.nextLong(), random.nextLong());
+  }
+}
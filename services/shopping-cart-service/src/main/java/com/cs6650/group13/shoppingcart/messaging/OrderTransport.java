@@ -0,0 +1,19 @@
+package com.cs6650.group13.shoppingcart.messaging;
+
+import com.cs6650.group13.shoppingcart.model.ShoppingCart;
+
+/**
+ * Delivers checked-out orders to the warehouse
+ * - {@link OrderMessageProducer}: RabbitMQ (default)
+ * - {@link InProcessOrderTransport}: ring buffer into a co-located warehouse in the same JVM
+ */
+public interface OrderTransport {
+
+  /**
+   * Send order to the warehouse
+   * @param orderId The order ID
+   * @param cart The shopping cart containing items
+   * @return true if the order was handed over successfully
+   */
+  boolean sendOrderToWarehouse(Integer orderId, ShoppingCart cart);
+}
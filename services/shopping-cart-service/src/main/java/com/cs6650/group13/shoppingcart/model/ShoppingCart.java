@@ -10,6 +10,8 @@ public class ShoppingCart {
   private Integer customerId;
   private Map<Integer, CartItem> items;
   private boolean checkedOut;
+  // Payment authorization ID of this cart's checkout, shared by every retry of it
+  private String authorizationId;
 
   public ShoppingCart() {
     this.items = new ConcurrentHashMap<>();
@@ -68,6 +70,14 @@ public class ShoppingCart {
     this.checkedOut = checkedOut;
   }
 
+  public String getAuthorizationId() {
+    return authorizationId;
+  }
+
+  public void setAuthorizationId(String authorizationId) {
+    this.authorizationId = authorizationId;
+  }
+
   @Override
   public String toString() {
     return "ShoppingCart{" +
@@ -0,0 +1,262 @@
+package com.cs6650.group13.shoppingcart.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pooled client for the CCA's binary authorization protocol
+ *
+ * Frames are length-prefixed and big-endian:
+ * - request: int32 length, int8 type (1), int32 request_id, int64 amount_cents, int8 card_length, card (ASCII),
+ *   int8 authorization_id_length, authorization_id (UTF-8, empty for none)
+ * - response: int32 length (6), int8 type (2), int32 request_id, int8 status
+ *
+ * A few long-lived connections carry every checkout: each request gets an ID, is written
+ * under its connection's lock and waits for the response, which the connection's reader
+ * thread matches by ID. Many checkouts share a connection at once (pipelining), and
+ * responses may come back in any order. A broken connection fails its pending requests
+ * and is reopened by the next request.
+ *
+ * Selected with {@code CCA_PROTOCOL=binary}; the HTTP API is used otherwise.
+ */
+@Service
+@ConditionalOnProperty(name = "app.cca.protocol", havingValue = "binary")
+public class BinaryCcaClient {
+
+  private static final Logger logger = LoggerFactory.getLogger(BinaryCcaClient.class);
+
+  static final byte TYPE_AUTHORIZE = 1;
+  static final byte TYPE_RESULT = 2;
+  static final byte STATUS_APPROVED = 0;
+  static final byte STATUS_DECLINED = 1;
+  static final byte STATUS_INVALID_CARD = 2;
+  static final byte STATUS_UNAVAILABLE = 3;
+
+  private static final int REQUEST_HEADER_LENGTH = 1 + 4 + 8 + 1 + 1;
+  private static final int MAX_CARD_LENGTH = 32;
+  private static final int MAX_AUTHORIZATION_ID_LENGTH = 64;
+  private static final int RESPONSE_LENGTH = 1 + 4 + 1;
+
+  private final String host;
+  private final int port;
+  private final long timeoutMs;
+  private final Connection[] pool;
+  private final AtomicInteger nextConnection = new AtomicInteger();
+  private final AtomicInteger nextRequestId = new AtomicInteger();
+
+  public BinaryCcaClient(@Value("${app.cca.binary.host:localhost}") String host,
+                         @Value("${app.cca.binary.port:8092}") int port,
+                         @Value("${app.cca.binary.connections:4}") int connections,
+                         @Value("${app.cca.binary.timeout-ms:5000}") long timeoutMs) {
+    this.host = host;
+    this.port = port;
+    this.timeoutMs = timeoutMs;
+    this.pool = new Connection[connections];
+    for (int i = 0; i < connections; i++) {
+      pool[i] = new Connection();
+    }
+    logger.info("Binary CCA client: {} connections to {}:{}", connections, host, port);
+  }
+
+  /**
+   * Authorize a credit card transaction without an authorization ID
+   */
+  public boolean authorize(String creditCardNumber) {
+    return authorize(creditCardNumber, null);
+  }
+
+  /**
+   * Authorize a credit card transaction
+   * @param creditCardNumber Credit card number in format XXXX-XXXX-XXXX-XXXX
+   * @param authorizationId ID of this payment attempt, so the CCA answers a repeat with the
+   *                        same decision; null for none
+   * @return true if authorized, false if declined
+   * @throws IllegalArgumentException if card format is invalid
+   * @throws RuntimeException if the CCA is unavailable or does not answer in time
+   */
+  public boolean authorize(String creditCardNumber, String authorizationId) {
+    if (creditCardNumber.length() > MAX_CARD_LENGTH) {
+      throw new IllegalArgumentException("Invalid credit card format");
+    }
+    byte[] id = authorizationId == null ? new byte[0] : authorizationId.getBytes(StandardCharsets.UTF_8);
+    if (id.length > MAX_AUTHORIZATION_ID_LENGTH) {
+      throw new IllegalArgumentException("Authorization ID must be at most 64 bytes");
+    }
+    byte status = send(creditCardNumber, id);
+    switch (status) {
+      case STATUS_APPROVED:
+        return true;
+      case STATUS_DECLINED:
+        return false;
+      case STATUS_INVALID_CARD:
+        throw new IllegalArgumentException("Invalid credit card format");
+      case STATUS_UNAVAILABLE:
+        throw new RuntimeException("Credit card authorization service unavailable");
+      default:
+        throw new RuntimeException("Credit card authorization service error: status " + status);
+    }
+  }
+
+  private byte send(String creditCardNumber, byte[] authorizationId) {
+    Connection connection = pool[Math.floorMod(nextConnection.getAndIncrement(), pool.length)];
+    int requestId = nextRequestId.incrementAndGet();
+    CompletableFuture<Byte> response = new CompletableFuture<>();
+    Link link = null;
+    try {
+      link = connection.send(requestId, creditCardNumber, authorizationId, response);
+      return response.get(timeoutMs, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      link.pending.remove(requestId);
+      throw new RuntimeException("Credit card authorization timed out after " + timeoutMs + "ms", e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while authorizing credit card", e);
+    } catch (IOException | ExecutionException e) {
+      logger.error("CCA binary request failed: {}", e.getMessage());
+      throw new RuntimeException("Failed to authorize credit card", e);
+    }
+  }
+
+  @PreDestroy
+  public void close() {
+    for (Connection connection : pool) {
+      connection.close();
+    }
+  }
+
+  /**
+   * One open socket, its reader thread and the requests waiting on it
+   */
+  private static final class Link {
+    private final SocketChannel channel;
+    private final Map<Integer, CompletableFuture<Byte>> pending = new ConcurrentHashMap<>();
+
+    private Link(SocketChannel channel) {
+      this.channel = channel;
+    }
+  }
+
+  /**
+   * A pool slot; reopens its socket when the previous one broke
+   */
+  private final class Connection {
+    private final ByteBuffer request = ByteBuffer.allocate(
+        4 + REQUEST_HEADER_LENGTH + MAX_CARD_LENGTH + MAX_AUTHORIZATION_ID_LENGTH);
+    private Link link;
+
+    synchronized Link send(int requestId, String creditCardNumber, byte[] authorizationId,
+                           CompletableFuture<Byte> response) throws IOException {
+      if (link == null) {
+        link = open();
+      }
+      Link current = link;
+      current.pending.put(requestId, response);
+      request.clear();
+      request.putInt(REQUEST_HEADER_LENGTH + creditCardNumber.length() + authorizationId.length)
+          .put(TYPE_AUTHORIZE)
+          .putInt(requestId)
+          .putLong(0)
+          .put((byte) creditCardNumber.length());
+      for (int i = 0; i < creditCardNumber.length(); i++) {
+        request.put((byte) creditCardNumber.charAt(i));
+      }
+      request.put((byte) authorizationId.length).put(authorizationId);
+      request.flip();
+      try {
+        while (request.hasRemaining()) {
+          current.channel.write(request);
+        }
+      } catch (IOException e) {
+        fail(current, e);
+        throw e;
+      }
+      return current;
+    }
+
+    private Link open() throws IOException {
+      SocketChannel channel = SocketChannel.open(new InetSocketAddress(host, port));
+      channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+      Link opened = new Link(channel);
+      Thread reader = new Thread(() -> read(opened), "cca-binary-reader");
+      reader.setDaemon(true);
+      reader.start();
+      logger.info("Binary CCA connection opened to {}:{}", host, port);
+      return opened;
+    }
+
+    private void read(Link source) {
+      ByteBuffer in = ByteBuffer.allocate(64 * 1024);
+      try {
+        while (true) {
+          if (source.channel.read(in) < 0) {
+            throw new EOFException("CCA closed the connection");
+          }
+          in.flip();
+          while (in.remaining() >= 4 + RESPONSE_LENGTH) {
+            int length = in.getInt();
+            if (length != RESPONSE_LENGTH || in.get() != TYPE_RESULT) {
+              throw new IOException("Unexpected response frame");
+            }
+            int requestId = in.getInt();
+            byte status = in.get();
+            CompletableFuture<Byte> response = source.pending.remove(requestId);
+            if (response != null) {
+              response.complete(status);
+            }
+          }
+          in.compact();
+        }
+      } catch (IOException e) {
+        fail(source, e);
+      }
+    }
+
+    private void fail(Link broken, IOException cause) {
+      synchronized (this) {
+        if (link == broken) {
+          link = null;
+        }
+      }
+      try {
+        broken.channel.close();
+      } catch (IOException ignored) {
+        // already broken
+      }
+      if (!broken.pending.isEmpty()) {
+        logger.warn("Binary CCA connection lost with {} requests pending: {}", broken.pending.size(), cause.getMessage());
+      }
+      broken.pending.values().forEach(response -> response.completeExceptionally(cause));
+      broken.pending.clear();
+    }
+
+    synchronized void close() {
+      if (link != null) {
+        try {
+          link.channel.close();
+        } catch (IOException ignored) {
+          // closing anyway
+        }
+        link = null;
+      }
+    }
+  }
+}
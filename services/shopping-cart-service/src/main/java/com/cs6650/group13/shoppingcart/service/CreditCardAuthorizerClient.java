@@ -1,8 +1,10 @@
 package com.cs6650.group13.shoppingcart.service;
 
+import com.cs6650.group13.shoppingcart.validation.CardNumberValidator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
@@ -26,24 +28,40 @@ public class CreditCardAuthorizerClient {
   @Value("${app.cca.mock:false}")
   private boolean mockMode;
 
+  // Present when app.cca.protocol=binary
+  @Autowired(required = false)
+  private BinaryCcaClient binaryClient;
+
   public CreditCardAuthorizerClient(RestTemplate restTemplate) {
     this.restTemplate = restTemplate;
     this.objectMapper = new ObjectMapper();
   }
 
+  /**
+   * Authorize a credit card transaction without an authorization ID
+   */
+  public boolean authorize(String creditCardNumber) {
+    return authorize(creditCardNumber, null);
+  }
+
   /**
    * Authorize a credit card transaction
    * @param creditCardNumber Credit card number in format XXXX-XXXX-XXXX-XXXX
+   * @param authorizationId ID of this payment attempt; the CCA answers a repeated ID with
+   *                        the decision it already made. Null for none
    * @return true if authorized, false if declined
    * @throws IllegalArgumentException if card format is invalid (400)
    * @throws RuntimeException if CCA service error
    */
-  public boolean authorize(String creditCardNumber) {
+  public boolean authorize(String creditCardNumber, String authorizationId) {
     if (mockMode) {
       return authorizeMock(creditCardNumber);
     }
+    if (binaryClient != null) {
+      return binaryClient.authorize(creditCardNumber, authorizationId);
+    }
 
-    return authorizeReal(creditCardNumber);
+    return authorizeReal(creditCardNumber, authorizationId);
   }
 
   /**
@@ -54,7 +72,7 @@ public class CreditCardAuthorizerClient {
     logger.info("Mock CCA: Authorizing card: {}", maskCardNumber(creditCardNumber));
 
     // Validate format
-    if (!creditCardNumber.matches("^[0-9]{4}-[0-9]{4}-[0-9]{4}-[0-9]{4}$")) {
+    if (!CardNumberValidator.isValidFormat(creditCardNumber)) {
       logger.warn("Mock CCA: Invalid card format");
       throw new IllegalArgumentException("Invalid credit card format");
     }
@@ -69,7 +87,7 @@ public class CreditCardAuthorizerClient {
   /**
    * Real authorization calling CCA service
    */
-  private boolean authorizeReal(String creditCardNumber) {
+  private boolean authorizeReal(String creditCardNumber, String authorizationId) {
     logger.info("Calling real CCA service at: {}", ccaUrl);
 
     try {
@@ -79,6 +97,9 @@ public class CreditCardAuthorizerClient {
 
       Map<String, String> requestBody = new HashMap<>();
       requestBody.put("credit_card_number", creditCardNumber);
+      if (authorizationId != null) {
+        requestBody.put("authorization_id", authorizationId);
+      }
 
       HttpEntity<Map<String, String>> request = new HttpEntity<>(requestBody, headers);
 
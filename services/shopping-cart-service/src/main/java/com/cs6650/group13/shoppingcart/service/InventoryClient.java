@@ -0,0 +1,89 @@
+package com.cs6650.group13.shoppingcart.service;
+
+import com.cs6650.group13.shoppingcart.exception.OutOfStockException;
+import com.cs6650.group13.shoppingcart.model.ShoppingCart;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Map;
+
+/**
+ * Client for the warehouse's stock ledger (/inventory)
+ *
+ * Checkout reserves the cart's items before authorizing payment, then commits the
+ * reservation once the order is created or releases it if checkout fails. A
+ * reservation that is never committed or released expires in the warehouse.
+ *
+ * Off by default: enable with {@code INVENTORY_ENABLED=true}.
+ */
+@Service
+@ConditionalOnProperty(name = "app.inventory.enabled", havingValue = "true")
+public class InventoryClient {
+
+  private static final Logger logger = LoggerFactory.getLogger(InventoryClient.class);
+
+  private final RestTemplate restTemplate;
+
+  @Value("${app.inventory.url:http://localhost:8084/inventory}")
+  private String inventoryUrl;
+
+  public InventoryClient(RestTemplate restTemplate) {
+    this.restTemplate = restTemplate;
+  }
+
+  /**
+   * Reserve every item in the cart
+   * @return The reservation ID to commit or release
+   * @throws OutOfStockException if the warehouse does not have enough of an item (409)
+   * @throws RuntimeException if the warehouse is unavailable or rejects the request
+   */
+  public long reserve(ShoppingCart cart) {
+    Map<String, Object> request = Map.of("items", cart.getItemsList());
+    try {
+      Map<?, ?> response = restTemplate.postForObject(inventoryUrl + "/reservations", request, Map.class);
+      if (response == null || !(response.get("reservation_id") instanceof Number reservationId)) {
+        throw new RuntimeException("Stock reservation returned no reservation_id");
+      }
+      return reservationId.longValue();
+    } catch (HttpClientErrorException e) {
+      if (e.getStatusCode() == HttpStatus.CONFLICT) {
+        logger.info("Inventory: cart {} is out of stock ({})", cart.getShoppingCartId(), e.getResponseBodyAsString());
+        throw new OutOfStockException("Insufficient stock for cart " + cart.getShoppingCartId());
+      }
+      logger.error("Inventory: reservation rejected with {}: {}", e.getStatusCode(), e.getResponseBodyAsString());
+      throw new RuntimeException("Stock reservation failed: " + e.getStatusCode(), e);
+    } catch (RestClientException e) {
+      logger.error("Inventory: reservation failed: {}", e.getMessage());
+      throw new RuntimeException("Stock reservation failed", e);
+    }
+  }
+
+  /**
+   * Mark a reservation as sold; failures are logged (the reservation then expires)
+   */
+  public void commit(long reservationId) {
+    try {
+      restTemplate.postForLocation(inventoryUrl + "/reservations/{id}/commit", null, reservationId);
+    } catch (RestClientException e) {
+      logger.error("Inventory: could not commit reservation {}: {}", reservationId, e.getMessage());
+    }
+  }
+
+  /**
+   * Return a reservation's stock; failures are logged (the reservation then expires)
+   */
+  public void release(long reservationId) {
+    try {
+      restTemplate.delete(inventoryUrl + "/reservations/{id}", reservationId);
+    } catch (RestClientException e) {
+      logger.error("Inventory: could not release reservation {}: {}", reservationId, e.getMessage());
+    }
+  }
+}
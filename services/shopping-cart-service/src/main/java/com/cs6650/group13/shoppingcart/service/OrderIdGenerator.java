@@ -0,0 +1,53 @@
+package com.cs6650.group13.shoppingcart.service;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Order IDs that stay unique across cart replicas and restarts
+ *
+ * The warehouse drops an order whose ID it already recorded within its dedup window
+ * (an hour by default), so neither two replicas nor two runs of one replica may hand out
+ * the same ID inside that window. Order IDs are 31-bit ints end to end, so each ID is
+ * {@code instance << 27 | tick}:
+ * - instance: {@code app.order-id.instance} (0-15), distinct for every cart replica that
+ *   feeds the same warehouse
+ * - tick: the current time in 50 us ticks, or one past the previous ID if that is later,
+ *   wrapping every ~112 minutes
+ *
+ * A restarted cart starts from the current time, so it is past every ID of its previous
+ * run unless that run issued more than 20,000 orders/s and got ahead of the clock. The
+ * wrap period must stay longer than the warehouse's dedup window.
+ */
+final class OrderIdGenerator {
+
+  static final int INSTANCE_BITS = 4;
+  static final int MAX_INSTANCE = (1 << INSTANCE_BITS) - 1;
+  static final int TICK_BITS = 31 - INSTANCE_BITS;
+  static final long TICKS_PER_MILLI = 20;
+  static final long WRAP_MILLIS = (1L << TICK_BITS) / TICKS_PER_MILLI;
+
+  private static final long TICK_MASK = (1L << TICK_BITS) - 1;
+
+  private final int instanceBits;
+  private final LongSupplier clockMillis;
+  private long tick;
+
+  OrderIdGenerator(int instance) {
+    this(instance, System::currentTimeMillis);
+  }
+
+  OrderIdGenerator(int instance, LongSupplier clockMillis) {
+    if (instance < 0 || instance > MAX_INSTANCE) {
+      throw new IllegalArgumentException(
+          "Order ID instance must be between 0 and " + MAX_INSTANCE + ", got " + instance);
+    }
+    this.instanceBits = instance << TICK_BITS;
+    this.clockMillis = clockMillis;
+    this.tick = clockMillis.getAsLong() * TICKS_PER_MILLI - 1;
+  }
+
+  synchronized int next() {
+    tick = Math.max(tick + 1, clockMillis.getAsLong() * TICKS_PER_MILLI);
+    return instanceBits | (int) (tick & TICK_MASK);
+  }
+}
@@ -1,13 +1,15 @@
 package com.cs6650.group13.shoppingcart.service;
 
 import com.cs6650.group13.shoppingcart.exception.CartNotFoundException;
-import com.cs6650.group13.shoppingcart.messaging.OrderMessageProducer;
+import com.cs6650.group13.shoppingcart.exception.OrderNotSentException;
+import com.cs6650.group13.shoppingcart.messaging.OrderTransport;
 import com.cs6650.group13.shoppingcart.model.ShoppingCart;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -18,18 +20,37 @@ public class ShoppingCartService {
 
   private final ConcurrentHashMap<Integer, ShoppingCart> carts = new ConcurrentHashMap<>();
   private final AtomicInteger cartIdGenerator = new AtomicInteger(1);
-  private final AtomicInteger orderIdGenerator = new AtomicInteger(1000);
+  // Unique across replicas and restarts: the warehouse deduplicates redelivered orders by ID
+  private final OrderIdGenerator orderIdGenerator;
 
   private final CreditCardAuthorizerClient ccaClient;
 
+  // RabbitMQ producer, or the in-process transport when co-located with the warehouse
   @Autowired(required = false)
-  private OrderMessageProducer messageProducer;
+  private OrderTransport messageProducer;
+
+  // Warehouse stock ledger, when inventory checks are enabled
+  @Autowired(required = false)
+  private InventoryClient inventoryClient;
 
   @Value("${app.rabbitmq.enabled:true}")
   private boolean rabbitmqEnabled;
 
+  @Value("${app.transport.in-process.enabled:false}")
+  private boolean inProcessEnabled;
+
   public ShoppingCartService(CreditCardAuthorizerClient ccaClient) {
+    this(ccaClient, 0);
+  }
+
+  /**
+   * @param orderIdInstance This replica's order ID instance (0-15), unique per replica
+   */
+  @Autowired
+  public ShoppingCartService(CreditCardAuthorizerClient ccaClient,
+                             @Value("${app.order-id.instance:0}") int orderIdInstance) {
     this.ccaClient = ccaClient;
+    this.orderIdGenerator = new OrderIdGenerator(orderIdInstance);
   }
 
   /**
@@ -73,31 +94,57 @@ public class ShoppingCartService {
       throw new IllegalStateException("Cannot checkout an empty cart");
     }
 
-    // Step 1: Authorize credit card
-    logger.info("Checkout cart {}: Authorizing credit card", shoppingCartId);
-    boolean authorized = ccaClient.authorize(creditCardNumber);
+    // Step 1: Reserve stock, so payment is only taken for items the warehouse has
+    Long reservationId = null;
+    if (inventoryClient != null) {
+      reservationId = inventoryClient.reserve(cart);
+      logger.info("Checkout cart {}: Stock reserved (reservation {})", shoppingCartId, reservationId);
+    }
+
+    // Step 2: Authorize credit card; every checkout attempt of this cart sends the same ID,
+    // so the CCA answers a retried checkout with the decision it already made
+    String authorizationId = authorizationIdOf(cart);
+    logger.info("Checkout cart {}: Authorizing credit card ({})", shoppingCartId, authorizationId);
+    boolean authorized;
+    try {
+      authorized = ccaClient.authorize(creditCardNumber, authorizationId);
+    } catch (RuntimeException e) {
+      releaseReservation(reservationId);
+      throw e;
+    }
 
     if (!authorized) {
       logger.warn("Checkout cart {}: Credit card DECLINED", shoppingCartId);
+      releaseReservation(reservationId);
       throw new IllegalStateException("Payment declined");
     }
 
     logger.info("Checkout cart {}: Credit card AUTHORIZED", shoppingCartId);
 
-    // Step 2: Mark cart as checked out
+    // Step 3: Mark cart as checked out
     cart.setCheckedOut(true);
 
-    // Step 3: Generate order ID
-    Integer orderId = orderIdGenerator.getAndIncrement();
+    // Step 4: Generate order ID
+    Integer orderId = orderIdGenerator.next();
 
-    // Step 4: Send to RabbitMQ
-    if (rabbitmqEnabled && messageProducer != null) {
+    // Step 5: Send to the warehouse (RabbitMQ, or in-process when co-located)
+    if ((rabbitmqEnabled || inProcessEnabled) && messageProducer != null) {
       boolean messageSent = messageProducer.sendOrderToWarehouse(orderId, cart);
       if (!messageSent) {
-        logger.error("Failed to send order {} to warehouse, but order is created", orderId);
+        // The warehouse never sees this order, so its stock goes back and the cart reopens.
+        // A retried checkout sends the same authorization ID, so the card is not charged twice
+        logger.error("Checkout cart {}: Failed to send order {} to warehouse", shoppingCartId, orderId);
+        cart.setCheckedOut(false);
+        releaseReservation(reservationId);
+        throw new OrderNotSentException("Order could not be sent to the warehouse, retry the checkout");
       }
     } else {
-      logger.warn("RabbitMQ is disabled. Order {} not sent to warehouse", orderId);
+      logger.warn("No order transport enabled. Order {} not sent to warehouse", orderId);
+    }
+
+    // Step 6: The order reached the warehouse, so the reserved stock is sold
+    if (reservationId != null) {
+      inventoryClient.commit(reservationId);
     }
 
     logger.info("Checkout cart {}: Order {} created successfully", shoppingCartId, orderId);
@@ -105,6 +152,24 @@ public class ShoppingCartService {
     return orderId;
   }
 
+  /**
+   * The cart's authorization ID, assigned on its first checkout attempt
+   */
+  private static String authorizationIdOf(ShoppingCart cart) {
+    synchronized (cart) {
+      if (cart.getAuthorizationId() == null) {
+        cart.setAuthorizationId("cart-" + cart.getShoppingCartId() + "-" + UUID.randomUUID());
+      }
+      return cart.getAuthorizationId();
+    }
+  }
+
+  private void releaseReservation(Long reservationId) {
+    if (reservationId != null) {
+      inventoryClient.release(reservationId);
+    }
+  }
+
   /**
    * Get shopping cart by ID
    */
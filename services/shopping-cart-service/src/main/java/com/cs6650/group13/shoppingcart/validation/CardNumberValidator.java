@@ -0,0 +1,80 @@
+package com.cs6650.group13.shoppingcart.validation;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+/**
+ * Card number format check without regex or allocation
+ * Backs {@link CardNumber} on checkout requests and is called directly by the mock CCA.
+ * Same scanner as the credit-card-authorizer's (see its JMH benchmark): one "bad" bit per
+ * character ORed together, no early exits. Replaces String.matches, which compiled the
+ * pattern again on every call.
+ */
+public class CardNumberValidator implements ConstraintValidator<CardNumber, CharSequence> {
+
+  public static final int LENGTH = 19;
+
+  /** Luhn doubling of a digit, minus 9 when over 9 */
+  private static final int[] DOUBLED = {0, 2, 4, 6, 8, 1, 3, 5, 7, 9};
+
+  private boolean luhn;
+
+  @Override
+  public void initialize(CardNumber constraint) {
+    this.luhn = constraint.luhn();
+  }
+
+  @Override
+  public boolean isValid(CharSequence value, ConstraintValidatorContext context) {
+    return value == null || (luhn ? isValidWithLuhn(value) : isValidFormat(value));
+  }
+
+  /**
+   * Exactly XXXX-XXXX-XXXX-XXXX: 4 groups of 4 digits separated by dashes
+   */
+  public static boolean isValidFormat(CharSequence card) {
+    if (card == null || card.length() != LENGTH) {
+      return false;
+    }
+    int bad = 0;
+    for (int i = 0; i < LENGTH; i++) {
+      bad |= bad(i, card.charAt(i));
+    }
+    return bad == 0;
+  }
+
+  /**
+   * Valid format and a valid Luhn check digit
+   */
+  public static boolean isValidWithLuhn(CharSequence card) {
+    return isValidFormat(card) && passesLuhn(card);
+  }
+
+  /**
+   * Luhn checksum of a well-formed card number: from the check digit leftwards, every
+   * second digit is doubled; the sum must be a multiple of 10
+   */
+  static boolean passesLuhn(CharSequence card) {
+    int sum = 0;
+    int digit = 0;
+    for (int i = LENGTH - 1; i >= 0; i--) {
+      if (i % 5 == 4) {
+        continue;
+      }
+      int value = card.charAt(i) - '0';
+      sum += (digit++ & 1) == 0 ? value : DOUBLED[value];
+    }
+    return sum % 10 == 0;
+  }
+
+  /**
+   * Non-zero if the character is wrong for its position: a dash every fifth, digits elsewhere
+   */
+  private static int bad(int position, int c) {
+    if (position % 5 == 4) {
+      return c ^ '-';
+    }
+    // Negative (sign bit set) if below '0' or above '9'
+    return ((c - '0') | ('9' - c)) >>> 31;
+  }
+}
@@ -0,0 +1,144 @@
+package com.cs6650.group13.shoppingcart.messaging;
+
+import com.cs6650.group13.shoppingcart.config.RabbitMQConfig;
+import com.cs6650.group13.shoppingcart.model.ShoppingCart;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class OrderMessageProducerTest {
+
+  private static final String EXCHANGE = "warehouse-orders-exchange";
+  private static final String ROUTING_KEY = "warehouse.orders";
+
+  private OrderMessageProducer producer(RabbitTemplate template, int partitions) {
+    OrderMessageProducer producer = new OrderMessageProducer(template, ROUTING_KEY, partitions);
+    ReflectionTestUtils.setField(producer, "exchangeName", EXCHANGE);
+    return producer;
+  }
+
+  @Test
+  void testSinglePartitionUsesOriginalRoutingKey() {
+    RabbitTemplate template = mock(RabbitTemplate.class);
+    ShoppingCart cart = new ShoppingCart(1, 100);
+    cart.addItem(5, 2);
+
+    assertTrue(producer(template, 1).sendOrderToWarehouse(1000, cart));
+
+    verify(template).convertAndSend(eq(EXCHANGE), eq(ROUTING_KEY), any(OrderMessage.class),
+        any(MessagePostProcessor.class));
+  }
+
+  @Test
+  void testMessagesCarryPublishTimeAndTraceId() {
+    RabbitTemplate template = mock(RabbitTemplate.class);
+    ShoppingCart cart = new ShoppingCart(1, 100);
+    cart.addItem(5, 2);
+    long before = Instant.now().toEpochMilli();
+
+    producer(template, 1).sendOrderToWarehouse(1000, cart);
+
+    ArgumentCaptor<MessagePostProcessor> postProcessor = ArgumentCaptor.forClass(MessagePostProcessor.class);
+    verify(template).convertAndSend(eq(EXCHANGE), eq(ROUTING_KEY), any(OrderMessage.class), postProcessor.capture());
+    MessageProperties properties = postProcessor.getValue()
+        .postProcessMessage(new Message(new byte[0], new MessageProperties()))
+        .getMessageProperties();
+
+    long publishedNanos = properties.getHeader(OrderMessageProducer.PUBLISH_EPOCH_NS_HEADER);
+    assertTrue(publishedNanos / 1_000_000 >= before);
+    assertTrue(publishedNanos / 1_000_000 <= Instant.now().toEpochMilli());
+    assertEquals(publishedNanos / 1_000_000, properties.getTimestamp().getTime());
+    assertEquals(Instant.ofEpochMilli(properties.getTimestamp().getTime()),
+        Instant.parse(properties.getHeader(OrderMessageProducer.PUBLISH_TIME_HEADER)).truncatedTo(ChronoUnit.MILLIS));
+    String traceId = properties.getHeader(OrderMessageProducer.TRACE_ID_HEADER);
+    assertTrue(traceId.matches("[0-9a-f]{32}"));
+    assertNotEquals(traceId, OrderMessageProducer.newTraceId());
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {1, 4, 16})
+  void testCustomersSpreadEvenlyAndStickToOnePartition(int partitions) {
+    OrderMessageProducer producer = producer(mock(RabbitTemplate.class), partitions);
+
+    // Sequential customer IDs, as the load tester creates them
+    int customers = 16_000;
+    int[] counts = new int[partitions];
+    for (int customerId = 1000; customerId < 1000 + customers; customerId++) {
+      int partition = producer.partitionFor(customerId);
+      assertEquals(partition, producer.partitionFor(customerId));
+      counts[partition]++;
+    }
+
+    int expected = customers / partitions;
+    for (int count : counts) {
+      assertTrue(Math.abs(count - expected) < expected * 0.1,
+          "partition count " + count + " vs expected " + expected);
+    }
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {1, 4, 16})
+  void testOrdersAreRoutedToTheirPartitionKey(int partitions) {
+    RabbitTemplate template = mock(RabbitTemplate.class);
+    OrderMessageProducer producer = producer(template, partitions);
+
+    Set<String> keysUsed = new HashSet<>();
+    ArgumentCaptor<String> key = ArgumentCaptor.forClass(String.class);
+    for (int customerId = 0; customerId < 1000; customerId++) {
+      ShoppingCart cart = new ShoppingCart(customerId, customerId);
+      cart.addItem(1, 1);
+      producer.sendOrderToWarehouse(customerId, cart);
+      String expected = RabbitMQConfig.partitionRoutingKey(ROUTING_KEY, producer.partitionFor(customerId), partitions);
+      keysUsed.add(expected);
+    }
+
+    verify(template, times(1000)).convertAndSend(eq(EXCHANGE), key.capture(), any(OrderMessage.class),
+        any(MessagePostProcessor.class));
+    assertEquals(keysUsed, new HashSet<>(key.getAllValues()));
+    assertEquals(partitions, keysUsed.size());
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {1, 4, 16})
+  void testOneQueueAndBindingPerPartition(int partitions) {
+    RabbitMQConfig config = new RabbitMQConfig();
+    ReflectionTestUtils.setField(config, "queueName", "warehouse-orders-queue");
+    ReflectionTestUtils.setField(config, "exchangeName", EXCHANGE);
+    ReflectionTestUtils.setField(config, "routingKey", ROUTING_KEY);
+    ReflectionTestUtils.setField(config, "partitions", partitions);
+
+    Declarables declarables = config.orderPartitionDeclarables(new DirectExchange(EXCHANGE));
+
+    Set<String> queues = new HashSet<>();
+    declarables.getDeclarablesByType(Queue.class).forEach(q -> queues.add(q.getName()));
+    assertEquals(partitions, queues.size());
+    for (Binding binding : declarables.getDeclarablesByType(Binding.class)) {
+      int partition = partitions == 1 ? 0
+          : Integer.parseInt(binding.getDestination().substring(binding.getDestination().lastIndexOf('.') + 1));
+      assertEquals(RabbitMQConfig.partitionRoutingKey(ROUTING_KEY, partition, partitions), binding.getRoutingKey());
+    }
+    if (partitions == 1) {
+      assertTrue(queues.contains("warehouse-orders-queue"));
+    }
+  }
+}
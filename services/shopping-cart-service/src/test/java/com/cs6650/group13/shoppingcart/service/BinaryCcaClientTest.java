@@ -0,0 +1,141 @@
+package com.cs6650.group13.shoppingcart.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryCcaClientTest {
+
+  private ServerSocket server;
+  private final AtomicInteger accepted = new AtomicInteger();
+  private final List<String> authorizationIds = new CopyOnWriteArrayList<>();
+  private BinaryCcaClient client;
+
+  /**
+   * Fake CCA: cards ending in an odd digit are declined, 9999-... is an invalid card,
+   * 0000-... is never answered, and 1111-... drops the connection
+   */
+  @BeforeEach
+  void setUp() throws IOException {
+    server = new ServerSocket(0);
+    Thread acceptor = new Thread(() -> {
+      while (!server.isClosed()) {
+        try {
+          Socket socket = server.accept();
+          accepted.incrementAndGet();
+          new Thread(() -> serve(socket)).start();
+        } catch (IOException e) {
+          return;
+        }
+      }
+    });
+    acceptor.setDaemon(true);
+    acceptor.start();
+    client = new BinaryCcaClient("localhost", server.getLocalPort(), 2, 500);
+  }
+
+  private void serve(Socket socket) {
+    try (socket) {
+      DataInputStream in = new DataInputStream(socket.getInputStream());
+      DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+      while (true) {
+        in.readInt();
+        assertEquals(BinaryCcaClient.TYPE_AUTHORIZE, in.readByte());
+        int requestId = in.readInt();
+        in.readLong();
+        byte[] card = new byte[in.readByte()];
+        in.readFully(card);
+        byte[] authorizationId = new byte[in.readByte()];
+        in.readFully(authorizationId);
+        authorizationIds.add(new String(authorizationId, StandardCharsets.UTF_8));
+        String number = new String(card, StandardCharsets.US_ASCII);
+        if (number.startsWith("1111")) {
+          return;
+        }
+        if (number.startsWith("0000")) {
+          continue;
+        }
+        byte status = number.startsWith("9999") ? BinaryCcaClient.STATUS_INVALID_CARD
+            : (number.charAt(number.length() - 1) - '0') % 2 == 1 ? BinaryCcaClient.STATUS_DECLINED
+            : BinaryCcaClient.STATUS_APPROVED;
+        synchronized (out) {
+          out.writeInt(6);
+          out.writeByte(BinaryCcaClient.TYPE_RESULT);
+          out.writeInt(requestId);
+          out.writeByte(status);
+        }
+      }
+    } catch (IOException e) {
+      // client went away
+    }
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    client.close();
+    server.close();
+  }
+
+  @Test
+  void testConcurrentCheckoutsShareThePooledConnections() throws Exception {
+    ExecutorService threads = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<Integer>> results = new ArrayList<>();
+      for (int t = 0; t < 8; t++) {
+        results.add(threads.submit(() -> {
+          int approved = 0;
+          for (int i = 0; i < 200; i++) {
+            boolean authorized = client.authorize(String.format("4111-1111-1111-%04d", i));
+            assertEquals(i % 2 == 0, authorized);
+            approved += authorized ? 1 : 0;
+          }
+          return approved;
+        }));
+      }
+      for (Future<Integer> result : results) {
+        assertEquals(100, result.get());
+      }
+    } finally {
+      threads.shutdown();
+    }
+    assertEquals(2, accepted.get(), "one socket per pool slot");
+  }
+
+  @Test
+  void testErrorsAndReconnect() {
+    assertThrows(IllegalArgumentException.class, () -> client.authorize("9999-1111-1111-1112"));
+    assertThrows(RuntimeException.class, () -> client.authorize("0000-0000-0000-0000"), "timeout");
+
+    // Both pool slots lose their sockets, then reconnect on the next request
+    assertThrows(RuntimeException.class, () -> client.authorize("1111-1111-1111-1112"));
+    assertThrows(RuntimeException.class, () -> client.authorize("1111-1111-1111-1112"));
+    assertTrue(client.authorize("4111-1111-1111-1112"));
+    assertTrue(client.authorize("4111-1111-1111-1112"));
+    assertEquals(4, accepted.get());
+  }
+
+  @Test
+  void testAuthorizationIdIsSentWithTheCard() {
+    assertTrue(client.authorize("4111-1111-1111-1112", "cart-3-attempt"));
+    assertFalse(client.authorize("4111-1111-1111-1113"));
+    assertEquals(List.of("cart-3-attempt", ""), authorizationIds);
+    assertThrows(IllegalArgumentException.class,
+        () -> client.authorize("4111-1111-1111-1112", "x".repeat(65)));
+  }
+}
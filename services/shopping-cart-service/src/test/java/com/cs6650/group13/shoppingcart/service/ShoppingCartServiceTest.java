@@ -1,18 +1,27 @@
 package com.cs6650.group13.shoppingcart.service;
 
 import com.cs6650.group13.shoppingcart.exception.CartNotFoundException;
+import com.cs6650.group13.shoppingcart.exception.OrderNotSentException;
+import com.cs6650.group13.shoppingcart.exception.OutOfStockException;
 import com.cs6650.group13.shoppingcart.messaging.OrderMessageProducer;
 import com.cs6650.group13.shoppingcart.model.ShoppingCart;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.HashSet;
+import java.util.Set;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -24,6 +33,9 @@ class ShoppingCartServiceTest {
   @Mock
   private OrderMessageProducer messageProducer;
 
+  @Mock
+  private InventoryClient inventoryClient;
+
   private ShoppingCartService shoppingCartService;
 
   @BeforeEach
@@ -116,7 +128,7 @@ class ShoppingCartServiceTest {
     Integer cartId = shoppingCartService.createCart(customerId);
     shoppingCartService.addItem(cartId, 5, 2);
 
-    when(ccaClient.authorize(anyString())).thenReturn(true);
+    when(ccaClient.authorize(anyString(), anyString())).thenReturn(true);
     shoppingCartService.checkout(cartId, "1234-5678-9012-3456");
 
     assertThrows(IllegalStateException.class, () -> {
@@ -131,7 +143,7 @@ class ShoppingCartServiceTest {
     shoppingCartService.addItem(cartId, 5, 2);
     String creditCard = "1234-5678-9012-3456";
 
-    when(ccaClient.authorize(creditCard)).thenReturn(true);
+    when(ccaClient.authorize(eq(creditCard), anyString())).thenReturn(true);
 
     Integer orderId = shoppingCartService.checkout(cartId, creditCard);
 
@@ -139,6 +151,33 @@ class ShoppingCartServiceTest {
     assertTrue(orderId >= 1000);
   }
 
+  @Test
+  void testCheckout_SendsOneAuthorizationIdPerCheckout() {
+    Integer cartId1 = shoppingCartService.createCart(100);
+    Integer cartId2 = shoppingCartService.createCart(200);
+    shoppingCartService.addItem(cartId1, 5, 2);
+    shoppingCartService.addItem(cartId2, 10, 1);
+    when(ccaClient.authorize(anyString(), anyString())).thenReturn(false, true, true);
+
+    // A declined checkout retried as-is is the same payment, so it keeps its ID
+    assertThrows(IllegalStateException.class,
+        () -> shoppingCartService.checkout(cartId1, "1234-5678-9012-3456"));
+    shoppingCartService.checkout(cartId1, "1234-5678-9012-3456");
+    shoppingCartService.checkout(cartId2, "1234-5678-9012-3456");
+
+    ArgumentCaptor<String> ids = ArgumentCaptor.forClass(String.class);
+    verify(ccaClient, times(3)).authorize(eq("1234-5678-9012-3456"), ids.capture());
+    String first = ids.getAllValues().get(0);
+    String retried = ids.getAllValues().get(1);
+    String other = ids.getAllValues().get(2);
+    assertTrue(first.startsWith("cart-" + cartId1 + "-"));
+    assertEquals(first, retried);
+    assertTrue(other.startsWith("cart-" + cartId2 + "-"));
+    assertNotEquals(first, other);
+    // The CCA rejects authorization IDs over 64 characters
+    assertTrue(first.length() <= 64);
+  }
+
   @Test
   void testCheckout_MultipleCheckouts_UniqueOrderIds() {
     Integer cartId1 = shoppingCartService.createCart(100);
@@ -146,7 +185,7 @@ class ShoppingCartServiceTest {
     shoppingCartService.addItem(cartId1, 5, 2);
     shoppingCartService.addItem(cartId2, 10, 1);
 
-    when(ccaClient.authorize(anyString())).thenReturn(true);
+    when(ccaClient.authorize(anyString(), anyString())).thenReturn(true);
 
     Integer orderId1 = shoppingCartService.checkout(cartId1, "1234-5678-9012-3456");
     Integer orderId2 = shoppingCartService.checkout(cartId2, "1234-5678-9012-3456");
@@ -154,6 +193,67 @@ class ShoppingCartServiceTest {
     assertNotEquals(orderId1, orderId2);
   }
 
+  @Test
+  void testCheckout_RestartDoesNotReuseOrderIds() {
+    when(ccaClient.authorize(anyString(), anyString())).thenReturn(true);
+    Integer cartId = shoppingCartService.createCart(100);
+    shoppingCartService.addItem(cartId, 5, 2);
+    ReflectionTestUtils.setField(shoppingCartService, "orderIdGenerator", new OrderIdGenerator(0, () -> 0L));
+    Integer firstRunOrderId = shoppingCartService.checkout(cartId, "1234-5678-9012-3456");
+
+    // Restart 30 s later: the new run continues from the current time, not from a fixed start
+    ShoppingCartService restarted = new ShoppingCartService(ccaClient);
+    ReflectionTestUtils.setField(restarted, "messageProducer", messageProducer);
+    ReflectionTestUtils.setField(restarted, "rabbitmqEnabled", true);
+    ReflectionTestUtils.setField(restarted, "orderIdGenerator", new OrderIdGenerator(0, () -> 30_000L));
+    Integer restartedCartId = restarted.createCart(100);
+    restarted.addItem(restartedCartId, 5, 2);
+    Integer secondRunOrderId = restarted.checkout(restartedCartId, "1234-5678-9012-3456");
+
+    assertTrue(secondRunOrderId > firstRunOrderId);
+    verify(messageProducer).sendOrderToWarehouse(eq(secondRunOrderId), any(ShoppingCart.class));
+  }
+
+  @Test
+  void testOrderIdGenerator_ReplicasStartedTogetherNeverCollide() {
+    // Same start time and a burst far beyond the clock: only the instance bits keep them apart
+    OrderIdGenerator first = new OrderIdGenerator(1, () -> 5_000L);
+    OrderIdGenerator second = new OrderIdGenerator(2, () -> 5_000L);
+    Set<Integer> ids = new HashSet<>();
+    for (int i = 0; i < 100_000; i++) {
+      int a = first.next();
+      int b = second.next();
+      assertTrue(a > 0 && b > 0);
+      assertEquals(1, a >>> OrderIdGenerator.TICK_BITS);
+      assertEquals(2, b >>> OrderIdGenerator.TICK_BITS);
+      assertTrue(ids.add(a));
+      assertTrue(ids.add(b));
+    }
+  }
+
+  @Test
+  void testOrderIdGenerator_WrapsOnlyAfterTheDedupWindow() {
+    // The warehouse keeps seen IDs for an hour by default (6 segments x 10 minutes)
+    assertTrue(OrderIdGenerator.WRAP_MILLIS > 60 * 60 * 1000);
+
+    long[] clock = {0};
+    OrderIdGenerator generator = new OrderIdGenerator(OrderIdGenerator.MAX_INSTANCE, () -> clock[0]);
+    int start = generator.next();
+    for (long minute = 1; minute <= 60; minute++) {
+      clock[0] = minute * 60 * 1000;
+      assertNotEquals(start, generator.next());
+    }
+    // 2^25 ms is exactly five wraps of 20 ticks/ms, so the start ID comes round again
+    clock[0] = 1L << 25;
+    assertEquals(start, generator.next());
+  }
+
+  @Test
+  void testOrderIdGenerator_RejectsInstanceOutOfRange() {
+    assertThrows(IllegalArgumentException.class, () -> new OrderIdGenerator(-1));
+    assertThrows(IllegalArgumentException.class, () -> new OrderIdGenerator(OrderIdGenerator.MAX_INSTANCE + 1));
+  }
+
   @Test
   void testCheckout_EmptyCart_ThrowsException() {
     Integer customerId = 100;
@@ -172,7 +272,7 @@ class ShoppingCartServiceTest {
     shoppingCartService.addItem(cartId, 5, 2);
     String creditCard = "1234-5678-9012-3456";
 
-    when(ccaClient.authorize(anyString())).thenReturn(true);
+    when(ccaClient.authorize(anyString(), anyString())).thenReturn(true);
     shoppingCartService.checkout(cartId, creditCard);
 
     assertThrows(IllegalStateException.class, () -> {
@@ -197,7 +297,7 @@ class ShoppingCartServiceTest {
     shoppingCartService.addItem(cartId, 5, 2);
     String creditCard = "1234-5678-9012-3456";
 
-    when(ccaClient.authorize(creditCard)).thenReturn(false);
+    when(ccaClient.authorize(eq(creditCard), anyString())).thenReturn(false);
 
     IllegalStateException exception = assertThrows(IllegalStateException.class, () -> {
       shoppingCartService.checkout(cartId, creditCard);
@@ -213,7 +313,7 @@ class ShoppingCartServiceTest {
     shoppingCartService.addItem(cartId, 5, 2);
     String invalidCard = "invalid-card";
 
-    when(ccaClient.authorize(invalidCard))
+    when(ccaClient.authorize(eq(invalidCard), anyString()))
         .thenThrow(new IllegalArgumentException("Invalid credit card format"));
 
     assertThrows(IllegalArgumentException.class, () -> {
@@ -227,11 +327,80 @@ class ShoppingCartServiceTest {
     Integer cartId = shoppingCartService.createCart(customerId);
     shoppingCartService.addItem(cartId, 5, 2);
 
-    when(ccaClient.authorize(anyString())).thenReturn(true);
+    when(ccaClient.authorize(anyString(), anyString())).thenReturn(true);
 
     shoppingCartService.checkout(cartId, "1234-5678-9012-3456");
 
     ShoppingCart cart = shoppingCartService.getCartById(cartId);
     assertTrue(cart.isCheckedOut());
   }
-}
\ No newline at end of file
+
+  @Test
+  void testCheckout_WithInventory_ReservesThenCommits() {
+    ReflectionTestUtils.setField(shoppingCartService, "inventoryClient", inventoryClient);
+    Integer cartId = shoppingCartService.createCart(100);
+    shoppingCartService.addItem(cartId, 5, 2);
+
+    when(inventoryClient.reserve(any(ShoppingCart.class))).thenReturn(42L);
+    when(ccaClient.authorize(anyString(), anyString())).thenReturn(true);
+
+    shoppingCartService.checkout(cartId, "1234-5678-9012-3456");
+
+    verify(inventoryClient).commit(42L);
+    verify(inventoryClient, never()).release(anyLong());
+  }
+
+  @Test
+  void testCheckout_WithInventory_PaymentDeclined_ReleasesReservation() {
+    ReflectionTestUtils.setField(shoppingCartService, "inventoryClient", inventoryClient);
+    Integer cartId = shoppingCartService.createCart(100);
+    shoppingCartService.addItem(cartId, 5, 2);
+
+    when(inventoryClient.reserve(any(ShoppingCart.class))).thenReturn(42L);
+    when(ccaClient.authorize(anyString(), anyString())).thenReturn(false);
+
+    assertThrows(IllegalStateException.class, () -> shoppingCartService.checkout(cartId, "1234-5678-9012-3456"));
+
+    verify(inventoryClient).release(42L);
+    verify(inventoryClient, never()).commit(anyLong());
+    assertFalse(shoppingCartService.getCartById(cartId).isCheckedOut());
+  }
+
+  @Test
+  void testCheckout_WithInventory_SendFailed_ReleasesReservation() {
+    ReflectionTestUtils.setField(shoppingCartService, "inventoryClient", inventoryClient);
+    Integer cartId = shoppingCartService.createCart(100);
+    shoppingCartService.addItem(cartId, 5, 2);
+
+    when(inventoryClient.reserve(any(ShoppingCart.class))).thenReturn(42L, 43L);
+    when(ccaClient.authorize(anyString(), anyString())).thenReturn(true);
+    when(messageProducer.sendOrderToWarehouse(anyInt(), any(ShoppingCart.class))).thenReturn(false, true);
+
+    assertThrows(OrderNotSentException.class, () -> shoppingCartService.checkout(cartId, "1234-5678-9012-3456"));
+
+    verify(inventoryClient).release(42L);
+    verify(inventoryClient, never()).commit(anyLong());
+    assertFalse(shoppingCartService.getCartById(cartId).isCheckedOut());
+
+    // The retry reserves again and is authorized under the same ID
+    assertNotNull(shoppingCartService.checkout(cartId, "1234-5678-9012-3456"));
+    verify(inventoryClient).commit(43L);
+    ArgumentCaptor<String> authorizationIds = ArgumentCaptor.forClass(String.class);
+    verify(ccaClient, times(2)).authorize(anyString(), authorizationIds.capture());
+    assertEquals(authorizationIds.getAllValues().get(0), authorizationIds.getAllValues().get(1));
+  }
+
+  @Test
+  void testCheckout_WithInventory_OutOfStock_SkipsPayment() {
+    ReflectionTestUtils.setField(shoppingCartService, "inventoryClient", inventoryClient);
+    Integer cartId = shoppingCartService.createCart(100);
+    shoppingCartService.addItem(cartId, 5, 2);
+
+    when(inventoryClient.reserve(any(ShoppingCart.class))).thenThrow(new OutOfStockException("Insufficient stock"));
+
+    assertThrows(OutOfStockException.class, () -> shoppingCartService.checkout(cartId, "1234-5678-9012-3456"));
+
+    verify(ccaClient, never()).authorize(anyString(), anyString());
+    assertFalse(shoppingCartService.getCartById(cartId).isCheckedOut());
+  }
+}
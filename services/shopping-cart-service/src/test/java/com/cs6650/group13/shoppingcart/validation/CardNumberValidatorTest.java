@@ -0,0 +1,43 @@
+package com.cs6650.group13.shoppingcart.validation;
+
+import com.cs6650.group13.shoppingcart.dto.CheckoutRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CardNumberValidatorTest {
+
+  private static final Pattern REGEX = Pattern.compile("^[0-9]{4}-[0-9]{4}-[0-9]{4}-[0-9]{4}$");
+
+  @Test
+  void testAgreesWithTheRegex() {
+    String[] cards = {
+        "4111-1111-1111-1111", "0000-0000-0000-0000", "9999-9999-9999-9999",
+        "4111-1111-1111-111", "4111-1111-1111-11111", "4111111111111111", "4111 1111 1111 1111",
+        "4111-1111-1111-111a", "/111-1111-1111-1111", ":111-1111-1111-1111", "", "-------------------"
+    };
+    for (String card : cards) {
+      assertEquals(REGEX.matcher(card).matches(), CardNumberValidator.isValidFormat(card), card);
+    }
+    assertTrue(CardNumberValidator.isValidWithLuhn("4111-1111-1111-1111"));
+    assertFalse(CardNumberValidator.isValidWithLuhn("4111-1111-1111-1112"));
+  }
+
+  @Test
+  void testConstraintOnCheckoutRequest() {
+    Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+    assertTrue(validator.validate(new CheckoutRequest("1234-5678-9012-3456")).isEmpty());
+
+    Set<ConstraintViolation<CheckoutRequest>> violations = validator.validate(new CheckoutRequest("1234567890123456"));
+    assertEquals(1, violations.size());
+    assertEquals("Credit card number must be in format XXXX-XXXX-XXXX-XXXX", violations.iterator().next().getMessage());
+    assertEquals("Credit card number is required",
+        validator.validate(new CheckoutRequest(null)).iterator().next().getMessage());
+  }
+}
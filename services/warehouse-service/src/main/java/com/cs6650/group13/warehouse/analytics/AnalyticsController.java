@@ -0,0 +1,64 @@
+package com.cs6650.group13.warehouse.analytics;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Approximate order analytics (see {@link OrderSketches})
+ *
+ * GET  /analytics/today?sketches=true     distinct customers and products, items per order since midnight UTC
+ * GET  /analytics/hours?count=24          the same per hour, the current hour first
+ * GET  /analytics/hours/{hoursAgo}?sketches=true
+ * POST /analytics/merge                   merge summaries of one period taken with sketches=true,
+ *                                         e.g. one per instance
+ */
+@RestController
+@RequestMapping("/analytics")
+@ConditionalOnProperty(name = "app.sketches.enabled", havingValue = "true", matchIfMissing = true)
+public class AnalyticsController {
+
+  private final OrderSketches orderSketches;
+
+  public AnalyticsController(OrderSketches orderSketches) {
+    this.orderSketches = orderSketches;
+  }
+
+  @GetMapping("/today")
+  public SketchSummary getToday(@RequestParam(defaultValue = "false") boolean sketches) {
+    return orderSketches.getToday(sketches);
+  }
+
+  @GetMapping("/hours")
+  public List<SketchSummary> getHours(@RequestParam(defaultValue = "24") int count) {
+    return orderSketches.getHours(count);
+  }
+
+  @GetMapping("/hours/{hoursAgo}")
+  public SketchSummary getHour(@PathVariable int hoursAgo,
+                               @RequestParam(defaultValue = "false") boolean sketches) {
+    return orderSketches.getHour(hoursAgo, sketches);
+  }
+
+  @PostMapping("/merge")
+  public SketchSummary merge(@RequestBody List<SketchSummary> summaries) {
+    return orderSketches.merge(summaries);
+  }
+
+  @ExceptionHandler(IllegalArgumentException.class)
+  public ResponseEntity<Map<String, Object>> handleIllegalArgument(IllegalArgumentException ex) {
+    return ResponseEntity.badRequest().body(Map.of(
+        "error", "INVALID_INPUT",
+        "message", ex.getMessage()));
+  }
+}
@@ -0,0 +1,243 @@
+package com.cs6650.group13.warehouse.analytics;
+
+import com.cs6650.group13.warehouse.model.OrderView;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Approximate order analytics in constant memory: distinct customers, distinct products
+ * and items per order, per hour and per UTC day
+ *
+ * - Consumer threads update one of {@code app.sketches.stripes} sets of sketches for the
+ *   current hour, picked by thread, so they rarely share a lock
+ * - When the hour changes, a stripe's sketches are merged into that hour's closed window;
+ *   the last {@code app.sketches.retained-hours} closed hours are kept
+ * - A day is the union of its hours, so "distinct customers today" counts a customer
+ *   seen in several hours once
+ *
+ * Each HLL sketch takes at most 2^lgK bytes and has a relative standard error of about
+ * 1.04 / sqrt(2^lgK) (1.6% at the default lgK 12); the KLL sketch's rank error is about
+ * 1.65% at k = 200. Summaries can carry the serialized sketches, and {@link #merge}
+ * combines those from several instances.
+ *
+ * On by default: disable with {@code SKETCHES_ENABLED=false}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.sketches.enabled", havingValue = "true", matchIfMissing = true)
+public class OrderSketches {
+
+  private static final Logger logger = LoggerFactory.getLogger(OrderSketches.class);
+
+  static final long HOUR_SECONDS = 3600;
+  static final long DAY_SECONDS = 24 * HOUR_SECONDS;
+
+  /**
+   * The current hour's sketches for the threads mapped to one stripe
+   */
+  private static final class Stripe {
+    private final OrderWindow window;
+    private long hour = -1;
+
+    private Stripe(int lgK, int kllK) {
+      this.window = new OrderWindow(lgK, kllK);
+    }
+  }
+
+  private final int lgK;
+  private final int kllK;
+  private final int retainedHours;
+  private final Stripe[] stripes;
+  private final int stripeMask;
+  private final TreeMap<Long, OrderWindow> closedHours = new TreeMap<>();
+
+  public OrderSketches(MeterRegistry meterRegistry,
+                       @Value("${app.sketches.lg-k:12}") int lgK,
+                       @Value("${app.sketches.kll-k:200}") int kllK,
+                       @Value("${app.sketches.stripes:8}") int stripes,
+                       @Value("${app.sketches.retained-hours:48}") int retainedHours) {
+    if (Integer.bitCount(stripes) != 1) {
+      throw new IllegalArgumentException("Stripe count must be a power of two: " + stripes);
+    }
+    if (retainedHours < 24) {
+      throw new IllegalArgumentException("At least 24 hours must be retained to cover a day");
+    }
+    this.lgK = lgK;
+    this.kllK = kllK;
+    this.retainedHours = retainedHours;
+    this.stripes = new Stripe[stripes];
+    for (int i = 0; i < stripes; i++) {
+      this.stripes[i] = new Stripe(lgK, kllK);
+    }
+    this.stripeMask = stripes - 1;
+
+    Gauge.builder("warehouse.sketches.customers.today", this,
+            sketches -> sketches.getToday(false).getDistinctCustomers())
+        .description("Estimated distinct customers since midnight UTC")
+        .register(meterRegistry);
+    Gauge.builder("warehouse.sketches.products.hour", this,
+            sketches -> sketches.getHour(0, false).getDistinctProducts())
+        .description("Estimated distinct products ordered in the current hour")
+        .register(meterRegistry);
+
+    logger.info("Order sketches: lgK {}, KLL k {}, {} stripes, {} hours retained", lgK, kllK, stripes, retainedHours);
+  }
+
+  public void record(OrderView order) {
+    record(order, System.currentTimeMillis());
+  }
+
+  void record(OrderView order, long nowMillis) {
+    long hour = nowMillis / 1000 / HOUR_SECONDS;
+    Stripe stripe = stripes[homeStripe()];
+    synchronized (stripe) {
+      if (stripe.hour != hour) {
+        retire(stripe, hour);
+      }
+      stripe.window.update(order);
+    }
+  }
+
+  private int homeStripe() {
+    long h = Thread.currentThread().threadId() * 0x9E3779B97F4A7C15L;
+    return (int) (h >>> 32) & stripeMask;
+  }
+
+  /**
+   * Move a stripe's sketches into its hour's closed window and start it on a new hour
+   * (caller holds the stripe's lock)
+   */
+  private void retire(Stripe stripe, long hour) {
+    if (!stripe.window.isEmpty()) {
+      synchronized (closedHours) {
+        closedHours.computeIfAbsent(stripe.hour, h -> new OrderWindow(lgK, kllK)).merge(stripe.window);
+        closedHours.headMap(hour - retainedHours, false).clear();
+      }
+      stripe.window.reset();
+    }
+    stripe.hour = hour;
+  }
+
+  /**
+   * Retire every stripe still holding an earlier hour, so closed hours are complete
+   */
+  private void rotate(long hour) {
+    for (Stripe stripe : stripes) {
+      synchronized (stripe) {
+        if (stripe.hour < hour) {
+          retire(stripe, hour);
+        }
+      }
+    }
+  }
+
+  /**
+   * Union of the given hours [fromHour, toHour], including the stripes' current hour
+   */
+  private OrderWindow collect(long fromHour, long toHour, long currentHour) {
+    OrderWindow window = new OrderWindow(lgK, kllK);
+    synchronized (closedHours) {
+      for (OrderWindow closed : closedHours.subMap(fromHour, true, toHour, true).values()) {
+        window.merge(closed);
+      }
+    }
+    if (toHour >= currentHour) {
+      for (Stripe stripe : stripes) {
+        synchronized (stripe) {
+          if (stripe.hour == currentHour && !stripe.window.isEmpty()) {
+            window.merge(stripe.window);
+          }
+        }
+      }
+    }
+    return window;
+  }
+
+  /**
+   * Since midnight UTC
+   * @param withSketches Include the serialized sketches, for {@link #merge}
+   */
+  public SketchSummary getToday(boolean withSketches) {
+    return getToday(withSketches, System.currentTimeMillis());
+  }
+
+  SketchSummary getToday(boolean withSketches, long nowMillis) {
+    long hour = nowMillis / 1000 / HOUR_SECONDS;
+    long dayStartHour = hour / 24 * 24;
+    rotate(hour);
+    return collect(dayStartHour, hour, hour)
+        .toSummary(Instant.ofEpochSecond(dayStartHour * HOUR_SECONDS), DAY_SECONDS, withSketches);
+  }
+
+  /**
+   * One hour
+   * @param hoursAgo 0 for the current hour, 1 for the one before, ...
+   */
+  public SketchSummary getHour(int hoursAgo, boolean withSketches) {
+    return getHour(hoursAgo, withSketches, System.currentTimeMillis());
+  }
+
+  SketchSummary getHour(int hoursAgo, boolean withSketches, long nowMillis) {
+    if (hoursAgo < 0 || hoursAgo >= retainedHours) {
+      throw new IllegalArgumentException("Hours ago must be between 0 and " + (retainedHours - 1));
+    }
+    long currentHour = nowMillis / 1000 / HOUR_SECONDS;
+    long hour = currentHour - hoursAgo;
+    rotate(currentHour);
+    return collect(hour, hour, currentHour)
+        .toSummary(Instant.ofEpochSecond(hour * HOUR_SECONDS), HOUR_SECONDS, withSketches);
+  }
+
+  /**
+   * The last {@code count} hours, the current one first
+   */
+  public List<SketchSummary> getHours(int count) {
+    if (count <= 0 || count > retainedHours) {
+      throw new IllegalArgumentException("Hour count must be between 1 and " + retainedHours);
+    }
+    long nowMillis = System.currentTimeMillis();
+    List<SketchSummary> hours = new ArrayList<>(count);
+    for (int hoursAgo = 0; hoursAgo < count; hoursAgo++) {
+      hours.add(getHour(hoursAgo, false, nowMillis));
+    }
+    return hours;
+  }
+
+  /**
+   * Merge summaries of the same period that include their sketches, e.g. one per instance
+   */
+  public SketchSummary merge(List<SketchSummary> summaries) {
+    if (summaries.isEmpty()) {
+      throw new IllegalArgumentException("No summaries to merge");
+    }
+    SketchSummary first = summaries.get(0);
+    OrderWindow window = new OrderWindow(lgK, kllK);
+    for (SketchSummary summary : summaries) {
+      if (summary.getPeriodStart() == null || !summary.getPeriodStart().equals(first.getPeriodStart())
+          || summary.getPeriodSeconds() != first.getPeriodSeconds()) {
+        throw new IllegalArgumentException("Summaries must cover the same period");
+      }
+      window.merge(summary.getSketches());
+    }
+    return window.toSummary(first.getPeriodStart(), first.getPeriodSeconds(), true);
+  }
+
+  /**
+   * Closed hours currently held, oldest first (for tests)
+   */
+  Map<Long, OrderWindow> getClosedHours() {
+    synchronized (closedHours) {
+      return new TreeMap<>(closedHours);
+    }
+  }
+}
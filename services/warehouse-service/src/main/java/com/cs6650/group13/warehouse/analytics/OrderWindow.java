@@ -0,0 +1,100 @@
+package com.cs6650.group13.warehouse.analytics;
+
+import com.cs6650.group13.warehouse.model.OrderView;
+import org.apache.datasketches.hll.HllSketch;
+import org.apache.datasketches.hll.Union;
+import org.apache.datasketches.kll.KllLongsSketch;
+import org.apache.datasketches.memory.Memory;
+
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * The sketches for one period: distinct customers and distinct products (HyperLogLog)
+ * and items per order (KLL quantiles)
+ *
+ * HLL unions and KLL merges are lossless with respect to the sketches' error bounds,
+ * so windows from several stripes, hours or warehouse instances combine into one.
+ * Not thread-safe: callers lock.
+ */
+final class OrderWindow {
+
+  private final Union customers;
+  private final Union products;
+  private final KllLongsSketch itemsPerOrder;
+
+  OrderWindow(int lgK, int kllK) {
+    this.customers = new Union(lgK);
+    this.products = new Union(lgK);
+    this.itemsPerOrder = KllLongsSketch.newHeapInstance(kllK);
+  }
+
+  void update(OrderView order) {
+    if (order.hasCustomerId()) {
+      customers.update(order.getCustomerId());
+    }
+    int[] productIds = order.getProductIds();
+    for (int i = 0; i < order.getItemCount(); i++) {
+      products.update(productIds[i]);
+    }
+    itemsPerOrder.update(order.getItemCount());
+  }
+
+  void merge(OrderWindow other) {
+    customers.update(other.customers.getResult());
+    products.update(other.products.getResult());
+    itemsPerOrder.merge(other.itemsPerOrder);
+  }
+
+  boolean isEmpty() {
+    return itemsPerOrder.isEmpty();
+  }
+
+  void reset() {
+    customers.reset();
+    products.reset();
+    itemsPerOrder.reset();
+  }
+
+  /**
+   * Estimates for this window
+   * @param withSketches Also include the serialized sketches, for merging elsewhere
+   */
+  SketchSummary toSummary(Instant periodStart, long periodSeconds, boolean withSketches) {
+    SketchSummary summary = new SketchSummary(periodStart, periodSeconds);
+    summary.setOrders(itemsPerOrder.getN());
+    summary.setDistinctCustomers(Math.round(customers.getEstimate()),
+        Math.round(customers.getLowerBound(2)), Math.round(customers.getUpperBound(2)));
+    summary.setDistinctProducts(Math.round(products.getEstimate()));
+    if (!itemsPerOrder.isEmpty()) {
+      long[] quantiles = itemsPerOrder.getQuantiles(new double[] {0.5, 0.9, 0.99});
+      summary.setItemsPerOrder(quantiles[0], quantiles[1], quantiles[2], itemsPerOrder.getMaxItem());
+    }
+    if (withSketches) {
+      Base64.Encoder base64 = Base64.getEncoder();
+      summary.setSketches(new SketchSummary.Sketches(
+          base64.encodeToString(customers.getResult().toCompactByteArray()),
+          base64.encodeToString(products.getResult().toCompactByteArray()),
+          base64.encodeToString(itemsPerOrder.toByteArray())));
+    }
+    return summary;
+  }
+
+  /**
+   * Merge the serialized sketches of a summary from another instance
+   */
+  void merge(SketchSummary.Sketches sketches) {
+    if (sketches == null || sketches.getCustomers() == null || sketches.getProducts() == null
+        || sketches.getItemsPerOrder() == null) {
+      throw new IllegalArgumentException("Summary has no sketches to merge");
+    }
+    try {
+      Base64.Decoder base64 = Base64.getDecoder();
+      customers.update(HllSketch.heapify(base64.decode(sketches.getCustomers())));
+      products.update(HllSketch.heapify(base64.decode(sketches.getProducts())));
+      itemsPerOrder.merge(KllLongsSketch.heapify(Memory.wrap(base64.decode(sketches.getItemsPerOrder()))));
+    } catch (RuntimeException e) {
+      throw new IllegalArgumentException("Not a serialized order sketch: " + e.getMessage(), e);
+    }
+  }
+}
@@ -0,0 +1,171 @@
+package com.cs6650.group13.warehouse.analytics;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.Instant;
+
+/**
+ * Approximate order analytics for one period (an hour or a UTC day)
+ *
+ * Distinct counts are HyperLogLog estimates, with bounds covering the true count with
+ * about 95% confidence; items-per-order percentiles come from a KLL sketch. When
+ * requested, the serialized sketches are included so that summaries of the same period
+ * from several instances can be merged.
+ */
+public class SketchSummary {
+
+  @JsonProperty("period_start")
+  private Instant periodStart;
+
+  @JsonProperty("period_seconds")
+  private long periodSeconds;
+
+  @JsonProperty("orders")
+  private long orders;
+
+  @JsonProperty("distinct_customers")
+  private long distinctCustomers;
+
+  @JsonProperty("distinct_customers_lower")
+  private long distinctCustomersLower;
+
+  @JsonProperty("distinct_customers_upper")
+  private long distinctCustomersUpper;
+
+  @JsonProperty("distinct_products")
+  private long distinctProducts;
+
+  @JsonProperty("items_per_order_p50")
+  private long itemsPerOrderP50;
+
+  @JsonProperty("items_per_order_p90")
+  private long itemsPerOrderP90;
+
+  @JsonProperty("items_per_order_p99")
+  private long itemsPerOrderP99;
+
+  @JsonProperty("items_per_order_max")
+  private long itemsPerOrderMax;
+
+  @JsonProperty("sketches")
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private Sketches sketches;
+
+  public SketchSummary() {
+  }
+
+  SketchSummary(Instant periodStart, long periodSeconds) {
+    this.periodStart = periodStart;
+    this.periodSeconds = periodSeconds;
+  }
+
+  void setOrders(long orders) {
+    this.orders = orders;
+  }
+
+  void setDistinctCustomers(long estimate, long lower, long upper) {
+    this.distinctCustomers = estimate;
+    this.distinctCustomersLower = lower;
+    this.distinctCustomersUpper = upper;
+  }
+
+  void setDistinctProducts(long distinctProducts) {
+    this.distinctProducts = distinctProducts;
+  }
+
+  void setItemsPerOrder(long p50, long p90, long p99, long max) {
+    this.itemsPerOrderP50 = p50;
+    this.itemsPerOrderP90 = p90;
+    this.itemsPerOrderP99 = p99;
+    this.itemsPerOrderMax = max;
+  }
+
+  void setSketches(Sketches sketches) {
+    this.sketches = sketches;
+  }
+
+  public Instant getPeriodStart() {
+    return periodStart;
+  }
+
+  public long getPeriodSeconds() {
+    return periodSeconds;
+  }
+
+  public long getOrders() {
+    return orders;
+  }
+
+  public long getDistinctCustomers() {
+    return distinctCustomers;
+  }
+
+  public long getDistinctCustomersLower() {
+    return distinctCustomersLower;
+  }
+
+  public long getDistinctCustomersUpper() {
+    return distinctCustomersUpper;
+  }
+
+  public long getDistinctProducts() {
+    return distinctProducts;
+  }
+
+  public long getItemsPerOrderP50() {
+    return itemsPerOrderP50;
+  }
+
+  public long getItemsPerOrderP90() {
+    return itemsPerOrderP90;
+  }
+
+  public long getItemsPerOrderP99() {
+    return itemsPerOrderP99;
+  }
+
+  public long getItemsPerOrderMax() {
+    return itemsPerOrderMax;
+  }
+
+  public Sketches getSketches() {
+    return sketches;
+  }
+
+  /**
+   * The period's sketches, serialized and Base64-encoded
+   */
+  public static class Sketches {
+
+    @JsonProperty("customers")
+    private String customers;
+
+    @JsonProperty("products")
+    private String products;
+
+    @JsonProperty("items_per_order")
+    private String itemsPerOrder;
+
+    public Sketches() {
+    }
+
+    Sketches(String customers, String products, String itemsPerOrder) {
+      this.customers = customers;
+      this.products = products;
+      this.itemsPerOrder = itemsPerOrder;
+    }
+
+    public String getCustomers() {
+      return customers;
+    }
+
+    public String getProducts() {
+      return products;
+    }
+
+    public String getItemsPerOrder() {
+      return itemsPerOrder;
+    }
+  }
+}
@@ -0,0 +1,124 @@
+package com.cs6650.group13.warehouse.config;
+
+import com.cs6650.group13.warehouse.consumer.ConsumerMetrics;
+import com.cs6650.group13.warehouse.consumer.OrderMessageConsumer;
+import com.cs6650.group13.warehouse.consumer.OrderMessageDecoder;
+import com.cs6650.group13.warehouse.model.OrderView;
+import com.cs6650.group13.warehouse.model.OrderViewPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.annotation.RabbitListenerConfigurer;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerEndpoint;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistrar;
+import org.springframework.amqp.rabbit.listener.api.ChannelAwareMessageListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers one listener container (consumer group) per order partition queue
+ *
+ * Each partition gets its own container, so partitions never compete for consumers
+ * and the consumer knows which partition's statistics to update. With a single
+ * partition the container uses the global {@code spring.rabbitmq.listener.simple.*}
+ * concurrency (or {@code direct.consumers-per-queue}), as before; with several, each
+ * container runs {@code app.rabbitmq.partition-concurrency} consumers (1 keeps every
+ * partition, and therefore every customer's orders, in order).
+ *
+ * The container type follows {@code spring.rabbitmq.listener.type}: simple or direct.
+ * The simple container takes a partition concurrency of {@code N} or {@code MIN-MAX};
+ * the direct container runs a fixed number of consumers per queue, so a range maps to
+ * its upper bound there.
+ *
+ * Decoding happens here, so its time is recorded here when consumer metrics are enabled.
+ * Orders are decoded into the consumer thread's reusable {@link OrderView}, or, with
+ * virtual threads (which are not long-lived), into a view borrowed from a per-container
+ * {@link OrderViewPool} for the length of the delivery.
+ */
+@Configuration
+public class OrderListenerConfig implements RabbitListenerConfigurer {
+
+  private static final Logger logger = LoggerFactory.getLogger(OrderListenerConfig.class);
+
+  // Deliveries one container runs at once, so borrowed views are nearly always reused
+  private static final int POOLED_VIEWS_PER_CONTAINER = 64;
+
+  private final OrderMessageConsumer consumer;
+  private final OrderMessageDecoder decoder;
+
+  @Autowired(required = false)
+  private ConsumerMetrics metrics;
+
+  @Value("${app.rabbitmq.queue-name}")
+  private String queueName;
+
+  @Value("${app.rabbitmq.partitions:1}")
+  private int partitions;
+
+  @Value("${app.rabbitmq.partition-concurrency:1}")
+  private String partitionConcurrency;
+
+  @Value("${spring.rabbitmq.listener.type:simple}")
+  private String listenerType;
+
+  @Value("${spring.threads.virtual.enabled:false}")
+  private boolean virtualThreads;
+
+  public OrderListenerConfig(OrderMessageConsumer consumer, OrderMessageDecoder decoder) {
+    this.consumer = consumer;
+    this.decoder = decoder;
+  }
+
+  @Override
+  public void configureRabbitListeners(RabbitListenerEndpointRegistrar registrar) {
+    int count = Math.max(1, partitions);
+    if (count > 1) {
+      logger.info("Order partitions use {} containers with concurrency {} (configured {})",
+          listenerType, containerConcurrency(), partitionConcurrency);
+    }
+    for (int partition = 0; partition < count; partition++) {
+      registrar.registerEndpoint(endpoint(partition, count));
+    }
+  }
+
+  SimpleRabbitListenerEndpoint endpoint(int partition, int count) {
+    SimpleRabbitListenerEndpoint endpoint = new SimpleRabbitListenerEndpoint();
+    endpoint.setId(OrderMessageConsumer.listenerId(partition, count));
+    endpoint.setQueueNames(RabbitMQConfig.partitionQueueName(queueName, partition, count));
+    if (count > 1) {
+      endpoint.setConcurrency(containerConcurrency());
+    }
+    OrderViewPool views = virtualThreads ? new OrderViewPool(POOLED_VIEWS_PER_CONTAINER) : null;
+    endpoint.setMessageListener((ChannelAwareMessageListener) (message, channel) -> {
+      MessageProperties properties = message.getMessageProperties();
+      OrderView view = views != null ? views.acquire() : OrderView.forCurrentThread();
+      try {
+        OrderView order;
+        if (metrics != null) {
+          long start = System.nanoTime();
+          order = decoder.decode(message.getBody(), view);
+          metrics.recordDecode(System.nanoTime() - start);
+          metrics.recordDelivery(message, order);
+        } else {
+          order = decoder.decode(message.getBody(), view);
+        }
+        consumer.receiveOrder(order, channel, properties.getDeliveryTag(), message, partition);
+      } finally {
+        if (views != null) {
+          views.release(view);
+        }
+      }
+    });
+    logger.info("Registering order listener {} on queue {}", endpoint.getId(), endpoint.getQueueNames());
+    return endpoint;
+  }
+
+  /**
+   * Partition concurrency in the form the configured container type accepts
+   * @throws IllegalArgumentException If the value is not {@code N} or {@code MIN-MAX}
+   */
+  String containerConcurrency() {
+    return PartitionConcurrency.parse(partitionConcurrency).forContainer(listenerType);
+  }
+}
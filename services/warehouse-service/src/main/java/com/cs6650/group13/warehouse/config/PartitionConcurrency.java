@@ -0,0 +1,59 @@
+package com.cs6650.group13.warehouse.config;
+
+/**
+ * Consumers per partition container, from {@code app.rabbitmq.partition-concurrency}
+ *
+ * The value is {@code N} or {@code MIN-MAX}. The simple container takes either form;
+ * the direct container runs a fixed number of consumers per queue, so a range maps to
+ * its upper bound there. Nothing may run more than {@link #max()} consumers on one
+ * partition: with a maximum of 1, each partition (and so each customer) stays in order.
+ *
+ * @param min Consumers a simple container starts with
+ * @param max Consumers a container may ever run
+ */
+public record PartitionConcurrency(int min, int max) {
+
+  public static final String PROPERTY = "app.rabbitmq.partition-concurrency";
+
+  /**
+   * @throws IllegalArgumentException If the value is not {@code N} or {@code MIN-MAX}
+   */
+  public static PartitionConcurrency parse(String value) {
+    String trimmed = value == null ? "" : value.trim();
+    int dash = trimmed.indexOf('-');
+    int min;
+    int max;
+    try {
+      min = Integer.parseInt(dash < 0 ? trimmed : trimmed.substring(0, dash));
+      max = dash < 0 ? min : Integer.parseInt(trimmed.substring(dash + 1));
+    } catch (NumberFormatException e) {
+      min = 0;
+      max = 0;
+    }
+    if (min < 1 || max < min) {
+      throw new IllegalArgumentException(PROPERTY + " must be N or MIN-MAX, was '" + value + "'");
+    }
+    return new PartitionConcurrency(min, max);
+  }
+
+  /**
+   * Consumers a container of the given type starts with
+   */
+  public int initial(String listenerType) {
+    return isDirect(listenerType) ? max : min;
+  }
+
+  /**
+   * The concurrency in the form the given container type accepts
+   */
+  public String forContainer(String listenerType) {
+    if (isDirect(listenerType) || min == max) {
+      return String.valueOf(max);
+    }
+    return min + "-" + max;
+  }
+
+  private static boolean isDirect(String listenerType) {
+    return "direct".equalsIgnoreCase(listenerType);
+  }
+}
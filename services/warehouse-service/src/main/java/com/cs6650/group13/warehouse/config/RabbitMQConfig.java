@@ -1,24 +1,151 @@
 package com.cs6650.group13.warehouse.config;
 
+import com.cs6650.group13.warehouse.consumer.OrderMessageDecoder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
-import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.ConnectionFactoryCustomizer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+
 @Configuration
 public class RabbitMQConfig {
 
   private static final Logger logger = LoggerFactory.getLogger(RabbitMQConfig.class);
 
+  public static final String RETRY_COUNT_HEADER = "x-retry-count";
+  public static final String PARKED_ROUTING_KEY = "parked";
+
+  @Value("${app.rabbitmq.queue-name}")
+  private String queueName;
+
+  @Value("${app.rabbitmq.partitions:1}")
+  private int partitions;
+
+  @Value("${app.rabbitmq.retry.exchange-name}")
+  private String retryExchangeName;
+
+  @Value("${app.rabbitmq.retry.max-attempts}")
+  private int maxAttempts;
+
+  @Value("${app.rabbitmq.retry.initial-delay-ms}")
+  private long initialDelayMs;
+
+  @Value("${app.rabbitmq.retry.multiplier}")
+  private double multiplier;
+
   /**
-   * JSON message converter for deserializing OrderMessage
+   * Streaming decoder: order JSON -> per-thread primitive OrderView
    */
   @Bean
-  public MessageConverter jsonMessageConverter() {
-    logger.info("Configuring JSON message converter");
-    return new Jackson2JsonMessageConverter();
+  public OrderMessageDecoder orderMessageDecoder() {
+    logger.info("Configuring streaming order message decoder");
+    return new OrderMessageDecoder();
   }
-}
 
+  /**
+   * Run the AMQP client's consumer dispatch on virtual threads
+   *
+   * With the direct container the listener (and so all order processing in
+   * OrderMessageConsumer) runs on these dispatch threads, so consumers per queue can
+   * grow without a platform thread each. The client still hands each channel's
+   * deliveries to one task at a time, so per-consumer ordering is unchanged.
+   */
+  @Bean
+  @ConditionalOnThreading(Threading.VIRTUAL)
+  public ConnectionFactoryCustomizer virtualThreadDispatchCustomizer() {
+    logger.info("Dispatching AMQP deliveries on virtual threads");
+    return connectionFactory -> connectionFactory.setSharedExecutor(
+        Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("amqp-dispatch-", 0).factory()));
+  }
+
+  /**
+   * Queue name of an order partition; a single partition keeps the original queue name
+   * (same naming as the shopping cart's RabbitMQConfig)
+   */
+  public static String partitionQueueName(String queueName, int partition, int partitions) {
+    return partitions <= 1 ? queueName : queueName + "." + partition;
+  }
+
+  /**
+   * Routing key of the retry queue for the given attempt (1-based)
+   */
+  public static String retryRoutingKey(int attempt) {
+    return "retry." + attempt;
+  }
+
+  /**
+   * Name of the retry queue for the given attempt (1-based)
+   */
+  public static String retryQueueName(String queueName, int attempt) {
+    return queueName + ".retry." + attempt;
+  }
+
+  public static String parkingLotQueueName(String queueName) {
+    return queueName + ".parking-lot";
+  }
+
+  /**
+   * Retry pipeline for orders that fail validation or processing
+   *
+   * Failed orders are published to the retry exchange instead of being requeued at the
+   * head of the work queue. Attempt N lands in a queue whose per-queue TTL is
+   * initialDelay * multiplier^(N-1); on expiry the broker dead-letters it back to the
+   * work queue through the default exchange. After the last attempt the order goes to
+   * the parking-lot queue for manual inspection.
+   *
+   * With partitioned order queues the retry queues are shared: they carry no
+   * dead-letter routing key, and {@link com.cs6650.group13.warehouse.consumer.OrderRetryRouter}
+   * puts the order's partition queue in the CC header, which the broker keeps when it
+   * dead-letters the message back through the default exchange.
+   *
+   * The work queues are declared with the same (argument-free) definition the shopping
+   * cart uses, so either service can start first.
+   */
+  @Bean
+  public Declarables orderRetryDeclarables() {
+    List<Declarable> declarables = new ArrayList<>();
+
+    for (int partition = 0; partition < Math.max(1, partitions); partition++) {
+      declarables.add(QueueBuilder.durable(partitionQueueName(queueName, partition, partitions)).build());
+    }
+    DirectExchange retryExchange = new DirectExchange(retryExchangeName);
+    declarables.add(retryExchange);
+
+    long delay = initialDelayMs;
+    for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+      QueueBuilder retryQueueBuilder = QueueBuilder.durable(retryQueueName(queueName, attempt))
+          .ttl((int) Math.min(delay, Integer.MAX_VALUE))
+          .deadLetterExchange("");
+      if (partitions <= 1) {
+        retryQueueBuilder.deadLetterRoutingKey(queueName);
+      }
+      Queue retryQueue = retryQueueBuilder.build();
+      Binding binding = BindingBuilder.bind(retryQueue).to(retryExchange).with(retryRoutingKey(attempt));
+      declarables.add(retryQueue);
+      declarables.add(binding);
+      logger.info("Creating retry queue {} (delay {} ms)", retryQueue.getName(), delay);
+      delay = (long) (delay * multiplier);
+    }
+
+    Queue parkingLot = QueueBuilder.durable(parkingLotQueueName(queueName)).build();
+    declarables.add(parkingLot);
+    declarables.add(BindingBuilder.bind(parkingLot).to(retryExchange).with(PARKED_ROUTING_KEY));
+    logger.info("Creating parking-lot queue {}", parkingLot.getName());
+
+    return new Declarables(declarables);
+  }
+}
@@ -0,0 +1,239 @@
+package com.cs6650.group13.warehouse.consumer;
+
+import com.cs6650.group13.warehouse.config.PartitionConcurrency;
+import com.cs6650.group13.warehouse.config.RabbitMQConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.listener.AbstractMessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.DirectMessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Feedback controller for the order listener's concurrency and prefetch
+ *
+ * The consumer reports each acknowledged order's processing time and ack latency;
+ * every {@code app.consumer.adaptive.interval-ms} this controller reads the queue depth,
+ * asks {@link ConsumerScalingPolicy} for new settings and applies them to the listener
+ * container. For the simple container both concurrency and max concurrency are set to
+ * the chosen value, so the container's own idle/active scaling does not fight the
+ * controller; for the direct container it sets consumers per queue.
+ *
+ * With partitioned order queues the depth is summed over all partitions and the
+ * chosen concurrency is spread evenly over the partitions' containers, never above the
+ * maximum of {@code app.rabbitmq.partition-concurrency} per container (with 1, each
+ * partition stays in order and the controller only tunes prefetch).
+ *
+ * A prefetch change is picked up by consumers started after it (RabbitMQ applies
+ * basic.qos per channel when the consumer starts); consumers already running keep
+ * theirs until they are replaced.
+ *
+ * Off by default: enable with {@code CONSUMER_ADAPTIVE_ENABLED=true}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.consumer.adaptive.enabled", havingValue = "true")
+public class AdaptiveConsumerController {
+
+  private static final Logger logger = LoggerFactory.getLogger(AdaptiveConsumerController.class);
+
+  private final RabbitListenerEndpointRegistry registry;
+  private final AmqpAdmin amqpAdmin;
+  private final ConsumerScalingPolicy policy;
+  private final MeterRegistry meterRegistry;
+
+  private final LongAdder completed = new LongAdder();
+  private final LongAdder processingNanos = new LongAdder();
+  private final LongAdder ackNanos = new LongAdder();
+
+  @Value("${app.rabbitmq.queue-name}")
+  private String queueName;
+
+  private final int partitions;
+  private final int maxPerContainer;
+
+  // Total across all partition containers
+  private volatile int concurrency;
+  private volatile int prefetch;
+  private volatile long queueDepth;
+  private volatile int neededConsumers;
+  private volatile double perConsumerRate = Double.NaN;
+  private long lastTickNanos = System.nanoTime();
+
+  public AdaptiveConsumerController(RabbitListenerEndpointRegistry registry,
+                                    AmqpAdmin amqpAdmin,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${app.rabbitmq.partitions:1}") int partitions,
+                                    @Value("${app.rabbitmq.partition-concurrency:1}") String partitionConcurrency,
+                                    @Value("${spring.rabbitmq.listener.type:simple}") String listenerType,
+                                    @Value("${spring.rabbitmq.listener.simple.concurrency:1}") int simpleConcurrency,
+                                    @Value("${spring.rabbitmq.listener.direct.consumers-per-queue:1}") int directConsumers,
+                                    @Value("${spring.rabbitmq.listener.simple.prefetch:250}") int initialPrefetch,
+                                    @Value("${app.consumer.adaptive.min-concurrency:1}") int minConcurrency,
+                                    @Value("${app.consumer.adaptive.max-concurrency:50}") int maxConcurrency,
+                                    @Value("${app.consumer.adaptive.min-prefetch:1}") int minPrefetch,
+                                    @Value("${app.consumer.adaptive.max-prefetch:250}") int maxPrefetch,
+                                    @Value("${app.consumer.adaptive.target-drain-ms:10000}") long targetDrainMs,
+                                    @Value("${app.consumer.adaptive.prefetch-buffer-ms:50}") long prefetchBufferMs,
+                                    @Value("${app.consumer.adaptive.hysteresis:0.2}") double hysteresis,
+                                    @Value("${app.consumer.adaptive.scale-down-ticks:3}") int scaleDownTicks,
+                                    @Value("${app.consumer.adaptive.max-step:4}") int maxStep) {
+    this.registry = registry;
+    this.amqpAdmin = amqpAdmin;
+    this.meterRegistry = meterRegistry;
+    this.policy = new ConsumerScalingPolicy(minConcurrency, maxConcurrency, minPrefetch, maxPrefetch,
+        targetDrainMs, prefetchBufferMs, hysteresis, scaleDownTicks, maxStep);
+    this.partitions = Math.max(1, partitions);
+    if (this.partitions > 1) {
+      PartitionConcurrency perPartition = PartitionConcurrency.parse(partitionConcurrency);
+      this.maxPerContainer = perPartition.max();
+      this.concurrency = this.partitions * perPartition.initial(listenerType);
+    } else {
+      this.maxPerContainer = Integer.MAX_VALUE;
+      this.concurrency = "direct".equalsIgnoreCase(listenerType) ? directConsumers : simpleConcurrency;
+    }
+    this.prefetch = initialPrefetch;
+    this.neededConsumers = concurrency;
+
+    Gauge.builder("warehouse.consumer.concurrency", this, c -> c.concurrency)
+        .description("Listener concurrency chosen by the adaptive controller")
+        .register(meterRegistry);
+    Gauge.builder("warehouse.consumer.prefetch", this, c -> c.prefetch)
+        .description("Listener prefetch chosen by the adaptive controller")
+        .register(meterRegistry);
+    Gauge.builder("warehouse.consumer.needed", this, c -> c.neededConsumers)
+        .description("Consumers needed to meet the drain-time target, before hysteresis")
+        .register(meterRegistry);
+    Gauge.builder("warehouse.consumer.queue.depth", this, c -> c.queueDepth)
+        .description("Ready messages in the order queue at the last controller tick")
+        .register(meterRegistry);
+    Gauge.builder("warehouse.consumer.rate.per.consumer", this, c -> c.perConsumerRate)
+        .description("Estimated orders per second one consumer can handle")
+        .register(meterRegistry);
+    Gauge.builder("warehouse.consumer.processing.time", policy, ConsumerScalingPolicy::getProcessingNanos)
+        .description("Smoothed per-order processing time")
+        .baseUnit("nanoseconds")
+        .register(meterRegistry);
+    Gauge.builder("warehouse.consumer.ack.latency", policy, ConsumerScalingPolicy::getAckNanos)
+        .description("Smoothed time from recording an order to its ACK")
+        .baseUnit("nanoseconds")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Report an acknowledged order
+   *
+   * @param processingNanos Receive to recorded
+   * @param ackNanos Recorded to acknowledged (includes the ledger's group commit)
+   */
+  public void recordCompleted(long processingNanos, long ackNanos) {
+    completed.increment();
+    this.processingNanos.add(processingNanos);
+    this.ackNanos.add(ackNanos);
+  }
+
+  @Scheduled(fixedRateString = "${app.consumer.adaptive.interval-ms:5000}",
+      initialDelayString = "${app.consumer.adaptive.interval-ms:5000}")
+  public synchronized void tick() {
+    int count = partitions;
+    List<MessageListenerContainer> containers = new ArrayList<>(count);
+    for (int partition = 0; partition < count; partition++) {
+      MessageListenerContainer container =
+          registry.getListenerContainer(OrderMessageConsumer.listenerId(partition, count));
+      if (container == null || !container.isRunning()) {
+        return;
+      }
+      containers.add(container);
+    }
+
+    long depth = 0;
+    try {
+      for (int partition = 0; partition < count; partition++) {
+        QueueInformation info = amqpAdmin.getQueueInfo(RabbitMQConfig.partitionQueueName(queueName, partition, count));
+        if (info == null) {
+          return;
+        }
+        depth += info.getMessageCount();
+      }
+    } catch (Exception e) {
+      logger.warn("Adaptive consumer controller could not read queue depth: {}", e.getMessage());
+      return;
+    }
+
+    long now = System.nanoTime();
+    long elapsed = now - lastTickNanos;
+    lastTickNanos = now;
+
+    ConsumerScalingPolicy.Decision decision = policy.evaluate(depth, completed.sumThenReset(),
+        processingNanos.sumThenReset(), ackNanos.sumThenReset(), elapsed, concurrency, prefetch);
+    queueDepth = depth;
+    neededConsumers = decision.neededConsumers();
+    perConsumerRate = decision.perConsumerRate();
+
+    if (decision.prefetch() != prefetch) {
+      logger.info("Adaptive consumer controller: prefetch {} -> {} (depth = {}, {} orders/s per consumer)",
+          prefetch, decision.prefetch(), depth, Math.round(decision.perConsumerRate()));
+      for (MessageListenerContainer container : containers) {
+        if (container instanceof AbstractMessageListenerContainer listener) {
+          listener.setPrefetchCount(decision.prefetch());
+        }
+      }
+      adjusted("prefetch", decision.prefetch() > prefetch);
+      prefetch = decision.prefetch();
+    }
+
+    int perContainer = Math.min((decision.concurrency() + count - 1) / count, maxPerContainer);
+    if (perContainer * count != concurrency) {
+      logger.info("Adaptive consumer controller: concurrency {} -> {} ({}, depth = {}, needed = {})",
+          concurrency, perContainer * count, decision.reason(), depth, decision.neededConsumers());
+      for (MessageListenerContainer container : containers) {
+        if (container instanceof SimpleMessageListenerContainer listener) {
+          if (perContainer * count > concurrency) {
+            listener.setMaxConcurrentConsumers(perContainer);
+            listener.setConcurrentConsumers(perContainer);
+          } else {
+            listener.setConcurrentConsumers(perContainer);
+            listener.setMaxConcurrentConsumers(perContainer);
+          }
+        } else if (container instanceof DirectMessageListenerContainer listener) {
+          listener.setConsumersPerQueue(perContainer);
+        }
+      }
+      adjusted("concurrency", perContainer * count > concurrency);
+      concurrency = perContainer * count;
+    }
+
+    logger.debug("Adaptive consumer controller tick: depth = {}, needed = {}, concurrency = {}, prefetch = {}",
+        depth, decision.neededConsumers(), concurrency, prefetch);
+  }
+
+  private void adjusted(String setting, boolean up) {
+    Counter.builder("warehouse.consumer.adjustments")
+        .description("Adaptive controller changes to listener settings")
+        .tag("setting", setting)
+        .tag("direction", up ? "up" : "down")
+        .register(meterRegistry)
+        .increment();
+  }
+
+  public int getConcurrency() {
+    return concurrency;
+  }
+
+  public int getPrefetch() {
+    return prefetch;
+  }
+}
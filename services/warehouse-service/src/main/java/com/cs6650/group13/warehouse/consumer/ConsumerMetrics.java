@@ -0,0 +1,110 @@
+package com.cs6650.group13.warehouse.consumer;
+
+import com.cs6650.group13.warehouse.model.OrderView;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.amqp.core.Message;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-delivery metrics of the order consumer pipeline
+ *
+ * - warehouse.consumer.decode        JSON body to order view
+ * - warehouse.consumer.process       validation, deduplication and recording (or queueing for fulfillment)
+ * - warehouse.consumer.durable.wait  waiting for the ledger's group commit
+ * - warehouse.consumer.ack           the basicAck call
+ * - warehouse.consumer.redelivered   deliveries flagged as redelivered by the broker
+ * - warehouse.consumer.nacked        deliveries NACK'd back to the queue
+ * - warehouse.consumer.order.items   line items per order
+ *
+ * Timers publish histogram buckets (for aggregation across instances in Prometheus)
+ * as well as local percentiles. Recording is a handful of lock-free counter updates,
+ * so the consumer threads call it on every delivery.
+ *
+ * On by default: disable with {@code CONSUMER_METRICS_ENABLED=false}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.consumer-metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class ConsumerMetrics {
+
+  private final Timer decodeTimer;
+  private final Timer processTimer;
+  private final Timer durableWaitTimer;
+  private final Timer ackTimer;
+  private final Counter redeliveredCounter;
+  private final Counter nackedCounter;
+  private final DistributionSummary itemsPerOrder;
+
+  public ConsumerMetrics(MeterRegistry meterRegistry) {
+    this.decodeTimer = timer("warehouse.consumer.decode", "Time to decode an order message body",
+        Duration.ofNanos(500), Duration.ofMillis(100), meterRegistry);
+    this.processTimer = timer("warehouse.consumer.process",
+        "Time to validate, deduplicate and record an order, excluding the durability wait",
+        Duration.ofNanos(500), Duration.ofSeconds(1), meterRegistry);
+    this.durableWaitTimer = timer("warehouse.consumer.durable.wait",
+        "Time an order waits for the ledger's group commit before its ACK",
+        Duration.ofNanos(10_000), Duration.ofSeconds(1), meterRegistry);
+    this.ackTimer = timer("warehouse.consumer.ack", "Time spent in basicAck",
+        Duration.ofNanos(500), Duration.ofMillis(100), meterRegistry);
+    this.redeliveredCounter = Counter.builder("warehouse.consumer.redelivered")
+        .description("Order deliveries flagged as redelivered by the broker")
+        .register(meterRegistry);
+    this.nackedCounter = Counter.builder("warehouse.consumer.nacked")
+        .description("Order deliveries NACK'd and requeued")
+        .register(meterRegistry);
+    this.itemsPerOrder = DistributionSummary.builder("warehouse.consumer.order.items")
+        .description("Line items per received order")
+        .baseUnit("items")
+        .publishPercentiles(0.5, 0.95, 0.99)
+        .register(meterRegistry);
+  }
+
+  private static Timer timer(String name, String description, Duration min, Duration max,
+                             MeterRegistry meterRegistry) {
+    return Timer.builder(name)
+        .description(description)
+        .publishPercentiles(0.5, 0.95, 0.99)
+        .publishPercentileHistogram()
+        .minimumExpectedValue(min)
+        .maximumExpectedValue(max)
+        .register(meterRegistry);
+  }
+
+  public void recordDecode(long nanos) {
+    decodeTimer.record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Count a decoded delivery: its redelivered flag and item count
+   */
+  public void recordDelivery(Message message, OrderView order) {
+    if (Boolean.TRUE.equals(message.getMessageProperties().getRedelivered())) {
+      redeliveredCounter.increment();
+    }
+    if (!order.isMalformed()) {
+      itemsPerOrder.record(order.getItemCount());
+    }
+  }
+
+  public void recordProcess(long nanos) {
+    processTimer.record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  public void recordDurableWait(long nanos) {
+    durableWaitTimer.record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  public void recordAck(long nanos) {
+    ackTimer.record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  public void recordNack() {
+    nackedCounter.increment();
+  }
+}
@@ -0,0 +1,151 @@
+package com.cs6650.group13.warehouse.consumer;
+
+/**
+ * Decision logic for the adaptive consumer controller, kept free of Spring and
+ * RabbitMQ so it can be driven directly from tests
+ *
+ * Each tick gets the queue depth and the messages completed since the last tick, with
+ * their mean processing time and ack latency. From those it estimates:
+ * - per-consumer rate: 1 / (processing + ack latency), since a listener thread is
+ *   busy for both (the ACK waits for the ledger's group commit)
+ * - arrival rate: completions per second plus the change in queue depth per second
+ * and asks for enough consumers to keep up with arrivals and drain the current backlog
+ * within the target drain time.
+ *
+ * Hysteresis: scaling up happens on the first tick that needs it (by at most
+ * maxStep consumers); scaling down only after the need has stayed below
+ * (1 - hysteresis) of the current concurrency for scaleDownTicks consecutive ticks.
+ *
+ * Prefetch is sized to buffer prefetchBufferMs worth of messages per consumer, but is
+ * capped at the backlog per consumer so a shallow queue is not hoarded by one consumer.
+ */
+public class ConsumerScalingPolicy {
+
+  private static final double EWMA_ALPHA = 0.3;
+
+  private final int minConcurrency;
+  private final int maxConcurrency;
+  private final int minPrefetch;
+  private final int maxPrefetch;
+  private final double targetDrainSeconds;
+  private final double prefetchBufferSeconds;
+  private final double hysteresis;
+  private final int scaleDownTicks;
+  private final int maxStep;
+
+  private double processingNanos = Double.NaN;
+  private double ackNanos = Double.NaN;
+  private long previousDepth = -1;
+  private int ticksBelow;
+
+  public ConsumerScalingPolicy(int minConcurrency, int maxConcurrency, int minPrefetch, int maxPrefetch,
+                               long targetDrainMs, long prefetchBufferMs, double hysteresis,
+                               int scaleDownTicks, int maxStep) {
+    this.minConcurrency = Math.max(1, minConcurrency);
+    this.maxConcurrency = Math.max(this.minConcurrency, maxConcurrency);
+    this.minPrefetch = Math.max(1, minPrefetch);
+    this.maxPrefetch = Math.max(this.minPrefetch, maxPrefetch);
+    this.targetDrainSeconds = Math.max(1, targetDrainMs) / 1000.0;
+    this.prefetchBufferSeconds = Math.max(1, prefetchBufferMs) / 1000.0;
+    this.hysteresis = Math.min(Math.max(hysteresis, 0.0), 0.9);
+    this.scaleDownTicks = Math.max(1, scaleDownTicks);
+    this.maxStep = Math.max(1, maxStep);
+  }
+
+  /**
+   * One controller tick
+   *
+   * @param depth Messages ready in the queue
+   * @param completed Messages processed and acknowledged since the last tick
+   * @param processingNanosTotal Total processing time of those messages
+   * @param ackNanosTotal Total ack latency of those messages
+   * @param elapsedNanos Time since the last tick
+   * @param concurrency Current number of consumers
+   * @param prefetch Current prefetch per consumer
+   */
+  public Decision evaluate(long depth, long completed, long processingNanosTotal, long ackNanosTotal,
+                           long elapsedNanos, int concurrency, int prefetch) {
+    if (completed > 0) {
+      processingNanos = smooth(processingNanos, (double) processingNanosTotal / completed);
+      ackNanos = smooth(ackNanos, (double) ackNanosTotal / completed);
+    }
+    double elapsedSeconds = Math.max(elapsedNanos, 1) / 1e9;
+    long lastDepth = previousDepth < 0 ? depth : previousDepth;
+    previousDepth = depth;
+
+    int needed;
+    double perConsumerRate = Double.NaN;
+    if (Double.isNaN(processingNanos)) {
+      // Nothing measured yet: grow while there is a backlog, otherwise hold
+      needed = depth > 0 ? concurrency + maxStep : concurrency;
+    } else {
+      perConsumerRate = 1e9 / Math.max(1.0, processingNanos + ackNanos);
+      double drainRate = completed / elapsedSeconds;
+      double arrivalRate = Math.max(0.0, drainRate + (depth - lastDepth) / elapsedSeconds);
+      double requiredRate = arrivalRate + depth / targetDrainSeconds;
+      needed = (int) Math.min(Integer.MAX_VALUE, Math.ceil(requiredRate / perConsumerRate));
+    }
+    needed = clamp(needed, minConcurrency, maxConcurrency);
+
+    int nextConcurrency = concurrency;
+    String reason = "steady";
+    if (needed > concurrency) {
+      ticksBelow = 0;
+      nextConcurrency = Math.min(needed, concurrency + maxStep);
+      reason = "backlog";
+    } else if (needed < concurrency * (1.0 - hysteresis)) {
+      if (++ticksBelow >= scaleDownTicks) {
+        ticksBelow = 0;
+        nextConcurrency = Math.max(needed, concurrency - maxStep);
+        reason = "idle";
+      }
+    } else {
+      ticksBelow = 0;
+    }
+    nextConcurrency = clamp(nextConcurrency, minConcurrency, maxConcurrency);
+
+    int nextPrefetch = prefetch;
+    if (!Double.isNaN(perConsumerRate)) {
+      int target = (int) Math.min(Integer.MAX_VALUE, Math.ceil(perConsumerRate * prefetchBufferSeconds));
+      long backlogPerConsumer = depth / nextConcurrency;
+      target = (int) Math.min(target, Math.max(1, backlogPerConsumer));
+      target = clamp(target, minPrefetch, maxPrefetch);
+      // Same deadband as concurrency, so prefetch does not flap between neighbours
+      if (Math.abs(target - prefetch) > Math.max(1.0, prefetch * hysteresis)) {
+        nextPrefetch = target;
+      }
+    }
+    nextPrefetch = clamp(nextPrefetch, minPrefetch, maxPrefetch);
+
+    return new Decision(nextConcurrency, nextPrefetch, needed, perConsumerRate, reason);
+  }
+
+  public double getProcessingNanos() {
+    return processingNanos;
+  }
+
+  public double getAckNanos() {
+    return ackNanos;
+  }
+
+  private static double smooth(double current, double sample) {
+    return Double.isNaN(current) ? sample : current + EWMA_ALPHA * (sample - current);
+  }
+
+  private static int clamp(int value, int min, int max) {
+    return Math.max(min, Math.min(max, value));
+  }
+
+  /**
+   * Settings chosen for the next interval
+   *
+   * @param concurrency Consumers to run
+   * @param prefetch Unacknowledged messages per consumer
+   * @param neededConsumers Consumers the model asked for (after caps, before hysteresis)
+   * @param perConsumerRate Estimated messages per second per consumer (NaN before the first sample)
+   * @param reason "backlog", "idle" or "steady"
+   */
+  public record Decision(int concurrency, int prefetch, int neededConsumers, double perConsumerRate,
+                         String reason) {
+  }
+}
@@ -0,0 +1,155 @@
+package com.cs6650.group13.warehouse.consumer;
+
+import com.cs6650.group13.warehouse.ledger.OrderLedger;
+import com.rabbitmq.client.Channel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ACKs ledger-recorded deliveries once a group commit covers them, without holding the
+ * listener thread
+ *
+ * The listener adds each recorded delivery here and moves on to the next one. After every
+ * commit, the ledger's commit thread ACKs each channel's covered deliveries with a single
+ * {@code basicAck(lastTag, multiple = true)}. A group therefore holds every order the
+ * consumers recorded during the commit window, up to their prefetch, not one per consumer.
+ *
+ * A multiple ACK settles every earlier tag of the channel. That is safe because a channel's
+ * deliveries run on one thread at a time, in tag order: each earlier delivery was either
+ * settled on the listener thread (retry, duplicate) or recorded with a lower ledger
+ * sequence, which the same commit covers.
+ */
+final class GroupCommitAcknowledger {
+
+  private static final Logger logger = LoggerFactory.getLogger(GroupCommitAcknowledger.class);
+
+  /**
+   * Told about each delivery once its ACK is sent, for metrics
+   */
+  interface Listener {
+    void acknowledged(Pending delivery, long durableAtNanos, long ackedAtNanos);
+  }
+
+  /**
+   * A recorded delivery waiting for its group commit
+   * @param receivedAtNanos When the listener received it
+   * @param recordedAtNanos When it was appended to the ledger
+   * @param publishedAt The cart's publish time, or -1 if unknown
+   */
+  record Pending(int orderId, long deliveryTag, long sequence,
+                 long receivedAtNanos, long recordedAtNanos, long publishedAt) {
+  }
+
+  private final OrderLedger ledger;
+  private final Listener listener;
+  private final Map<Channel, ChannelAcks> channels = new ConcurrentHashMap<>();
+
+  GroupCommitAcknowledger(OrderLedger ledger, Listener listener) {
+    this.ledger = ledger;
+    this.listener = listener;
+    ledger.addDurabilityListener(this::committed);
+  }
+
+  /**
+   * Queue a recorded delivery for the group commit covering its sequence
+   */
+  void add(Channel channel, Pending delivery) {
+    ChannelAcks acks = channels.computeIfAbsent(channel, ChannelAcks::new);
+    acks.add(delivery);
+    // A commit that finished before the add could not see it; nor will a later one if no
+    // other order arrives, so ACK it here
+    long durable = ledger.getDurableSequence();
+    if (durable >= delivery.sequence()) {
+      acknowledge(acks, durable);
+    } else {
+      ledger.requestCommit(delivery.sequence());
+    }
+  }
+
+  /**
+   * Deliveries recorded but not yet ACK'd, over all channels
+   */
+  int getPendingCount() {
+    int pending = 0;
+    for (ChannelAcks acks : channels.values()) {
+      pending += acks.size();
+    }
+    return pending;
+  }
+
+  private void committed(long durableSequence) {
+    for (ChannelAcks acks : channels.values()) {
+      acknowledge(acks, durableSequence);
+    }
+  }
+
+  private void acknowledge(ChannelAcks acks, long durableSequence) {
+    if (!acks.acknowledgeUpTo(durableSequence) && !acks.channel.isOpen()) {
+      // The broker requeues whatever the closed channel left unacknowledged
+      channels.remove(acks.channel, acks);
+    }
+  }
+
+  /**
+   * One channel's recorded deliveries, in tag order; the monitor also orders its ACKs
+   */
+  private final class ChannelAcks {
+    private final Channel channel;
+    private final ArrayDeque<Pending> pending = new ArrayDeque<>();
+
+    ChannelAcks(Channel channel) {
+      this.channel = channel;
+    }
+
+    synchronized void add(Pending delivery) {
+      pending.addLast(delivery);
+    }
+
+    synchronized int size() {
+      return pending.size();
+    }
+
+    /**
+     * @return false if nothing is left to ACK on this channel
+     */
+    synchronized boolean acknowledgeUpTo(long durableSequence) {
+      Pending first = pending.peekFirst();
+      if (first == null) {
+        return false;
+      }
+      if (first.sequence() > durableSequence) {
+        return true;
+      }
+      long durableAt = System.nanoTime();
+      Pending last = first;
+      for (Pending delivery : pending) {
+        if (delivery.sequence() > durableSequence) {
+          break;
+        }
+        last = delivery;
+      }
+
+      try {
+        channel.basicAck(last.deliveryTag(), true);
+      } catch (Exception e) {
+        // Channel closed: RabbitMQ will redeliver these, and deduplication skips them
+        logger.error("Error acknowledging orders up to {} (delivery tag {}): {}",
+            last.orderId(), last.deliveryTag(), e.getMessage(), e);
+        pending.clear();
+        return false;
+      }
+      long ackedAt = System.nanoTime();
+      Pending delivery;
+      do {
+        delivery = pending.pollFirst();
+        listener.acknowledged(delivery, durableAt, ackedAt);
+      } while (delivery != last);
+      logger.debug("Orders up to {} acknowledged with one ACK", last.orderId());
+      return !pending.isEmpty();
+    }
+  }
+}
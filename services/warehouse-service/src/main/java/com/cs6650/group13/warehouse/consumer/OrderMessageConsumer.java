@@ -1,15 +1,22 @@
 package com.cs6650.group13.warehouse.consumer;
 
-import com.cs6650.group13.warehouse.model.CartItem;
-import com.cs6650.group13.warehouse.model.OrderMessage;
+import com.cs6650.group13.warehouse.analytics.OrderSketches;
+import com.cs6650.group13.warehouse.dedup.OrderDeduplicator;
+import com.cs6650.group13.warehouse.fulfillment.FulfillmentPipeline;
+import com.cs6650.group13.warehouse.fulfillment.FulfillmentTask;
+import com.cs6650.group13.warehouse.fulfillment.WavePlanner;
+import com.cs6650.group13.warehouse.latency.OrderLatencyRecorder;
+import com.cs6650.group13.warehouse.ledger.OrderLedger;
+import com.cs6650.group13.warehouse.model.OrderView;
 import com.cs6650.group13.warehouse.service.WarehouseStatistics;
+import com.cs6650.group13.warehouse.timeseries.ProductTimeSeriesStore;
 import com.rabbitmq.client.Channel;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
 import org.springframework.amqp.core.Message;
-import org.springframework.amqp.rabbit.annotation.RabbitListener;
-import org.springframework.amqp.support.AmqpHeaders;
-import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
@@ -17,105 +24,366 @@ import java.io.IOException;
 /**
  * RabbitMQ consumer that processes warehouse orders
  * - Uses manual acknowledgements
+ * - One listener container per order partition (see {@link com.cs6650.group13.warehouse.config.OrderListenerConfig})
  * - Multithreaded (configured via application.properties)
  * - Records statistics for each order
+ * - Appends each order to the durable ledger; the ledger's group commit then ACKs every
+ *   delivery it covered, one multiple ACK per channel (see {@link GroupCommitAcknowledger})
+ * - Skips redelivered orders that were already recorded
+ * - Sends failed orders through delayed retry queues to a parking lot
+ * - Reports processing time and ack latency to the adaptive controller, when enabled
+ * - Hands orders to the staged fulfillment pipeline instead, when enabled
+ * - Adds recorded orders to the current pick wave, when wave planning is enabled
+ * - Records processing, durability-wait and ACK times and NACKs in {@link ConsumerMetrics}, when enabled
+ * - Records checkout-to-consume and checkout-to-ack latency from the cart's publish time, when enabled
+ * - Adds recorded items to the per-product time series, when enabled
+ * - Feeds recorded orders to the customer/product/order-size sketches, when enabled
  */
 @Service
 public class OrderMessageConsumer {
 
   private static final Logger logger = LoggerFactory.getLogger(OrderMessageConsumer.class);
 
+  public static final String LISTENER_ID = "warehouseOrderListener";
+
+  /**
+   * Listener container ID of an order partition; a single partition keeps {@link #LISTENER_ID}
+   */
+  public static String listenerId(int partition, int partitions) {
+    return partitions <= 1 ? LISTENER_ID : LISTENER_ID + "-" + partition;
+  }
+
   private final WarehouseStatistics statistics;
+  private final OrderRetryRouter retryRouter;
+
+  @Autowired(required = false)
+  private OrderLedger ledger;
+
+  @Autowired(required = false)
+  private OrderDeduplicator deduplicator;
+
+  @Autowired(required = false)
+  private AdaptiveConsumerController adaptiveController;
+
+  @Autowired(required = false)
+  private FulfillmentPipeline pipeline;
+
+  @Autowired(required = false)
+  private WavePlanner wavePlanner;
+
+  @Autowired(required = false)
+  private ConsumerMetrics metrics;
+
+  @Autowired(required = false)
+  private OrderLatencyRecorder latencyRecorder;
+
+  @Autowired(required = false)
+  private ProductTimeSeriesStore timeSeries;
 
-  public OrderMessageConsumer(WarehouseStatistics statistics) {
+  @Autowired(required = false)
+  private OrderSketches sketches;
+
+  private GroupCommitAcknowledger groupCommitAcks;
+
+  public OrderMessageConsumer(WarehouseStatistics statistics, OrderRetryRouter retryRouter) {
     this.statistics = statistics;
+    this.retryRouter = retryRouter;
+  }
+
+  @PostConstruct
+  void init() {
+    if (ledger != null) {
+      groupCommitAcks = new GroupCommitAcknowledger(ledger, this::acknowledged);
+    }
   }
 
   /**
-   * Listen to warehouse orders queue and process orders
-   * Manual acknowledgement is sent immediately after recording the order
+   * Process an order from one of the order partition queues
+   * Manual acknowledgement is sent after recording the order or, when the ledger is
+   * enabled, by the group commit that makes it durable; this thread does not wait for it
    *
-   * @param orderMessage The order message from shopping cart
+   * @param order The decoded order (this thread's reusable view, see {@link OrderMessageDecoder})
    * @param channel The RabbitMQ channel for manual ACK/NACK
    * @param deliveryTag The message delivery tag
+   * @param message The raw delivery (republished as-is on retry)
+   * @param partition The order partition the message was consumed from
    */
-  @RabbitListener(queues = "${app.rabbitmq.queue-name}")
-  public void receiveOrder(OrderMessage orderMessage,
+  public void receiveOrder(OrderView order,
                            Channel channel,
-                           @Header(AmqpHeaders.DELIVERY_TAG) long deliveryTag,
-                           Message message) {
-    
+                           long deliveryTag,
+                           Message message,
+                           int partition) {
+
+    long publishedAt = latencyRecorder != null ? latencyRecorder.recordConsumed(message) : -1;
+    if (pipeline != null) {
+      submitToPipeline(order, channel, deliveryTag, message, partition, publishedAt);
+      return;
+    }
+
+    long receivedAt = System.nanoTime();
+    boolean markedSeen = false;
+    boolean recorded = false;
     try {
-      logger.info("Received order from queue: Order ID = {}, Customer ID = {}, Cart ID = {}, Items = {}",
-          orderMessage.getOrderId(),
-          orderMessage.getCustomerId(),
-          orderMessage.getShoppingCartId(),
-          orderMessage.getItems() != null ? orderMessage.getItems().size() : 0);
+      if (logger.isDebugEnabled()) {
+        logger.debug("Received order from queue: Order ID = {}, Customer ID = {}, Cart ID = {}, Items = {}, Trace = {}",
+            order.getOrderId(), order.getCustomerId(), order.getShoppingCartId(), order.getItemCount(),
+            message.getMessageProperties().getHeader(OrderLatencyRecorder.TRACE_ID_HEADER));
+      }
 
       // Validate message
-      if (orderMessage.getOrderId() == null) {
-        logger.error("Invalid order message: order_id is null. Message: {}", orderMessage);
-        // NACK and requeue for retry
-        channel.basicNack(deliveryTag, false, true);
-        logger.warn("Order message NACK'd and requeued due to missing order_id");
+      if (order.isMalformed()) {
+        logger.error("Malformed order message body: {}", order);
+        retryOrPark(channel, deliveryTag, message, "malformed body");
+        return;
+      }
+
+      if (!order.hasOrderId()) {
+        logger.error("Invalid order message: order_id is null. Message: {}", order);
+        retryOrPark(channel, deliveryTag, message, "missing order_id");
         return;
       }
 
-      if (orderMessage.getItems() == null || orderMessage.getItems().isEmpty()) {
-        logger.warn("Order {} has no items. Acknowledging anyway.", orderMessage.getOrderId());
+      int orderId = order.getOrderId();
+      if (order.getItemCount() == 0) {
+        logger.warn("Order {} has no items. Acknowledging anyway.", orderId);
+      }
+
+      // Validate every item before recording anything
+      if (order.hasInvalidItem()) {
+        logger.error("Invalid cart item in order {}: missing productId or quantity", orderId);
+        retryOrPark(channel, deliveryTag, message, "invalid item");
+        return;
+      }
+
+      // Skip orders already recorded before a redelivery (e.g. channel dropped before the ACK)
+      if (deduplicator != null) {
+        if (!deduplicator.markIfFirstSeen(orderId)) {
+          channel.basicAck(deliveryTag, false);
+          logger.warn("Order {} already recorded (redelivered = {}). Acknowledged without recounting.",
+              orderId, message.getMessageProperties().getRedelivered());
+          return;
+        }
+        markedSeen = true;
       }
 
       // Record the order for reporting purposes
-      if (orderMessage.getItems() != null) {
-        for (CartItem item : orderMessage.getItems()) {
-          if (item.getProductId() == null || item.getQuantity() == null) {
-            logger.error("Invalid cart item in order {}: productId={}, quantity={}",
-                orderMessage.getOrderId(), item.getProductId(), item.getQuantity());
-            // NACK and requeue
-            channel.basicNack(deliveryTag, false, true);
-            logger.warn("Order {} NACK'd and requeued due to invalid item", orderMessage.getOrderId());
-            return;
-          }
-          
-          statistics.recordProduct(
-              orderMessage.getOrderId(),
-              item.getProductId(),
-              item.getQuantity()
-          );
+      if (ledger != null) {
+        // Append to the ledger; the group commit covering it sends the ACK
+        long sequence = ledger.record(orderId, order.getProductIds(), order.getQuantities(),
+            order.getItemCount(), () -> recordOrder(order, partition));
+        recorded = true;
+        long recordedAt = System.nanoTime();
+        if (metrics != null) {
+          metrics.recordProcess(recordedAt - receivedAt);
         }
+        groupCommitAcks.add(channel, new GroupCommitAcknowledger.Pending(
+            orderId, deliveryTag, sequence, receivedAt, recordedAt, publishedAt));
+        return;
       }
 
-      // Increment order count
-      statistics.incrementOrderCount();
+      recordOrder(order, partition);
+      recorded = true;
+      long recordedAt = System.nanoTime();
 
-      // Send manual ACK immediately after recording
+      // Send manual ACK once the order is recorded
       channel.basicAck(deliveryTag, false);
-      logger.info("Order {} acknowledged successfully", orderMessage.getOrderId());
+      long ackedAt = System.nanoTime();
+      logger.debug("Order {} acknowledged successfully", orderId);
 
-      // Simulate processing time (optional - can be removed for faster processing)
-      // In a real system, this would be actual warehouse operations
-      // Thread.sleep(10);
+      if (metrics != null) {
+        metrics.recordProcess(recordedAt - receivedAt);
+        metrics.recordDurableWait(0);
+        metrics.recordAck(ackedAt - recordedAt);
+      }
+      if (latencyRecorder != null) {
+        latencyRecorder.recordAcked(publishedAt);
+      }
+      if (adaptiveController != null) {
+        adaptiveController.recordCompleted(recordedAt - receivedAt, ackedAt - recordedAt);
+      }
+
+      // Warehouse operations (pick, ship) and their simulated work live in the
+      // fulfillment pipeline (FULFILLMENT_PIPELINE_ENABLED)
 
     } catch (IOException e) {
       // Error sending ACK/NACK
       logger.error("Error acknowledging message for order {}: {}",
-          orderMessage.getOrderId(), e.getMessage(), e);
+          order.getOrderId(), e.getMessage(), e);
       // Channel might be closed, RabbitMQ will redeliver the message automatically
-      
+
     } catch (Exception e) {
       // Unexpected error during processing
       logger.error("Error processing order {}: {}",
-          orderMessage.getOrderId(), e.getMessage(), e);
-      
+          order.getOrderId(), e.getMessage(), e);
+
+      if (markedSeen && !recorded) {
+        // The retry must not be mistaken for a duplicate
+        deduplicator.forget(order.getOrderId());
+      }
+
       try {
-        // NACK and requeue the message for retry
-        channel.basicNack(deliveryTag, false, true);
-        logger.warn("Order {} NACK'd and requeued due to processing error", orderMessage.getOrderId());
+        retryOrPark(channel, deliveryTag, message, "processing error: " + e.getMessage());
       } catch (IOException ioException) {
         logger.error("Error sending NACK for order {}: {}",
-            orderMessage.getOrderId(), ioException.getMessage(), ioException);
+            order.getOrderId(), ioException.getMessage(), ioException);
+      }
+    }
+  }
+
+  /**
+   * Metrics for a delivery the group commit has ACK'd
+   */
+  private void acknowledged(GroupCommitAcknowledger.Pending delivery, long durableAt, long ackedAt) {
+    if (metrics != null) {
+      metrics.recordDurableWait(durableAt - delivery.recordedAtNanos());
+      metrics.recordAck(ackedAt - durableAt);
+    }
+    if (latencyRecorder != null) {
+      latencyRecorder.recordAcked(delivery.publishedAt());
+    }
+    if (adaptiveController != null) {
+      adaptiveController.recordCompleted(delivery.recordedAtNanos() - delivery.receivedAtNanos(),
+          ackedAt - delivery.recordedAtNanos());
+    }
+  }
+
+  /**
+   * Queue an order in the fulfillment pipeline; its reserve stage ACKs the delivery
+   * once the order is durable, or routes it to the retry pipeline
+   */
+  private void submitToPipeline(OrderView order, Channel channel, long deliveryTag, Message message,
+                                int partition, long publishedAt) {
+    long receivedAt = System.nanoTime();
+    FulfillmentTask.Completion completion = new FulfillmentTask.Completion() {
+      @Override
+      public void acknowledge() {
+        long recordedAt = System.nanoTime();
+        try {
+          channel.basicAck(deliveryTag, false);
+        } catch (IOException e) {
+          logger.error("Error acknowledging message for order {}: {}", order.getOrderId(), e.getMessage(), e);
+          return;
+        }
+        long ackedAt = System.nanoTime();
+        if (metrics != null) {
+          metrics.recordAck(ackedAt - recordedAt);
+        }
+        if (latencyRecorder != null) {
+          latencyRecorder.recordAcked(publishedAt);
+        }
+        if (adaptiveController != null) {
+          adaptiveController.recordCompleted(recordedAt - receivedAt, ackedAt - recordedAt);
+        }
+      }
+
+      @Override
+      public void reject(String reason) {
+        try {
+          retryOrPark(channel, deliveryTag, message, reason);
+        } catch (IOException e) {
+          logger.error("Error sending NACK for order {}: {}", order.getOrderId(), e.getMessage(), e);
+        }
+      }
+    };
+
+    try {
+      // The decoded view is reused by this thread for the next delivery
+      pipeline.submit(order.copy(), partition, completion);
+      if (metrics != null) {
+        metrics.recordProcess(System.nanoTime() - receivedAt);
+      }
+    } catch (InterruptedException | IllegalStateException e) {
+      if (e instanceof InterruptedException) {
+        Thread.currentThread().interrupt();
+      }
+      logger.error("Could not queue order {} for fulfillment ({}). NACK'd and requeued.",
+          order.getOrderId(), e.getMessage());
+      if (metrics != null) {
+        metrics.recordNack();
+      }
+      try {
+        channel.basicNack(deliveryTag, false, true);
+      } catch (IOException ioException) {
+        logger.error("Error sending NACK for order {}: {}", order.getOrderId(), ioException.getMessage(), ioException);
       }
     }
   }
-}
 
+  /**
+   * Record an order handed over in-process by a co-located shopping cart
+   * (see {@link com.cs6650.group13.warehouse.transport.InProcessOrderReceiver})
+   *
+   * Same validation, deduplication, ledger and statistics as {@link #receiveOrder}, but
+   * there is no delivery to ACK or retry: invalid orders are logged and dropped, and the
+   * caller does not wait for the ledger's group commit.
+   *
+   * @return true if the order was recorded
+   */
+  public boolean recordInProcess(OrderView order) {
+    if (!order.hasOrderId() || order.hasInvalidItem()) {
+      logger.error("Invalid in-process order dropped: {}", order);
+      return false;
+    }
+
+    int orderId = order.getOrderId();
+    if (deduplicator != null && !deduplicator.markIfFirstSeen(orderId)) {
+      logger.warn("In-process order {} already recorded. Skipped.", orderId);
+      return false;
+    }
+
+    try {
+      if (ledger != null) {
+        ledger.record(orderId, order.getProductIds(), order.getQuantities(), order.getItemCount(),
+            () -> recordOrder(order, 0));
+      } else {
+        recordOrder(order, 0);
+      }
+      return true;
+    } catch (RuntimeException e) {
+      if (deduplicator != null) {
+        deduplicator.forget(orderId);
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Hand a failed order to the delayed retry pipeline and ACK the original delivery,
+   * instead of requeueing it straight back to the head of the queue
+   */
+  private void retryOrPark(Channel channel, long deliveryTag, Message message, String reason)
+      throws IOException {
+    try {
+      retryRouter.retryOrPark(message, reason);
+      channel.basicAck(deliveryTag, false);
+    } catch (AmqpException e) {
+      // Retry exchange unavailable: fall back to a plain requeue rather than losing the order
+      logger.error("Could not route message to retry queue ({}). NACK'd and requeued.", e.getMessage());
+      if (metrics != null) {
+        metrics.recordNack();
+      }
+      channel.basicNack(deliveryTag, false, true);
+    }
+  }
+
+  /**
+   * Apply a validated order to the statistics
+   */
+  private void recordOrder(OrderView order, int partition) {
+    int[] productIds = order.getProductIds();
+    int[] quantities = order.getQuantities();
+    for (int i = 0; i < order.getItemCount(); i++) {
+      statistics.recordProduct(partition, order.getOrderId(), productIds[i], quantities[i]);
+    }
+    statistics.incrementOrderCount(partition);
+    if (timeSeries != null) {
+      timeSeries.record(productIds, quantities, order.getItemCount());
+    }
+    if (sketches != null) {
+      sketches.record(order);
+    }
+    if (wavePlanner != null) {
+      wavePlanner.addOrder(partition, order);
+    }
+  }
+}
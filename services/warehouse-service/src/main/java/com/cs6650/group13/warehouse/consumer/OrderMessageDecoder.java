@@ -0,0 +1,119 @@
+package com.cs6650.group13.warehouse.consumer;
+
+import com.cs6650.group13.warehouse.model.OrderView;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.io.IOException;
+
+/**
+ * Streaming decoder for order messages
+ *
+ * Parses the JSON body token by token straight into the calling thread's reusable
+ * {@link OrderView}: no OrderMessage, no List of CartItems, no boxed Integers, and the
+ * ISO timestamp is skipped without being materialized. Unknown fields are skipped.
+ *
+ * A body that is not valid JSON does not throw (which would requeue it forever); the
+ * view is marked malformed so the consumer can route it to the retry pipeline.
+ */
+public class OrderMessageDecoder implements MessageConverter {
+
+  private final JsonFactory jsonFactory = new JsonFactory();
+
+  @Override
+  public Message toMessage(Object object, MessageProperties messageProperties) {
+    throw new MessageConversionException("OrderMessageDecoder is decode-only");
+  }
+
+  @Override
+  public OrderView fromMessage(Message message) {
+    return decode(message.getBody(), OrderView.forCurrentThread());
+  }
+
+  /**
+   * Decode a JSON order body into the given view
+   */
+  public OrderView decode(byte[] body, OrderView view) {
+    view.reset();
+    try (JsonParser parser = jsonFactory.createParser(body)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        view.markMalformed();
+        return view;
+      }
+      JsonToken token;
+      while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+        String field = parser.currentName();
+        JsonToken value = parser.nextToken();
+        switch (field) {
+          case "order_id" -> {
+            if (value == JsonToken.VALUE_NUMBER_INT) {
+              view.setOrderId(parser.getIntValue());
+            }
+          }
+          case "customer_id" -> {
+            if (value == JsonToken.VALUE_NUMBER_INT) {
+              view.setCustomerId(parser.getIntValue());
+            }
+          }
+          case "shopping_cart_id" -> {
+            if (value == JsonToken.VALUE_NUMBER_INT) {
+              view.setShoppingCartId(parser.getIntValue());
+            }
+          }
+          case "items" -> {
+            if (value == JsonToken.START_ARRAY) {
+              readItems(parser, view);
+            } else if (value != JsonToken.VALUE_NULL) {
+              parser.skipChildren();
+            }
+          }
+          default -> parser.skipChildren();
+        }
+      }
+      if (token != JsonToken.END_OBJECT) {
+        view.markMalformed();
+      }
+    } catch (IOException e) {
+      view.markMalformed();
+    }
+    return view;
+  }
+
+  private static void readItems(JsonParser parser, OrderView view) throws IOException {
+    JsonToken token;
+    while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+      if (token == null) {
+        view.markMalformed();
+        return;
+      }
+      if (token != JsonToken.START_OBJECT) {
+        parser.skipChildren();
+        view.addItem(0, 0, false);
+        continue;
+      }
+      int productId = 0;
+      int quantity = 0;
+      boolean hasProductId = false;
+      boolean hasQuantity = false;
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String field = parser.currentName();
+        JsonToken value = parser.nextToken();
+        if (value == JsonToken.VALUE_NUMBER_INT && ("productId".equals(field) || "product_id".equals(field))) {
+          productId = parser.getIntValue();
+          hasProductId = true;
+        } else if (value == JsonToken.VALUE_NUMBER_INT && "quantity".equals(field)) {
+          quantity = parser.getIntValue();
+          hasQuantity = true;
+        } else {
+          parser.skipChildren();
+        }
+      }
+      view.addItem(productId, quantity, hasProductId && hasQuantity);
+    }
+  }
+}
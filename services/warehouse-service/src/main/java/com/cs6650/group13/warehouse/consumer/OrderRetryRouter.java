@@ -0,0 +1,102 @@
+package com.cs6650.group13.warehouse.consumer;
+
+import com.cs6650.group13.warehouse.config.RabbitMQConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageBuilderSupport;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Routes failed orders into the delayed retry queues or, once retries are
+ * exhausted, into the parking-lot queue (see {@link RabbitMQConfig#orderRetryDeclarables()})
+ */
+@Component
+public class OrderRetryRouter {
+
+  private static final Logger logger = LoggerFactory.getLogger(OrderRetryRouter.class);
+
+  private static final long CONFIRM_TIMEOUT_MS = 5000;
+
+  private final RabbitTemplate rabbitTemplate;
+  private final MeterRegistry meterRegistry;
+  private final Counter parked;
+
+  @Value("${app.rabbitmq.retry.exchange-name}")
+  private String retryExchangeName;
+
+  @Value("${app.rabbitmq.retry.max-attempts}")
+  private int maxAttempts;
+
+  @Value("${app.rabbitmq.partitions:1}")
+  private int partitions;
+
+  public OrderRetryRouter(RabbitTemplate rabbitTemplate, MeterRegistry meterRegistry) {
+    this.rabbitTemplate = rabbitTemplate;
+    this.meterRegistry = meterRegistry;
+    this.parked = Counter.builder("warehouse.orders.parked")
+        .description("Orders moved to the parking-lot queue after exhausting retries")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Republish a failed order to the next retry queue, or park it
+   *
+   * Publishing waits for the broker's confirm, so the caller may ACK the
+   * original delivery once this returns.
+   *
+   * @param message The original delivery
+   * @param reason Why the order failed (stored in a header for parked orders)
+   */
+  public void retryOrPark(Message message, String reason) {
+    int attempt = retryCount(message) + 1;
+    String routingKey = attempt <= maxAttempts
+        ? RabbitMQConfig.retryRoutingKey(attempt)
+        : RabbitMQConfig.PARKED_ROUTING_KEY;
+
+    MessageBuilderSupport<Message> builder = MessageBuilder.fromClonedMessage(message)
+        .setHeader(RabbitMQConfig.RETRY_COUNT_HEADER, attempt)
+        .setHeader("x-failure-reason", reason)
+        .setDeliveryMode(MessageDeliveryMode.PERSISTENT);
+    String partitionQueue = message.getMessageProperties().getConsumerQueue();
+    if (partitions > 1 && partitionQueue != null) {
+      // Shared retry queues dead-letter by the message's own routing keys, CC included
+      builder.setHeader("CC", List.of(partitionQueue));
+    }
+    Message republished = builder.build();
+
+    rabbitTemplate.invoke(operations -> {
+      operations.send(retryExchangeName, routingKey, republished);
+      operations.waitForConfirmsOrDie(CONFIRM_TIMEOUT_MS);
+      return null;
+    });
+
+    if (attempt <= maxAttempts) {
+      Counter.builder("warehouse.orders.retried")
+          .description("Orders sent to a delayed retry queue")
+          .tag("attempt", String.valueOf(attempt))
+          .register(meterRegistry)
+          .increment();
+      logger.warn("Order message scheduled for retry {}/{}: {}", attempt, maxAttempts, reason);
+    } else {
+      parked.increment();
+      logger.error("Order message parked after {} retries: {}", maxAttempts, reason);
+    }
+  }
+
+  private static int retryCount(Message message) {
+    Object header = message.getMessageProperties().getHeader(RabbitMQConfig.RETRY_COUNT_HEADER);
+    if (header instanceof Number number) {
+      return number.intValue();
+    }
+    return 0;
+  }
+}
@@ -0,0 +1,160 @@
+package com.cs6650.group13.warehouse.dedup;
+
+import com.cs6650.group13.warehouse.ledger.OrderLedger;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Idempotency guard for redelivered orders
+ *
+ * Seen order IDs are kept in time-sliced {@link SeenOrderBitmap} segments. A new segment
+ * starts every {@code app.dedup.segment-duration-ms}; the oldest is dropped once more than
+ * {@code app.dedup.retained-segments} exist, which bounds memory to the IDs seen within
+ * the retention window. Redeliveries happen within seconds, so this window is generous.
+ * On startup only ledger orders written inside that window are seeded, so a restart does
+ * not resurrect IDs the running instance would already have retired.
+ *
+ * The segment array is replaced copy-on-write on rotation, so checks never take a lock;
+ * a check that raced a rotation settles on the new head (see {@link #markIfFirstSeen}).
+ */
+@Component
+@ConditionalOnProperty(name = "app.dedup.enabled", havingValue = "true", matchIfMissing = true)
+public class OrderDeduplicator {
+
+  private static final Logger logger = LoggerFactory.getLogger(OrderDeduplicator.class);
+
+  private final int retainedSegments;
+  private final long retentionWindowMs;
+  private final Counter checks;
+  private final Counter duplicates;
+
+  // [0] is the segment new IDs are written to; older segments are read-only
+  private volatile SeenOrderBitmap[] segments;
+
+  @Autowired(required = false)
+  private OrderLedger ledger;
+
+  public OrderDeduplicator(MeterRegistry meterRegistry,
+                           @Value("${app.dedup.retained-segments:6}") int retainedSegments,
+                           @Value("${app.dedup.segment-duration-ms:600000}") long segmentDurationMs) {
+    this.retainedSegments = Math.max(1, retainedSegments);
+    this.retentionWindowMs = this.retainedSegments * segmentDurationMs;
+    this.segments = new SeenOrderBitmap[] {new SeenOrderBitmap()};
+
+    this.checks = Counter.builder("warehouse.orders.dedup.checks")
+        .description("Orders checked for redelivery duplicates")
+        .register(meterRegistry);
+    this.duplicates = Counter.builder("warehouse.orders.duplicates")
+        .description("Redelivered orders skipped because they were already recorded")
+        .register(meterRegistry);
+    Gauge.builder("warehouse.orders.duplicate.rate", this, OrderDeduplicator::getDuplicateRate)
+        .description("Fraction of checked orders that were duplicates")
+        .register(meterRegistry);
+    Gauge.builder("warehouse.orders.dedup.memory", this, d -> d.sizeInBytes())
+        .description("Approximate memory held by the seen-order bitmaps")
+        .baseUnit("bytes")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Seed the current segment with the ledger's orders from the retention window, so a
+   * restart does not forget what was recently counted
+   */
+  @PostConstruct
+  public void seedFromLedger() {
+    if (ledger == null) {
+      return;
+    }
+    SeenOrderBitmap current = segments[0];
+    ledger.forEachOrderIdSince(System.currentTimeMillis() - retentionWindowMs, current::add);
+    logger.info("Order deduplicator seeded with {} order IDs from the last {} ms of the ledger",
+        current.cardinality(), retentionWindowMs);
+  }
+
+  /**
+   * Record an order ID as seen
+   * @return true if this is the first time the order is seen, false for a duplicate
+   */
+  public boolean markIfFirstSeen(int orderId) {
+    checks.increment();
+    SeenOrderBitmap[] snapshot = segments;
+    for (int i = 1; i < snapshot.length; i++) {
+      if (snapshot[i].contains(orderId)) {
+        duplicates.increment();
+        return false;
+      }
+    }
+    if (!snapshot[0].add(orderId)) {
+      duplicates.increment();
+      return false;
+    }
+    // Rotations since the snapshot published newer heads. A thread holding one of them may
+    // have checked our head before this add and claimed the ID in its own head: a claim
+    // in a newer head wins, so look through them, then claim the newest one as well so
+    // that threads still holding it find this claim when they add.
+    SeenOrderBitmap[] latest;
+    while ((latest = segments) != snapshot) {
+      for (int i = 1; i < latest.length && latest[i] != snapshot[0]; i++) {
+        if (latest[i].contains(orderId)) {
+          duplicates.increment();
+          return false;
+        }
+      }
+      if (!latest[0].add(orderId)) {
+        duplicates.increment();
+        return false;
+      }
+      snapshot = latest;
+    }
+    return true;
+  }
+
+  /**
+   * Undo {@link #markIfFirstSeen(int)} when an order could not be recorded and will be retried
+   */
+  public void forget(int orderId) {
+    for (SeenOrderBitmap segment : segments) {
+      segment.remove(orderId);
+    }
+  }
+
+  /**
+   * Start a new segment and retire the oldest one beyond the retention count
+   */
+  @Scheduled(fixedRateString = "${app.dedup.segment-duration-ms:600000}",
+      initialDelayString = "${app.dedup.segment-duration-ms:600000}")
+  public void rotate() {
+    SeenOrderBitmap[] current = segments;
+    int length = Math.min(current.length + 1, retainedSegments);
+    SeenOrderBitmap[] next = new SeenOrderBitmap[length];
+    next[0] = new SeenOrderBitmap();
+    System.arraycopy(current, 0, next, 1, length - 1);
+    segments = next;
+
+    if (current.length + 1 > retainedSegments) {
+      logger.debug("Retired dedup segment with {} order IDs", current[current.length - 1].cardinality());
+    }
+  }
+
+  public double getDuplicateRate() {
+    double total = checks.count();
+    return total == 0 ? 0.0 : duplicates.count() / total;
+  }
+
+  public long sizeInBytes() {
+    long bytes = 0;
+    for (SeenOrderBitmap segment : segments) {
+      bytes += segment.sizeInBytes();
+    }
+    return bytes;
+  }
+}
@@ -0,0 +1,211 @@
+package com.cs6650.group13.warehouse.dedup;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Concurrent, compressed bitmap of order IDs (roaring-style)
+ *
+ * The 32-bit ID space is split into 65536 chunks by the high 16 bits. Each chunk is
+ * a sorted array of low 16-bit values while it has at most 4096 entries (2 bytes per ID)
+ * and becomes a 8 KB bitset beyond that. Sequential order IDs therefore cost about
+ * one bit each, sparse IDs two bytes each.
+ *
+ * All operations are lock-free: array chunks are immutable and replaced with CAS,
+ * bitset chunks are updated with per-word CAS.
+ */
+public class SeenOrderBitmap {
+
+  private static final int ARRAY_MAX_SIZE = 4096;
+  private static final int BITMAP_WORDS = 1 << 10;
+
+  // Two-level directory (256 x 256) so an empty bitmap costs ~1 KB instead of 256 KB
+  private final AtomicReferenceArray<AtomicReferenceArray<Object>> directory =
+      new AtomicReferenceArray<>(256);
+
+  /**
+   * Add an order ID
+   * @return true if the ID was not present before
+   */
+  public boolean add(int value) {
+    AtomicReferenceArray<Object> page = page(value >>> 16, true);
+    int slot = (value >>> 16) & 0xFF;
+    char low = (char) value;
+
+    while (true) {
+      Object container = page.get(slot);
+      if (container == null) {
+        if (page.compareAndSet(slot, null, new char[] {low})) {
+          return true;
+        }
+      } else if (container instanceof AtomicLongArray bits) {
+        return setBit(bits, low);
+      } else {
+        char[] values = (char[]) container;
+        int position = Arrays.binarySearch(values, low);
+        if (position >= 0) {
+          return false;
+        }
+        Object replacement = values.length < ARRAY_MAX_SIZE
+            ? insert(values, -position - 1, low)
+            : toBitmap(values, low);
+        if (page.compareAndSet(slot, container, replacement)) {
+          return true;
+        }
+      }
+    }
+  }
+
+  /**
+   * Remove an order ID
+   * @return true if the ID was present
+   */
+  public boolean remove(int value) {
+    AtomicReferenceArray<Object> page = page(value >>> 16, false);
+    if (page == null) {
+      return false;
+    }
+    int slot = (value >>> 16) & 0xFF;
+    char low = (char) value;
+
+    while (true) {
+      Object container = page.get(slot);
+      if (container == null) {
+        return false;
+      } else if (container instanceof AtomicLongArray bits) {
+        return clearBit(bits, low);
+      } else {
+        char[] values = (char[]) container;
+        int position = Arrays.binarySearch(values, low);
+        if (position < 0) {
+          return false;
+        }
+        char[] replacement = new char[values.length - 1];
+        System.arraycopy(values, 0, replacement, 0, position);
+        System.arraycopy(values, position + 1, replacement, position, values.length - position - 1);
+        if (page.compareAndSet(slot, container, replacement)) {
+          return true;
+        }
+      }
+    }
+  }
+
+  public boolean contains(int value) {
+    AtomicReferenceArray<Object> page = directory.get(value >>> 24);
+    if (page == null) {
+      return false;
+    }
+    Object container = page.get((value >>> 16) & 0xFF);
+    char low = (char) value;
+    if (container == null) {
+      return false;
+    } else if (container instanceof AtomicLongArray bits) {
+      return (bits.get(low >>> 6) & (1L << low)) != 0;
+    } else {
+      return Arrays.binarySearch((char[]) container, low) >= 0;
+    }
+  }
+
+  /**
+   * Number of IDs in the bitmap (approximate under concurrent updates)
+   */
+  public long cardinality() {
+    long count = 0;
+    for (int p = 0; p < directory.length(); p++) {
+      AtomicReferenceArray<Object> page = directory.get(p);
+      if (page == null) {
+        continue;
+      }
+      for (int s = 0; s < page.length(); s++) {
+        Object container = page.get(s);
+        if (container instanceof AtomicLongArray bits) {
+          for (int w = 0; w < BITMAP_WORDS; w++) {
+            count += Long.bitCount(bits.get(w));
+          }
+        } else if (container != null) {
+          count += ((char[]) container).length;
+        }
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Approximate heap footprint of the containers
+   */
+  public long sizeInBytes() {
+    long bytes = 16L + 8L * directory.length();
+    for (int p = 0; p < directory.length(); p++) {
+      AtomicReferenceArray<Object> page = directory.get(p);
+      if (page == null) {
+        continue;
+      }
+      bytes += 16L + 8L * page.length();
+      for (int s = 0; s < page.length(); s++) {
+        Object container = page.get(s);
+        if (container instanceof AtomicLongArray) {
+          bytes += 16L + 8L * BITMAP_WORDS;
+        } else if (container != null) {
+          bytes += 16L + 2L * ((char[]) container).length;
+        }
+      }
+    }
+    return bytes;
+  }
+
+  private AtomicReferenceArray<Object> page(int high, boolean create) {
+    int index = high >>> 8;
+    AtomicReferenceArray<Object> page = directory.get(index);
+    if (page == null && create) {
+      directory.compareAndSet(index, null, new AtomicReferenceArray<>(256));
+      page = directory.get(index);
+    }
+    return page;
+  }
+
+  private static char[] insert(char[] values, int position, char value) {
+    char[] result = new char[values.length + 1];
+    System.arraycopy(values, 0, result, 0, position);
+    result[position] = value;
+    System.arraycopy(values, position, result, position + 1, values.length - position);
+    return result;
+  }
+
+  private static AtomicLongArray toBitmap(char[] values, char extra) {
+    AtomicLongArray bits = new AtomicLongArray(BITMAP_WORDS);
+    for (char value : values) {
+      bits.set(value >>> 6, bits.get(value >>> 6) | (1L << value));
+    }
+    bits.set(extra >>> 6, bits.get(extra >>> 6) | (1L << extra));
+    return bits;
+  }
+
+  private static boolean setBit(AtomicLongArray bits, char low) {
+    int word = low >>> 6;
+    long mask = 1L << low;
+    while (true) {
+      long current = bits.get(word);
+      if ((current & mask) != 0) {
+        return false;
+      }
+      if (bits.compareAndSet(word, current, current | mask)) {
+        return true;
+      }
+    }
+  }
+
+  private static boolean clearBit(AtomicLongArray bits, char low) {
+    int word = low >>> 6;
+    long mask = 1L << low;
+    while (true) {
+      long current = bits.get(word);
+      if ((current & mask) == 0) {
+        return false;
+      }
+      if (bits.compareAndSet(word, current, current & ~mask)) {
+        return true;
+      }
+    }
+  }
+}
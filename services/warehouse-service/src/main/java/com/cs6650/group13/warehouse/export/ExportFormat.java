@@ -0,0 +1,45 @@
+package com.cs6650.group13.warehouse.export;
+
+/**
+ * Row formats for the product statistics export
+ *
+ * - CSV: a "product_id,quantity" header, then one line per product
+ * - NDJSON: one {"product_id":..,"quantity":..} object per line
+ * - COLUMNAR: big-endian binary blocks of up to {@link StatisticsExporter#BLOCK_ROWS}
+ *   rows, each block's product IDs (int) followed by its quantities (long); see
+ *   {@link StatisticsExporter} for the layout
+ */
+public enum ExportFormat {
+
+  CSV("text/csv", "csv"),
+  NDJSON("application/x-ndjson", "ndjson"),
+  COLUMNAR("application/octet-stream", "bin");
+
+  private final String contentType;
+  private final String extension;
+
+  ExportFormat(String contentType, String extension) {
+    this.contentType = contentType;
+    this.extension = extension;
+  }
+
+  public String getContentType() {
+    return contentType;
+  }
+
+  public String getExtension() {
+    return extension;
+  }
+
+  /**
+   * Parse a format name (csv, ndjson, columnar), ignoring case
+   */
+  public static ExportFormat parse(String name) {
+    for (ExportFormat format : values()) {
+      if (format.name().equalsIgnoreCase(name)) {
+        return format;
+      }
+    }
+    throw new IllegalArgumentException("Unknown export format '" + name + "' (expected csv, ndjson or columnar)");
+  }
+}
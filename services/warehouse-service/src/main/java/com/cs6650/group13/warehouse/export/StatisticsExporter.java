@@ -0,0 +1,176 @@
+package com.cs6650.group13.warehouse.export;
+
+import com.cs6650.group13.warehouse.service.WarehouseStatistics;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes per-product statistics straight from a {@link WarehouseStatistics.ProductCursor}
+ * to an output stream, one product at a time
+ *
+ * Rows are formatted into a fixed buffer (no per-row strings or boxing), so memory use
+ * is the same for ten products or ten million. The columnar format is:
+ *
+ * <pre>
+ *   int  MAGIC ("WHPQ"), int VERSION (1)
+ *   per block: int rows (1..BLOCK_ROWS), int[rows] product IDs, long[rows] quantities
+ *   int  0 (end of stream)
+ * </pre>
+ *
+ * all big-endian, so {@code java.io.DataInputStream} or numpy's {@code >i4}/{@code >i8}
+ * read it directly.
+ */
+public final class StatisticsExporter {
+
+  public static final int MAGIC = 0x57485051;
+  public static final int VERSION = 1;
+  public static final int BLOCK_ROWS = 4096;
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+  private static final byte[] CSV_HEADER = "product_id,quantity\n".getBytes();
+  private static final byte[] JSON_PRODUCT = "{\"product_id\":".getBytes();
+  private static final byte[] JSON_QUANTITY = ",\"quantity\":".getBytes();
+
+  private final OutputStream out;
+  private final byte[] buffer = new byte[BUFFER_SIZE];
+  private final byte[] digits = new byte[20];
+  private int position;
+
+  private StatisticsExporter(OutputStream out) {
+    this.out = out;
+  }
+
+  /**
+   * Write every product the cursor returns; the stream is flushed but not closed
+   * @return The number of products written
+   */
+  public static long write(WarehouseStatistics.ProductCursor cursor, ExportFormat format, OutputStream out)
+      throws IOException {
+    StatisticsExporter exporter = new StatisticsExporter(out);
+    long rows = switch (format) {
+      case CSV -> exporter.writeCsv(cursor);
+      case NDJSON -> exporter.writeNdjson(cursor);
+      case COLUMNAR -> exporter.writeColumnar(cursor);
+    };
+    exporter.flush();
+    out.flush();
+    return rows;
+  }
+
+  private long writeCsv(WarehouseStatistics.ProductCursor cursor) throws IOException {
+    writeBytes(CSV_HEADER);
+    long rows = 0;
+    while (cursor.next()) {
+      writeDecimal(cursor.getProductId());
+      writeByte(',');
+      writeDecimal(cursor.getQuantity());
+      writeByte('\n');
+      rows++;
+    }
+    return rows;
+  }
+
+  private long writeNdjson(WarehouseStatistics.ProductCursor cursor) throws IOException {
+    long rows = 0;
+    while (cursor.next()) {
+      writeBytes(JSON_PRODUCT);
+      writeDecimal(cursor.getProductId());
+      writeBytes(JSON_QUANTITY);
+      writeDecimal(cursor.getQuantity());
+      writeByte('}');
+      writeByte('\n');
+      rows++;
+    }
+    return rows;
+  }
+
+  private long writeColumnar(WarehouseStatistics.ProductCursor cursor) throws IOException {
+    writeInt(MAGIC);
+    writeInt(VERSION);
+    int[] productIds = new int[BLOCK_ROWS];
+    long[] quantities = new long[BLOCK_ROWS];
+    long rows = 0;
+    int blockRows = 0;
+    while (true) {
+      boolean more = cursor.next();
+      if (more) {
+        productIds[blockRows] = cursor.getProductId();
+        quantities[blockRows] = cursor.getQuantity();
+        blockRows++;
+      }
+      if (blockRows == BLOCK_ROWS || (!more && blockRows > 0)) {
+        writeInt(blockRows);
+        for (int i = 0; i < blockRows; i++) {
+          writeInt(productIds[i]);
+        }
+        for (int i = 0; i < blockRows; i++) {
+          writeLong(quantities[i]);
+        }
+        rows += blockRows;
+        blockRows = 0;
+      }
+      if (!more) {
+        writeInt(0);
+        return rows;
+      }
+    }
+  }
+
+  private void ensure(int bytes) throws IOException {
+    if (position + bytes > buffer.length) {
+      flush();
+    }
+  }
+
+  private void flush() throws IOException {
+    if (position > 0) {
+      out.write(buffer, 0, position);
+      position = 0;
+    }
+  }
+
+  private void writeByte(char c) throws IOException {
+    ensure(1);
+    buffer[position++] = (byte) c;
+  }
+
+  private void writeBytes(byte[] bytes) throws IOException {
+    ensure(bytes.length);
+    System.arraycopy(bytes, 0, buffer, position, bytes.length);
+    position += bytes.length;
+  }
+
+  private void writeDecimal(long value) throws IOException {
+    ensure(20);
+    if (value < 0) {
+      if (value == Long.MIN_VALUE) {
+        writeBytes(Long.toString(value).getBytes());
+        return;
+      }
+      buffer[position++] = '-';
+      value = -value;
+    }
+    int length = 0;
+    do {
+      digits[length++] = (byte) ('0' + value % 10);
+      value /= 10;
+    } while (value != 0);
+    while (length > 0) {
+      buffer[position++] = digits[--length];
+    }
+  }
+
+  private void writeInt(int value) throws IOException {
+    ensure(4);
+    buffer[position++] = (byte) (value >>> 24);
+    buffer[position++] = (byte) (value >>> 16);
+    buffer[position++] = (byte) (value >>> 8);
+    buffer[position++] = (byte) value;
+  }
+
+  private void writeLong(long value) throws IOException {
+    writeInt((int) (value >>> 32));
+    writeInt((int) value);
+  }
+}
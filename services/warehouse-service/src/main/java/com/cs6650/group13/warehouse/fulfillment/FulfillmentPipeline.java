@@ -0,0 +1,306 @@
+package com.cs6650.group13.warehouse.fulfillment;
+
+import com.cs6650.group13.warehouse.analytics.OrderSketches;
+import com.cs6650.group13.warehouse.dedup.OrderDeduplicator;
+import com.cs6650.group13.warehouse.ledger.OrderLedger;
+import com.cs6650.group13.warehouse.model.OrderView;
+import com.cs6650.group13.warehouse.service.WarehouseStatistics;
+import com.cs6650.group13.warehouse.timeseries.ProductTimeSeriesStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Staged (SEDA) order fulfillment: validate -> reserve -> pick -> ship
+ *
+ * - validate: rejects malformed orders and acknowledges redelivered duplicates
+ * - reserve: the durable stage; records the batch in the ledger and statistics, waits
+ *   for one group commit covering the whole batch, then acknowledges every order in it
+ * - pick: builds each order's pick list (items in bin order) and adds the order to
+ *   the current pick wave, when wave planning is enabled
+ * - ship: counts shipped orders and units and records end-to-end latency
+ *
+ * Each stage has a bounded queue, its own worker threads and batches its input, so
+ * per-stage wait and service times show which stage limits throughput. Orders are
+ * acknowledged after the reserve stage: pick and ship run after the ACK, and an order
+ * that fails there is logged and counted, not redelivered (the ledger already has it).
+ *
+ * The listener thread returns as soon as the order is queued, so deliveries only
+ * overlap in the pipeline if the prefetch (CONSUMER_PREFETCH) is above 1.
+ *
+ * Off by default: enable with {@code FULFILLMENT_PIPELINE_ENABLED=true}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.fulfillment.enabled", havingValue = "true")
+public class FulfillmentPipeline {
+
+  private static final Logger logger = LoggerFactory.getLogger(FulfillmentPipeline.class);
+
+  private static final long STOP_TIMEOUT_MILLIS = 10_000;
+
+  private final WarehouseStatistics statistics;
+
+  @Autowired(required = false)
+  private OrderLedger ledger;
+
+  @Autowired(required = false)
+  private OrderDeduplicator deduplicator;
+
+  @Autowired(required = false)
+  private WavePlanner wavePlanner;
+
+  @Autowired(required = false)
+  private ProductTimeSeriesStore timeSeries;
+
+  @Autowired(required = false)
+  private OrderSketches sketches;
+
+  private final FulfillmentStage validate;
+  private final FulfillmentStage reserve;
+  private final FulfillmentStage pick;
+  private final FulfillmentStage ship;
+
+  private final long pickWorkMillis;
+  private final long shipWorkMillis;
+
+  private final Timer latency;
+  private final Counter shipped;
+  private final Counter unitsShipped;
+  private final Counter rejected;
+  private final Counter duplicates;
+  private final Counter failed;
+
+  private volatile boolean running;
+
+  public FulfillmentPipeline(WarehouseStatistics statistics,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.fulfillment.queue-capacity:1024}") int queueCapacity,
+                             @Value("${app.fulfillment.batch-size:64}") int batchSize,
+                             @Value("${app.fulfillment.validate.threads:1}") int validateThreads,
+                             @Value("${app.fulfillment.reserve.threads:2}") int reserveThreads,
+                             @Value("${app.fulfillment.pick.threads:2}") int pickThreads,
+                             @Value("${app.fulfillment.ship.threads:1}") int shipThreads,
+                             @Value("${app.fulfillment.pick.work-ms:0}") long pickWorkMillis,
+                             @Value("${app.fulfillment.ship.work-ms:0}") long shipWorkMillis) {
+    this.statistics = statistics;
+    this.pickWorkMillis = pickWorkMillis;
+    this.shipWorkMillis = shipWorkMillis;
+
+    // Built back to front so each stage knows where to hand its orders
+    this.ship = new FulfillmentStage("ship", queueCapacity, shipThreads, batchSize,
+        this::ship, this::failedAfterAck, null, meterRegistry);
+    this.pick = new FulfillmentStage("pick", queueCapacity, pickThreads, batchSize,
+        this::pick, this::failedAfterAck, ship, meterRegistry);
+    this.reserve = new FulfillmentStage("reserve", queueCapacity, reserveThreads, batchSize,
+        this::reserve, this::failedBeforeAck, pick, meterRegistry);
+    this.validate = new FulfillmentStage("validate", queueCapacity, validateThreads, batchSize,
+        this::validate, this::failedBeforeAck, reserve, meterRegistry);
+
+    this.latency = Timer.builder("warehouse.fulfillment.latency")
+        .description("Time from handing an order to the pipeline until it is shipped")
+        .publishPercentiles(0.5, 0.95, 0.99)
+        .publishPercentileHistogram()
+        .register(meterRegistry);
+    this.shipped = outcome(meterRegistry, "shipped");
+    this.rejected = outcome(meterRegistry, "rejected");
+    this.duplicates = outcome(meterRegistry, "duplicate");
+    this.failed = outcome(meterRegistry, "failed");
+    this.unitsShipped = Counter.builder("warehouse.fulfillment.units.shipped")
+        .description("Item units shipped by the fulfillment pipeline")
+        .register(meterRegistry);
+  }
+
+  private static Counter outcome(MeterRegistry meterRegistry, String outcome) {
+    return Counter.builder("warehouse.fulfillment.orders")
+        .description("Orders leaving the fulfillment pipeline, by outcome")
+        .tag("outcome", outcome)
+        .register(meterRegistry);
+  }
+
+  @PostConstruct
+  public void start() {
+    running = true;
+    ship.start();
+    pick.start();
+    reserve.start();
+    validate.start();
+    logger.info("Fulfillment pipeline started (ledger = {}, deduplication = {})",
+        ledger != null, deduplicator != null);
+  }
+
+  /**
+   * Hand an order to the pipeline, waiting while the validate stage is full
+   *
+   * @param order A copy the pipeline may keep (not the decoder's thread-local view)
+   * @param partition The order partition it was consumed from
+   * @param completion Acknowledges or rejects the delivery; called from a pipeline thread
+   */
+  public void submit(OrderView order, int partition, FulfillmentTask.Completion completion)
+      throws InterruptedException {
+    if (!running) {
+      throw new IllegalStateException("Fulfillment pipeline is stopped");
+    }
+    validate.put(new FulfillmentTask(order, partition, completion));
+  }
+
+  private void validate(List<FulfillmentTask> batch) {
+    for (FulfillmentTask task : batch) {
+      OrderView order = task.getOrder();
+      String reason = order.isMalformed() ? "malformed body"
+          : !order.hasOrderId() ? "missing order_id"
+          : order.hasInvalidItem() ? "invalid item"
+          : null;
+      if (reason != null) {
+        logger.error("Order rejected by validate stage ({}): {}", reason, order);
+        task.finish();
+        rejected.increment();
+        task.getCompletion().reject(reason);
+      } else if (deduplicator != null && !deduplicator.markIfFirstSeen(order.getOrderId())) {
+        logger.warn("Order {} already recorded. Acknowledged without recounting.", order.getOrderId());
+        task.finish();
+        duplicates.increment();
+        task.getCompletion().acknowledge();
+      }
+    }
+  }
+
+  private void reserve(List<FulfillmentTask> batch) throws InterruptedException {
+    long lastSequence = -1;
+    for (FulfillmentTask task : batch) {
+      OrderView order = task.getOrder();
+      try {
+        if (ledger != null) {
+          long sequence = ledger.record(order.getOrderId(), order.getProductIds(), order.getQuantities(),
+              order.getItemCount(), () -> recordOrder(task));
+          task.setLedgerSequence(sequence);
+          lastSequence = Math.max(lastSequence, sequence);
+        } else {
+          recordOrder(task);
+        }
+      } catch (RuntimeException e) {
+        logger.error("Error reserving order {}: {}", order.getOrderId(), e.getMessage(), e);
+        task.finish();
+        failedBeforeAck(task, e);
+      }
+    }
+
+    // One group commit covers the whole batch
+    if (ledger != null && lastSequence >= 0) {
+      ledger.awaitDurable(lastSequence);
+    }
+    for (FulfillmentTask task : batch) {
+      if (!task.isFinished()) {
+        task.getCompletion().acknowledge();
+      }
+    }
+  }
+
+  private void pick(List<FulfillmentTask> batch) throws InterruptedException {
+    for (FulfillmentTask task : batch) {
+      OrderView order = task.getOrder();
+      int[] productIds = order.getProductIds();
+      int itemCount = order.getItemCount();
+
+      // Insertion sort: orders carry a handful of items
+      int[] pickList = new int[itemCount];
+      for (int i = 0; i < itemCount; i++) {
+        int j = i;
+        while (j > 0 && productIds[pickList[j - 1]] > productIds[i]) {
+          pickList[j] = pickList[j - 1];
+          j--;
+        }
+        pickList[j] = i;
+      }
+      task.setPickList(pickList);
+      if (wavePlanner != null) {
+        wavePlanner.addOrder(task.getPartition(), order);
+      }
+      simulateWork(pickWorkMillis);
+    }
+  }
+
+  private void ship(List<FulfillmentTask> batch) throws InterruptedException {
+    for (FulfillmentTask task : batch) {
+      OrderView order = task.getOrder();
+      int[] quantities = order.getQuantities();
+      long units = 0;
+      for (int i : task.getPickList()) {
+        units += quantities[i];
+      }
+      simulateWork(shipWorkMillis);
+      unitsShipped.increment(units);
+      shipped.increment();
+      latency.record(System.nanoTime() - task.getSubmittedAt(), TimeUnit.NANOSECONDS);
+    }
+  }
+
+  /**
+   * Stand-in for real warehouse operations (configurable, off by default)
+   */
+  private static void simulateWork(long millis) throws InterruptedException {
+    if (millis > 0) {
+      Thread.sleep(millis);
+    }
+  }
+
+  private void recordOrder(FulfillmentTask task) {
+    OrderView order = task.getOrder();
+    int[] productIds = order.getProductIds();
+    int[] quantities = order.getQuantities();
+    for (int i = 0; i < order.getItemCount(); i++) {
+      statistics.recordProduct(task.getPartition(), order.getOrderId(), productIds[i], quantities[i]);
+    }
+    statistics.incrementOrderCount(task.getPartition());
+    if (timeSeries != null) {
+      timeSeries.record(productIds, quantities, order.getItemCount());
+    }
+    if (sketches != null) {
+      sketches.record(order);
+    }
+  }
+
+  private void failedBeforeAck(FulfillmentTask task, Exception e) {
+    if (deduplicator != null && task.getLedgerSequence() < 0) {
+      // Not recorded: the retry must not be mistaken for a duplicate
+      deduplicator.forget(task.getOrder().getOrderId());
+    }
+    rejected.increment();
+    task.getCompletion().reject("processing error: " + e.getMessage());
+  }
+
+  private void failedAfterAck(FulfillmentTask task, Exception e) {
+    failed.increment();
+    logger.error("Order {} failed after it was recorded and acknowledged: {}",
+        task.getOrder().getOrderId(), e.getMessage());
+  }
+
+  /**
+   * Stop accepting orders and let each stage drain, front to back
+   */
+  @PreDestroy
+  public void stop() throws InterruptedException {
+    running = false;
+    validate.stop(STOP_TIMEOUT_MILLIS);
+    reserve.stop(STOP_TIMEOUT_MILLIS);
+    pick.stop(STOP_TIMEOUT_MILLIS);
+    ship.stop(STOP_TIMEOUT_MILLIS);
+    for (FulfillmentStage stage : List.of(validate, reserve, pick, ship)) {
+      logger.info("Fulfillment stage {}: mean wait {} us, mean service {} us per order",
+          stage.getName(),
+          Math.round(stage.getWaitTimer().mean(TimeUnit.MICROSECONDS)),
+          Math.round(stage.getServiceTimer().mean(TimeUnit.MICROSECONDS)));
+    }
+    logger.info("Fulfillment pipeline stopped");
+  }
+}
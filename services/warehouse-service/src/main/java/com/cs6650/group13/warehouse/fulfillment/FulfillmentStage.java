@@ -0,0 +1,196 @@
+package com.cs6650.group13.warehouse.fulfillment;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * One stage of the {@link FulfillmentPipeline}: a bounded input queue drained in
+ * batches by the stage's own worker threads
+ *
+ * - A full queue blocks whoever hands it work, so a slow stage pushes back on the
+ *   stages before it and, finally, on the listener threads and the broker
+ * - Workers take one task, then drain up to {@code batchSize - 1} more without waiting
+ * - Tasks the handler did not finish are handed to the next stage
+ *
+ * Metrics (tagged {@code stage}): queue wait and per-order service time as timers with
+ * percentiles, batch sizes, and the current queue depth. The bottleneck is the stage
+ * whose queue stays full while its wait time grows.
+ */
+class FulfillmentStage {
+
+  /**
+   * Processes a batch of tasks; call {@link FulfillmentTask#finish()} on tasks that
+   * must not go on to the next stage
+   */
+  @FunctionalInterface
+  interface Handler {
+    void handle(List<FulfillmentTask> batch) throws Exception;
+  }
+
+  private static final Logger logger = LoggerFactory.getLogger(FulfillmentStage.class);
+
+  private static final long POLL_MILLIS = 100;
+
+  private final String name;
+  private final BlockingQueue<FulfillmentTask> queue;
+  private final int threads;
+  private final int batchSize;
+  private final Handler handler;
+  private final BiConsumer<FulfillmentTask, Exception> onFailure;
+  private final FulfillmentStage next;
+
+  private final Timer waitTimer;
+  private final Timer serviceTimer;
+  private final DistributionSummary batchSizes;
+
+  private final List<Thread> workers = new ArrayList<>();
+  private volatile boolean running;
+
+  FulfillmentStage(String name, int capacity, int threads, int batchSize, Handler handler,
+                   BiConsumer<FulfillmentTask, Exception> onFailure, FulfillmentStage next,
+                   MeterRegistry meterRegistry) {
+    this.name = name;
+    this.queue = new ArrayBlockingQueue<>(capacity);
+    this.threads = Math.max(1, threads);
+    this.batchSize = Math.max(1, batchSize);
+    this.handler = handler;
+    this.onFailure = onFailure;
+    this.next = next;
+
+    this.waitTimer = Timer.builder("warehouse.fulfillment.stage.wait")
+        .description("Time an order waits in a fulfillment stage's queue")
+        .tag("stage", name)
+        .publishPercentiles(0.5, 0.95, 0.99)
+        .publishPercentileHistogram()
+        .register(meterRegistry);
+    this.serviceTimer = Timer.builder("warehouse.fulfillment.stage.service")
+        .description("Per-order processing time in a fulfillment stage (batch time / batch size)")
+        .tag("stage", name)
+        .publishPercentiles(0.5, 0.95, 0.99)
+        .publishPercentileHistogram()
+        .register(meterRegistry);
+    this.batchSizes = DistributionSummary.builder("warehouse.fulfillment.stage.batch.size")
+        .description("Orders processed per fulfillment stage batch")
+        .tag("stage", name)
+        .register(meterRegistry);
+    Gauge.builder("warehouse.fulfillment.stage.queue", queue, BlockingQueue::size)
+        .description("Orders waiting in a fulfillment stage's queue")
+        .tag("stage", name)
+        .register(meterRegistry);
+  }
+
+  void start() {
+    running = true;
+    for (int i = 0; i < threads; i++) {
+      Thread worker = new Thread(this::run, "fulfillment-" + name + "-" + i);
+      worker.setDaemon(true);
+      worker.start();
+      workers.add(worker);
+    }
+  }
+
+  /**
+   * Queue a task, waiting while the stage is full
+   */
+  void put(FulfillmentTask task) throws InterruptedException {
+    task.setEnqueuedAt(System.nanoTime());
+    queue.put(task);
+  }
+
+  private void run() {
+    List<FulfillmentTask> batch = new ArrayList<>(batchSize);
+    while (running || !queue.isEmpty()) {
+      FulfillmentTask first;
+      try {
+        first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+      if (first == null) {
+        continue;
+      }
+      batch.add(first);
+      queue.drainTo(batch, batchSize - 1);
+
+      long start = System.nanoTime();
+      for (FulfillmentTask task : batch) {
+        waitTimer.record(start - task.getEnqueuedAt(), TimeUnit.NANOSECONDS);
+      }
+      try {
+        handler.handle(batch);
+      } catch (Exception e) {
+        logger.error("Fulfillment stage {} failed a batch of {} orders: {}", name, batch.size(), e.getMessage(), e);
+        for (FulfillmentTask task : batch) {
+          if (!task.isFinished()) {
+            task.finish();
+            onFailure.accept(task, e);
+          }
+        }
+      }
+      long perOrder = (System.nanoTime() - start) / batch.size();
+      for (int i = 0; i < batch.size(); i++) {
+        serviceTimer.record(perOrder, TimeUnit.NANOSECONDS);
+      }
+      batchSizes.record(batch.size());
+
+      try {
+        forward(batch);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } finally {
+        batch.clear();
+      }
+    }
+  }
+
+  private void forward(List<FulfillmentTask> batch) throws InterruptedException {
+    if (next == null) {
+      return;
+    }
+    for (FulfillmentTask task : batch) {
+      if (!task.isFinished()) {
+        next.put(task);
+      }
+    }
+  }
+
+  /**
+   * Stop taking new work once the queue is empty and wait for the workers
+   */
+  void stop(long timeoutMillis) throws InterruptedException {
+    running = false;
+    for (Thread worker : workers) {
+      worker.join(timeoutMillis);
+    }
+    workers.clear();
+  }
+
+  String getName() {
+    return name;
+  }
+
+  int getQueueSize() {
+    return queue.size();
+  }
+
+  Timer getWaitTimer() {
+    return waitTimer;
+  }
+
+  Timer getServiceTimer() {
+    return serviceTimer;
+  }
+}
@@ -0,0 +1,99 @@
+package com.cs6650.group13.warehouse.fulfillment;
+
+import com.cs6650.group13.warehouse.model.OrderView;
+
+/**
+ * One order moving through the {@link FulfillmentPipeline}
+ *
+ * Owned by exactly one stage at a time; the bounded queues between stages hand it
+ * over, so its fields need no further synchronization.
+ */
+public final class FulfillmentTask {
+
+  /**
+   * How the pipeline reports the outcome of the delivery that carried the order
+   */
+  public interface Completion {
+    /**
+     * The order is recorded (and durable, if the ledger is enabled) or was a duplicate
+     */
+    void acknowledge();
+
+    /**
+     * The order cannot be recorded; retry it later or park it
+     */
+    void reject(String reason);
+  }
+
+  private final OrderView order;
+  private final int partition;
+  private final Completion completion;
+  private final long submittedAt;
+
+  private long enqueuedAt;
+  private long ledgerSequence = -1;
+  private boolean finished;
+  private int[] pickList;
+
+  FulfillmentTask(OrderView order, int partition, Completion completion) {
+    this.order = order;
+    this.partition = partition;
+    this.completion = completion;
+    this.submittedAt = System.nanoTime();
+    this.enqueuedAt = submittedAt;
+  }
+
+  public OrderView getOrder() {
+    return order;
+  }
+
+  public int getPartition() {
+    return partition;
+  }
+
+  Completion getCompletion() {
+    return completion;
+  }
+
+  long getSubmittedAt() {
+    return submittedAt;
+  }
+
+  long getEnqueuedAt() {
+    return enqueuedAt;
+  }
+
+  void setEnqueuedAt(long enqueuedAt) {
+    this.enqueuedAt = enqueuedAt;
+  }
+
+  long getLedgerSequence() {
+    return ledgerSequence;
+  }
+
+  void setLedgerSequence(long ledgerSequence) {
+    this.ledgerSequence = ledgerSequence;
+  }
+
+  /**
+   * Whether the order left the pipeline early (rejected, duplicate or failed)
+   */
+  boolean isFinished() {
+    return finished;
+  }
+
+  void finish() {
+    this.finished = true;
+  }
+
+  /**
+   * Item indexes in the order a picker walks the bins (ascending product ID)
+   */
+  public int[] getPickList() {
+    return pickList;
+  }
+
+  void setPickList(int[] pickList) {
+    this.pickList = pickList;
+  }
+}
@@ -0,0 +1,133 @@
+package com.cs6650.group13.warehouse.fulfillment;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing productId -> (units, order lines) table for the wave being built
+ *
+ * Primitive arrays only, so adding an order allocates nothing. The slots in use are
+ * also kept in a list, so reading and clearing the table costs O(distinct products)
+ * rather than O(capacity). Not thread-safe: {@link WavePlanner} keeps one per partition
+ * under that partition's lock and merges them into another when a wave closes.
+ */
+final class PickAggregate {
+
+  private static final float LOAD_FACTOR = 0.5f;
+
+  private int[] keys;
+  private long[] units;
+  private int[] lines;
+  private boolean[] used;
+  private int[] usedSlots;
+  private int size;
+
+  PickAggregate(int expectedProducts) {
+    int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedProducts / LOAD_FACTOR)) - 1) << 1;
+    allocate(capacity);
+  }
+
+  /**
+   * Add one order line
+   */
+  void add(int productId, int quantity) {
+    add(productId, quantity, 1);
+  }
+
+  /**
+   * Add every product of another aggregate to this one
+   */
+  void addAll(PickAggregate other) {
+    for (int i = 0; i < other.size; i++) {
+      int slot = other.usedSlots[i];
+      add(other.keys[slot], other.units[slot], other.lines[slot]);
+    }
+  }
+
+  int size() {
+    return size;
+  }
+
+  /**
+   * Copy the aggregate out in pick order (ascending product ID)
+   *
+   * @param productIds Receives the product IDs; length >= {@link #size()}
+   * @param unitCounts Receives the units to pick per product
+   * @param lineCounts Receives the order lines each pick covers
+   */
+  void drainTo(int[] productIds, long[] unitCounts, int[] lineCounts) {
+    for (int i = 0; i < size; i++) {
+      productIds[i] = keys[usedSlots[i]];
+    }
+    Arrays.sort(productIds, 0, size);
+    for (int i = 0; i < size; i++) {
+      int slot = findSlot(keys, used, productIds[i]);
+      unitCounts[i] = units[slot];
+      lineCounts[i] = lines[slot];
+    }
+  }
+
+  void clear() {
+    for (int i = 0; i < size; i++) {
+      int slot = usedSlots[i];
+      used[slot] = false;
+      units[slot] = 0;
+      lines[slot] = 0;
+    }
+    size = 0;
+  }
+
+  private void add(int productId, long unitCount, int lineCount) {
+    if (size + 1 > keys.length * LOAD_FACTOR) {
+      resize();
+    }
+    int slot = findSlot(keys, used, productId);
+    if (!used[slot]) {
+      used[slot] = true;
+      keys[slot] = productId;
+      usedSlots[size++] = slot;
+    }
+    units[slot] += unitCount;
+    lines[slot] += lineCount;
+  }
+
+  private void allocate(int capacity) {
+    keys = new int[capacity];
+    units = new long[capacity];
+    lines = new int[capacity];
+    used = new boolean[capacity];
+    usedSlots = new int[capacity];
+  }
+
+  private void resize() {
+    int[] oldKeys = keys;
+    long[] oldUnits = units;
+    int[] oldLines = lines;
+    int[] oldUsedSlots = usedSlots;
+    int count = size;
+    allocate(oldKeys.length << 1);
+    size = 0;
+    for (int i = 0; i < count; i++) {
+      int oldSlot = oldUsedSlots[i];
+      int slot = findSlot(keys, used, oldKeys[oldSlot]);
+      used[slot] = true;
+      keys[slot] = oldKeys[oldSlot];
+      units[slot] = oldUnits[oldSlot];
+      lines[slot] = oldLines[oldSlot];
+      usedSlots[size++] = slot;
+    }
+  }
+
+  private static int findSlot(int[] keys, boolean[] used, int key) {
+    int mask = keys.length - 1;
+    int slot = mix(key) & mask;
+    while (used[slot] && keys[slot] != key) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  private static int mix(int key) {
+    int h = key * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+}
@@ -0,0 +1,103 @@
+package com.cs6650.group13.warehouse.fulfillment;
+
+/**
+ * A closed pick wave: the orders it covers and one pick per distinct product,
+ * in bin order (ascending product ID)
+ */
+public final class Wave {
+
+  /**
+   * What closed the wave
+   */
+  public enum Trigger {
+    SIZE, TIME, SHUTDOWN
+  }
+
+  private final long id;
+  private final Trigger trigger;
+  private final int orders;
+  private final int orderLines;
+  private final int[] productIds;
+  private final long[] units;
+  private final int[] linesPerPick;
+  private final long openedAtNanos;
+  private final long closedAtNanos;
+
+  Wave(long id, Trigger trigger, int orders, int orderLines, int[] productIds, long[] units,
+       int[] linesPerPick, long openedAtNanos, long closedAtNanos) {
+    this.id = id;
+    this.trigger = trigger;
+    this.orders = orders;
+    this.orderLines = orderLines;
+    this.productIds = productIds;
+    this.units = units;
+    this.linesPerPick = linesPerPick;
+    this.openedAtNanos = openedAtNanos;
+    this.closedAtNanos = closedAtNanos;
+  }
+
+  public long getId() {
+    return id;
+  }
+
+  public Trigger getTrigger() {
+    return trigger;
+  }
+
+  public int getOrders() {
+    return orders;
+  }
+
+  public int getOrderLines() {
+    return orderLines;
+  }
+
+  /**
+   * Number of picks: one per distinct product
+   */
+  public int getPicks() {
+    return productIds.length;
+  }
+
+  public int getProductId(int pick) {
+    return productIds[pick];
+  }
+
+  public long getUnits(int pick) {
+    return units[pick];
+  }
+
+  /**
+   * Order lines served by one pick
+   */
+  public int getLines(int pick) {
+    return linesPerPick[pick];
+  }
+
+  public long getTotalUnits() {
+    long total = 0;
+    for (long u : units) {
+      total += u;
+    }
+    return total;
+  }
+
+  /**
+   * Time from the first order joining the wave until it closed
+   */
+  public long getLatencyNanos() {
+    return closedAtNanos - openedAtNanos;
+  }
+
+  @Override
+  public String toString() {
+    return "Wave{" +
+        "id=" + id +
+        ", trigger=" + trigger +
+        ", orders=" + orders +
+        ", orderLines=" + orderLines +
+        ", picks=" + productIds.length +
+        ", units=" + getTotalUnits() +
+        '}';
+  }
+}
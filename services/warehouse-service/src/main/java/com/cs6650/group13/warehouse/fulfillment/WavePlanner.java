@@ -0,0 +1,259 @@
+package com.cs6650.group13.warehouse.fulfillment;
+
+import com.cs6650.group13.warehouse.model.OrderView;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Groups recorded orders into pick waves and aggregates each wave's pick list per product
+ *
+ * - Orders are added after they are recorded in {@link com.cs6650.group13.warehouse.service.WarehouseStatistics}
+ *   (by OrderMessageConsumer, or by the pick stage of the {@link FulfillmentPipeline})
+ * - A wave closes when it holds {@code app.wave.max-orders} orders or its first order
+ *   has waited {@code app.wave.max-age-ms}, whichever comes first
+ * - A closed wave has one pick per distinct product, so picking work grows with the
+ *   products in a wave rather than with its orders
+ *
+ * Picks are aggregated per order partition, each under its own lock, so consumers of
+ * different partition queues never contend while adding orders; closing a wave merges
+ * the partitions. The only state all consumers share is the open wave's order count.
+ * Under concurrent adds a size-triggered wave can close a few orders above the limit.
+ *
+ * Metrics: wave size (orders), picks per wave, items per pick, wave latency, and closed
+ * waves by trigger. Off by default: enable with {@code WAVE_PLANNING_ENABLED=true}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.wave.enabled", havingValue = "true")
+public class WavePlanner {
+
+  private static final Logger logger = LoggerFactory.getLogger(WavePlanner.class);
+
+  private final int maxOrders;
+  private final long maxAgeNanos;
+
+  private final Partition[] partitions;
+  private final AtomicInteger openOrders = new AtomicInteger();
+
+  // Closing state, guarded by this
+  private final PickAggregate merged;
+  private long nextWaveId = 1;
+  private volatile Wave lastWave;
+
+  private final DistributionSummary waveSize;
+  private final DistributionSummary picksPerWave;
+  private final DistributionSummary itemsPerPick;
+  private final DistributionSummary linesPerPick;
+  private final Timer waveLatency;
+  private final Map<Wave.Trigger, Counter> closed = new EnumMap<>(Wave.Trigger.class);
+
+  public WavePlanner(MeterRegistry meterRegistry, int maxOrders, long maxAgeMs) {
+    this(meterRegistry, maxOrders, maxAgeMs, 1);
+  }
+
+  @Autowired
+  public WavePlanner(MeterRegistry meterRegistry,
+                     @Value("${app.wave.max-orders:500}") int maxOrders,
+                     @Value("${app.wave.max-age-ms:1000}") long maxAgeMs,
+                     @Value("${app.rabbitmq.partitions:1}") int partitions) {
+    this.maxOrders = Math.max(1, maxOrders);
+    this.maxAgeNanos = TimeUnit.MILLISECONDS.toNanos(maxAgeMs);
+    int expectedProducts = Math.min(this.maxOrders * 4, 1 << 16);
+    this.merged = new PickAggregate(expectedProducts);
+    this.partitions = new Partition[Math.max(1, partitions)];
+    for (int i = 0; i < this.partitions.length; i++) {
+      this.partitions[i] = new Partition(Math.max(16, expectedProducts / this.partitions.length));
+    }
+
+    this.waveSize = DistributionSummary.builder("warehouse.wave.size")
+        .description("Orders per closed pick wave")
+        .register(meterRegistry);
+    this.picksPerWave = DistributionSummary.builder("warehouse.wave.picks")
+        .description("Picks (distinct products) per closed pick wave")
+        .register(meterRegistry);
+    this.itemsPerPick = DistributionSummary.builder("warehouse.wave.items.per.pick")
+        .description("Units picked per pick, averaged over a wave")
+        .register(meterRegistry);
+    this.linesPerPick = DistributionSummary.builder("warehouse.wave.lines.per.pick")
+        .description("Order lines served per pick, averaged over a wave")
+        .register(meterRegistry);
+    this.waveLatency = Timer.builder("warehouse.wave.latency")
+        .description("Time from a wave's first order until the wave closes")
+        .publishPercentiles(0.5, 0.95, 0.99)
+        .register(meterRegistry);
+    for (Wave.Trigger trigger : Wave.Trigger.values()) {
+      closed.put(trigger, Counter.builder("warehouse.wave.closed")
+          .description("Closed pick waves, by what closed them")
+          .tag("trigger", trigger.name().toLowerCase())
+          .register(meterRegistry));
+    }
+    Gauge.builder("warehouse.wave.open.orders", this, WavePlanner::getOpenOrders)
+        .description("Orders in the wave currently being built")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Add a recorded order to the open wave, closing the wave if it is full
+   */
+  public void addOrder(OrderView order) {
+    addOrder(0, order);
+  }
+
+  /**
+   * Add a recorded order consumed from the given partition to the open wave, closing
+   * the wave if it is full
+   * @param partition The order partition the order came from
+   */
+  public void addOrder(int partition, OrderView order) {
+    Partition own = partitions[partition];
+    int open;
+    synchronized (own) {
+      if (own.orders == 0) {
+        own.openedAtNanos = System.nanoTime();
+      }
+      int[] productIds = order.getProductIds();
+      int[] quantities = order.getQuantities();
+      int itemCount = order.getItemCount();
+      for (int i = 0; i < itemCount; i++) {
+        own.aggregate.add(productIds[i], quantities[i]);
+      }
+      own.orders++;
+      own.orderLines += itemCount;
+      // Counted under the partition lock, so a close draining this partition sees it too
+      open = openOrders.incrementAndGet();
+    }
+
+    if (open >= maxOrders) {
+      closeFullWave();
+    }
+  }
+
+  private synchronized void closeFullWave() {
+    // Another consumer may have closed the wave while this one waited
+    if (openOrders.get() >= maxOrders) {
+      close(Wave.Trigger.SIZE, System.nanoTime());
+    }
+  }
+
+  /**
+   * Close the open wave once its first order has waited long enough
+   */
+  @Scheduled(fixedDelayString = "${app.wave.check-interval-ms:50}")
+  public synchronized void closeExpiredWave() {
+    long now = System.nanoTime();
+    boolean open = false;
+    long openedAt = now;
+    for (Partition partition : partitions) {
+      synchronized (partition) {
+        if (partition.orders > 0) {
+          open = true;
+          if (partition.openedAtNanos - openedAt < 0) {
+            openedAt = partition.openedAtNanos;
+          }
+        }
+      }
+    }
+    if (open && now - openedAt >= maxAgeNanos) {
+      close(Wave.Trigger.TIME, now);
+    }
+  }
+
+  @PreDestroy
+  public synchronized void shutdown() {
+    if (openOrders.get() > 0) {
+      close(Wave.Trigger.SHUTDOWN, System.nanoTime());
+    }
+  }
+
+  /**
+   * Drain every partition into one wave; consumers keep adding to a partition as soon as
+   * it is drained, so their orders go to the next wave
+   */
+  private void close(Wave.Trigger trigger, long now) {
+    int orders = 0;
+    int orderLines = 0;
+    long openedAtNanos = now;
+    for (Partition partition : partitions) {
+      synchronized (partition) {
+        if (partition.orders == 0) {
+          continue;
+        }
+        merged.addAll(partition.aggregate);
+        partition.aggregate.clear();
+        orders += partition.orders;
+        orderLines += partition.orderLines;
+        if (partition.openedAtNanos - openedAtNanos < 0) {
+          openedAtNanos = partition.openedAtNanos;
+        }
+        openOrders.addAndGet(-partition.orders);
+        partition.orders = 0;
+        partition.orderLines = 0;
+      }
+    }
+    if (orders == 0) {
+      return;
+    }
+
+    int picks = merged.size();
+    int[] productIds = new int[picks];
+    long[] units = new long[picks];
+    int[] lines = new int[picks];
+    merged.drainTo(productIds, units, lines);
+    merged.clear();
+
+    Wave wave = new Wave(nextWaveId++, trigger, orders, orderLines, productIds, units, lines,
+        openedAtNanos, now);
+
+    waveSize.record(wave.getOrders());
+    picksPerWave.record(picks);
+    if (picks > 0) {
+      itemsPerPick.record((double) wave.getTotalUnits() / picks);
+      linesPerPick.record((double) wave.getOrderLines() / picks);
+    }
+    waveLatency.record(wave.getLatencyNanos(), TimeUnit.NANOSECONDS);
+    closed.get(trigger).increment();
+    lastWave = wave;
+
+    logger.debug("Closed {}", wave);
+  }
+
+  public int getOpenOrders() {
+    return openOrders.get();
+  }
+
+  /**
+   * The most recently closed wave, or null before the first one closes
+   */
+  public Wave getLastWave() {
+    return lastWave;
+  }
+
+  /**
+   * The open wave's orders from one partition; guarded by its own monitor
+   */
+  private static final class Partition {
+    private final PickAggregate aggregate;
+    private int orders;
+    private int orderLines;
+    private long openedAtNanos;
+
+    Partition(int expectedProducts) {
+      this.aggregate = new PickAggregate(expectedProducts);
+    }
+  }
+}
@@ -0,0 +1,20 @@
+package com.cs6650.group13.warehouse.inventory;
+
+/**
+ * A reservation asked for more units of a product than are available
+ *
+ * An expected outcome under load, so no stack trace is captured.
+ */
+public class InsufficientStockException extends RuntimeException {
+
+  private final int productId;
+
+  public InsufficientStockException(int productId, int requested) {
+    super("Insufficient stock for product " + productId + " (requested " + requested + ")", null, false, false);
+    this.productId = productId;
+  }
+
+  public int getProductId() {
+    return productId;
+  }
+}
@@ -0,0 +1,100 @@
+package com.cs6650.group13.warehouse.inventory;
+
+import com.cs6650.group13.warehouse.model.CartItem;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stock reservation API used by the shopping cart at checkout
+ *
+ * POST   /inventory/reservations                  reserve an order's items (201, or 409 if short)
+ * POST   /inventory/reservations/{id}/commit      the order was placed (204, or 404)
+ * DELETE /inventory/reservations/{id}             the order was not placed (204, or 404)
+ * GET    /inventory/products/{productId}          stock level
+ * POST   /inventory/products/{productId}/restock?quantity=n
+ */
+@RestController
+@RequestMapping("/inventory")
+@ConditionalOnProperty(name = "app.inventory.enabled", havingValue = "true", matchIfMissing = true)
+public class InventoryController {
+
+  private final StockLedger stockLedger;
+
+  public InventoryController(StockLedger stockLedger) {
+    this.stockLedger = stockLedger;
+  }
+
+  @PostMapping("/reservations")
+  public ResponseEntity<ReservationResponse> reserve(@RequestBody ReservationRequest request) {
+    List<CartItem> items = request.getItems();
+    if (items == null || items.isEmpty()) {
+      throw new IllegalArgumentException("A reservation needs at least one item");
+    }
+    int[] productIds = new int[items.size()];
+    int[] quantities = new int[items.size()];
+    for (int i = 0; i < items.size(); i++) {
+      CartItem item = items.get(i);
+      if (item.getProductId() == null || item.getQuantity() == null) {
+        throw new IllegalArgumentException("Item needs productId and quantity");
+      }
+      productIds[i] = item.getProductId();
+      quantities[i] = item.getQuantity();
+    }
+    long reservationId = stockLedger.reserve(productIds, quantities, items.size());
+    return ResponseEntity.status(HttpStatus.CREATED).body(new ReservationResponse(reservationId));
+  }
+
+  @PostMapping("/reservations/{reservationId}/commit")
+  public ResponseEntity<Void> commit(@PathVariable long reservationId) {
+    return stockLedger.commit(reservationId)
+        ? ResponseEntity.noContent().build()
+        : ResponseEntity.notFound().build();
+  }
+
+  @DeleteMapping("/reservations/{reservationId}")
+  public ResponseEntity<Void> release(@PathVariable long reservationId) {
+    return stockLedger.release(reservationId)
+        ? ResponseEntity.noContent().build()
+        : ResponseEntity.notFound().build();
+  }
+
+  @GetMapping("/products/{productId}")
+  public StockLevel getStock(@PathVariable int productId) {
+    return new StockLevel(productId, stockLedger.getAvailable(productId),
+        stockLedger.getReserved(productId), stockLedger.getCommitted(productId));
+  }
+
+  @PostMapping("/products/{productId}/restock")
+  public StockLevel restock(@PathVariable int productId, @RequestParam long quantity) {
+    stockLedger.restock(productId, quantity);
+    return getStock(productId);
+  }
+
+  @ExceptionHandler(InsufficientStockException.class)
+  public ResponseEntity<Map<String, Object>> handleInsufficientStock(InsufficientStockException ex) {
+    return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+        "error", "INSUFFICIENT_STOCK",
+        "message", ex.getMessage(),
+        "product_id", ex.getProductId()));
+  }
+
+  @ExceptionHandler(IllegalArgumentException.class)
+  public ResponseEntity<Map<String, Object>> handleIllegalArgument(IllegalArgumentException ex) {
+    return ResponseEntity.badRequest().body(Map.of(
+        "error", "INVALID_INPUT",
+        "message", ex.getMessage()));
+  }
+}
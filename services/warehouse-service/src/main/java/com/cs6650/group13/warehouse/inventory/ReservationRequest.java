@@ -0,0 +1,27 @@
+package com.cs6650.group13.warehouse.inventory;
+
+import com.cs6650.group13.warehouse.model.CartItem;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+public class ReservationRequest {
+
+  @JsonProperty("items")
+  private List<CartItem> items;
+
+  public ReservationRequest() {
+  }
+
+  public ReservationRequest(List<CartItem> items) {
+    this.items = items;
+  }
+
+  public List<CartItem> getItems() {
+    return items;
+  }
+
+  public void setItems(List<CartItem> items) {
+    this.items = items;
+  }
+}
@@ -0,0 +1,24 @@
+package com.cs6650.group13.warehouse.inventory;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class ReservationResponse {
+
+  @JsonProperty("reservation_id")
+  private long reservationId;
+
+  public ReservationResponse() {
+  }
+
+  public ReservationResponse(long reservationId) {
+    this.reservationId = reservationId;
+  }
+
+  public long getReservationId() {
+    return reservationId;
+  }
+
+  public void setReservationId(long reservationId) {
+    this.reservationId = reservationId;
+  }
+}
@@ -0,0 +1,319 @@
+package com.cs6650.group13.warehouse.inventory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory stock ledger: per-product available units with reserve, commit and release
+ *
+ * - Each product's available units are split over {@code app.inventory.stripes} CAS
+ *   counters. A reservation starts at the calling thread's home stripe, so concurrent
+ *   reservations of one hot product mostly update different counters
+ * - If no single stripe holds the quantity, the reservation gathers it from several;
+ *   if the product as a whole is short it puts back what it took and fails
+ * - Counters are stored stripe-major ([stripe][product]), so the stripes of one product
+ *   are far apart in memory and never share a cache line
+ * - A multi-item reservation is all or nothing
+ * - Reservations not committed or released within {@code app.inventory.reservation-ttl-ms}
+ *   are released by a scheduled sweep (e.g. the cart died mid-checkout)
+ *
+ * Product IDs are array indexes in [0, app.inventory.products). Stock lives in memory
+ * only and starts at {@code app.inventory.initial-stock} per product on every start.
+ */
+@Component
+@ConditionalOnProperty(name = "app.inventory.enabled", havingValue = "true", matchIfMissing = true)
+public class StockLedger {
+
+  private static final Logger logger = LoggerFactory.getLogger(StockLedger.class);
+
+  // Reservation ID counters, one per stripe, a cache line apart
+  private static final int ID_PADDING = 8;
+
+  /**
+   * Units held for one reservation until it is committed or released
+   */
+  private record Reservation(int[] productIds, int[] quantities, long createdAtNanos) {
+  }
+
+  private final int products;
+  private final int stripes;
+  private final int stripeMask;
+  private final int stripeBits;
+  private final long reservationTtlNanos;
+
+  private final AtomicLongArray available;
+  private final AtomicLongArray reserved;
+  private final AtomicLongArray committed;
+  private final AtomicLongArray reservationIds;
+  private final ConcurrentHashMap<Long, Reservation> reservations = new ConcurrentHashMap<>();
+
+  private final Counter reservedCount;
+  private final Counter insufficientCount;
+  private final Counter committedCount;
+  private final Counter releasedCount;
+  private final Counter expiredCount;
+
+  public StockLedger(MeterRegistry meterRegistry,
+                     @Value("${app.inventory.products:10000}") int products,
+                     @Value("${app.inventory.stripes:8}") int stripes,
+                     @Value("${app.inventory.initial-stock:1000}") long initialStock,
+                     @Value("${app.inventory.reservation-ttl-ms:30000}") long reservationTtlMs) {
+    if (Integer.bitCount(stripes) != 1) {
+      throw new IllegalArgumentException("Stripe count must be a power of two: " + stripes);
+    }
+    this.products = products;
+    this.stripes = stripes;
+    this.stripeMask = stripes - 1;
+    this.stripeBits = Integer.numberOfTrailingZeros(stripes);
+    this.reservationTtlNanos = TimeUnit.MILLISECONDS.toNanos(reservationTtlMs);
+
+    this.available = new AtomicLongArray(products * stripes);
+    this.reserved = new AtomicLongArray(products * stripes);
+    this.committed = new AtomicLongArray(products * stripes);
+    this.reservationIds = new AtomicLongArray(stripes * ID_PADDING);
+    for (int productId = 0; productId < products; productId++) {
+      spreadAvailable(productId, initialStock);
+    }
+
+    this.reservedCount = outcome(meterRegistry, "reserved");
+    this.insufficientCount = outcome(meterRegistry, "insufficient");
+    this.committedCount = outcome(meterRegistry, "committed");
+    this.releasedCount = outcome(meterRegistry, "released");
+    this.expiredCount = outcome(meterRegistry, "expired");
+    meterRegistry.gauge("warehouse.inventory.reservations.open", reservations, Map::size);
+
+    logger.info("Stock ledger: {} products x {} stripes, {} units each", products, stripes, initialStock);
+  }
+
+  private static Counter outcome(MeterRegistry meterRegistry, String outcome) {
+    return Counter.builder("warehouse.inventory.reservations")
+        .description("Stock reservations, by outcome")
+        .tag("outcome", outcome)
+        .register(meterRegistry);
+  }
+
+  /**
+   * Reserve every item of an order, or none of them
+   *
+   * @param productIds Product IDs; a product may appear more than once
+   * @param quantities Units per item (positive)
+   * @param itemCount Number of valid entries in the arrays
+   * @return The reservation ID to commit or release
+   * @throws InsufficientStockException if any product is short (nothing stays reserved)
+   * @throws IllegalArgumentException for an unknown product or a non-positive quantity
+   */
+  public long reserve(int[] productIds, int[] quantities, int itemCount) {
+    for (int i = 0; i < itemCount; i++) {
+      checkProduct(productIds[i]);
+      if (quantities[i] <= 0) {
+        throw new IllegalArgumentException("Quantity must be positive: " + quantities[i]);
+      }
+    }
+
+    int home = homeStripe();
+    for (int i = 0; i < itemCount; i++) {
+      if (!take(productIds[i], quantities[i], home)) {
+        for (int j = 0; j < i; j++) {
+          reserved.getAndAdd(index(productIds[j], home), -quantities[j]);
+          addAvailable(productIds[j], quantities[j], home);
+        }
+        insufficientCount.increment();
+        throw new InsufficientStockException(productIds[i], quantities[i]);
+      }
+      reserved.getAndAdd(index(productIds[i], home), quantities[i]);
+    }
+
+    long reservationId = (reservationIds.getAndIncrement(home * ID_PADDING) << stripeBits) | home;
+    reservations.put(reservationId, new Reservation(
+        Arrays.copyOf(productIds, itemCount), Arrays.copyOf(quantities, itemCount), System.nanoTime()));
+    reservedCount.increment();
+    return reservationId;
+  }
+
+  /**
+   * Turn a reservation into a sale
+   * @return false if the reservation is unknown (already committed, released or expired)
+   */
+  public boolean commit(long reservationId) {
+    Reservation reservation = reservations.remove(reservationId);
+    if (reservation == null) {
+      return false;
+    }
+    int home = homeStripe();
+    for (int i = 0; i < reservation.productIds().length; i++) {
+      int index = index(reservation.productIds()[i], home);
+      reserved.getAndAdd(index, -reservation.quantities()[i]);
+      committed.getAndAdd(index, reservation.quantities()[i]);
+    }
+    committedCount.increment();
+    return true;
+  }
+
+  /**
+   * Return a reservation's units to available stock
+   * @return false if the reservation is unknown (already committed, released or expired)
+   */
+  public boolean release(long reservationId) {
+    Reservation reservation = reservations.remove(reservationId);
+    if (reservation == null) {
+      return false;
+    }
+    giveBack(reservation);
+    releasedCount.increment();
+    return true;
+  }
+
+  /**
+   * Add units to a product's available stock
+   */
+  public void restock(int productId, long quantity) {
+    checkProduct(productId);
+    if (quantity <= 0) {
+      throw new IllegalArgumentException("Quantity must be positive: " + quantity);
+    }
+    spreadAvailable(productId, quantity);
+  }
+
+  /**
+   * Release reservations older than the TTL
+   */
+  @Scheduled(fixedDelayString = "${app.inventory.sweep-interval-ms:1000}")
+  public void releaseExpired() {
+    long now = System.nanoTime();
+    int expired = 0;
+    for (Iterator<Map.Entry<Long, Reservation>> it = reservations.entrySet().iterator(); it.hasNext(); ) {
+      Map.Entry<Long, Reservation> entry = it.next();
+      if (now - entry.getValue().createdAtNanos() >= reservationTtlNanos
+          && reservations.remove(entry.getKey(), entry.getValue())) {
+        giveBack(entry.getValue());
+        expiredCount.increment();
+        expired++;
+      }
+    }
+    if (expired > 0) {
+      logger.warn("Released {} expired stock reservations", expired);
+    }
+  }
+
+  public long getAvailable(int productId) {
+    checkProduct(productId);
+    return sum(available, productId);
+  }
+
+  public long getReserved(int productId) {
+    checkProduct(productId);
+    return sum(reserved, productId);
+  }
+
+  public long getCommitted(int productId) {
+    checkProduct(productId);
+    return sum(committed, productId);
+  }
+
+  public int getOpenReservations() {
+    return reservations.size();
+  }
+
+  /**
+   * Take units of one product: the home stripe first, then any single stripe that
+   * holds enough, then whatever each stripe has
+   */
+  private boolean take(int productId, int quantity, int home) {
+    for (int i = 0; i < stripes; i++) {
+      if (tryTake(index(productId, (home + i) & stripeMask), quantity)) {
+        return true;
+      }
+    }
+
+    long taken = 0;
+    for (int i = 0; i < stripes && taken < quantity; i++) {
+      int index = index(productId, (home + i) & stripeMask);
+      long current = available.get(index);
+      while (current > 0 && taken < quantity) {
+        long part = Math.min(current, quantity - taken);
+        if (available.compareAndSet(index, current, current - part)) {
+          taken += part;
+          break;
+        }
+        current = available.get(index);
+      }
+    }
+    if (taken < quantity) {
+      addAvailable(productId, taken, home);
+      return false;
+    }
+    return true;
+  }
+
+  private boolean tryTake(int index, int quantity) {
+    long current = available.get(index);
+    while (current >= quantity) {
+      if (available.compareAndSet(index, current, current - quantity)) {
+        return true;
+      }
+      current = available.get(index);
+    }
+    return false;
+  }
+
+  private void giveBack(Reservation reservation) {
+    int home = homeStripe();
+    for (int i = 0; i < reservation.productIds().length; i++) {
+      reserved.getAndAdd(index(reservation.productIds()[i], home), -reservation.quantities()[i]);
+      addAvailable(reservation.productIds()[i], reservation.quantities()[i], home);
+    }
+  }
+
+  private void addAvailable(int productId, long quantity, int stripe) {
+    if (quantity > 0) {
+      available.getAndAdd(index(productId, stripe), quantity);
+    }
+  }
+
+  /**
+   * Spread units evenly over a product's stripes
+   */
+  private void spreadAvailable(int productId, long quantity) {
+    long share = quantity / stripes;
+    long remainder = quantity % stripes;
+    for (int stripe = 0; stripe < stripes; stripe++) {
+      addAvailable(productId, share + (stripe < remainder ? 1 : 0), stripe);
+    }
+  }
+
+  private long sum(AtomicLongArray counters, int productId) {
+    long total = 0;
+    for (int stripe = 0; stripe < stripes; stripe++) {
+      total += counters.get(index(productId, stripe));
+    }
+    return total;
+  }
+
+  private int index(int productId, int stripe) {
+    return stripe * products + productId;
+  }
+
+  private int homeStripe() {
+    long h = Thread.currentThread().threadId() * 0x9E3779B97F4A7C15L;
+    return (int) (h >>> 32) & stripeMask;
+  }
+
+  private void checkProduct(int productId) {
+    if (productId < 0 || productId >= products) {
+      throw new IllegalArgumentException("Unknown product: " + productId);
+    }
+  }
+}
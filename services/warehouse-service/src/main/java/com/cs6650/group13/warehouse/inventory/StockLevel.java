@@ -0,0 +1,44 @@
+package com.cs6650.group13.warehouse.inventory;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class StockLevel {
+
+  @JsonProperty("product_id")
+  private int productId;
+
+  @JsonProperty("available")
+  private long available;
+
+  @JsonProperty("reserved")
+  private long reserved;
+
+  @JsonProperty("committed")
+  private long committed;
+
+  public StockLevel() {
+  }
+
+  public StockLevel(int productId, long available, long reserved, long committed) {
+    this.productId = productId;
+    this.available = available;
+    this.reserved = reserved;
+    this.committed = committed;
+  }
+
+  public int getProductId() {
+    return productId;
+  }
+
+  public long getAvailable() {
+    return available;
+  }
+
+  public long getReserved() {
+    return reserved;
+  }
+
+  public long getCommitted() {
+    return committed;
+  }
+}
@@ -0,0 +1,88 @@
+package com.cs6650.group13.warehouse.latency;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Percentiles of one latency histogram, in milliseconds, plus the encoded histogram
+ * itself so summaries from several instances can be merged
+ */
+public class LatencySummary {
+
+  @JsonProperty("count")
+  private long count;
+
+  @JsonProperty("mean_ms")
+  private double meanMs;
+
+  @JsonProperty("p50_ms")
+  private double p50Ms;
+
+  @JsonProperty("p90_ms")
+  private double p90Ms;
+
+  @JsonProperty("p99_ms")
+  private double p99Ms;
+
+  @JsonProperty("p999_ms")
+  private double p999Ms;
+
+  @JsonProperty("max_ms")
+  private double maxMs;
+
+  @JsonProperty("histogram")
+  private String histogram;
+
+  public LatencySummary() {
+  }
+
+  static LatencySummary of(Histogram histogram) {
+    LatencySummary summary = new LatencySummary();
+    summary.count = histogram.getTotalCount();
+    if (summary.count > 0) {
+      summary.meanMs = histogram.getMean() / 1_000.0;
+      summary.p50Ms = histogram.getValueAtPercentile(50) / 1_000.0;
+      summary.p90Ms = histogram.getValueAtPercentile(90) / 1_000.0;
+      summary.p99Ms = histogram.getValueAtPercentile(99) / 1_000.0;
+      summary.p999Ms = histogram.getValueAtPercentile(99.9) / 1_000.0;
+      summary.maxMs = histogram.getMaxValue() / 1_000.0;
+    }
+    summary.histogram = OrderLatencyRecorder.encode(histogram);
+    return summary;
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public double getMeanMs() {
+    return meanMs;
+  }
+
+  public double getP50Ms() {
+    return p50Ms;
+  }
+
+  public double getP90Ms() {
+    return p90Ms;
+  }
+
+  public double getP99Ms() {
+    return p99Ms;
+  }
+
+  public double getP999Ms() {
+    return p999Ms;
+  }
+
+  public double getMaxMs() {
+    return maxMs;
+  }
+
+  /**
+   * Compressed HdrHistogram (microseconds), Base64; see {@link OrderLatencyRecorder#merge}
+   */
+  public String getHistogram() {
+    return histogram;
+  }
+}
@@ -0,0 +1,60 @@
+package com.cs6650.group13.warehouse.latency;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * End-to-end order latency (see {@link OrderLatencyRecorder})
+ *
+ * GET    /latency         checkout-to-consume and checkout-to-ack summaries since start (or reset)
+ * DELETE /latency         start over, e.g. before a load test run (204)
+ * POST   /latency/merge   merge the "histogram" fields of several summaries, e.g. one per instance
+ */
+@RestController
+@RequestMapping("/latency")
+@ConditionalOnProperty(name = "app.order-latency.enabled", havingValue = "true", matchIfMissing = true)
+public class OrderLatencyController {
+
+  private final OrderLatencyRecorder latencyRecorder;
+
+  public OrderLatencyController(OrderLatencyRecorder latencyRecorder) {
+    this.latencyRecorder = latencyRecorder;
+  }
+
+  @GetMapping
+  public Map<String, LatencySummary> getLatency() {
+    Map<String, LatencySummary> latency = new LinkedHashMap<>();
+    latency.put("checkout_to_consume", latencyRecorder.getConsumeLatency());
+    latency.put("checkout_to_ack", latencyRecorder.getAckLatency());
+    return latency;
+  }
+
+  @DeleteMapping
+  public ResponseEntity<Void> reset() {
+    latencyRecorder.reset();
+    return ResponseEntity.noContent().build();
+  }
+
+  @PostMapping("/merge")
+  public LatencySummary merge(@RequestBody List<String> histograms) {
+    return OrderLatencyRecorder.merge(histograms);
+  }
+
+  @ExceptionHandler(IllegalArgumentException.class)
+  public ResponseEntity<Map<String, Object>> handleIllegalArgument(IllegalArgumentException ex) {
+    return ResponseEntity.badRequest().body(Map.of(
+        "error", "INVALID_INPUT",
+        "message", ex.getMessage()));
+  }
+}
@@ -0,0 +1,173 @@
+package com.cs6650.group13.warehouse.latency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.amqp.core.Message;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DataFormatException;
+
+/**
+ * End-to-end order latency, from the shopping cart's publish to the warehouse
+ *
+ * The cart stamps every order with {@code x-publish-epoch-ns}; the warehouse records
+ * - checkout to consume: publish until a consumer thread receives the delivery
+ * - checkout to ack: publish until the delivery is acknowledged (recorded and durable)
+ *
+ * Each is kept in an HdrHistogram {@link Recorder} (microseconds, 3 significant digits,
+ * up to one hour; wait-free to record) that every read folds into a running total.
+ * Summaries carry the compressed histogram, so totals from several warehouse
+ * instances merge exactly with {@link #merge}. The same values also go to the
+ * {@code warehouse.order.latency} timer (tag {@code stage}) for Prometheus.
+ *
+ * Publish and receive times come from different hosts' wall clocks, so the numbers
+ * are only as good as their clock sync; negative latencies are recorded as 0 and
+ * counted in {@code warehouse.order.latency.clock.skew}.
+ *
+ * On by default: disable with {@code ORDER_LATENCY_ENABLED=false}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.order-latency.enabled", havingValue = "true", matchIfMissing = true)
+public class OrderLatencyRecorder {
+
+  public static final String PUBLISH_EPOCH_NS_HEADER = "x-publish-epoch-ns";
+  public static final String TRACE_ID_HEADER = "x-trace-id";
+
+  static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.HOURS.toMicros(1);
+  static final int SIGNIFICANT_DIGITS = 3;
+
+  /**
+   * One measured span: the recorder written by consumer threads, and the running
+   * total built from it on each read
+   */
+  private static final class Stage {
+    private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    private final Histogram total = new Histogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    private final Timer timer;
+    private Histogram interval;
+
+    private Stage(String stage, MeterRegistry meterRegistry) {
+      this.timer = Timer.builder("warehouse.order.latency")
+          .description("Time from the shopping cart's publish to the warehouse")
+          .tag("stage", stage)
+          .publishPercentiles(0.5, 0.95, 0.99)
+          .publishPercentileHistogram()
+          .minimumExpectedValue(Duration.ofMillis(1))
+          .maximumExpectedValue(Duration.ofMinutes(1))
+          .register(meterRegistry);
+    }
+
+    private void record(long micros) {
+      recorder.recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+      timer.record(micros, TimeUnit.MICROSECONDS);
+    }
+
+    private synchronized Histogram snapshot() {
+      interval = recorder.getIntervalHistogram(interval);
+      total.add(interval);
+      return total.copy();
+    }
+
+    private synchronized void reset() {
+      interval = recorder.getIntervalHistogram(interval);
+      total.reset();
+    }
+  }
+
+  private final Stage consumed;
+  private final Stage acked;
+  private final Counter clockSkewCounter;
+
+  public OrderLatencyRecorder(MeterRegistry meterRegistry) {
+    this.consumed = new Stage("consume", meterRegistry);
+    this.acked = new Stage("ack", meterRegistry);
+    this.clockSkewCounter = Counter.builder("warehouse.order.latency.clock.skew")
+        .description("Orders that arrived before their publish time (clocks out of sync)")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Record checkout-to-consume latency for a delivery
+   * @return The delivery's publish time (epoch nanoseconds) for {@link #recordAcked}, or -1 if it has none
+   */
+  public long recordConsumed(Message message) {
+    Object header = message.getMessageProperties().getHeader(PUBLISH_EPOCH_NS_HEADER);
+    if (!(header instanceof Number publishedAt)) {
+      return -1;
+    }
+    long publishEpochNanos = publishedAt.longValue();
+    consumed.record(sinceMicros(publishEpochNanos));
+    return publishEpochNanos;
+  }
+
+  /**
+   * Record checkout-to-ack latency for a delivery acknowledged just now
+   * @param publishEpochNanos The value returned by {@link #recordConsumed}
+   */
+  public void recordAcked(long publishEpochNanos) {
+    if (publishEpochNanos >= 0) {
+      acked.record(sinceMicros(publishEpochNanos));
+    }
+  }
+
+  private long sinceMicros(long publishEpochNanos) {
+    Instant now = Instant.now();
+    long micros = (now.getEpochSecond() * 1_000_000_000L + now.getNano() - publishEpochNanos) / 1_000;
+    if (micros < 0) {
+      clockSkewCounter.increment();
+      return 0;
+    }
+    return micros;
+  }
+
+  public LatencySummary getConsumeLatency() {
+    return LatencySummary.of(consumed.snapshot());
+  }
+
+  public LatencySummary getAckLatency() {
+    return LatencySummary.of(acked.snapshot());
+  }
+
+  /**
+   * Start both histograms over, e.g. between load test runs
+   */
+  public void reset() {
+    consumed.reset();
+    acked.reset();
+  }
+
+  /**
+   * Encode a histogram for {@link LatencySummary#getHistogram()}: compressed, then Base64
+   */
+  static String encode(Histogram histogram) {
+    ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+    int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+    return Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length));
+  }
+
+  /**
+   * Merge the encoded histograms of several snapshots (e.g. one per warehouse instance)
+   */
+  public static LatencySummary merge(Iterable<String> encodedHistograms) {
+    Histogram merged = new Histogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    for (String encoded : encodedHistograms) {
+      try {
+        merged.add(Histogram.decodeFromCompressedByteBuffer(
+            ByteBuffer.wrap(Base64.getDecoder().decode(encoded)), HIGHEST_TRACKABLE_MICROS));
+      } catch (DataFormatException | RuntimeException e) {
+        throw new IllegalArgumentException("Not an encoded latency histogram", e);
+      }
+    }
+    return LatencySummary.of(merged);
+  }
+}
@@ -0,0 +1,51 @@
+package com.cs6650.group13.warehouse.ledger;
+
+import java.util.Arrays;
+
+/**
+ * A single acknowledged order as stored in the ledger
+ */
+public class LedgerRecord {
+
+  private final long sequence;
+  private final int orderId;
+  private final int[] productIds;
+  private final int[] quantities;
+
+  public LedgerRecord(long sequence, int orderId, int[] productIds, int[] quantities) {
+    this.sequence = sequence;
+    this.orderId = orderId;
+    this.productIds = productIds;
+    this.quantities = quantities;
+  }
+
+  public long getSequence() {
+    return sequence;
+  }
+
+  public int getOrderId() {
+    return orderId;
+  }
+
+  public int getItemCount() {
+    return productIds.length;
+  }
+
+  public int getProductId(int index) {
+    return productIds[index];
+  }
+
+  public int getQuantity(int index) {
+    return quantities[index];
+  }
+
+  @Override
+  public String toString() {
+    return "LedgerRecord{" +
+        "sequence=" + sequence +
+        ", orderId=" + orderId +
+        ", productIds=" + Arrays.toString(productIds) +
+        ", quantities=" + Arrays.toString(quantities) +
+        '}';
+  }
+}
@@ -0,0 +1,179 @@
+package com.cs6650.group13.warehouse.ledger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * One fixed-size, memory-mapped ledger file
+ *
+ * Record layout (big-endian):
+ *   int  payloadLength
+ *   int  crc32c(payload)
+ *   long sequence       -+
+ *   int  orderId         | payload
+ *   int  itemCount       |
+ *   int  productId, int quantity (itemCount times) -+
+ *
+ * A zero length marks the end of the written region. Writes are
+ * serialized by {@link OrderLedger}; reads of records below the write
+ * position are safe from any thread.
+ */
+final class LedgerSegment implements Closeable {
+
+  static final String SUFFIX = ".ledger";
+  static final int HEADER_BYTES = 8;
+  private static final int FIXED_PAYLOAD_BYTES = 16;
+
+  private final Path path;
+  private final long baseSequence;
+  private final FileChannel channel;
+  private final MappedByteBuffer buffer;
+  private int writePosition;
+
+  private LedgerSegment(Path path, long baseSequence, FileChannel channel, MappedByteBuffer buffer) {
+    this.path = path;
+    this.baseSequence = baseSequence;
+    this.channel = channel;
+    this.buffer = buffer;
+  }
+
+  static LedgerSegment open(Path directory, long baseSequence, int sizeBytes) throws IOException {
+    Path path = directory.resolve(fileName(baseSequence));
+    FileChannel channel = FileChannel.open(path,
+        StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    long size = Math.max(channel.size(), sizeBytes);
+    MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    return new LedgerSegment(path, baseSequence, channel, buffer);
+  }
+
+  static String fileName(long baseSequence) {
+    return String.format("%020d%s", baseSequence, SUFFIX);
+  }
+
+  static long parseBaseSequence(Path path) {
+    String name = path.getFileName().toString();
+    return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+  }
+
+  static int recordBytes(int itemCount) {
+    return HEADER_BYTES + FIXED_PAYLOAD_BYTES + 8 * itemCount;
+  }
+
+  Path getPath() {
+    return path;
+  }
+
+  long getBaseSequence() {
+    return baseSequence;
+  }
+
+  int getWritePosition() {
+    return writePosition;
+  }
+
+  boolean hasRoom(int itemCount) {
+    // Keep four bytes for the zero terminator
+    return writePosition + recordBytes(itemCount) + 4 <= buffer.capacity();
+  }
+
+  /**
+   * Append one record at the current write position
+   * @return The offset of the record inside this segment
+   */
+  int append(long sequence, int orderId, int[] productIds, int[] quantities, int itemCount) {
+    int offset = writePosition;
+    int payloadStart = offset + HEADER_BYTES;
+    int payloadLength = FIXED_PAYLOAD_BYTES + 8 * itemCount;
+
+    buffer.putLong(payloadStart, sequence);
+    buffer.putInt(payloadStart + 8, orderId);
+    buffer.putInt(payloadStart + 12, itemCount);
+    int position = payloadStart + FIXED_PAYLOAD_BYTES;
+    for (int i = 0; i < itemCount; i++) {
+      buffer.putInt(position, productIds[i]);
+      buffer.putInt(position + 4, quantities[i]);
+      position += 8;
+    }
+
+    buffer.putInt(offset + 4, checksum(payloadStart, payloadLength));
+    // Length goes last so a scanner never sees a half-written record as complete
+    buffer.putInt(offset, payloadLength);
+    writePosition = position;
+    return offset;
+  }
+
+  /**
+   * Read the record at the given offset, or null if the offset does not hold a valid record
+   */
+  LedgerRecord read(int offset) {
+    if (offset < 0 || offset + HEADER_BYTES + FIXED_PAYLOAD_BYTES > buffer.capacity()) {
+      return null;
+    }
+    int payloadLength = buffer.getInt(offset);
+    int payloadStart = offset + HEADER_BYTES;
+    if (payloadLength < FIXED_PAYLOAD_BYTES || payloadStart + payloadLength > buffer.capacity()) {
+      return null;
+    }
+    int itemCount = buffer.getInt(payloadStart + 12);
+    if (itemCount < 0 || payloadLength != FIXED_PAYLOAD_BYTES + 8 * itemCount) {
+      return null;
+    }
+    if (buffer.getInt(offset + 4) != checksum(payloadStart, payloadLength)) {
+      return null;
+    }
+
+    int[] productIds = new int[itemCount];
+    int[] quantities = new int[itemCount];
+    int position = payloadStart + FIXED_PAYLOAD_BYTES;
+    for (int i = 0; i < itemCount; i++) {
+      productIds[i] = buffer.getInt(position);
+      quantities[i] = buffer.getInt(position + 4);
+      position += 8;
+    }
+    return new LedgerRecord(buffer.getLong(payloadStart), buffer.getInt(payloadStart + 8),
+        productIds, quantities);
+  }
+
+  /**
+   * Offset of the record following the one at the given offset
+   */
+  int next(int offset) {
+    return offset + HEADER_BYTES + buffer.getInt(offset);
+  }
+
+  /**
+   * Position the writer after the last valid record and clear any torn tail
+   * left behind by a crash
+   */
+  void recoverWritePosition(int validEnd) {
+    writePosition = validEnd;
+    int limit = Math.min(buffer.capacity(), validEnd + 4);
+    for (int i = validEnd; i < limit; i++) {
+      // Only write torn bytes: dirtying a clean page would bump the modification time
+      // that dedup seeding uses to age sealed segments
+      if (buffer.get(i) != 0) {
+        buffer.put(i, (byte) 0);
+      }
+    }
+  }
+
+  void force() {
+    buffer.force();
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  private int checksum(int start, int length) {
+    CRC32C crc = new CRC32C();
+    crc.update(buffer.slice(start, length));
+    return (int) crc.getValue();
+  }
+}
@@ -0,0 +1,130 @@
+package com.cs6650.group13.warehouse.ledger;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Open-addressing order ID index: orderId -> (segment ordinal, record offset)
+ *
+ * Kept in primitive arrays so a million orders cost ~24 MB instead of a boxed map.
+ * A redelivered order simply overwrites its previous location.
+ */
+final class OrderIndex {
+
+  static final long MISSING = -1L;
+
+  private static final float LOAD_FACTOR = 0.5f;
+
+  private int[] keys;
+  private long[] locations;
+  private boolean[] used;
+  private int size;
+
+  OrderIndex(int expectedOrders) {
+    int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedOrders / LOAD_FACTOR)) - 1) << 1;
+    allocate(capacity);
+  }
+
+  static long location(int segmentOrdinal, int offset) {
+    return ((long) segmentOrdinal << 32) | (offset & 0xFFFFFFFFL);
+  }
+
+  static int segmentOrdinal(long location) {
+    return (int) (location >>> 32);
+  }
+
+  static int offset(long location) {
+    return (int) location;
+  }
+
+  synchronized void put(int orderId, long location) {
+    if (size + 1 > keys.length * LOAD_FACTOR) {
+      resize();
+    }
+    int slot = findSlot(keys, used, orderId);
+    if (!used[slot]) {
+      used[slot] = true;
+      keys[slot] = orderId;
+      size++;
+    }
+    locations[slot] = location;
+  }
+
+  synchronized long get(int orderId) {
+    int slot = findSlot(keys, used, orderId);
+    return used[slot] ? locations[slot] : MISSING;
+  }
+
+  synchronized void forEachOrderId(IntConsumer action) {
+    for (int i = 0; i < keys.length; i++) {
+      if (used[i]) {
+        action.accept(keys[i]);
+      }
+    }
+  }
+
+  /**
+   * Drop every entry located in a segment below the given ordinal
+   * @return The number of entries removed
+   */
+  synchronized int removeBefore(int segmentOrdinal) {
+    int[] oldKeys = keys;
+    long[] oldLocations = locations;
+    boolean[] oldUsed = used;
+    allocate(oldKeys.length);
+    int removed = 0;
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (!oldUsed[i]) {
+        continue;
+      }
+      if (segmentOrdinal(oldLocations[i]) < segmentOrdinal) {
+        removed++;
+        continue;
+      }
+      int slot = findSlot(keys, used, oldKeys[i]);
+      used[slot] = true;
+      keys[slot] = oldKeys[i];
+      locations[slot] = oldLocations[i];
+    }
+    size -= removed;
+    return removed;
+  }
+
+  synchronized int size() {
+    return size;
+  }
+
+  private void allocate(int capacity) {
+    keys = new int[capacity];
+    locations = new long[capacity];
+    used = new boolean[capacity];
+  }
+
+  private void resize() {
+    int[] oldKeys = keys;
+    long[] oldLocations = locations;
+    boolean[] oldUsed = used;
+    allocate(oldKeys.length << 1);
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldUsed[i]) {
+        int slot = findSlot(keys, used, oldKeys[i]);
+        used[slot] = true;
+        keys[slot] = oldKeys[i];
+        locations[slot] = oldLocations[i];
+      }
+    }
+  }
+
+  private static int findSlot(int[] keys, boolean[] used, int key) {
+    int mask = keys.length - 1;
+    int slot = mix(key) & mask;
+    while (used[slot] && keys[slot] != key) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  private static int mix(int key) {
+    int h = key * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+}
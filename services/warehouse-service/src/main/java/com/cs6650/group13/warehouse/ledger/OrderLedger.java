@@ -0,0 +1,497 @@
+package com.cs6650.group13.warehouse.ledger;
+
+import com.cs6650.group13.warehouse.service.WarehouseStatistics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Durable, append-only ledger of acknowledged orders
+ * - Memory-mapped segments, rolled when full
+ * - Group commit: one background fsync covers every order appended since the last one,
+ *   so consumers waiting in the same window are acknowledged together; callers that must
+ *   not block register a durability listener instead, which the commit thread notifies
+ * - Periodic statistics checkpoints; on startup the last checkpoint is loaded and
+ *   the ledger tail after it is replayed into {@link WarehouseStatistics}
+ * - In-memory order ID index for point lookups
+ * - Retention: once a checkpoint covers a sealed segment, segments beyond the newest
+ *   {@code retained-segments} are closed, deleted and dropped from the index, so disk,
+ *   mappings, index memory and startup scans stay bounded
+ */
+@Component
+@ConditionalOnProperty(name = "app.ledger.enabled", havingValue = "true", matchIfMissing = true)
+public class OrderLedger {
+
+  private static final Logger logger = LoggerFactory.getLogger(OrderLedger.class);
+
+  private final WarehouseStatistics statistics;
+  private final Path directory;
+  private final int segmentSizeBytes;
+  private final long groupCommitWindowNanos;
+  private final int retainedSegments;
+
+  // Read lock: appending + applying an order. Write lock: taking a consistent checkpoint.
+  private final ReentrantReadWriteLock stateLock = new ReentrantReadWriteLock();
+  private final Object appendLock = new Object();
+  private final List<LedgerSegment> segments = new ArrayList<>();
+  private final OrderIndex index = new OrderIndex(1 << 16);
+  // Index locations carry this ordinal plus the list position, so releasing the oldest
+  // segments does not invalidate the locations of the rest (guarded by appendLock)
+  private int firstOrdinal;
+
+  private final ReentrantLock commitLock = new ReentrantLock();
+  private final Condition commitRequested = commitLock.newCondition();
+  private final Condition commitCompleted = commitLock.newCondition();
+  private final List<LongConsumer> durabilityListeners = new CopyOnWriteArrayList<>();
+
+  private volatile LedgerSegment activeSegment;
+  private volatile long writtenSequence;
+  private volatile long durableSequence;
+  private volatile long checkpointSequence;
+  private volatile boolean running;
+  private Thread committer;
+
+  public OrderLedger(WarehouseStatistics statistics,
+                     @Value("${app.ledger.directory:data/ledger}") String directory,
+                     @Value("${app.ledger.segment-size-mb:64}") int segmentSizeMb,
+                     @Value("${app.ledger.group-commit-window-ms:2}") long groupCommitWindowMs,
+                     @Value("${app.ledger.retained-segments:4}") int retainedSegments) {
+    this.statistics = statistics;
+    this.directory = Paths.get(directory);
+    this.segmentSizeBytes = segmentSizeMb * 1024 * 1024;
+    this.groupCommitWindowNanos = TimeUnit.MILLISECONDS.toNanos(groupCommitWindowMs);
+    // The active segment is always retained
+    this.retainedSegments = Math.max(1, retainedSegments);
+  }
+
+  /**
+   * Open the ledger, restore statistics from the last checkpoint plus the
+   * ledger tail, and start the group-commit thread
+   */
+  @PostConstruct
+  public void open() throws IOException {
+    Files.createDirectories(directory);
+
+    StatisticsCheckpoint checkpoint = StatisticsCheckpoint.read(directory);
+    if (checkpoint != null) {
+      statistics.restore(checkpoint.getTotalOrders(), checkpoint.getProductQuantities());
+      checkpointSequence = checkpoint.getSequence();
+    }
+
+    // Segments the checkpoint already covers are never replayed; drop the ones past retention
+    // before scanning so startup only reads the retained window
+    List<Path> files = listSegmentFiles();
+    int released = 0;
+    while (files.size() - released > retainedSegments
+        && isCheckpointed(LedgerSegment.parseBaseSequence(files.get(released + 1)))) {
+      Files.delete(files.get(released));
+      released++;
+    }
+
+    int replayed = 0;
+    long lastSequence = checkpointSequence;
+    for (Path path : files.subList(released, files.size())) {
+      LedgerSegment segment = LedgerSegment.open(directory, LedgerSegment.parseBaseSequence(path),
+          segmentSizeBytes);
+      int ordinal = segments.size();
+      segments.add(segment);
+
+      int offset = 0;
+      LedgerRecord record;
+      while ((record = segment.read(offset)) != null) {
+        index.put(record.getOrderId(), OrderIndex.location(ordinal, offset));
+        if (record.getSequence() > checkpointSequence) {
+          apply(record);
+          replayed++;
+        }
+        lastSequence = Math.max(lastSequence, record.getSequence());
+        offset = segment.next(offset);
+      }
+      segment.recoverWritePosition(offset);
+    }
+
+    if (segments.isEmpty()) {
+      segments.add(LedgerSegment.open(directory, lastSequence + 1, segmentSizeBytes));
+    }
+    activeSegment = segments.get(segments.size() - 1);
+    writtenSequence = lastSequence;
+    durableSequence = lastSequence;
+
+    running = true;
+    committer = new Thread(this::runGroupCommit, "ledger-group-commit");
+    committer.setDaemon(true);
+    committer.start();
+
+    logger.info("Order ledger opened at {}: {} segments ({} released), {} indexed orders, checkpoint seq {}, replayed {} orders",
+        directory.toAbsolutePath(), segments.size(), released, index.size(), checkpointSequence, replayed);
+  }
+
+  /**
+   * Append an order to the ledger and apply it to the statistics
+   *
+   * The append and the statistics update happen under the same shared lock,
+   * so a checkpoint never observes one without the other.
+   *
+   * @param orderId The order ID
+   * @param productIds Product IDs of the order's items
+   * @param quantities Quantities of the order's items
+   * @param itemCount Number of valid entries in the item arrays
+   * @param applyToStatistics Updates {@link WarehouseStatistics} for this order
+   * @return The ledger sequence to pass to {@link #awaitDurable(long)}
+   */
+  public long record(int orderId, int[] productIds, int[] quantities, int itemCount,
+                     Runnable applyToStatistics) {
+    stateLock.readLock().lock();
+    try {
+      long sequence = append(orderId, productIds, quantities, itemCount);
+      applyToStatistics.run();
+      return sequence;
+    } finally {
+      stateLock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Block until the record with the given sequence has been forced to disk
+   * by a group commit
+   */
+  public void awaitDurable(long sequence) throws InterruptedException {
+    if (durableSequence >= sequence) {
+      return;
+    }
+    commitLock.lock();
+    try {
+      commitRequested.signal();
+      while (durableSequence < sequence) {
+        if (!running) {
+          throw new IllegalStateException("Order ledger is closed");
+        }
+        commitCompleted.await();
+      }
+    } finally {
+      commitLock.unlock();
+    }
+  }
+
+  /**
+   * Ask for a group commit covering the given sequence without waiting for it; a
+   * durability listener hears when it is done
+   */
+  public void requestCommit(long sequence) {
+    if (durableSequence >= sequence) {
+      return;
+    }
+    commitLock.lock();
+    try {
+      commitRequested.signal();
+    } finally {
+      commitLock.unlock();
+    }
+  }
+
+  /**
+   * Register a listener that the group-commit thread calls with the new durable sequence
+   * after every commit. It runs before the next commit starts, so it must not block.
+   */
+  public void addDurabilityListener(LongConsumer listener) {
+    durabilityListeners.add(listener);
+  }
+
+  /**
+   * Look up the most recent ledger record for an order
+   */
+  public Optional<LedgerRecord> findOrder(int orderId) {
+    long location = index.get(orderId);
+    if (location == OrderIndex.MISSING) {
+      return Optional.empty();
+    }
+    LedgerSegment segment;
+    synchronized (appendLock) {
+      int position = OrderIndex.segmentOrdinal(location) - firstOrdinal;
+      if (position < 0) {
+        // Released between the index lookup and here
+        return Optional.empty();
+      }
+      segment = segments.get(position);
+    }
+    return Optional.ofNullable(segment.read(OrderIndex.offset(location)));
+  }
+
+  /**
+   * Write a statistics checkpoint covering every order recorded so far, then release
+   * the segments it made redundant
+   */
+  @Scheduled(fixedDelayString = "${app.ledger.checkpoint-interval-ms:30000}",
+      initialDelayString = "${app.ledger.checkpoint-interval-ms:30000}")
+  public void checkpoint() {
+    long sequence;
+    int totalOrders;
+    Map<Integer, Long> quantities;
+
+    stateLock.writeLock().lock();
+    try {
+      sequence = writtenSequence;
+      if (sequence == checkpointSequence) {
+        return;
+      }
+      totalOrders = statistics.getTotalOrders();
+      quantities = statistics.snapshotProductQuantities();
+    } finally {
+      stateLock.writeLock().unlock();
+    }
+
+    try {
+      // Never let a checkpoint claim orders the ledger itself could still lose
+      awaitDurable(sequence);
+      new StatisticsCheckpoint(sequence, totalOrders, quantities).write(directory);
+      checkpointSequence = sequence;
+      logger.info("Statistics checkpoint written at ledger seq {} ({} orders, {} products)",
+          sequence, totalOrders, quantities.size());
+      releaseCheckpointedSegments();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (IOException e) {
+      logger.error("Failed to write statistics checkpoint: {}", e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Visit the ID of every order in the retained ledger segments
+   */
+  public void forEachOrderId(IntConsumer action) {
+    index.forEachOrderId(action);
+  }
+
+  /**
+   * Visit the ID of every order in the retained segments that were written to at or after
+   * the given time. A segment's modification time is its last write, so one last modified
+   * before the cutoff holds only older orders; the active segment is always visited.
+   */
+  public void forEachOrderIdSince(long epochMillis, IntConsumer action) {
+    List<LedgerSegment> snapshot;
+    int[] ends;
+    LedgerSegment active;
+    synchronized (appendLock) {
+      snapshot = new ArrayList<>(segments);
+      ends = new int[snapshot.size()];
+      for (int i = 0; i < ends.length; i++) {
+        ends[i] = snapshot.get(i).getWritePosition();
+      }
+      active = activeSegment;
+    }
+    for (int i = 0; i < ends.length; i++) {
+      LedgerSegment segment = snapshot.get(i);
+      if (segment != active && lastModifiedMillis(segment) < epochMillis) {
+        continue;
+      }
+      for (int offset = 0; offset < ends[i]; offset = segment.next(offset)) {
+        LedgerRecord record = segment.read(offset);
+        if (record == null) {
+          break;
+        }
+        action.accept(record.getOrderId());
+      }
+    }
+  }
+
+  public long getDurableSequence() {
+    return durableSequence;
+  }
+
+  public int getIndexedOrderCount() {
+    return index.size();
+  }
+
+  /**
+   * Flush, checkpoint and release the ledger files
+   */
+  @PreDestroy
+  public void close() throws IOException {
+    if (!running) {
+      return;
+    }
+    checkpoint();
+    running = false;
+    committer.interrupt();
+    synchronized (appendLock) {
+      activeSegment.force();
+      for (LedgerSegment segment : segments) {
+        segment.close();
+      }
+    }
+    commitLock.lock();
+    try {
+      commitCompleted.signalAll();
+    } finally {
+      commitLock.unlock();
+    }
+    logger.info("Order ledger closed at seq {}", writtenSequence);
+  }
+
+  private long append(int orderId, int[] productIds, int[] quantities, int itemCount) {
+    synchronized (appendLock) {
+      if (!running) {
+        throw new IllegalStateException("Order ledger is closed");
+      }
+      LedgerSegment segment = activeSegment;
+      if (!segment.hasRoom(itemCount)) {
+        segment = roll(segment);
+      }
+      long sequence = writtenSequence + 1;
+      int offset = segment.append(sequence, orderId, productIds, quantities, itemCount);
+      index.put(orderId, OrderIndex.location(firstOrdinal + segments.size() - 1, offset));
+      writtenSequence = sequence;
+      return sequence;
+    }
+  }
+
+  private LedgerSegment roll(LedgerSegment full) {
+    if (LedgerSegment.recordBytes(0) + 4 > segmentSizeBytes) {
+      throw new IllegalStateException("Ledger segment size too small");
+    }
+    // Sealed segments are forced once here; the committer only forces the active one
+    full.force();
+    try {
+      LedgerSegment next = LedgerSegment.open(directory, writtenSequence + 1, segmentSizeBytes);
+      segments.add(next);
+      activeSegment = next;
+      logger.info("Rolled order ledger to segment {}", next.getPath().getFileName());
+      return next;
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to roll order ledger segment", e);
+    }
+  }
+
+  /**
+   * Close and delete the oldest sealed segments whose records are all covered by the
+   * checkpoint, keeping the newest {@code retainedSegments}
+   */
+  private void releaseCheckpointedSegments() {
+    List<LedgerSegment> released = new ArrayList<>();
+    int retainedFromOrdinal;
+    synchronized (appendLock) {
+      while (segments.size() > retainedSegments && isCheckpointed(segments.get(1).getBaseSequence())) {
+        released.add(segments.remove(0));
+        firstOrdinal++;
+      }
+      retainedFromOrdinal = firstOrdinal;
+    }
+    if (released.isEmpty()) {
+      return;
+    }
+
+    int removed = index.removeBefore(retainedFromOrdinal);
+    for (LedgerSegment segment : released) {
+      try {
+        // The mapping itself is released once the buffer is collected; a reader that
+        // still holds it keeps reading the unlinked file until then
+        segment.close();
+        Files.deleteIfExists(segment.getPath());
+      } catch (IOException e) {
+        logger.warn("Failed to delete ledger segment {}: {}", segment.getPath(), e.getMessage());
+      }
+    }
+    logger.info("Released {} checkpointed ledger segments ({} orders unindexed), {} retained",
+        released.size(), removed, retainedSegments);
+  }
+
+  /**
+   * A sealed segment ends right before the next one begins, so it is fully checkpointed
+   * when its successor's base sequence is at most one past the checkpoint
+   */
+  private boolean isCheckpointed(long nextBaseSequence) {
+    return nextBaseSequence - 1 <= checkpointSequence;
+  }
+
+  private void runGroupCommit() {
+    while (running) {
+      try {
+        commitLock.lock();
+        try {
+          while (running && writtenSequence == durableSequence) {
+            commitRequested.await(100, TimeUnit.MILLISECONDS);
+          }
+        } finally {
+          commitLock.unlock();
+        }
+        if (!running) {
+          return;
+        }
+
+        // Let concurrent consumers pile into this commit
+        if (groupCommitWindowNanos > 0) {
+          TimeUnit.NANOSECONDS.sleep(groupCommitWindowNanos);
+        }
+
+        long target = writtenSequence;
+        activeSegment.force();
+
+        commitLock.lock();
+        try {
+          durableSequence = target;
+          commitCompleted.signalAll();
+        } finally {
+          commitLock.unlock();
+        }
+        for (LongConsumer listener : durabilityListeners) {
+          try {
+            listener.accept(target);
+          } catch (RuntimeException e) {
+            logger.error("Order ledger durability listener failed: {}", e.getMessage(), e);
+          }
+        }
+      } catch (InterruptedException e) {
+        return;
+      } catch (RuntimeException e) {
+        logger.error("Order ledger group commit failed: {}", e.getMessage(), e);
+      }
+    }
+  }
+
+  private void apply(LedgerRecord record) {
+    for (int i = 0; i < record.getItemCount(); i++) {
+      statistics.recordProduct(record.getOrderId(), record.getProductId(i), record.getQuantity(i));
+    }
+    statistics.incrementOrderCount();
+  }
+
+  private static long lastModifiedMillis(LedgerSegment segment) {
+    try {
+      return Files.getLastModifiedTime(segment.getPath()).toMillis();
+    } catch (IOException e) {
+      // Unknown age: treat it as recent rather than risk counting a redelivery twice
+      return Long.MAX_VALUE;
+    }
+  }
+
+  private List<Path> listSegmentFiles() throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.filter(path -> path.getFileName().toString().endsWith(LedgerSegment.SUFFIX))
+          .sorted()
+          .toList();
+    }
+  }
+}
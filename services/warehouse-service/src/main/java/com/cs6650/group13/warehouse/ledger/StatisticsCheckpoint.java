@@ -0,0 +1,115 @@
+package com.cs6650.group13.warehouse.ledger;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Point-in-time copy of the warehouse statistics together with the last
+ * ledger sequence it covers. Written to a temp file, fsync'd and atomically
+ * renamed so a crash never leaves a half-written checkpoint behind.
+ */
+final class StatisticsCheckpoint {
+
+  static final String FILE_NAME = "statistics.checkpoint";
+
+  private static final int MAGIC = 0x57484350; // "WHCP"
+  private static final int VERSION = 1;
+  private static final int HEADER_BYTES = 24;
+
+  private final long sequence;
+  private final int totalOrders;
+  private final Map<Integer, Long> productQuantities;
+
+  StatisticsCheckpoint(long sequence, int totalOrders, Map<Integer, Long> productQuantities) {
+    this.sequence = sequence;
+    this.totalOrders = totalOrders;
+    this.productQuantities = productQuantities;
+  }
+
+  long getSequence() {
+    return sequence;
+  }
+
+  int getTotalOrders() {
+    return totalOrders;
+  }
+
+  Map<Integer, Long> getProductQuantities() {
+    return productQuantities;
+  }
+
+  void write(Path directory) throws IOException {
+    Path target = directory.resolve(FILE_NAME);
+    Path temp = directory.resolve(FILE_NAME + ".tmp");
+
+    try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      CRC32C crc = new CRC32C();
+      OutputStream raw = Channels.newOutputStream(channel);
+      DataOutputStream out = new DataOutputStream(
+          new BufferedOutputStream(new CheckedOutputStream(raw, crc)));
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeLong(sequence);
+      out.writeInt(totalOrders);
+      out.writeInt(productQuantities.size());
+      for (Map.Entry<Integer, Long> entry : productQuantities.entrySet()) {
+        out.writeInt(entry.getKey());
+        out.writeLong(entry.getValue());
+      }
+      out.flush();
+      new DataOutputStream(raw).writeInt((int) crc.getValue());
+      channel.force(true);
+    }
+
+    Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * Load the checkpoint from the directory
+   * @return The checkpoint, or null if none exists or it fails validation
+   */
+  static StatisticsCheckpoint read(Path directory) throws IOException {
+    Path path = directory.resolve(FILE_NAME);
+    if (!Files.exists(path)) {
+      return null;
+    }
+
+    byte[] bytes = Files.readAllBytes(path);
+    if (bytes.length < HEADER_BYTES + 4) {
+      return null;
+    }
+    CRC32C crc = new CRC32C();
+    crc.update(bytes, 0, bytes.length - 4);
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    if (buffer.getInt(bytes.length - 4) != (int) crc.getValue()
+        || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+      return null;
+    }
+
+    long sequence = buffer.getLong();
+    int totalOrders = buffer.getInt();
+    int productCount = buffer.getInt();
+    if (bytes.length != HEADER_BYTES + productCount * 12 + 4) {
+      return null;
+    }
+    Map<Integer, Long> quantities = new HashMap<>(productCount * 2);
+    for (int i = 0; i < productCount; i++) {
+      quantities.put(buffer.getInt(), buffer.getLong());
+    }
+    return new StatisticsCheckpoint(sequence, totalOrders, quantities);
+  }
+}
@@ -0,0 +1,68 @@
+package com.cs6650.group13.warehouse.live;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Live statistics over Server-Sent Events (see {@link LiveStatisticsFeed})
+ *
+ * GET /statistics/live   text/event-stream of "statistics" events, one per tick;
+ *                        503 when the subscriber limit is reached
+ */
+@RestController
+@RequestMapping("/statistics")
+@ConditionalOnProperty(name = "app.live-feed.enabled", havingValue = "true", matchIfMissing = true)
+public class LiveFeedController {
+
+  private final LiveStatisticsFeed feed;
+  private final long timeoutMs;
+
+  public LiveFeedController(LiveStatisticsFeed feed,
+                            @Value("${app.live-feed.timeout-ms:3600000}") long timeoutMs) {
+    this.feed = feed;
+    this.timeoutMs = timeoutMs;
+  }
+
+  @GetMapping(value = "/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter live() {
+    SseEmitter emitter = new SseEmitter(timeoutMs);
+    LiveStatisticsFeed.Subscription subscription = feed.subscribe(new LiveStatisticsFeed.EventSink() {
+      @Override
+      public void send(LiveUpdate update) throws IOException {
+        emitter.send(SseEmitter.event()
+            .id(Long.toString(update.getSequence()))
+            .name("statistics")
+            .data(update, MediaType.APPLICATION_JSON));
+      }
+
+      @Override
+      public void close() {
+        emitter.complete();
+      }
+    });
+    emitter.onCompletion(subscription::cancel);
+    emitter.onTimeout(subscription::cancel);
+    emitter.onError(e -> subscription.cancel());
+    return emitter;
+  }
+
+  @ExceptionHandler(IllegalStateException.class)
+  public ResponseEntity<Map<String, Object>> handleTooManySubscribers(IllegalStateException ex) {
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(Map.of(
+            "error", "TOO_MANY_SUBSCRIBERS",
+            "message", ex.getMessage()));
+  }
+}
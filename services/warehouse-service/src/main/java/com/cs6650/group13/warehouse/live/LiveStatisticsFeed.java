@@ -0,0 +1,279 @@
+package com.cs6650.group13.warehouse.live;
+
+import com.cs6650.group13.warehouse.service.WarehouseStatistics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Pushes coalesced statistics deltas to live subscribers (dashboards) every tick
+ *
+ * - Each tick ({@code app.live-feed.interval-ms}) walks the statistics once and diffs
+ *   them against the previous tick, so recording orders does no extra work; with no
+ *   subscribers the tick does nothing
+ * - Every subscriber is sent from its own virtual thread, so a slow one never holds up
+ *   the tick or the others
+ * - While a send is in progress, later ticks are conflated into one pending update
+ *   (latest quantity per changed product, latest totals), so a slow subscriber costs
+ *   at most one entry per product rather than a growing queue
+ * - A subscriber whose send has not finished after {@code app.live-feed.max-lag-ticks}
+ *   ticks is dropped
+ * - A new subscriber's first event holds every product
+ *
+ * On by default: disable with {@code LIVE_FEED_ENABLED=false}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.live-feed.enabled", havingValue = "true", matchIfMissing = true)
+public class LiveStatisticsFeed {
+
+  private static final Logger logger = LoggerFactory.getLogger(LiveStatisticsFeed.class);
+
+  /**
+   * Where a subscriber's events go (an SSE connection)
+   */
+  public interface EventSink {
+    void send(LiveUpdate update) throws IOException;
+
+    /**
+     * Called when the feed drops the subscriber
+     */
+    void close();
+  }
+
+  /**
+   * Totals as of one tick, shared by all subscribers
+   */
+  private record Totals(long sequence, Instant timestamp, long orders, long quantity, long products,
+                        double ordersPerSecond) {
+  }
+
+  private final WarehouseStatistics statistics;
+  private final int maxSubscribers;
+  private final int maxLagTicks;
+  private final ExecutorService senders = Executors.newThreadPerTaskExecutor(
+      Thread.ofVirtual().name("live-feed-", 0).factory());
+  private final CopyOnWriteArrayList<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+  // Tick state, guarded by this feed's lock
+  private final Map<Integer, Long> lastQuantities = new HashMap<>();
+  private long lastOrders;
+  private long lastTickNanos;
+  private long sequence;
+  private volatile Totals latest;
+
+  private final Counter sentCounter;
+  private final Counter conflatedCounter;
+  private final Counter droppedCounter;
+
+  public LiveStatisticsFeed(WarehouseStatistics statistics,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.live-feed.max-subscribers:100}") int maxSubscribers,
+                            @Value("${app.live-feed.max-lag-ticks:30}") int maxLagTicks) {
+    this.statistics = statistics;
+    this.maxSubscribers = maxSubscribers;
+    this.maxLagTicks = maxLagTicks;
+    this.latest = new Totals(0, Instant.now(), 0, 0, 0, 0);
+
+    this.sentCounter = Counter.builder("warehouse.live.events")
+        .description("Live statistics events sent to subscribers")
+        .register(meterRegistry);
+    this.conflatedCounter = Counter.builder("warehouse.live.conflated")
+        .description("Ticks merged into a later event because the subscriber was still busy")
+        .register(meterRegistry);
+    this.droppedCounter = Counter.builder("warehouse.live.dropped")
+        .description("Subscribers dropped for falling too far behind")
+        .register(meterRegistry);
+    Gauge.builder("warehouse.live.subscribers", subscriptions, CopyOnWriteArrayList::size)
+        .description("Connected live statistics subscribers")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Add a subscriber; its first event (all products) is sent right away
+   * @throws IllegalStateException If the subscriber limit is reached
+   */
+  public synchronized Subscription subscribe(EventSink sink) {
+    if (subscriptions.size() >= maxSubscribers) {
+      throw new IllegalStateException("Live feed subscriber limit (" + maxSubscribers + ") reached");
+    }
+    Map<Integer, Long> everything = new HashMap<>();
+    long quantity = 0;
+    WarehouseStatistics.ProductCursor cursor = statistics.openProductCursor();
+    while (cursor.next()) {
+      everything.put(cursor.getProductId(), cursor.getQuantity());
+      quantity += cursor.getQuantity();
+    }
+    if (subscriptions.isEmpty()) {
+      // Ticks stop diffing while nobody listens; the first subscriber's snapshot is the new baseline
+      lastQuantities.clear();
+      lastQuantities.putAll(everything);
+    }
+    latest = new Totals(sequence, Instant.now(), statistics.getTotalOrders(), quantity, everything.size(),
+        latest.ordersPerSecond());
+    Subscription subscription = new Subscription(sink, everything);
+    subscriptions.add(subscription);
+    logger.info("Live feed subscriber connected ({} total)", subscriptions.size());
+    subscription.offer(null);
+    return subscription;
+  }
+
+  @Scheduled(fixedRateString = "${app.live-feed.interval-ms:1000}")
+  public void publish() {
+    tick(System.nanoTime());
+  }
+
+  /**
+   * Diff the statistics against the previous tick and offer the changes to every subscriber
+   */
+  synchronized void tick(long nowNanos) {
+    if (subscriptions.isEmpty()) {
+      lastOrders = statistics.getTotalOrders();
+      lastTickNanos = nowNanos;
+      return;
+    }
+    Map<Integer, Long> changed = new HashMap<>();
+    long quantity = 0;
+    long products = 0;
+    WarehouseStatistics.ProductCursor cursor = statistics.openProductCursor();
+    while (cursor.next()) {
+      long productQuantity = cursor.getQuantity();
+      Long previous = lastQuantities.put(cursor.getProductId(), productQuantity);
+      if (previous == null || previous != productQuantity) {
+        changed.put(cursor.getProductId(), productQuantity);
+      }
+      quantity += productQuantity;
+      products++;
+    }
+
+    long orders = statistics.getTotalOrders();
+    double ordersPerSecond = lastTickNanos == 0 || nowNanos <= lastTickNanos
+        ? 0 : (orders - lastOrders) * 1e9 / (nowNanos - lastTickNanos);
+    lastOrders = orders;
+    lastTickNanos = nowNanos;
+    latest = new Totals(++sequence, Instant.now(), orders, quantity, products, ordersPerSecond);
+
+    for (Subscription subscription : subscriptions) {
+      subscription.offer(changed);
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    for (Subscription subscription : subscriptions) {
+      subscription.cancel();
+    }
+    senders.shutdownNow();
+  }
+
+  /**
+   * One subscriber: the changes not yet sent to it, and whether a send is in progress
+   */
+  public final class Subscription {
+    private final EventSink sink;
+    private Map<Integer, Long> pending;
+    private int pendingTicks;
+    private boolean sending;
+    private int ticksBehind;
+    private boolean cancelled;
+
+    private Subscription(EventSink sink, Map<Integer, Long> initial) {
+      this.sink = sink;
+      this.pending = initial;
+    }
+
+    /**
+     * Queue a tick's changes (null for the initial event) and start a send unless one is running
+     */
+    private void offer(Map<Integer, Long> changed) {
+      synchronized (this) {
+        if (cancelled) {
+          return;
+        }
+        if (changed != null) {
+          pending.putAll(changed);
+          pendingTicks++;
+        }
+        if (!sending) {
+          sending = true;
+          ticksBehind = 0;
+          senders.execute(this::drain);
+          return;
+        }
+        if (++ticksBehind <= maxLagTicks) {
+          conflatedCounter.increment();
+          return;
+        }
+      }
+      logger.warn("Dropping live feed subscriber {} ticks behind", maxLagTicks);
+      droppedCounter.increment();
+      cancel();
+      sink.close();
+    }
+
+    /**
+     * Send pending changes until none are left
+     */
+    private void drain() {
+      while (true) {
+        Map<Integer, Long> changes;
+        int ticks;
+        synchronized (this) {
+          if (cancelled) {
+            return;
+          }
+          changes = pending;
+          ticks = pendingTicks;
+          pending = new HashMap<>();
+          pendingTicks = 0;
+        }
+        Totals totals = latest;
+        try {
+          sink.send(new LiveUpdate(totals.sequence(), totals.timestamp(), totals.orders(), totals.quantity(),
+              totals.products(), totals.ordersPerSecond(), ticks, changes));
+          sentCounter.increment();
+        } catch (IOException | RuntimeException e) {
+          logger.debug("Live feed subscriber gone: {}", e.getMessage());
+          cancel();
+          return;
+        }
+        synchronized (this) {
+          ticksBehind = 0;
+          if (pendingTicks == 0 || cancelled) {
+            sending = false;
+            return;
+          }
+        }
+      }
+    }
+
+    /**
+     * Stop sending to this subscriber (it disconnected or was dropped)
+     */
+    public void cancel() {
+      synchronized (this) {
+        if (cancelled) {
+          return;
+        }
+        cancelled = true;
+        pending = Map.of();
+      }
+      subscriptions.remove(this);
+      logger.info("Live feed subscriber disconnected ({} left)", subscriptions.size());
+    }
+  }
+}
@@ -0,0 +1,88 @@
+package com.cs6650.group13.warehouse.live;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * One event of the live statistics feed
+ *
+ * Totals are as of the event; {@code changed_products} holds the current total quantity
+ * of every product that changed since the subscriber's previous event (all products in
+ * a subscriber's first event). {@code ticks} is the number of ticks covered: 0 for the
+ * first event, more than 1 when the subscriber fell behind and several were conflated.
+ */
+public class LiveUpdate {
+
+  @JsonProperty("sequence")
+  private long sequence;
+
+  @JsonProperty("timestamp")
+  private Instant timestamp;
+
+  @JsonProperty("total_orders")
+  private long totalOrders;
+
+  @JsonProperty("total_quantity")
+  private long totalQuantity;
+
+  @JsonProperty("unique_products")
+  private long uniqueProducts;
+
+  @JsonProperty("orders_per_second")
+  private double ordersPerSecond;
+
+  @JsonProperty("ticks")
+  private int ticks;
+
+  @JsonProperty("changed_products")
+  private Map<Integer, Long> changedProducts;
+
+  public LiveUpdate() {
+  }
+
+  LiveUpdate(long sequence, Instant timestamp, long totalOrders, long totalQuantity, long uniqueProducts,
+             double ordersPerSecond, int ticks, Map<Integer, Long> changedProducts) {
+    this.sequence = sequence;
+    this.timestamp = timestamp;
+    this.totalOrders = totalOrders;
+    this.totalQuantity = totalQuantity;
+    this.uniqueProducts = uniqueProducts;
+    this.ordersPerSecond = ordersPerSecond;
+    this.ticks = ticks;
+    this.changedProducts = changedProducts;
+  }
+
+  public long getSequence() {
+    return sequence;
+  }
+
+  public Instant getTimestamp() {
+    return timestamp;
+  }
+
+  public long getTotalOrders() {
+    return totalOrders;
+  }
+
+  public long getTotalQuantity() {
+    return totalQuantity;
+  }
+
+  public long getUniqueProducts() {
+    return uniqueProducts;
+  }
+
+  public double getOrdersPerSecond() {
+    return ordersPerSecond;
+  }
+
+  public int getTicks() {
+    return ticks;
+  }
+
+  public Map<Integer, Long> getChangedProducts() {
+    return changedProducts;
+  }
+}
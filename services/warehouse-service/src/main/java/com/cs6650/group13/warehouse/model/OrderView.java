@@ -0,0 +1,165 @@
+package com.cs6650.group13.warehouse.model;
+
+import java.util.Arrays;
+
+/**
+ * Primitive, reusable view of an order message
+ *
+ * Holds only what the warehouse needs: the order ID and the (productId, quantity)
+ * pairs, in int arrays that grow once and are then reused. One instance lives per
+ * consumer thread (see {@link #forCurrentThread()}), or per in-flight delivery when
+ * listeners run on short-lived virtual threads (see {@link OrderViewPool}); anything
+ * that hands an order to another thread must take a {@link #copy()}.
+ */
+public class OrderView {
+
+  private static final ThreadLocal<OrderView> PER_THREAD = ThreadLocal.withInitial(OrderView::new);
+
+  private boolean hasOrderId;
+  private int orderId;
+  private boolean hasCustomerId;
+  private int customerId;
+  private int shoppingCartId;
+  private int itemCount;
+  private int[] productIds;
+  private int[] quantities;
+  private boolean invalidItem;
+  private boolean malformed;
+
+  public OrderView() {
+    this(8);
+  }
+
+  public OrderView(int initialItemCapacity) {
+    productIds = new int[initialItemCapacity];
+    quantities = new int[initialItemCapacity];
+  }
+
+  /**
+   * The reusable view owned by the calling thread
+   */
+  public static OrderView forCurrentThread() {
+    return PER_THREAD.get();
+  }
+
+  public void reset() {
+    hasOrderId = false;
+    orderId = 0;
+    hasCustomerId = false;
+    customerId = 0;
+    shoppingCartId = 0;
+    itemCount = 0;
+    invalidItem = false;
+    malformed = false;
+  }
+
+  public void setOrderId(int orderId) {
+    this.orderId = orderId;
+    this.hasOrderId = true;
+  }
+
+  public void setCustomerId(int customerId) {
+    this.customerId = customerId;
+    this.hasCustomerId = true;
+  }
+
+  public void setShoppingCartId(int shoppingCartId) {
+    this.shoppingCartId = shoppingCartId;
+  }
+
+  /**
+   * Append an item; a null product ID or quantity marks the order invalid
+   */
+  public void addItem(int productId, int quantity, boolean valid) {
+    if (itemCount == productIds.length) {
+      productIds = Arrays.copyOf(productIds, itemCount * 2);
+      quantities = Arrays.copyOf(quantities, itemCount * 2);
+    }
+    productIds[itemCount] = productId;
+    quantities[itemCount] = quantity;
+    itemCount++;
+    if (!valid) {
+      invalidItem = true;
+    }
+  }
+
+  public void markMalformed() {
+    malformed = true;
+  }
+
+  public boolean hasOrderId() {
+    return hasOrderId;
+  }
+
+  public int getOrderId() {
+    return orderId;
+  }
+
+  public boolean hasCustomerId() {
+    return hasCustomerId;
+  }
+
+  public int getCustomerId() {
+    return customerId;
+  }
+
+  public int getShoppingCartId() {
+    return shoppingCartId;
+  }
+
+  public int getItemCount() {
+    return itemCount;
+  }
+
+  /**
+   * Product IDs; only the first {@link #getItemCount()} entries are valid
+   */
+  public int[] getProductIds() {
+    return productIds;
+  }
+
+  /**
+   * Quantities; only the first {@link #getItemCount()} entries are valid
+   */
+  public int[] getQuantities() {
+    return quantities;
+  }
+
+  public boolean hasInvalidItem() {
+    return invalidItem;
+  }
+
+  public boolean isMalformed() {
+    return malformed;
+  }
+
+  /**
+   * Detached copy that is safe to hand to another thread
+   */
+  public OrderView copy() {
+    OrderView copy = new OrderView(Math.max(1, itemCount));
+    copy.hasOrderId = hasOrderId;
+    copy.orderId = orderId;
+    copy.hasCustomerId = hasCustomerId;
+    copy.customerId = customerId;
+    copy.shoppingCartId = shoppingCartId;
+    copy.itemCount = itemCount;
+    System.arraycopy(productIds, 0, copy.productIds, 0, itemCount);
+    System.arraycopy(quantities, 0, copy.quantities, 0, itemCount);
+    copy.invalidItem = invalidItem;
+    copy.malformed = malformed;
+    return copy;
+  }
+
+  @Override
+  public String toString() {
+    return "OrderView{" +
+        "orderId=" + (hasOrderId ? orderId : "null") +
+        ", shoppingCartId=" + shoppingCartId +
+        ", customerId=" + (hasCustomerId ? customerId : "null") +
+        ", itemCount=" + itemCount +
+        ", invalidItem=" + invalidItem +
+        ", malformed=" + malformed +
+        '}';
+  }
+}
@@ -0,0 +1,45 @@
+package com.cs6650.group13.warehouse.model;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lock-free pool of reusable {@link OrderView}s for listeners whose threads are short-lived
+ *
+ * {@link OrderView#forCurrentThread()} assumes long-lived consumer threads. With virtual
+ * threads the AMQP client dispatches each batch of deliveries on a new thread, so a
+ * ThreadLocal would allocate a fresh view (and its item arrays) again and again. Instead,
+ * a listener borrows a view for one delivery and returns it; the pool holds about as many
+ * views as deliveries run at once. The cost is two CAS operations per delivery where the
+ * ThreadLocal needs none, so platform consumer threads keep using the per-thread view.
+ *
+ * A view borrowed beyond capacity is allocated and dropped on release.
+ */
+public final class OrderViewPool {
+
+  private final AtomicReferenceArray<OrderView> slots;
+
+  public OrderViewPool(int capacity) {
+    slots = new AtomicReferenceArray<>(capacity);
+  }
+
+  public OrderView acquire() {
+    for (int i = 0; i < slots.length(); i++) {
+      OrderView view = slots.get(i);
+      if (view != null && slots.compareAndSet(i, view, null)) {
+        return view;
+      }
+    }
+    return new OrderView();
+  }
+
+  /**
+   * Return a view; the caller must not touch it afterwards
+   */
+  public void release(OrderView view) {
+    for (int i = 0; i < slots.length(); i++) {
+      if (slots.get(i) == null && slots.compareAndSet(i, null, view)) {
+        return;
+      }
+    }
+  }
+}
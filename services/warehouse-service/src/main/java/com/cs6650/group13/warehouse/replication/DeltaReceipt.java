@@ -0,0 +1,31 @@
+package com.cs6650.group13.warehouse.replication;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Reply to a merged delta: who merged it, and since when that instance has been running
+ */
+public class DeltaReceipt {
+
+  @JsonProperty("replica_id")
+  private String replicaId;
+
+  @JsonProperty("incarnation")
+  private long incarnation;
+
+  public DeltaReceipt() {
+  }
+
+  public DeltaReceipt(String replicaId, long incarnation) {
+    this.replicaId = replicaId;
+    this.incarnation = incarnation;
+  }
+
+  public String getReplicaId() {
+    return replicaId;
+  }
+
+  public long getIncarnation() {
+    return incarnation;
+  }
+}
@@ -0,0 +1,145 @@
+package com.cs6650.group13.warehouse.replication;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Grow-only counters (G-Counter CRDT) for the order count and each product's
+ * quantity, with one entry per warehouse replica
+ *
+ * A replica only ever increments its own entries; merging takes the per-entry
+ * maximum, so merges are commutative, associative and idempotent and every
+ * instance converges to the same state once it has seen every replica's latest
+ * entries. Global totals are the sums over replicas.
+ *
+ * The same structure tracks what a peer is known to hold, so {@link #deltaAgainst}
+ * can send only the entries that peer is missing.
+ */
+public class GCounterState {
+
+  private final Map<String, Replica> replicas = new HashMap<>();
+
+  /**
+   * Counters of one replica
+   */
+  private static final class Replica {
+    private long orders;
+    private final HashMap<Integer, Long> products = new HashMap<>();
+  }
+
+  /**
+   * Merge a delta (per-entry max)
+   * @return true if any entry grew
+   */
+  public synchronized boolean merge(StatisticsDelta delta) {
+    boolean changed = false;
+    for (Map.Entry<String, StatisticsDelta.ReplicaCounts> entry : delta.getReplicas().entrySet()) {
+      changed |= merge(entry.getKey(), entry.getValue().getOrders(), entry.getValue().getProducts());
+    }
+    return changed;
+  }
+
+  /**
+   * Merge one replica's order count and product quantities (per-entry max)
+   * @return true if any entry grew
+   */
+  public synchronized boolean merge(String replicaId, long orders, Map<Integer, Long> products) {
+    Replica replica = replicas.computeIfAbsent(replicaId, r -> new Replica());
+    boolean changed = false;
+    if (orders > replica.orders) {
+      replica.orders = orders;
+      changed = true;
+    }
+    for (Map.Entry<Integer, Long> product : products.entrySet()) {
+      long quantity = product.getValue();
+      Long current = replica.products.get(product.getKey());
+      if (current == null || quantity > current) {
+        replica.products.put(product.getKey(), quantity);
+        changed = true;
+      }
+    }
+    return changed;
+  }
+
+  /**
+   * Entries of this state that are ahead of {@code known}
+   * @param known What the receiver is known to hold
+   * @param senderId The sending replica, recorded in the delta
+   * @param skipReplicaId A replica whose entries are left out (the receiver's own), or null
+   */
+  public synchronized StatisticsDelta deltaAgainst(GCounterState known, String senderId, String skipReplicaId) {
+    StatisticsDelta delta = new StatisticsDelta(senderId);
+    synchronized (known) {
+      for (Map.Entry<String, Replica> entry : replicas.entrySet()) {
+        if (entry.getKey().equals(skipReplicaId)) {
+          continue;
+        }
+        Replica replica = entry.getValue();
+        Replica knownReplica = known.replicas.get(entry.getKey());
+        if (replica.orders > (knownReplica == null ? 0 : knownReplica.orders)) {
+          delta.replica(entry.getKey()).setOrders(replica.orders);
+        }
+        for (Map.Entry<Integer, Long> product : replica.products.entrySet()) {
+          Long knownQuantity = knownReplica == null ? null : knownReplica.products.get(product.getKey());
+          if (knownQuantity == null || product.getValue() > knownQuantity) {
+            delta.replica(entry.getKey()).getProducts().put(product.getKey(), product.getValue());
+          }
+        }
+      }
+    }
+    return delta;
+  }
+
+  public synchronized void clear() {
+    replicas.clear();
+  }
+
+  public synchronized long getTotalOrders() {
+    long total = 0;
+    for (Replica replica : replicas.values()) {
+      total += replica.orders;
+    }
+    return total;
+  }
+
+  public synchronized long getProductQuantity(int productId) {
+    long total = 0;
+    for (Replica replica : replicas.values()) {
+      total += replica.products.getOrDefault(productId, 0L);
+    }
+    return total;
+  }
+
+  public synchronized long getTotalQuantity() {
+    long total = 0;
+    for (Replica replica : replicas.values()) {
+      for (long quantity : replica.products.values()) {
+        total += quantity;
+      }
+    }
+    return total;
+  }
+
+  public synchronized int getTotalUniqueProducts() {
+    if (replicas.size() == 1) {
+      return replicas.values().iterator().next().products.size();
+    }
+    Set<Integer> products = new HashSet<>();
+    for (Replica replica : replicas.values()) {
+      products.addAll(replica.products.keySet());
+    }
+    return products.size();
+  }
+
+  /**
+   * Order count contributed by each replica
+   */
+  public synchronized Map<String, Long> getReplicaOrders() {
+    Map<String, Long> orders = new LinkedHashMap<>();
+    replicas.keySet().stream().sorted().forEach(id -> orders.put(id, replicas.get(id).orders));
+    return orders;
+  }
+}
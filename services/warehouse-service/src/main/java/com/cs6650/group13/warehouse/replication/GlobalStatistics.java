@@ -0,0 +1,61 @@
+package com.cs6650.group13.warehouse.replication;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Map;
+
+/**
+ * Statistics summed over every warehouse replica this instance has heard from
+ */
+public class GlobalStatistics {
+
+  @JsonProperty("replica_id")
+  private String replicaId;
+
+  @JsonProperty("total_orders")
+  private long totalOrders;
+
+  @JsonProperty("total_quantity")
+  private long totalQuantity;
+
+  @JsonProperty("unique_products")
+  private int uniqueProducts;
+
+  @JsonProperty("replica_orders")
+  private Map<String, Long> replicaOrders;
+
+  public GlobalStatistics() {
+  }
+
+  public GlobalStatistics(String replicaId, long totalOrders, long totalQuantity, int uniqueProducts,
+                          Map<String, Long> replicaOrders) {
+    this.replicaId = replicaId;
+    this.totalOrders = totalOrders;
+    this.totalQuantity = totalQuantity;
+    this.uniqueProducts = uniqueProducts;
+    this.replicaOrders = replicaOrders;
+  }
+
+  /**
+   * The instance that answered
+   */
+  public String getReplicaId() {
+    return replicaId;
+  }
+
+  public long getTotalOrders() {
+    return totalOrders;
+  }
+
+  public long getTotalQuantity() {
+    return totalQuantity;
+  }
+
+  public int getUniqueProducts() {
+    return uniqueProducts;
+  }
+
+  public Map<String, Long> getReplicaOrders() {
+    return replicaOrders;
+  }
+}
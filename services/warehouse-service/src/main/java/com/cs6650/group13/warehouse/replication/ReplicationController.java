@@ -0,0 +1,45 @@
+package com.cs6650.group13.warehouse.replication;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Statistics replication between warehouse instances
+ *
+ * POST /replication/delta                     merge a peer's G-Counter delta
+ * GET  /statistics/global                     totals over all replicas
+ * GET  /statistics/global/products/{productId} one product's total over all replicas
+ */
+@RestController
+@ConditionalOnProperty(name = "app.replication.enabled", havingValue = "true")
+public class ReplicationController {
+
+  private final StatisticsReplicator replicator;
+
+  public ReplicationController(StatisticsReplicator replicator) {
+    this.replicator = replicator;
+  }
+
+  @PostMapping("/replication/delta")
+  public DeltaReceipt receiveDelta(@RequestBody StatisticsDelta delta) {
+    return replicator.receive(delta);
+  }
+
+  @GetMapping("/statistics/global")
+  public GlobalStatistics getGlobalStatistics() {
+    return replicator.getGlobalStatistics();
+  }
+
+  @GetMapping("/statistics/global/products/{productId}")
+  public Map<String, Object> getGlobalProductQuantity(@PathVariable int productId) {
+    return Map.of(
+        "product_id", productId,
+        "quantity", replicator.getGlobalProductQuantity(productId));
+  }
+}
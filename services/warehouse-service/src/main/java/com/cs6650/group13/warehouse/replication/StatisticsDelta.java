@@ -0,0 +1,100 @@
+package com.cs6650.group13.warehouse.replication;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * G-Counter entries sent from one warehouse instance to another
+ *
+ * Holds, per replica, only the counters that changed since the receiver last
+ * acknowledged them; merging is a per-entry max, so a delta can be applied twice,
+ * late or out of order without harm.
+ */
+public class StatisticsDelta {
+
+  @JsonProperty("replica_id")
+  private String replicaId;
+
+  @JsonProperty("incarnation")
+  private long incarnation;
+
+  @JsonProperty("replicas")
+  private Map<String, ReplicaCounts> replicas = new HashMap<>();
+
+  public StatisticsDelta() {
+  }
+
+  public StatisticsDelta(String replicaId) {
+    this.replicaId = replicaId;
+  }
+
+  /**
+   * The sending instance
+   */
+  public String getReplicaId() {
+    return replicaId;
+  }
+
+  /**
+   * The sending instance's start time; changes when it restarts
+   */
+  public long getIncarnation() {
+    return incarnation;
+  }
+
+  public void setIncarnation(long incarnation) {
+    this.incarnation = incarnation;
+  }
+
+  public Map<String, ReplicaCounts> getReplicas() {
+    return replicas;
+  }
+
+  ReplicaCounts replica(String replica) {
+    return replicas.computeIfAbsent(replica, r -> new ReplicaCounts());
+  }
+
+  @JsonIgnore
+  public boolean isEmpty() {
+    return replicas.isEmpty();
+  }
+
+  /**
+   * Number of counters carried (orders and products)
+   */
+  @JsonIgnore
+  public int getEntryCount() {
+    int entries = 0;
+    for (ReplicaCounts counts : replicas.values()) {
+      entries += (counts.orders > 0 ? 1 : 0) + counts.products.size();
+    }
+    return entries;
+  }
+
+  /**
+   * One replica's order count and per-product quantities (only those included in the delta)
+   */
+  public static class ReplicaCounts {
+
+    @JsonProperty("orders")
+    private long orders;
+
+    @JsonProperty("products")
+    private Map<Integer, Long> products = new HashMap<>();
+
+    public long getOrders() {
+      return orders;
+    }
+
+    public void setOrders(long orders) {
+      this.orders = orders;
+    }
+
+    public Map<Integer, Long> getProducts() {
+      return products;
+    }
+  }
+}
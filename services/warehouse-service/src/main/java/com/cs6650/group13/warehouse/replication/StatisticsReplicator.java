@@ -0,0 +1,230 @@
+package com.cs6650.group13.warehouse.replication;
+
+import com.cs6650.group13.warehouse.ledger.OrderLedger;
+import com.cs6650.group13.warehouse.service.WarehouseStatistics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replicates this instance's statistics to its peers as G-Counter deltas, so
+ * every warehouse replica converges to the global totals without a central store
+ *
+ * - This replica's entries are its own {@link WarehouseStatistics} totals under
+ *   replica ID {@code REPLICA_ID} (default host:port). The ledger restores the
+ *   totals on restart, so the ID is kept; without the ledger the totals restart
+ *   at zero, so the default ID gets a per-run suffix and the old run's entries
+ *   keep counting under the old ID
+ * - Every interval, each peer is sent the entries it is not yet known to hold,
+ *   including other replicas' entries, so updates also spread through peers
+ * - A peer's receipt marks the sent entries as held; a failed send is retried
+ *   with whatever is pending at the next interval
+ * - Deltas and receipts carry the instance's incarnation (start time): a new one
+ *   means the peer restarted and lost the other replicas' entries, so it is sent
+ *   everything again
+ */
+@Service
+@ConditionalOnProperty(name = "app.replication.enabled", havingValue = "true")
+public class StatisticsReplicator {
+
+  private static final Logger logger = LoggerFactory.getLogger(StatisticsReplicator.class);
+
+  private final WarehouseStatistics statistics;
+  private final RestTemplate restTemplate;
+  private final String configuredReplicaId;
+  private final int serverPort;
+  private final long incarnation = System.currentTimeMillis();
+  private String replicaId;
+  private final GCounterState state = new GCounterState();
+  private final List<Peer> peers = new ArrayList<>();
+
+  private final Counter sentCounter;
+  private final Counter failedCounter;
+  private final Counter receivedCounter;
+  private final DistributionSummary deltaEntries;
+
+  /**
+   * A peer and what it is known to hold
+   */
+  private static final class Peer {
+    private final String url;
+    private final GCounterState known = new GCounterState();
+    private volatile String replicaId;
+    private volatile long incarnation;
+    private boolean reachable = true;
+
+    private Peer(String url) {
+      this.url = url;
+    }
+  }
+
+  @Autowired(required = false)
+  private OrderLedger ledger;
+
+  public StatisticsReplicator(WarehouseStatistics statistics,
+                              RestTemplateBuilder restTemplateBuilder,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.replication.replica-id:}") String replicaId,
+                              @Value("${app.replication.peers:}") List<String> peerUrls,
+                              @Value("${app.replication.timeout-ms:2000}") long timeoutMs,
+                              @Value("${server.port:8084}") int serverPort) {
+    this.statistics = statistics;
+    this.restTemplate = restTemplateBuilder
+        .setConnectTimeout(Duration.ofMillis(timeoutMs))
+        .setReadTimeout(Duration.ofMillis(timeoutMs))
+        .build();
+    this.configuredReplicaId = replicaId;
+    this.serverPort = serverPort;
+    for (String url : peerUrls) {
+      if (!url.isBlank()) {
+        peers.add(new Peer(url.strip().replaceAll("/+$", "")));
+      }
+    }
+
+    this.sentCounter = Counter.builder("warehouse.replication.deltas")
+        .description("Statistics deltas exchanged with peers")
+        .tag("outcome", "sent")
+        .register(meterRegistry);
+    this.failedCounter = Counter.builder("warehouse.replication.deltas")
+        .description("Statistics deltas exchanged with peers")
+        .tag("outcome", "failed")
+        .register(meterRegistry);
+    this.receivedCounter = Counter.builder("warehouse.replication.deltas")
+        .description("Statistics deltas exchanged with peers")
+        .tag("outcome", "received")
+        .register(meterRegistry);
+    this.deltaEntries = DistributionSummary.builder("warehouse.replication.delta.entries")
+        .description("Counters carried per sent delta")
+        .publishPercentiles(0.5, 0.95, 0.99)
+        .register(meterRegistry);
+    Gauge.builder("warehouse.replication.global.orders", state, GCounterState::getTotalOrders)
+        .description("Orders recorded by all replicas, as far as this instance knows")
+        .register(meterRegistry);
+  }
+
+  @PostConstruct
+  void start() {
+    if (configuredReplicaId != null && !configuredReplicaId.isBlank()) {
+      replicaId = configuredReplicaId;
+    } else {
+      String host;
+      try {
+        host = InetAddress.getLocalHost().getHostName();
+      } catch (UnknownHostException e) {
+        host = "localhost";
+      }
+      replicaId = host + ":" + serverPort + (ledger != null ? "" : "#" + incarnation);
+    }
+    logger.info("Statistics replication: replica {} with peers {}", replicaId,
+        peers.stream().map(peer -> peer.url).toList());
+  }
+
+  /**
+   * Fold this replica's current totals into the replicated state
+   */
+  void refreshLocal() {
+    state.merge(replicaId, statistics.getTotalOrders(), statistics.snapshotProductQuantities());
+  }
+
+  /**
+   * Send each peer the entries it is missing
+   */
+  @Scheduled(fixedDelayString = "${app.replication.interval-ms:1000}",
+      initialDelayString = "${app.replication.interval-ms:1000}")
+  public void exchange() {
+    refreshLocal();
+    for (Peer peer : peers) {
+      StatisticsDelta delta = state.deltaAgainst(peer.known, replicaId, peer.replicaId);
+      if (delta.isEmpty()) {
+        continue;
+      }
+      try {
+        delta.setIncarnation(incarnation);
+        DeltaReceipt receipt = restTemplate.postForObject(peer.url + "/replication/delta", delta, DeltaReceipt.class);
+        sentCounter.increment();
+        deltaEntries.record(delta.getEntryCount());
+        if (!peer.reachable) {
+          logger.info("Replication peer {} reachable again", peer.url);
+          peer.reachable = true;
+        }
+        peer.known.merge(delta);
+        if (receipt != null) {
+          peer.replicaId = receipt.getReplicaId();
+          observeIncarnation(peer, receipt.getIncarnation());
+        }
+      } catch (RestClientException e) {
+        failedCounter.increment();
+        if (peer.reachable) {
+          logger.warn("Replication peer {} unreachable ({}); will retry", peer.url, e.getMessage());
+          peer.reachable = false;
+        }
+      }
+    }
+  }
+
+  /**
+   * A peer that comes back with a new incarnation restarted: it holds only its own
+   * entries, so everything is sent to it again
+   */
+  private void observeIncarnation(Peer peer, long incarnation) {
+    long previous = peer.incarnation;
+    if (incarnation != previous) {
+      peer.incarnation = incarnation;
+      if (previous != 0) {
+        logger.info("Replication peer {} ({}) restarted; resending full state", peer.url, peer.replicaId);
+        peer.known.clear();
+      }
+    }
+  }
+
+  /**
+   * Merge a delta sent by a peer
+   */
+  public DeltaReceipt receive(StatisticsDelta delta) {
+    for (Peer peer : peers) {
+      if (delta.getReplicaId() != null && delta.getReplicaId().equals(peer.replicaId)) {
+        observeIncarnation(peer, delta.getIncarnation());
+      }
+    }
+    state.merge(delta);
+    receivedCounter.increment();
+    logger.debug("Merged {} counters from replica {}", delta.getEntryCount(), delta.getReplicaId());
+    return new DeltaReceipt(replicaId, incarnation);
+  }
+
+  /**
+   * Totals across every replica this instance has heard from, including itself
+   */
+  public GlobalStatistics getGlobalStatistics() {
+    refreshLocal();
+    return new GlobalStatistics(replicaId, state.getTotalOrders(), state.getTotalQuantity(),
+        state.getTotalUniqueProducts(), state.getReplicaOrders());
+  }
+
+  public long getGlobalProductQuantity(int productId) {
+    refreshLocal();
+    return state.getProductQuantity(productId);
+  }
+
+  public String getReplicaId() {
+    return replicaId;
+  }
+}
@@ -2,8 +2,13 @@ package com.cs6650.group13.warehouse.service;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -12,17 +17,28 @@ import java.util.concurrent.atomic.AtomicLong;
  * Thread-safe service to track warehouse statistics
  * - Total number of orders processed
  * - Total quantity ordered for each product ID
+ *
+ * Statistics are kept per order partition, so consumers of different partition
+ * queues never touch the same counters; reads merge the partitions.
  */
 @Service
 public class WarehouseStatistics {
 
   private static final Logger logger = LoggerFactory.getLogger(WarehouseStatistics.class);
 
-  // Thread-safe counter for total orders
-  private final AtomicInteger totalOrders = new AtomicInteger(0);
+  private final Partition[] partitions;
 
-  // Thread-safe map for product quantities (productId -> total quantity)
-  private final ConcurrentHashMap<Integer, AtomicLong> productQuantities = new ConcurrentHashMap<>();
+  public WarehouseStatistics() {
+    this(1);
+  }
+
+  @Autowired
+  public WarehouseStatistics(@Value("${app.rabbitmq.partitions:1}") int partitions) {
+    this.partitions = new Partition[Math.max(1, partitions)];
+    for (int i = 0; i < this.partitions.length; i++) {
+      this.partitions[i] = new Partition();
+    }
+  }
 
   /**
    * Record an order and update statistics
@@ -31,8 +47,19 @@ public class WarehouseStatistics {
    * @param quantity The quantity ordered
    */
   public void recordProduct(Integer orderId, Integer productId, Integer quantity) {
+    recordProduct(0, orderId, productId, quantity);
+  }
+
+  /**
+   * Record an order item consumed from the given partition
+   * @param partition The order partition the order came from
+   * @param orderId The order ID
+   * @param productId The product ID
+   * @param quantity The quantity ordered
+   */
+  public void recordProduct(int partition, int orderId, int productId, int quantity) {
     // Update product quantity atomically
-    productQuantities.computeIfAbsent(productId, k -> new AtomicLong(0))
+    partitions[partition].productQuantities.computeIfAbsent(productId, k -> new AtomicLong(0))
         .addAndGet(quantity);
 
     logger.debug("Recorded product {} (qty: {}) for order {}", productId, quantity, orderId);
@@ -42,39 +69,173 @@ public class WarehouseStatistics {
    * Increment total order count
    */
   public void incrementOrderCount() {
-    int count = totalOrders.incrementAndGet();
-    logger.debug("Total orders: {}", count);
+    incrementOrderCount(0);
+  }
+
+  /**
+   * Increment the order count of the given partition
+   */
+  public void incrementOrderCount(int partition) {
+    int count = partitions[partition].totalOrders.incrementAndGet();
+    logger.debug("Total orders in partition {}: {}", partition, count);
+  }
+
+  public int getPartitionCount() {
+    return partitions.length;
   }
 
   /**
    * Get total number of orders processed
    */
   public int getTotalOrders() {
-    return totalOrders.get();
+    int total = 0;
+    for (Partition partition : partitions) {
+      total += partition.totalOrders.get();
+    }
+    return total;
+  }
+
+  /**
+   * Get number of orders processed from one partition
+   */
+  public int getPartitionOrders(int partition) {
+    return partitions[partition].totalOrders.get();
   }
 
   /**
    * Get total quantity for a specific product
    */
   public long getProductQuantity(Integer productId) {
-    AtomicLong quantity = productQuantities.get(productId);
-    return quantity != null ? quantity.get() : 0;
+    long total = 0;
+    for (Partition partition : partitions) {
+      AtomicLong quantity = partition.productQuantities.get(productId);
+      if (quantity != null) {
+        total += quantity.get();
+      }
+    }
+    return total;
   }
 
   /**
    * Get total number of unique products
    */
   public int getTotalUniqueProducts() {
-    return productQuantities.size();
+    if (partitions.length == 1) {
+      return partitions[0].productQuantities.size();
+    }
+    return snapshotProductQuantities().size();
   }
 
   /**
    * Get total quantity across all products
    */
   public long getTotalQuantity() {
-    return productQuantities.values().stream()
-        .mapToLong(AtomicLong::get)
-        .sum();
+    long total = 0;
+    for (Partition partition : partitions) {
+      for (AtomicLong quantity : partition.productQuantities.values()) {
+        total += quantity.get();
+      }
+    }
+    return total;
+  }
+
+  /**
+   * Copy the current per-product quantities, merged across partitions (used for checkpoints)
+   */
+  public Map<Integer, Long> snapshotProductQuantities() {
+    Map<Integer, Long> snapshot = new HashMap<>(partitions[0].productQuantities.size() * 2);
+    for (Partition partition : partitions) {
+      partition.productQuantities.forEach((productId, quantity) ->
+          snapshot.merge(productId, quantity.get(), Long::sum));
+    }
+    return snapshot;
+  }
+
+  /**
+   * Walk the per-product quantities, merged across partitions, without copying them
+   * (used for streaming exports)
+   *
+   * Like the underlying maps, the cursor is weakly consistent: it never returns a
+   * product twice, but products first recorded while it runs may be left out.
+   */
+  public ProductCursor openProductCursor() {
+    return new ProductCursor();
+  }
+
+  /**
+   * Iterates each partition's products in turn; a product is returned from the first
+   * partition holding it, with its quantities summed over all partitions. Walks keys
+   * rather than entries, since the map's entry iterator allocates an entry per product.
+   */
+  public final class ProductCursor {
+    private int partition;
+    private Iterator<Integer> keys = partitions[0].productQuantities.keySet().iterator();
+    private int productId;
+    private long quantity;
+
+    private ProductCursor() {
+    }
+
+    /**
+     * Move to the next product
+     * @return false once every product has been returned
+     */
+    public boolean next() {
+      while (true) {
+        while (!keys.hasNext()) {
+          if (++partition == partitions.length) {
+            return false;
+          }
+          keys = partitions[partition].productQuantities.keySet().iterator();
+        }
+        Integer key = keys.next();
+        AtomicLong own = partitions[partition].productQuantities.get(key);
+        if (own != null && !inEarlierPartition(key)) {
+          productId = key;
+          quantity = own.get();
+          for (int other = partition + 1; other < partitions.length; other++) {
+            AtomicLong more = partitions[other].productQuantities.get(key);
+            if (more != null) {
+              quantity += more.get();
+            }
+          }
+          return true;
+        }
+      }
+    }
+
+    private boolean inEarlierPartition(Integer key) {
+      for (int earlier = 0; earlier < partition; earlier++) {
+        if (partitions[earlier].productQuantities.containsKey(key)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    public int getProductId() {
+      return productId;
+    }
+
+    public long getQuantity() {
+      return quantity;
+    }
+  }
+
+  /**
+   * Replace all statistics with previously checkpointed values
+   * Checkpoints hold merged totals, so they are restored into the first partition
+   * @param orders The total order count to restore
+   * @param quantities The per-product quantities to restore
+   */
+  public void restore(int orders, Map<Integer, Long> quantities) {
+    for (Partition partition : partitions) {
+      partition.productQuantities.clear();
+      partition.totalOrders.set(0);
+    }
+    quantities.forEach((productId, quantity) -> partitions[0].productQuantities.put(productId, new AtomicLong(quantity)));
+    partitions[0].totalOrders.set(orders);
+    logger.info("Statistics restored: {} orders, {} products", orders, quantities.size());
   }
 
   /**
@@ -95,9 +256,22 @@ public class WarehouseStatistics {
    * Reset all statistics (for testing purposes)
    */
   public void reset() {
-    totalOrders.set(0);
-    productQuantities.clear();
+    for (Partition partition : partitions) {
+      partition.totalOrders.set(0);
+      partition.productQuantities.clear();
+    }
     logger.info("Statistics reset");
   }
+
+  /**
+   * Counters for the orders of one partition
+   */
+  private static final class Partition {
+    // Thread-safe counter for total orders
+    private final AtomicInteger totalOrders = new AtomicInteger(0);
+
+    // Thread-safe map for product quantities (productId -> total quantity)
+    private final ConcurrentHashMap<Integer, AtomicLong> productQuantities = new ConcurrentHashMap<>();
+  }
 }
 
@@ -0,0 +1,42 @@
+package com.cs6650.group13.warehouse.timeseries;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Quantity ordered per bucket for one product
+ * Points are [bucket start (epoch seconds), quantity]; buckets with no orders are left out.
+ */
+public class ProductHistory {
+
+  @JsonProperty("product_id")
+  private int productId;
+
+  @JsonProperty("interval_seconds")
+  private long intervalSeconds;
+
+  @JsonProperty("points")
+  private List<long[]> points;
+
+  public ProductHistory() {
+  }
+
+  public ProductHistory(int productId, long intervalSeconds, List<long[]> points) {
+    this.productId = productId;
+    this.intervalSeconds = intervalSeconds;
+    this.points = points;
+  }
+
+  public int getProductId() {
+    return productId;
+  }
+
+  public long getIntervalSeconds() {
+    return intervalSeconds;
+  }
+
+  public List<long[]> getPoints() {
+    return points;
+  }
+}
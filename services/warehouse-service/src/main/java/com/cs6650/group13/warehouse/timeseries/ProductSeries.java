@@ -0,0 +1,277 @@
+package com.cs6650.group13.warehouse.timeseries;
+
+import java.util.Arrays;
+
+/**
+ * One product's (bucket, quantity) points at one resolution, compressed Gorilla-style
+ *
+ * Points are kept in blocks, each a {@code long[]} holding a 3-word header (first and
+ * last bucket, point count) followed by a bit stream:
+ * - the first point's value: 6 bits holding its length in bits, less one, then the bits
+ * - per further point, the delta-of-delta of the bucket index:
+ *   '0' (same spacing), '10' + 7 bits, '110' + 9 bits, '1110' + 12 bits or '1111' + 32 bits
+ * - and the XOR of the value with the previous one: '0' (equal), '10' + the meaningful
+ *   bits within the previous leading/trailing-zero window, or '11' + 6 bits leading
+ *   zeros + 6 bits length + the meaningful bits
+ *
+ * Values are quantities, XOR'ed as integers rather than doubles, so small counts keep
+ * long runs of leading zeros. Only non-zero buckets are appended. The open block grows
+ * by half again as needed and is trimmed to size when it closes; whole blocks are
+ * dropped once they fall out of retention.
+ *
+ * Appends come from one thread; reads may come from others, so methods are synchronized.
+ */
+final class ProductSeries {
+
+  private static final int HEADER = 3;
+  private static final int FIRST = 0;
+  private static final int LAST = 1;
+  private static final int POINTS = 2;
+  private static final long[][] NO_BLOCKS = new long[0][];
+
+  /**
+   * Receives decoded points
+   */
+  interface PointConsumer {
+    void accept(long bucket, long value);
+  }
+
+  private long[][] closed = NO_BLOCKS;
+  private long[] open;
+  private int bitCount;
+  private long lastBucket;
+  private long lastDelta;
+  private long lastValue;
+  private int leading = -1;
+  private int trailing;
+
+  /**
+   * Append a point
+   * @param bucket Bucket index, greater than the previous point's
+   * @param value The quantity
+   * @param blockSpan Buckets covered by one block before a new one is started
+   */
+  synchronized void append(long bucket, long value, long blockSpan) {
+    if (open != null && bucket - open[FIRST] >= blockSpan) {
+      closeBlock();
+    }
+    if (open == null) {
+      open = new long[HEADER + 2];
+      open[FIRST] = bucket;
+      open[LAST] = bucket;
+      open[POINTS] = 1;
+      bitCount = 0;
+      int length = Math.max(1, 64 - Long.numberOfLeadingZeros(value));
+      writeBits(length - 1, 6);
+      writeBits(value, length);
+      lastBucket = bucket;
+      lastDelta = 0;
+      lastValue = value;
+      leading = -1;
+      return;
+    }
+    if (bucket <= lastBucket) {
+      throw new IllegalArgumentException("Bucket " + bucket + " is not after " + lastBucket);
+    }
+
+    long delta = bucket - lastBucket;
+    long deltaOfDelta = delta - lastDelta;
+    if (deltaOfDelta == 0) {
+      writeBits(0, 1);
+    } else if (deltaOfDelta >= -64 && deltaOfDelta <= 63) {
+      writeBits(0b10, 2);
+      writeBits(deltaOfDelta, 7);
+    } else if (deltaOfDelta >= -256 && deltaOfDelta <= 255) {
+      writeBits(0b110, 3);
+      writeBits(deltaOfDelta, 9);
+    } else if (deltaOfDelta >= -2048 && deltaOfDelta <= 2047) {
+      writeBits(0b1110, 4);
+      writeBits(deltaOfDelta, 12);
+    } else {
+      writeBits(0b1111, 4);
+      writeBits(deltaOfDelta, 32);
+    }
+
+    long xor = value ^ lastValue;
+    if (xor == 0) {
+      writeBits(0, 1);
+    } else {
+      int xorLeading = Long.numberOfLeadingZeros(xor);
+      int xorTrailing = Long.numberOfTrailingZeros(xor);
+      if (leading >= 0 && xorLeading >= leading && xorTrailing >= trailing) {
+        writeBits(0b10, 2);
+        writeBits(xor >>> trailing, 64 - leading - trailing);
+      } else {
+        int length = 64 - xorLeading - xorTrailing;
+        writeBits(0b11, 2);
+        writeBits(xorLeading, 6);
+        writeBits(length - 1, 6);
+        writeBits(xor >>> xorTrailing, length);
+        leading = xorLeading;
+        trailing = xorTrailing;
+      }
+    }
+
+    lastBucket = bucket;
+    lastDelta = delta;
+    lastValue = value;
+    open[LAST] = bucket;
+    open[POINTS]++;
+  }
+
+  private void writeBits(long bits, int count) {
+    int words = HEADER + ((bitCount + count + 63) >>> 6);
+    if (words > open.length) {
+      open = Arrays.copyOf(open, Math.max(words, open.length + (open.length >>> 1)));
+    }
+    long value = bits & mask(count);
+    int word = HEADER + (bitCount >>> 6);
+    int free = 64 - (bitCount & 63);
+    if (count <= free) {
+      open[word] |= value << (free - count);
+    } else {
+      int rest = count - free;
+      open[word] |= value >>> rest;
+      open[word + 1] |= value << (64 - rest);
+    }
+    bitCount += count;
+  }
+
+  private static long mask(int bits) {
+    return bits == 64 ? -1L : (1L << bits) - 1;
+  }
+
+  private void closeBlock() {
+    long[] block = Arrays.copyOf(open, HEADER + ((bitCount + 63) >>> 6));
+    closed = Arrays.copyOf(closed, closed.length + 1);
+    closed[closed.length - 1] = block;
+    open = null;
+  }
+
+  /**
+   * Drop blocks whose last point is before the given bucket
+   * @return true if the series is now empty
+   */
+  synchronized boolean dropBefore(long bucket) {
+    int keep = 0;
+    while (keep < closed.length && closed[keep][LAST] < bucket) {
+      keep++;
+    }
+    if (keep > 0) {
+      closed = keep == closed.length ? NO_BLOCKS : Arrays.copyOfRange(closed, keep, closed.length);
+    }
+    if (open != null && open[LAST] < bucket) {
+      open = null;
+    }
+    return open == null && closed.length == 0;
+  }
+
+  /**
+   * Decode the points with from <= bucket < to, oldest first
+   */
+  synchronized void forEach(long from, long to, PointConsumer consumer) {
+    for (long[] block : closed) {
+      decode(block, from, to, consumer);
+    }
+    if (open != null) {
+      decode(open, from, to, consumer);
+    }
+  }
+
+  private static void decode(long[] block, long from, long to, PointConsumer consumer) {
+    if (block[LAST] < from || block[FIRST] >= to) {
+      return;
+    }
+    BitReader reader = new BitReader(block);
+    long bucket = block[FIRST];
+    long value = reader.read((int) reader.read(6) + 1);
+    long delta = 0;
+    int leading = 0;
+    int trailing = 0;
+    long points = block[POINTS];
+    for (long i = 0; ; i++) {
+      if (bucket >= from && bucket < to) {
+        consumer.accept(bucket, value);
+      }
+      if (i + 1 >= points || bucket >= to) {
+        return;
+      }
+
+      long deltaOfDelta;
+      if (reader.read(1) == 0) {
+        deltaOfDelta = 0;
+      } else if (reader.read(1) == 0) {
+        deltaOfDelta = reader.readSigned(7);
+      } else if (reader.read(1) == 0) {
+        deltaOfDelta = reader.readSigned(9);
+      } else if (reader.read(1) == 0) {
+        deltaOfDelta = reader.readSigned(12);
+      } else {
+        deltaOfDelta = reader.readSigned(32);
+      }
+      delta += deltaOfDelta;
+      bucket += delta;
+
+      if (reader.read(1) == 1) {
+        if (reader.read(1) == 1) {
+          leading = (int) reader.read(6);
+          int length = (int) reader.read(6) + 1;
+          trailing = 64 - leading - length;
+        }
+        value ^= reader.read(64 - leading - trailing) << trailing;
+      }
+    }
+  }
+
+  /**
+   * Reads a block's bit stream from the start
+   */
+  private static final class BitReader {
+    private final long[] block;
+    private int position;
+
+    private BitReader(long[] block) {
+      this.block = block;
+    }
+
+    long read(int count) {
+      int word = HEADER + (position >>> 6);
+      int free = 64 - (position & 63);
+      long value;
+      if (count <= free) {
+        value = (block[word] >>> (free - count)) & mask(count);
+      } else {
+        int rest = count - free;
+        value = ((block[word] & mask(free)) << rest) | (block[word + 1] >>> (64 - rest));
+      }
+      position += count;
+      return value;
+    }
+
+    long readSigned(int count) {
+      return (read(count) << (64 - count)) >> (64 - count);
+    }
+  }
+
+  synchronized long getPointCount() {
+    long points = open == null ? 0 : open[POINTS];
+    for (long[] block : closed) {
+      points += block[POINTS];
+    }
+    return points;
+  }
+
+  /**
+   * Approximate heap footprint: this object, its block arrays and their headers
+   */
+  synchronized long getSizeBytes() {
+    long bytes = 64 + 16 + 4L * closed.length;
+    for (long[] block : closed) {
+      bytes += 16 + 8L * block.length;
+    }
+    if (open != null) {
+      bytes += 16 + 8L * open.length;
+    }
+    return bytes;
+  }
+}
@@ -0,0 +1,290 @@
+package com.cs6650.group13.warehouse.timeseries;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory history of the quantity ordered per product, in fixed-interval buckets
+ *
+ * - Consumers add each recorded item to a pending counter per product (one atomic add)
+ * - Once a second, a bucket that has ended is closed: every product with a non-zero
+ *   quantity gets a point in the finest tier, and its quantity is added to the coarser
+ *   tiers' accumulators, which become points when their own (longer) buckets end
+ * - Each tier keeps its points for its retention period in compressed
+ *   {@link ProductSeries} blocks, so old data is only kept at coarse resolution
+ *
+ * Tiers are "interval:retention" pairs ({@code TIMESERIES_TIERS}, default
+ * 10s:1h,1m:6h,5m:1d); every interval is a multiple of the first. A query is answered
+ * from the finest tier whose retention still covers its start.
+ *
+ * Product IDs from 0 to {@code TIMESERIES_PRODUCTS} - 1 are tracked; others are counted
+ * as dropped. On by default: disable with {@code TIMESERIES_ENABLED=false}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.timeseries.enabled", havingValue = "true", matchIfMissing = true)
+public class ProductTimeSeriesStore {
+
+  private static final Logger logger = LoggerFactory.getLogger(ProductTimeSeriesStore.class);
+
+  /**
+   * Blocks per retention period: data outlives its retention by at most a quarter
+   */
+  private static final int BLOCKS_PER_RETENTION = 4;
+
+  /**
+   * One resolution: its series per product and, for coarser tiers, the quantities
+   * accumulated towards the bucket in progress
+   */
+  private static final class Tier {
+    private final long intervalSeconds;
+    private final long retentionSeconds;
+    private final int factor;
+    private final long blockSpan;
+    private final ProductSeries[] series;
+    private final long[] accumulated;
+
+    private Tier(long intervalSeconds, long retentionSeconds, int factor, int products) {
+      this.intervalSeconds = intervalSeconds;
+      this.retentionSeconds = retentionSeconds;
+      this.factor = factor;
+      this.blockSpan = Math.max(1, retentionSeconds / intervalSeconds / BLOCKS_PER_RETENTION);
+      this.series = new ProductSeries[products];
+      this.accumulated = factor > 1 ? new long[products] : null;
+    }
+
+    private void append(int productId, long bucket, long quantity) {
+      ProductSeries productSeries = series[productId];
+      if (productSeries == null) {
+        productSeries = new ProductSeries();
+        series[productId] = productSeries;
+      }
+      productSeries.append(bucket, quantity, blockSpan);
+    }
+  }
+
+  private final int products;
+  private final long baseSeconds;
+  private final Tier[] tiers;
+  private final AtomicLongArray pending;
+  private long currentBucket = -1;
+
+  private final Counter droppedCounter;
+  private final Timer flushTimer;
+
+  public ProductTimeSeriesStore(MeterRegistry meterRegistry,
+                                @Value("${app.timeseries.products:100000}") int products,
+                                @Value("${app.timeseries.tiers:10s:1h,1m:6h,5m:1d}") String tiers) {
+    if (products <= 0) {
+      throw new IllegalArgumentException("app.timeseries.products must be positive");
+    }
+    this.products = products;
+    this.tiers = parseTiers(tiers, products);
+    this.baseSeconds = this.tiers[0].intervalSeconds;
+    this.pending = new AtomicLongArray(products);
+
+    this.droppedCounter = Counter.builder("warehouse.timeseries.dropped")
+        .description("Items not recorded because their product ID is out of range")
+        .register(meterRegistry);
+    this.flushTimer = Timer.builder("warehouse.timeseries.flush")
+        .description("Time to close a bucket into the compressed series")
+        .publishPercentiles(0.5, 0.95, 0.99)
+        .register(meterRegistry);
+    Gauge.builder("warehouse.timeseries.bytes", this, ProductTimeSeriesStore::getStoredBytes)
+        .description("Approximate heap used by the compressed series")
+        .baseUnit("bytes")
+        .register(meterRegistry);
+
+    logger.info("Product time series: {} products, tiers {}", products, tiers);
+  }
+
+  private static Tier[] parseTiers(String spec, int products) {
+    List<Tier> parsed = new ArrayList<>();
+    long base = 0;
+    long previousInterval = 0;
+    for (String part : spec.split(",")) {
+      String[] fields = part.strip().split(":");
+      if (fields.length != 2) {
+        throw new IllegalArgumentException("Time series tier must be interval:retention, got '" + part + "'");
+      }
+      long interval = DurationStyle.detectAndParse(fields[0].strip()).toSeconds();
+      long retention = DurationStyle.detectAndParse(fields[1].strip()).toSeconds();
+      if (interval <= 0 || retention < interval) {
+        throw new IllegalArgumentException("Invalid time series tier '" + part + "'");
+      }
+      if (base == 0) {
+        base = interval;
+      }
+      if (interval % base != 0 || interval <= previousInterval) {
+        throw new IllegalArgumentException(
+            "Time series tier intervals must grow and be multiples of the first, got '" + part + "'");
+      }
+      previousInterval = interval;
+      parsed.add(new Tier(interval, retention, (int) (interval / base), products));
+    }
+    if (parsed.isEmpty()) {
+      throw new IllegalArgumentException("At least one time series tier is required");
+    }
+    return parsed.toArray(new Tier[0]);
+  }
+
+  /**
+   * Add an order's items to the current bucket
+   */
+  public void record(int[] productIds, int[] quantities, int count) {
+    for (int i = 0; i < count; i++) {
+      int productId = productIds[i];
+      if (productId >= 0 && productId < products) {
+        pending.getAndAdd(productId, quantities[i]);
+      } else {
+        droppedCounter.increment();
+      }
+    }
+  }
+
+  @Scheduled(fixedDelay = 1000)
+  public void flushElapsedBuckets() {
+    flush(System.currentTimeMillis() / 1000);
+  }
+
+  /**
+   * Close the bucket in progress if the clock has moved past it
+   * Items recorded between the bucket's end and this call are counted in it.
+   */
+  synchronized void flush(long nowSeconds) {
+    long bucket = nowSeconds / baseSeconds;
+    if (currentBucket < 0) {
+      currentBucket = bucket;
+      return;
+    }
+    if (bucket <= currentBucket) {
+      return;
+    }
+    long start = System.nanoTime();
+    long closing = currentBucket;
+    currentBucket = bucket;
+
+    Tier finest = tiers[0];
+    for (int productId = 0; productId < products; productId++) {
+      if (pending.get(productId) == 0) {
+        continue;
+      }
+      long quantity = pending.getAndSet(productId, 0);
+      finest.append(productId, closing, quantity);
+      for (int t = 1; t < tiers.length; t++) {
+        tiers[t].accumulated[productId] += quantity;
+      }
+    }
+
+    for (int t = 1; t < tiers.length; t++) {
+      Tier tier = tiers[t];
+      long tierBucket = closing / tier.factor;
+      if (bucket / tier.factor != tierBucket) {
+        long[] accumulated = tier.accumulated;
+        for (int productId = 0; productId < products; productId++) {
+          if (accumulated[productId] != 0) {
+            tier.append(productId, tierBucket, accumulated[productId]);
+            accumulated[productId] = 0;
+          }
+        }
+      }
+    }
+
+    // Drop expired blocks once per finest-tier block
+    if (closing % finest.blockSpan == 0) {
+      for (Tier tier : tiers) {
+        long oldest = (nowSeconds - tier.retentionSeconds) / tier.intervalSeconds;
+        for (int productId = 0; productId < products; productId++) {
+          ProductSeries productSeries = tier.series[productId];
+          if (productSeries != null && productSeries.dropBefore(oldest)) {
+            tier.series[productId] = null;
+          }
+        }
+      }
+    }
+    flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Quantity ordered per bucket for a product, at the finest resolution still holding {@code fromSeconds}
+   * @param fromSeconds Start, epoch seconds (inclusive)
+   * @param toSeconds End, epoch seconds (exclusive)
+   */
+  public ProductHistory getHistory(int productId, long fromSeconds, long toSeconds) {
+    if (productId < 0 || productId >= products) {
+      throw new IllegalArgumentException("Product ID must be between 0 and " + (products - 1));
+    }
+    if (toSeconds <= fromSeconds) {
+      throw new IllegalArgumentException("'to' must be after 'from'");
+    }
+    Tier tier = tiers[tiers.length - 1];
+    ProductSeries productSeries;
+    synchronized (this) {
+      long nowSeconds = currentBucket < 0 ? System.currentTimeMillis() / 1000 : currentBucket * baseSeconds;
+      for (Tier candidate : tiers) {
+        if (nowSeconds - candidate.retentionSeconds <= fromSeconds) {
+          tier = candidate;
+          break;
+        }
+      }
+      productSeries = tier.series[productId];
+    }
+
+    List<long[]> points = new ArrayList<>();
+    if (productSeries != null) {
+      long interval = tier.intervalSeconds;
+      productSeries.forEach(Math.floorDiv(fromSeconds, interval), Math.floorDiv(toSeconds - 1, interval) + 1,
+          (bucket, quantity) -> points.add(new long[] {bucket * interval, quantity}));
+    }
+    return new ProductHistory(productId, tier.intervalSeconds, points);
+  }
+
+  /**
+   * Approximate heap used by all series (not counting the fixed per-product arrays)
+   */
+  public synchronized long getStoredBytes() {
+    long bytes = 0;
+    for (Tier tier : tiers) {
+      for (ProductSeries productSeries : tier.series) {
+        if (productSeries != null) {
+          bytes += productSeries.getSizeBytes();
+        }
+      }
+    }
+    return bytes;
+  }
+
+  /**
+   * Series and points held per tier
+   */
+  public synchronized List<TierStats> getTierStats() {
+    List<TierStats> stats = new ArrayList<>();
+    for (Tier tier : tiers) {
+      int series = 0;
+      long points = 0;
+      long bytes = 0;
+      for (ProductSeries productSeries : tier.series) {
+        if (productSeries != null) {
+          series++;
+          points += productSeries.getPointCount();
+          bytes += productSeries.getSizeBytes();
+        }
+      }
+      stats.add(new TierStats(tier.intervalSeconds, tier.retentionSeconds, series, points, bytes));
+    }
+    return stats;
+  }
+}
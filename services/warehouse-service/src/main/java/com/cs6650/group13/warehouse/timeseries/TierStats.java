@@ -0,0 +1,55 @@
+package com.cs6650.group13.warehouse.timeseries;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Size of one resolution tier of the time series store
+ */
+public class TierStats {
+
+  @JsonProperty("interval_seconds")
+  private long intervalSeconds;
+
+  @JsonProperty("retention_seconds")
+  private long retentionSeconds;
+
+  @JsonProperty("series")
+  private int series;
+
+  @JsonProperty("points")
+  private long points;
+
+  @JsonProperty("bytes")
+  private long bytes;
+
+  public TierStats() {
+  }
+
+  public TierStats(long intervalSeconds, long retentionSeconds, int series, long points, long bytes) {
+    this.intervalSeconds = intervalSeconds;
+    this.retentionSeconds = retentionSeconds;
+    this.series = series;
+    this.points = points;
+    this.bytes = bytes;
+  }
+
+  public long getIntervalSeconds() {
+    return intervalSeconds;
+  }
+
+  public long getRetentionSeconds() {
+    return retentionSeconds;
+  }
+
+  public int getSeries() {
+    return series;
+  }
+
+  public long getPoints() {
+    return points;
+  }
+
+  public long getBytes() {
+    return bytes;
+  }
+}
@@ -0,0 +1,54 @@
+package com.cs6650.group13.warehouse.timeseries;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-product order history (see {@link ProductTimeSeriesStore})
+ *
+ * GET /timeseries/products/{productId}?from=&to=   points in [from, to); ISO-8601 instants,
+ *                                                   default the last hour
+ * GET /timeseries                                  size of each resolution tier
+ */
+@RestController
+@RequestMapping("/timeseries")
+@ConditionalOnProperty(name = "app.timeseries.enabled", havingValue = "true", matchIfMissing = true)
+public class TimeSeriesController {
+
+  private final ProductTimeSeriesStore store;
+
+  public TimeSeriesController(ProductTimeSeriesStore store) {
+    this.store = store;
+  }
+
+  @GetMapping("/products/{productId}")
+  public ProductHistory getHistory(@PathVariable int productId,
+                                   @RequestParam(required = false) Instant from,
+                                   @RequestParam(required = false) Instant to) {
+    Instant end = to != null ? to : Instant.now();
+    Instant start = from != null ? from : end.minusSeconds(3600);
+    return store.getHistory(productId, start.getEpochSecond(), end.getEpochSecond());
+  }
+
+  @GetMapping
+  public List<TierStats> getTierStats() {
+    return store.getTierStats();
+  }
+
+  @ExceptionHandler(IllegalArgumentException.class)
+  public ResponseEntity<Map<String, Object>> handleIllegalArgument(IllegalArgumentException ex) {
+    return ResponseEntity.badRequest().body(Map.of(
+        "error", "INVALID_INPUT",
+        "message", ex.getMessage()));
+  }
+}
@@ -0,0 +1,113 @@
+package com.cs6650.group13.warehouse.transport;
+
+import com.cs6650.group13.warehouse.consumer.OrderMessageConsumer;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Consumer;
+
+/**
+ * In-process order transport for co-located deployments (cart and warehouse in one JVM)
+ *
+ * The shopping cart's in-process transport looks this bean up by name
+ * ({@code inProcessOrderSink}) and hands over each order as an int frame (see
+ * {@link OrderRingBuffer}); only JDK types cross the boundary, so neither service
+ * depends on the other's classes. One consumer thread drains the ring in batches
+ * into {@link OrderMessageConsumer#recordInProcess}, so orders get the same
+ * validation, deduplication, ledger and statistics as orders from RabbitMQ.
+ *
+ * There is no broker and no ACK: an order still in the ring when the JVM dies is lost,
+ * exactly as an unconfirmed publish would be. Use it for single-host runs and
+ * benchmarks of the business logic, not as a replacement for the queue.
+ */
+@Component(InProcessOrderReceiver.BEAN_NAME)
+@ConditionalOnProperty(name = "app.transport.in-process.enabled", havingValue = "true")
+public class InProcessOrderReceiver implements Consumer<int[]> {
+
+  public static final String BEAN_NAME = "inProcessOrderSink";
+
+  private static final Logger logger = LoggerFactory.getLogger(InProcessOrderReceiver.class);
+
+  private final OrderRingBuffer ring;
+  private final OrderMessageConsumer consumer;
+  private final DistributionSummary batchSizes;
+
+  private volatile boolean running;
+  private Thread worker;
+
+  public InProcessOrderReceiver(OrderMessageConsumer consumer,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.transport.in-process.ring-size:65536}") int ringSize) {
+    this.consumer = consumer;
+    this.ring = new OrderRingBuffer(ringSize);
+    this.batchSizes = DistributionSummary.builder("warehouse.transport.batch.size")
+        .description("Orders handed to the warehouse per ring-buffer batch")
+        .register(meterRegistry);
+    Gauge.builder("warehouse.transport.backlog", ring, OrderRingBuffer::getBacklog)
+        .description("Orders waiting in the in-process ring buffer")
+        .register(meterRegistry);
+  }
+
+  @PostConstruct
+  public void start() {
+    running = true;
+    worker = new Thread(this::run, "in-process-orders");
+    worker.setDaemon(true);
+    worker.start();
+    logger.info("In-process order transport started (ring size {})", ring.getCapacity());
+  }
+
+  /**
+   * Publish one order frame from the shopping cart
+   */
+  @Override
+  public void accept(int[] frame) {
+    if (!running) {
+      throw new IllegalStateException("In-process order transport is stopped");
+    }
+    ring.publish(frame);
+  }
+
+  private void run() {
+    int idle = 0;
+    while (running || ring.getBacklog() > 0) {
+      int handled = ring.drain((order, sequence, endOfBatch) -> {
+        try {
+          consumer.recordInProcess(order);
+        } catch (Exception e) {
+          logger.error("Error processing in-process order {}: {}", order.getOrderId(), e.getMessage(), e);
+        }
+      });
+      if (handled > 0) {
+        batchSizes.record(handled);
+        idle = 0;
+      } else {
+        idle = OrderRingBuffer.backOff(idle);
+      }
+    }
+  }
+
+  /**
+   * Stop accepting orders and drain what is already in the ring
+   */
+  @PreDestroy
+  public void stop() throws InterruptedException {
+    running = false;
+    if (worker != null) {
+      worker.join(10_000);
+    }
+    logger.info("In-process order transport stopped");
+  }
+
+  public OrderRingBuffer getRing() {
+    return ring;
+  }
+}
@@ -0,0 +1,151 @@
+package com.cs6650.group13.warehouse.transport;
+
+import com.cs6650.group13.warehouse.model.OrderView;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Pre-allocated, lock-free multi-producer / single-consumer ring of orders
+ * (the Disruptor's multi-producer sequencer, reduced to what the warehouse needs)
+ *
+ * - Every slot is an {@link OrderView} allocated up front and overwritten in place
+ * - Producers claim a sequence with one getAndIncrement, fill the slot, then publish
+ *   it by writing the sequence's lap number into the slot's availability flag
+ * - The consumer reads every contiguous published slot in one go and hands them to
+ *   the handler as a batch, then releases them all with a single write
+ * - A full ring makes producers spin, then park, until the consumer catches up
+ *
+ * Frames use the cart's hand-off layout:
+ * [orderId, shoppingCartId, customerId, itemCount, productId0, quantity0, ...]
+ */
+public class OrderRingBuffer {
+
+  /**
+   * Receives published orders on the consumer thread
+   */
+  @FunctionalInterface
+  public interface BatchHandler {
+    /**
+     * @param order The slot holding the order; only valid until this call returns
+     * @param sequence The order's sequence in the ring
+     * @param endOfBatch Whether this is the last order of the current batch
+     */
+    void onOrder(OrderView order, long sequence, boolean endOfBatch);
+  }
+
+  public static final int FRAME_HEADER = 4;
+
+  private static final int SPIN_TRIES = 100;
+  private static final long PARK_NANOS = 50_000;
+
+  private final int mask;
+  private final int indexShift;
+  private final OrderView[] slots;
+  private final AtomicIntegerArray available;
+
+  // Padded so producers claiming and the consumer releasing do not share a cache line
+  private final PaddedSequence claimed = new PaddedSequence(-1);
+  private final PaddedSequence consumed = new PaddedSequence(-1);
+
+  public OrderRingBuffer(int capacity) {
+    if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+      throw new IllegalArgumentException("Ring capacity must be a power of two: " + capacity);
+    }
+    this.mask = capacity - 1;
+    this.indexShift = Integer.numberOfTrailingZeros(capacity);
+    this.slots = new OrderView[capacity];
+    this.available = new AtomicIntegerArray(capacity);
+    for (int i = 0; i < capacity; i++) {
+      slots[i] = new OrderView();
+      available.set(i, -1);
+    }
+  }
+
+  public int getCapacity() {
+    return slots.length;
+  }
+
+  /**
+   * Publish one order frame, waiting while the ring is full
+   * @return The sequence the order was published at
+   */
+  public long publish(int[] frame) {
+    long sequence = claimed.getAndIncrement() + 1;
+    long wrapPoint = sequence - slots.length;
+    int tries = 0;
+    while (wrapPoint > consumed.get()) {
+      tries = backOff(tries);
+    }
+
+    OrderView slot = slots[(int) sequence & mask];
+    slot.reset();
+    slot.setOrderId(frame[0]);
+    slot.setShoppingCartId(frame[1]);
+    slot.setCustomerId(frame[2]);
+    int itemCount = frame[3];
+    for (int i = 0; i < itemCount; i++) {
+      slot.addItem(frame[FRAME_HEADER + 2 * i], frame[FRAME_HEADER + 2 * i + 1], true);
+    }
+
+    available.lazySet((int) sequence & mask, (int) (sequence >>> indexShift));
+    return sequence;
+  }
+
+  /**
+   * Hand every published order to the handler as one batch
+   * @return The number of orders handled (0 if nothing was published)
+   */
+  public int drain(BatchHandler handler) {
+    long next = consumed.get() + 1;
+    long highest = claimed.get();
+    long last = next - 1;
+    for (long sequence = next; sequence <= highest; sequence++) {
+      if (available.get((int) sequence & mask) != (int) (sequence >>> indexShift)) {
+        break;
+      }
+      last = sequence;
+    }
+    if (last < next) {
+      return 0;
+    }
+
+    for (long sequence = next; sequence <= last; sequence++) {
+      handler.onOrder(slots[(int) sequence & mask], sequence, sequence == last);
+    }
+    consumed.lazySet(last);
+    return (int) (last - next + 1);
+  }
+
+  /**
+   * Orders published or being published but not yet consumed
+   */
+  public long getBacklog() {
+    return Math.max(0, claimed.get() - consumed.get());
+  }
+
+  public long getConsumedSequence() {
+    return consumed.get();
+  }
+
+  static int backOff(int tries) {
+    if (tries < SPIN_TRIES) {
+      Thread.onSpinWait();
+    } else if (tries < SPIN_TRIES * 2) {
+      Thread.yield();
+    } else {
+      LockSupport.parkNanos(PARK_NANOS);
+    }
+    return tries + 1;
+  }
+
+  @SuppressWarnings("unused")
+  private static final class PaddedSequence extends AtomicLong {
+    private long p1, p2, p3, p4, p5, p6, p7;
+
+    PaddedSequence(long initial) {
+      super(initial);
+    }
+  }
+}
@@ -0,0 +1,137 @@
+package com.cs6650.group13.warehouse.analytics;
+
+import com.cs6650.group13.warehouse.model.OrderView;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderSketchesTest {
+
+  private static final long DAY_START_MILLIS = 1_700_006_400_000L; // 2023-11-15T00:00:00Z
+  private static final long HOUR_MILLIS = 3_600_000L;
+
+  private static OrderSketches newSketches() {
+    return new OrderSketches(new SimpleMeterRegistry(), 12, 200, 8, 48);
+  }
+
+  private static OrderView order(int customerId, int... productIds) {
+    OrderView order = new OrderView();
+    order.setCustomerId(customerId);
+    for (int productId : productIds) {
+      order.addItem(productId, 1, true);
+    }
+    return order;
+  }
+
+  /**
+   * Relative error allowed for lgK 12: three standard errors
+   */
+  private static void assertWithinError(long expected, long estimate) {
+    double tolerance = 3 * 1.04 / Math.sqrt(4096);
+    assertEquals(expected, estimate, expected * tolerance, "estimate " + estimate + " for " + expected);
+  }
+
+  @Test
+  void testConcurrentThreadsMergeIntoAccurateEstimates() throws InterruptedException {
+    OrderSketches sketches = newSketches();
+    int threads = 4;
+    int ordersPerThread = 100_000;
+    long now = DAY_START_MILLIS + 10 * HOUR_MILLIS;
+    Thread[] workers = new Thread[threads];
+    for (int t = 0; t < threads; t++) {
+      int thread = t;
+      workers[t] = new Thread(() -> {
+        SplittableRandom random = new SplittableRandom(thread);
+        for (int i = 0; i < ordersPerThread; i++) {
+          // Customers 0..199_999, each ordering about twice across all threads; 1-7 items from 50k products
+          int items = 1 + (i % 7);
+          int[] products = new int[items];
+          for (int j = 0; j < items; j++) {
+            products[j] = random.nextInt(50_000);
+          }
+          sketches.record(order((thread * ordersPerThread + i) % 200_000, products), now);
+        }
+      });
+      workers[t].start();
+    }
+    for (Thread worker : workers) {
+      worker.join();
+    }
+
+    SketchSummary today = sketches.getToday(false, now);
+    assertEquals(threads * ordersPerThread, today.getOrders());
+    assertWithinError(200_000, today.getDistinctCustomers());
+    assertTrue(today.getDistinctCustomersLower() <= today.getDistinctCustomers()
+        && today.getDistinctCustomers() <= today.getDistinctCustomersUpper());
+    // 1.6M product picks over 50k products: all of them are seen
+    assertWithinError(50_000, today.getDistinctProducts());
+    assertEquals(4, today.getItemsPerOrderP50(), 1);
+    assertEquals(7, today.getItemsPerOrderP99());
+    assertEquals(7, today.getItemsPerOrderMax());
+  }
+
+  @Test
+  void testDayIsTheUnionOfItsHours() {
+    OrderSketches sketches = newSketches();
+    // Yesterday's last hour, then customers 0-999 at 09:00 and 500-1499 at 10:00
+    for (int c = 0; c < 300; c++) {
+      sketches.record(order(10_000 + c, 1), DAY_START_MILLIS - 1);
+    }
+    for (int c = 0; c < 1000; c++) {
+      sketches.record(order(c, c % 10), DAY_START_MILLIS + 9 * HOUR_MILLIS);
+    }
+    long now = DAY_START_MILLIS + 10 * HOUR_MILLIS + 1;
+    for (int c = 500; c < 1500; c++) {
+      sketches.record(order(c, 100 + c % 20, 200 + c % 20), now);
+    }
+
+    SketchSummary today = sketches.getToday(true, now);
+    assertEquals(2000, today.getOrders());
+    assertWithinError(1500, today.getDistinctCustomers());
+    assertEquals(DAY_START_MILLIS / 1000, today.getPeriodStart().getEpochSecond());
+    assertNotNull(today.getSketches());
+
+    SketchSummary current = sketches.getHour(0, false, now);
+    SketchSummary previous = sketches.getHour(1, false, now);
+    assertEquals(1000, current.getOrders());
+    assertEquals(40, current.getDistinctProducts());
+    assertEquals(2, current.getItemsPerOrderP50());
+    assertEquals(10, previous.getDistinctProducts());
+    assertEquals(300, sketches.getHour(11, false, now).getOrders());
+    assertNull(current.getSketches());
+
+    // Two days on, everything has aged out of the retained hours
+    long later = now + 48 * HOUR_MILLIS;
+    sketches.record(order(1, 1), later);
+    assertEquals(1, sketches.getToday(false, later).getOrders());
+    assertEquals(0, sketches.getHour(47, false, later).getOrders());
+    assertEquals(List.of(now / HOUR_MILLIS), List.copyOf(sketches.getClosedHours().keySet()));
+    assertThrows(IllegalArgumentException.class, () -> sketches.getHour(48, false, later));
+  }
+
+  @Test
+  void testSummariesFromSeveralInstancesMerge() {
+    OrderSketches first = newSketches();
+    OrderSketches second = newSketches();
+    long now = DAY_START_MILLIS + HOUR_MILLIS;
+    for (int c = 0; c < 20_000; c++) {
+      first.record(order(c, c % 100), now);
+      second.record(order(c + 10_000, c % 100 + 50), now);
+    }
+
+    SketchSummary merged = first.merge(List.of(first.getToday(true, now), second.getToday(true, now)));
+    assertEquals(40_000, merged.getOrders());
+    assertWithinError(30_000, merged.getDistinctCustomers());
+    assertEquals(150, merged.getDistinctProducts());
+
+    SketchSummary otherPeriod = second.getHour(0, true, now);
+    assertThrows(IllegalArgumentException.class,
+        () -> first.merge(List.of(first.getToday(true, now), otherPeriod)));
+    assertThrows(IllegalArgumentException.class,
+        () -> first.merge(List.of(first.getToday(false, now))));
+  }
+}
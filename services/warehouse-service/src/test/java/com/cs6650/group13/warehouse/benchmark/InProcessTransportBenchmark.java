@@ -0,0 +1,79 @@
+package com.cs6650.group13.warehouse.benchmark;
+
+import com.cs6650.group13.warehouse.consumer.OrderMessageConsumer;
+import com.cs6650.group13.warehouse.consumer.OrderRetryRouter;
+import com.cs6650.group13.warehouse.service.WarehouseStatistics;
+import com.cs6650.group13.warehouse.transport.InProcessOrderReceiver;
+import com.cs6650.group13.warehouse.transport.OrderRingBuffer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Upper bound for the warehouse's order handling with the broker removed: cart
+ * threads publish order frames into the in-process ring, one consumer thread
+ * validates, deduplicates and records them (ledger and dedup disabled here, so this
+ * measures transport + statistics only).
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=InProcessTransportBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class InProcessTransportBenchmark {
+
+  private InProcessOrderReceiver receiver;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    OrderMessageConsumer consumer = new OrderMessageConsumer(new WarehouseStatistics(),
+        new OrderRetryRouter(null, registry));
+    receiver = new InProcessOrderReceiver(consumer, registry, 1 << 16);
+    receiver.start();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws InterruptedException {
+    receiver.stop();
+  }
+
+  @State(Scope.Thread)
+  public static class Frame {
+    private int nextOrderId;
+    private final int[] frame = new int[OrderRingBuffer.FRAME_HEADER + 10];
+
+    @Setup(Level.Trial)
+    public void setUp() {
+      nextOrderId = (int) (Thread.currentThread().threadId() << 24);
+      frame[3] = 5;
+      for (int i = 0; i < 5; i++) {
+        frame[OrderRingBuffer.FRAME_HEADER + 2 * i] = 1 + i * 37;
+        frame[OrderRingBuffer.FRAME_HEADER + 2 * i + 1] = 1 + i;
+      }
+    }
+  }
+
+  @Benchmark
+  public long publishOrder(Frame state) {
+    state.frame[0] = state.nextOrderId++;
+    return receiver.getRing().publish(state.frame);
+  }
+}
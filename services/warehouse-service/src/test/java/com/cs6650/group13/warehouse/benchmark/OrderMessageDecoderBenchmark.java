@@ -0,0 +1,94 @@
+package com.cs6650.group13.warehouse.benchmark;
+
+import com.cs6650.group13.warehouse.consumer.OrderMessageDecoder;
+import com.cs6650.group13.warehouse.model.CartItem;
+import com.cs6650.group13.warehouse.model.OrderMessage;
+import com.cs6650.group13.warehouse.model.OrderView;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoder cost per delivery: Jackson2JsonMessageConverter (OrderMessage + List of
+ * CartItem + boxed Integers) vs the streaming OrderMessageDecoder.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=OrderMessageDecoderBenchmark
+ * Add "-prof gc" after the regex (e.g. -Dbenchmark="OrderMessageDecoderBenchmark -prof gc")
+ * to see bytes allocated per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderMessageDecoderBenchmark {
+
+  // Carts in the load tests hold 1-10 products; 25 covers large orders
+  @Param({"1", "5", "25"})
+  public int items;
+
+  private Message message;
+  private Jackson2JsonMessageConverter jackson;
+  private OrderMessageDecoder decoder;
+  private OrderView view;
+
+  @Setup
+  public void setUp() throws Exception {
+    List<CartItem> cartItems = new ArrayList<>();
+    for (int i = 0; i < items; i++) {
+      cartItems.add(new CartItem(1 + i * 37, 1 + i % 5));
+    }
+    OrderMessage order = new OrderMessage(100_123, 4_567, 891, cartItems);
+    order.setTimestamp(Instant.parse("2025-10-28T12:34:56.789Z").toString());
+    byte[] body = new ObjectMapper().writeValueAsBytes(order);
+
+    MessageProperties properties = new MessageProperties();
+    properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+    properties.setInferredArgumentType(OrderMessage.class);
+    message = new Message(body, properties);
+
+    jackson = new Jackson2JsonMessageConverter();
+    decoder = new OrderMessageDecoder();
+    view = new OrderView();
+  }
+
+  @Benchmark
+  public long jackson2JsonMessageConverter() {
+    OrderMessage order = (OrderMessage) jackson.fromMessage(message);
+    long sum = order.getOrderId();
+    for (CartItem item : order.getItems()) {
+      sum += item.getProductId() + item.getQuantity();
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public long streamingDecoder() {
+    OrderView order = decoder.decode(message.getBody(), view);
+    long sum = order.getOrderId();
+    int[] productIds = order.getProductIds();
+    int[] quantities = order.getQuantities();
+    for (int i = 0; i < order.getItemCount(); i++) {
+      sum += productIds[i] + quantities[i];
+    }
+    return sum;
+  }
+}
@@ -0,0 +1,98 @@
+package com.cs6650.group13.warehouse.benchmark;
+
+import com.cs6650.group13.warehouse.analytics.OrderSketches;
+import com.cs6650.group13.warehouse.model.OrderView;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of feeding one order (1-10 items, Zipf-skewed products, a million customers) to
+ * the order sketches from 4 consumer threads; compare lgK (HLL size/accuracy) and
+ * stripes = 1 (every thread on one lock) with the default 8. The same order is also
+ * read on its own as a baseline ({@code baseline}).
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=OrderSketchesBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class OrderSketchesBenchmark {
+
+  private static final int ORDERS = 1 << 14;
+
+  @Param({"10", "12", "14"})
+  public int lgK;
+
+  @Param({"1", "8"})
+  public int stripes;
+
+  private OrderSketches sketches;
+  private OrderView[] orders;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    sketches = new OrderSketches(new SimpleMeterRegistry(), lgK, 200, stripes, 48);
+    SplittableRandom random = new SplittableRandom(42);
+    int[] products = StockLedgerBenchmark.zipfSamples(10_000, 1.0, ORDERS * 10, random);
+    orders = new OrderView[ORDERS];
+    for (int i = 0; i < ORDERS; i++) {
+      OrderView order = new OrderView();
+      order.setCustomerId(random.nextInt(1_000_000));
+      int items = 1 + random.nextInt(10);
+      for (int j = 0; j < items; j++) {
+        order.addItem(products[i * 10 + j], 1, true);
+      }
+      orders[i] = order;
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class Cursor {
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+      next = (int) (Thread.currentThread().threadId() * 7919) & (ORDERS - 1);
+    }
+
+    private int next() {
+      next = (next + 1) & (ORDERS - 1);
+      return next;
+    }
+  }
+
+  @Benchmark
+  public long baseline(Cursor cursor) {
+    OrderView order = orders[cursor.next()];
+    long sum = order.getCustomerId();
+    int[] productIds = order.getProductIds();
+    for (int i = 0; i < order.getItemCount(); i++) {
+      sum += productIds[i];
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public void record(Cursor cursor) {
+    sketches.record(orders[cursor.next()]);
+  }
+}
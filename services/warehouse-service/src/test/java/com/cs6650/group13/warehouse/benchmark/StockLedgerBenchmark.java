@@ -0,0 +1,105 @@
+package com.cs6650.group13.warehouse.benchmark;
+
+import com.cs6650.group13.warehouse.inventory.StockLedger;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checkout reservations against the stock ledger with a Zipf-skewed product mix:
+ * each operation reserves a 2-item order and releases it again, so stock stays level.
+ * With skew 1.2 about a fifth of all items are the single hottest product; compare
+ * stripes = 1 (one CAS counter per product) with the default 8.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=StockLedgerBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class StockLedgerBenchmark {
+
+  private static final int PRODUCTS = 10_000;
+  private static final int SAMPLES = 1 << 16;
+
+  @Param({"1", "8"})
+  public int stripes;
+
+  @Param({"0.0", "1.2"})
+  public double skew;
+
+  private StockLedger ledger;
+  private int[] productSamples;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    ledger = new StockLedger(new SimpleMeterRegistry(), PRODUCTS, stripes, 1_000_000, 60_000);
+    productSamples = zipfSamples(PRODUCTS, skew, SAMPLES, new SplittableRandom(42));
+  }
+
+  /**
+   * Product IDs drawn from a Zipf distribution (rank 1 = product 0); skew 0 is uniform
+   */
+  static int[] zipfSamples(int products, double skew, int count, SplittableRandom random) {
+    double[] cumulative = new double[products];
+    double total = 0;
+    for (int rank = 1; rank <= products; rank++) {
+      total += 1.0 / Math.pow(rank, skew);
+      cumulative[rank - 1] = total;
+    }
+    int[] samples = new int[count];
+    for (int i = 0; i < count; i++) {
+      double u = random.nextDouble() * total;
+      int low = 0;
+      int high = products - 1;
+      while (low < high) {
+        int mid = (low + high) >>> 1;
+        if (cumulative[mid] < u) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+      samples[i] = low;
+    }
+    return samples;
+  }
+
+  @State(Scope.Thread)
+  public static class Order {
+    private final int[] productIds = new int[2];
+    private final int[] quantities = {1, 2};
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+      next = (int) (Thread.currentThread().threadId() * 7919) & (SAMPLES - 1);
+    }
+  }
+
+  @Benchmark
+  public boolean reserveAndRelease(Order order) {
+    order.productIds[0] = productSamples[order.next];
+    order.productIds[1] = productSamples[(order.next + 1) & (SAMPLES - 1)];
+    order.next = (order.next + 2) & (SAMPLES - 1);
+    long reservationId = ledger.reserve(order.productIds, order.quantities, 2);
+    return ledger.release(reservationId);
+  }
+}
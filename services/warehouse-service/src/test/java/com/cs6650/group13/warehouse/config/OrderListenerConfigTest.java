@@ -0,0 +1,297 @@
+package com.cs6650.group13.warehouse.config;
+
+import com.cs6650.group13.warehouse.consumer.AdaptiveConsumerController;
+import com.cs6650.group13.warehouse.consumer.ConsumerMetrics;
+import com.cs6650.group13.warehouse.consumer.OrderMessageConsumer;
+import com.cs6650.group13.warehouse.consumer.OrderMessageDecoder;
+import com.cs6650.group13.warehouse.consumer.OrderRetryRouter;
+import com.cs6650.group13.warehouse.model.OrderView;
+import com.cs6650.group13.warehouse.service.WarehouseStatistics;
+import com.rabbitmq.client.Channel;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerEndpoint;
+import org.springframework.amqp.rabbit.listener.DirectMessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.api.ChannelAwareMessageListener;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.amqp.ConnectionFactoryCustomizer;
+import org.springframework.boot.autoconfigure.amqp.RabbitAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.ConnectException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class OrderListenerConfigTest {
+
+  private static final String QUEUE = "warehouse-orders-queue";
+
+  // Listener containers are created but never started, so no broker is needed
+  private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+      .withConfiguration(AutoConfigurations.of(RabbitAutoConfiguration.class))
+      .withUserConfiguration(RabbitMQConfig.class, OrderListenerConfig.class)
+      .withBean(OrderMessageConsumer.class, () -> mock(OrderMessageConsumer.class))
+      .withPropertyValues(
+          "app.rabbitmq.queue-name=" + QUEUE,
+          "app.rabbitmq.retry.exchange-name=warehouse-orders-retry-exchange",
+          "app.rabbitmq.retry.max-attempts=3",
+          "app.rabbitmq.retry.initial-delay-ms=1000",
+          "app.rabbitmq.retry.multiplier=5",
+          "spring.rabbitmq.listener.simple.auto-startup=false",
+          "spring.rabbitmq.listener.direct.auto-startup=false");
+
+  private OrderListenerConfig config(OrderMessageConsumer consumer, int partitions) {
+    OrderListenerConfig config = new OrderListenerConfig(consumer, new OrderMessageDecoder());
+    ReflectionTestUtils.setField(config, "queueName", QUEUE);
+    ReflectionTestUtils.setField(config, "partitions", partitions);
+    ReflectionTestUtils.setField(config, "partitionConcurrency", "1");
+    return config;
+  }
+
+  private static Message order(int orderId, int productId, int quantity, long deliveryTag) {
+    String json = "{\"order_id\":" + orderId + ",\"shopping_cart_id\":1,\"customer_id\":" + orderId
+        + ",\"items\":[{\"productId\":" + productId + ",\"quantity\":" + quantity + "}]}";
+    MessageProperties properties = new MessageProperties();
+    properties.setDeliveryTag(deliveryTag);
+    return new Message(json.getBytes(StandardCharsets.UTF_8), properties);
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {1, 4, 16})
+  void testOneEndpointPerPartitionQueue(int partitions) {
+    OrderListenerConfig config = config(mock(OrderMessageConsumer.class), partitions);
+
+    Set<String> ids = new HashSet<>();
+    Set<String> queues = new HashSet<>();
+    for (int partition = 0; partition < partitions; partition++) {
+      SimpleRabbitListenerEndpoint endpoint = config.endpoint(partition, partitions);
+      ids.add(endpoint.getId());
+      queues.addAll(endpoint.getQueueNames());
+      assertEquals(partitions > 1 ? 1 : null,
+          endpoint.getConcurrency() == null ? null : Integer.parseInt(endpoint.getConcurrency()));
+    }
+
+    assertEquals(partitions, ids.size());
+    assertEquals(partitions, queues.size());
+    if (partitions == 1) {
+      assertEquals(Set.of(OrderMessageConsumer.LISTENER_ID), ids);
+      assertEquals(Set.of(QUEUE), queues);
+    }
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {1, 4, 16})
+  void testPartitionConsumersRecordIntoTheirOwnStatistics(int partitions) throws Exception {
+    WarehouseStatistics statistics = new WarehouseStatistics(partitions);
+    OrderMessageConsumer consumer = new OrderMessageConsumer(statistics, mock(OrderRetryRouter.class));
+    OrderListenerConfig config = config(consumer, partitions);
+
+    int ordersPerPartition = 500;
+    ExecutorService executor = Executors.newFixedThreadPool(partitions);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int p = 0; p < partitions; p++) {
+      ChannelAwareMessageListener listener =
+          (ChannelAwareMessageListener) config.endpoint(p, partitions).getMessageListener();
+      int partition = p;
+      futures.add(executor.submit(() -> {
+        Channel channel = mock(Channel.class);
+        for (int i = 0; i < ordersPerPartition; i++) {
+          int orderId = partition * ordersPerPartition + i;
+          listener.onMessage(order(orderId, 100 + partition, 2, i + 1), channel);
+        }
+        return null;
+      }));
+    }
+    for (Future<?> future : futures) {
+      future.get();
+    }
+    executor.shutdown();
+
+    assertEquals(partitions * ordersPerPartition, statistics.getTotalOrders());
+    assertEquals(partitions * ordersPerPartition * 2L, statistics.getTotalQuantity());
+    for (int partition = 0; partition < partitions; partition++) {
+      assertEquals(ordersPerPartition, statistics.getPartitionOrders(partition));
+      assertEquals(ordersPerPartition * 2L, statistics.getProductQuantity(100 + partition));
+    }
+  }
+
+  @Test
+  void testConsumerMetricsCoverDecodeProcessAckAndRedeliveries() throws Exception {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    ConsumerMetrics metrics = new ConsumerMetrics(registry);
+    OrderRetryRouter retryRouter = mock(OrderRetryRouter.class);
+    doThrow(new AmqpConnectException(new ConnectException()))
+        .when(retryRouter).retryOrPark(any(Message.class), anyString());
+    OrderMessageConsumer consumer = new OrderMessageConsumer(new WarehouseStatistics(1), retryRouter);
+    ReflectionTestUtils.setField(consumer, "metrics", metrics);
+    OrderListenerConfig config = config(consumer, 1);
+    ReflectionTestUtils.setField(config, "metrics", metrics);
+
+    ChannelAwareMessageListener listener =
+        (ChannelAwareMessageListener) config.endpoint(0, 1).getMessageListener();
+    Channel channel = mock(Channel.class);
+    listener.onMessage(order(1, 100, 2, 1), channel);
+    Message redelivered = order(2, 100, 1, 2);
+    redelivered.getMessageProperties().setRedelivered(true);
+    listener.onMessage(redelivered, channel);
+    // Retry exchange unavailable: the invalid order is NACK'd back to the queue
+    MessageProperties properties = new MessageProperties();
+    properties.setDeliveryTag(3);
+    listener.onMessage(new Message("{\"order_id\":3,\"items\":[{\"productId\":100}]}"
+        .getBytes(StandardCharsets.UTF_8), properties), channel);
+
+    assertEquals(3, registry.get("warehouse.consumer.decode").timer().count());
+    assertEquals(2, registry.get("warehouse.consumer.process").timer().count());
+    assertEquals(2, registry.get("warehouse.consumer.ack").timer().count());
+    assertEquals(1, registry.get("warehouse.consumer.redelivered").counter().count());
+    assertEquals(1, registry.get("warehouse.consumer.nacked").counter().count());
+    assertEquals(3, registry.get("warehouse.consumer.order.items").summary().count());
+  }
+
+  private static Collection<MessageListenerContainer> containers(ApplicationContext context) {
+    return context.getBean(RabbitListenerEndpointRegistry.class).getListenerContainers();
+  }
+
+  @Test
+  void testSimpleContextAcceptsAConcurrencyRange() {
+    contextRunner
+        .withPropertyValues("spring.rabbitmq.listener.type=simple",
+            "app.rabbitmq.partitions=4", "app.rabbitmq.partition-concurrency=2-4")
+        .run(context -> {
+          assertNull(context.getStartupFailure());
+          assertEquals(4, containers(context).size());
+          for (MessageListenerContainer container : containers(context)) {
+            assertInstanceOf(SimpleMessageListenerContainer.class, container);
+            assertEquals(2, ReflectionTestUtils.getField(container, "concurrentConsumers"));
+            assertEquals(4, ReflectionTestUtils.getField(container, "maxConcurrentConsumers"));
+            assertFalse(container.isRunning());
+          }
+        });
+  }
+
+  @Test
+  void testDirectContextMapsAConcurrencyRangeToConsumersPerQueue() {
+    contextRunner
+        .withPropertyValues("spring.rabbitmq.listener.type=direct",
+            "app.rabbitmq.partitions=4", "app.rabbitmq.partition-concurrency=2-4")
+        .run(context -> {
+          assertNull(context.getStartupFailure());
+          assertEquals(4, containers(context).size());
+          for (MessageListenerContainer container : containers(context)) {
+            assertInstanceOf(DirectMessageListenerContainer.class, container);
+            assertEquals(4, ReflectionTestUtils.getField(container, "consumersPerQueue"));
+            assertFalse(container.isRunning());
+          }
+        });
+  }
+
+  @Test
+  void testAdaptiveControllerAcceptsAConcurrencyRange() {
+    contextRunner
+        .withUserConfiguration(AdaptiveConsumerController.class)
+        .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+        .withPropertyValues("app.consumer.adaptive.enabled=true",
+            "app.rabbitmq.partitions=4", "app.rabbitmq.partition-concurrency=2-4")
+        .run(context -> {
+          assertNull(context.getStartupFailure());
+          assertEquals(8, context.getBean(AdaptiveConsumerController.class).getConcurrency());
+        });
+  }
+
+  @Test
+  void testDirectContextUsesConsumersPerQueueForASinglePartition() {
+    contextRunner
+        .withPropertyValues("spring.rabbitmq.listener.type=direct",
+            "spring.rabbitmq.listener.direct.consumers-per-queue=7")
+        .run(context -> {
+          MessageListenerContainer container = containers(context).iterator().next();
+          assertInstanceOf(DirectMessageListenerContainer.class, container);
+          assertEquals(7, ReflectionTestUtils.getField(container, "consumersPerQueue"));
+        });
+  }
+
+  @Test
+  void testVirtualThreadContextDispatchesOnVirtualThreads() {
+    contextRunner
+        .withPropertyValues("spring.rabbitmq.listener.type=direct", "spring.threads.virtual.enabled=true")
+        .run(context -> {
+          assertNull(context.getStartupFailure());
+          assertTrue(context.containsBean("virtualThreadDispatchCustomizer"));
+          assertInstanceOf(ConnectionFactoryCustomizer.class, context.getBean("virtualThreadDispatchCustomizer"));
+          assertInstanceOf(DirectMessageListenerContainer.class, containers(context).iterator().next());
+        });
+  }
+
+  @Test
+  void testInvalidPartitionConcurrencyFailsAtStartup() {
+    contextRunner
+        .withPropertyValues("app.rabbitmq.partitions=4", "app.rabbitmq.partition-concurrency=two")
+        .run(context -> {
+          Throwable failure = context.getStartupFailure();
+          assertNotNull(failure);
+          while (failure.getCause() != null && !(failure instanceof IllegalArgumentException)) {
+            failure = failure.getCause();
+          }
+          assertInstanceOf(IllegalArgumentException.class, failure);
+          assertTrue(failure.getMessage().contains("partition-concurrency"));
+        });
+  }
+
+  @Test
+  void testVirtualThreadDeliveriesReuseAPooledOrderView() throws Exception {
+    OrderMessageConsumer consumer = mock(OrderMessageConsumer.class);
+    OrderListenerConfig config = config(consumer, 1);
+    ReflectionTestUtils.setField(config, "virtualThreads", true);
+    ChannelAwareMessageListener listener =
+        (ChannelAwareMessageListener) config.endpoint(0, 1).getMessageListener();
+    Channel channel = mock(Channel.class);
+
+    // Each delivery on its own virtual thread, as with the AMQP client's virtual dispatch
+    for (int i = 1; i <= 3; i++) {
+      Message message = order(i, 100, 1, i);
+      Thread delivery = Thread.ofVirtual().start(() -> {
+        try {
+          listener.onMessage(message, channel);
+        } catch (Exception e) {
+          throw new IllegalStateException(e);
+        }
+      });
+      delivery.join();
+    }
+
+    ArgumentCaptor<OrderView> views = ArgumentCaptor.forClass(OrderView.class);
+    verify(consumer, times(3))
+        .receiveOrder(views.capture(), any(Channel.class), anyLong(), any(Message.class), anyInt());
+    assertSame(views.getAllValues().get(0), views.getAllValues().get(1));
+    assertSame(views.getAllValues().get(0), views.getAllValues().get(2));
+  }
+}
@@ -0,0 +1,89 @@
+package com.cs6650.group13.warehouse.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RabbitMQConfigTest {
+
+  private static final String QUEUE = "warehouse-orders-queue";
+  private static final String RETRY_EXCHANGE = "warehouse-orders-retry-exchange";
+
+  private static Declarables declarables(int partitions) {
+    RabbitMQConfig config = new RabbitMQConfig();
+    ReflectionTestUtils.setField(config, "queueName", QUEUE);
+    ReflectionTestUtils.setField(config, "partitions", partitions);
+    ReflectionTestUtils.setField(config, "retryExchangeName", RETRY_EXCHANGE);
+    ReflectionTestUtils.setField(config, "maxAttempts", 3);
+    ReflectionTestUtils.setField(config, "initialDelayMs", 1000L);
+    ReflectionTestUtils.setField(config, "multiplier", 5.0);
+    return config.orderRetryDeclarables();
+  }
+
+  private static Map<String, Queue> queues(Declarables declarables) {
+    return declarables.getDeclarablesByType(Queue.class).stream()
+        .collect(Collectors.toMap(Queue::getName, queue -> queue));
+  }
+
+  @Test
+  void testRetryQueuesDelayAndDeadLetterBackToTheWorkQueue() {
+    Map<String, Queue> queues = queues(declarables(1));
+
+    long[] delays = {1000, 5000, 25000};
+    for (int attempt = 1; attempt <= 3; attempt++) {
+      Queue retryQueue = queues.get(RabbitMQConfig.retryQueueName(QUEUE, attempt));
+      assertNotNull(retryQueue, "retry queue " + attempt);
+      assertTrue(retryQueue.isDurable());
+      Map<String, Object> arguments = retryQueue.getArguments();
+      assertEquals((int) delays[attempt - 1], arguments.get("x-message-ttl"));
+      assertEquals("", arguments.get("x-dead-letter-exchange"));
+      assertEquals(QUEUE, arguments.get("x-dead-letter-routing-key"));
+    }
+    // The work queue keeps the argument-free definition the cart declares
+    assertTrue(queues.get(QUEUE).getArguments().isEmpty());
+    assertTrue(queues.containsKey(RabbitMQConfig.parkingLotQueueName(QUEUE)));
+    assertEquals(5, queues.size());
+  }
+
+  @Test
+  void testEachTierAndTheParkingLotAreBoundToTheRetryExchange() {
+    Declarables declarables = declarables(1);
+    List<DirectExchange> exchanges = declarables.getDeclarablesByType(DirectExchange.class);
+    assertEquals(1, exchanges.size());
+    assertEquals(RETRY_EXCHANGE, exchanges.get(0).getName());
+
+    Map<String, String> queueByRoutingKey = declarables.getDeclarablesByType(Binding.class).stream()
+        .peek(binding -> assertEquals(RETRY_EXCHANGE, binding.getExchange()))
+        .collect(Collectors.toMap(Binding::getRoutingKey, Binding::getDestination));
+    assertEquals(Map.of(
+        "retry.1", RabbitMQConfig.retryQueueName(QUEUE, 1),
+        "retry.2", RabbitMQConfig.retryQueueName(QUEUE, 2),
+        "retry.3", RabbitMQConfig.retryQueueName(QUEUE, 3),
+        RabbitMQConfig.PARKED_ROUTING_KEY, RabbitMQConfig.parkingLotQueueName(QUEUE)), queueByRoutingKey);
+  }
+
+  @Test
+  void testPartitionedRetryQueuesAreSharedAndKeepTheCcRoute() {
+    Map<String, Queue> queues = queues(declarables(4));
+
+    Set<String> partitionQueues = Set.of(QUEUE + ".0", QUEUE + ".1", QUEUE + ".2", QUEUE + ".3");
+    assertTrue(queues.keySet().containsAll(partitionQueues));
+    assertFalse(queues.containsKey(QUEUE));
+    for (int attempt = 1; attempt <= 3; attempt++) {
+      Map<String, Object> arguments = queues.get(RabbitMQConfig.retryQueueName(QUEUE, attempt)).getArguments();
+      assertEquals("", arguments.get("x-dead-letter-exchange"));
+      // No fixed key: the broker dead-letters by the message's CC header (its own partition)
+      assertFalse(arguments.containsKey("x-dead-letter-routing-key"));
+    }
+  }
+}
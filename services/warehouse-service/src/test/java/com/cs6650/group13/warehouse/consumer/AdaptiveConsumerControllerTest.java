@@ -0,0 +1,110 @@
+package com.cs6650.group13.warehouse.consumer;
+
+import com.cs6650.group13.warehouse.config.RabbitMQConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.listener.DirectMessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class AdaptiveConsumerControllerTest {
+
+  private static final String QUEUE = "warehouse-orders-queue";
+  private static final int PARTITIONS = 4;
+
+  private final RabbitListenerEndpointRegistry registry = mock(RabbitListenerEndpointRegistry.class);
+  private final AmqpAdmin amqpAdmin = mock(AmqpAdmin.class);
+
+  private AdaptiveConsumerController controller(String partitionConcurrency, String listenerType) {
+    AdaptiveConsumerController controller = new AdaptiveConsumerController(registry, amqpAdmin,
+        new SimpleMeterRegistry(), PARTITIONS, partitionConcurrency, listenerType, 1, 1, 250,
+        1, 200, 1, 250, 10000, 50, 0.2, 3, 50);
+    ReflectionTestUtils.setField(controller, "queueName", QUEUE);
+    return controller;
+  }
+
+  private <C extends MessageListenerContainer> List<C> containers(Supplier<C> factory) {
+    List<C> containers = new ArrayList<>();
+    for (int partition = 0; partition < PARTITIONS; partition++) {
+      C container = factory.get();
+      when(container.isRunning()).thenReturn(true);
+      containers.add(container);
+      when(registry.getListenerContainer(OrderMessageConsumer.listenerId(partition, PARTITIONS)))
+          .thenReturn(container);
+      String queue = RabbitMQConfig.partitionQueueName(QUEUE, partition, PARTITIONS);
+      when(amqpAdmin.getQueueInfo(queue)).thenReturn(new QueueInformation(queue, 100_000, 1));
+    }
+    return containers;
+  }
+
+  // A deep backlog and 10 ms per order: the policy wants far more consumers than allowed
+  private static void backlog(AdaptiveConsumerController controller) {
+    for (int i = 0; i < 100; i++) {
+      controller.recordCompleted(10_000_000, 0);
+    }
+    controller.tick();
+  }
+
+  @Test
+  void testSinglePartitionConsumerIsNeverScaledUp() {
+    List<SimpleMessageListenerContainer> containers = containers(() -> mock(SimpleMessageListenerContainer.class));
+    AdaptiveConsumerController controller = controller("1", "simple");
+
+    backlog(controller);
+    backlog(controller);
+
+    assertEquals(PARTITIONS, controller.getConcurrency());
+    for (SimpleMessageListenerContainer container : containers) {
+      verify(container, never()).setConcurrentConsumers(anyInt());
+      verify(container, never()).setMaxConcurrentConsumers(anyInt());
+    }
+  }
+
+  @Test
+  void testRangeStartsAtItsMinimumAndIsCappedAtItsMaximum() {
+    List<SimpleMessageListenerContainer> containers = containers(() -> mock(SimpleMessageListenerContainer.class));
+    AdaptiveConsumerController controller = controller("2-5", "simple");
+    assertEquals(PARTITIONS * 2, controller.getConcurrency());
+
+    backlog(controller);
+    backlog(controller);
+
+    assertEquals(PARTITIONS * 5, controller.getConcurrency());
+    for (SimpleMessageListenerContainer container : containers) {
+      verify(container).setMaxConcurrentConsumers(5);
+      verify(container).setConcurrentConsumers(5);
+    }
+  }
+
+  @Test
+  void testDirectContainersStayAtTheRangeMaximum() {
+    List<DirectMessageListenerContainer> containers = containers(() -> mock(DirectMessageListenerContainer.class));
+    AdaptiveConsumerController controller = controller("2-5", "direct");
+    assertEquals(PARTITIONS * 5, controller.getConcurrency());
+
+    backlog(controller);
+
+    for (DirectMessageListenerContainer container : containers) {
+      verify(container, never()).setConsumersPerQueue(anyInt());
+    }
+  }
+
+  @Test
+  void testInvalidPartitionConcurrencyIsRejected() {
+    IllegalArgumentException e =
+        assertThrows(IllegalArgumentException.class, () -> controller("5-2", "simple"));
+    assertTrue(e.getMessage().contains("partition-concurrency"));
+  }
+}
@@ -0,0 +1,103 @@
+package com.cs6650.group13.warehouse.consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsumerScalingPolicyTest {
+
+  private static final long SECOND = 1_000_000_000L;
+  // 1 ms per order (0.2 ms processing + 0.8 ms ack) -> 1000 orders/s per consumer
+  private static final long PROCESSING = 200_000L;
+  private static final long ACK = 800_000L;
+
+  private ConsumerScalingPolicy policy;
+
+  @BeforeEach
+  void setUp() {
+    // 1-20 consumers, prefetch 1-100, 10 s drain target, 50 ms prefetch buffer,
+    // 20% hysteresis, 3 ticks to scale down, 4 consumers per step
+    policy = new ConsumerScalingPolicy(1, 20, 1, 100, 10_000, 50, 0.2, 3, 4);
+  }
+
+  private ConsumerScalingPolicy.Decision tick(long depth, long completed, int concurrency, int prefetch) {
+    return policy.evaluate(depth, completed, completed * PROCESSING, completed * ACK, SECOND,
+        concurrency, prefetch);
+  }
+
+  @Test
+  void testScalesUpInBoundedSteps() {
+    // 5000 completed/s and a 50k backlog: 5000/s arrivals + 5000/s drain = 10 consumers
+    ConsumerScalingPolicy.Decision decision = tick(50_000, 5_000, 5, 1);
+
+    assertEquals(10, decision.neededConsumers());
+    assertEquals(9, decision.concurrency());
+    assertEquals("backlog", decision.reason());
+    assertEquals(1000.0, decision.perConsumerRate(), 1e-6);
+  }
+
+  @Test
+  void testHardCapOnConcurrency() {
+    ConsumerScalingPolicy.Decision decision = tick(10_000_000, 5_000, 20, 1);
+
+    assertEquals(20, decision.neededConsumers());
+    assertEquals(20, decision.concurrency());
+  }
+
+  @Test
+  void testScaleDownNeedsConsecutiveTicks() {
+    // Idle queue, ~1000 orders/s -> 1 consumer needed while running 10
+    assertEquals(10, tick(0, 1_000, 10, 1).concurrency());
+    assertEquals(10, tick(0, 1_000, 10, 1).concurrency());
+    ConsumerScalingPolicy.Decision decision = tick(0, 1_000, 10, 1);
+
+    assertEquals("idle", decision.reason());
+    assertEquals(6, decision.concurrency());
+  }
+
+  @Test
+  void testSmallDipInsideDeadbandDoesNotScaleDown() {
+    // ~9 needed with 10 running is within 20% hysteresis
+    for (int i = 0; i < 5; i++) {
+      assertEquals(10, tick(0, 9_000, 10, 1).concurrency());
+    }
+  }
+
+  @Test
+  void testBusyTickResetsScaleDownCountdown() {
+    tick(0, 1_000, 10, 1);
+    tick(0, 1_000, 10, 1);
+    tick(0, 9_000, 10, 1);
+
+    assertEquals(10, tick(0, 1_000, 10, 1).concurrency());
+    assertEquals(10, tick(0, 1_000, 10, 1).concurrency());
+  }
+
+  @Test
+  void testPrefetchFollowsRateAndBacklog() {
+    // 1000/s * 50 ms = 50, backlog per consumer is large
+    assertEquals(50, tick(1_000_000, 20_000, 20, 1).prefetch());
+
+    // Shallow queue: 40 messages over 20 consumers caps prefetch at 2
+    assertEquals(2, tick(40, 20_000, 20, 50).prefetch());
+  }
+
+  @Test
+  void testPrefetchDeadband() {
+    tick(1_000_000, 20_000, 20, 1);
+
+    // Target stays at 50; a current value of 48 is within the deadband
+    assertEquals(48, tick(1_000_000, 20_000, 20, 48).prefetch());
+  }
+
+  @Test
+  void testNoSamplesYetGrowsOnlyWithBacklog() {
+    ConsumerScalingPolicy.Decision waiting = tick(500, 0, 2, 1);
+    assertEquals(6, waiting.concurrency());
+    assertEquals(1, waiting.prefetch());
+
+    ConsumerScalingPolicy fresh = new ConsumerScalingPolicy(1, 20, 1, 100, 10_000, 50, 0.2, 3, 4);
+    assertEquals(2, fresh.evaluate(0, 0, 0, 0, SECOND, 2, 1).concurrency());
+  }
+}
@@ -0,0 +1,107 @@
+package com.cs6650.group13.warehouse.consumer;
+
+import com.cs6650.group13.warehouse.ledger.OrderLedger;
+import com.cs6650.group13.warehouse.service.WarehouseStatistics;
+import com.rabbitmq.client.Channel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class GroupCommitAcknowledgerTest {
+
+  @TempDir
+  Path directory;
+
+  private OrderLedger ledger;
+  private final List<Integer> acknowledged = Collections.synchronizedList(new ArrayList<>());
+
+  private GroupCommitAcknowledger open(long groupCommitWindowMs) throws Exception {
+    ledger = new OrderLedger(new WarehouseStatistics(), directory.toString(), 1, groupCommitWindowMs, 4);
+    ledger.open();
+    return new GroupCommitAcknowledger(ledger,
+        (delivery, durableAt, ackedAt) -> acknowledged.add(delivery.orderId()));
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    ledger.close();
+  }
+
+  private void record(GroupCommitAcknowledger acks, Channel channel, int orderId, long deliveryTag) {
+    long sequence = ledger.record(orderId, new int[] {orderId}, new int[] {1}, 1, () -> { });
+    long now = System.nanoTime();
+    acks.add(channel, new GroupCommitAcknowledger.Pending(orderId, deliveryTag, sequence, now, now, -1));
+  }
+
+  private void awaitAcknowledged(GroupCommitAcknowledger acks) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 5000;
+    while (acks.getPendingCount() > 0 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(5);
+    }
+    assertEquals(0, acks.getPendingCount());
+  }
+
+  @Test
+  void testOneMultipleAckPerChannelPerCommit() throws Exception {
+    GroupCommitAcknowledger acks = open(200);
+    Channel first = mock(Channel.class);
+    Channel second = mock(Channel.class);
+
+    for (int tag = 1; tag <= 10; tag++) {
+      record(acks, first, tag, tag);
+    }
+    for (int tag = 1; tag <= 3; tag++) {
+      record(acks, second, 100 + tag, tag);
+    }
+    // The listener returned without waiting for the commit
+    assertEquals(13, acks.getPendingCount());
+    verify(first, never()).basicAck(anyLong(), anyBoolean());
+
+    awaitAcknowledged(acks);
+    verify(first).basicAck(10, true);
+    verify(second).basicAck(3, true);
+    verify(first, times(1)).basicAck(anyLong(), anyBoolean());
+    verify(second, times(1)).basicAck(anyLong(), anyBoolean());
+    assertEquals(13, acknowledged.size());
+  }
+
+  @Test
+  void testDeliveryRecordedAfterTheLastCommitIsStillAcked() throws Exception {
+    GroupCommitAcknowledger acks = open(0);
+    Channel channel = mock(Channel.class);
+
+    record(acks, channel, 1, 1);
+    awaitAcknowledged(acks);
+    record(acks, channel, 2, 2);
+    awaitAcknowledged(acks);
+
+    verify(channel).basicAck(1, true);
+    verify(channel).basicAck(2, true);
+    assertEquals(List.of(1, 2), acknowledged);
+  }
+
+  @Test
+  void testClosedChannelDropsItsDeliveries() throws Exception {
+    GroupCommitAcknowledger acks = open(50);
+    Channel channel = mock(Channel.class);
+    doThrow(new IOException("channel closed")).when(channel).basicAck(anyLong(), anyBoolean());
+
+    record(acks, channel, 1, 1);
+    record(acks, channel, 2, 2);
+    awaitAcknowledged(acks);
+
+    // Unacknowledged, so the broker redelivers both; deduplication skips the recorded orders
+    assertTrue(acknowledged.isEmpty());
+  }
+}
@@ -0,0 +1,97 @@
+package com.cs6650.group13.warehouse.consumer;
+
+import com.cs6650.group13.warehouse.model.OrderView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderMessageDecoderTest {
+
+  private OrderMessageDecoder decoder;
+  private OrderView view;
+
+  @BeforeEach
+  void setUp() {
+    decoder = new OrderMessageDecoder();
+    view = new OrderView(2);
+  }
+
+  private OrderView decode(String json) {
+    return decoder.decode(json.getBytes(StandardCharsets.UTF_8), view);
+  }
+
+  @Test
+  void testDecodeOrder() {
+    OrderView order = decode("{\"order_id\":1001,\"shopping_cart_id\":1,\"customer_id\":100,"
+        + "\"items\":[{\"productId\":5,\"quantity\":2},{\"productId\":10,\"quantity\":3},"
+        + "{\"productId\":15,\"quantity\":1}],\"timestamp\":\"2025-10-28T12:34:56.789Z\"}");
+
+    assertFalse(order.isMalformed());
+    assertFalse(order.hasInvalidItem());
+    assertTrue(order.hasOrderId());
+    assertEquals(1001, order.getOrderId());
+    assertEquals(100, order.getCustomerId());
+    assertEquals(1, order.getShoppingCartId());
+    assertEquals(3, order.getItemCount());
+    assertEquals(15, order.getProductIds()[2]);
+    assertEquals(3, order.getQuantities()[1]);
+  }
+
+  @Test
+  void testUnknownFieldsAreSkipped() {
+    OrderView order = decode("{\"extra\":{\"nested\":[1,2,{\"a\":null}]},\"order_id\":7,"
+        + "\"items\":[{\"productId\":1,\"note\":\"x\",\"quantity\":4}]}");
+
+    assertFalse(order.isMalformed());
+    assertEquals(7, order.getOrderId());
+    assertEquals(1, order.getItemCount());
+    assertEquals(4, order.getQuantities()[0]);
+  }
+
+  @Test
+  void testNullOrderId() {
+    OrderView order = decode("{\"order_id\":null,\"items\":[]}");
+
+    assertFalse(order.isMalformed());
+    assertFalse(order.hasOrderId());
+  }
+
+  @Test
+  void testNullItemFieldMarksInvalidItem() {
+    OrderView order = decode("{\"order_id\":1,\"items\":[{\"productId\":5,\"quantity\":null}]}");
+
+    assertTrue(order.hasInvalidItem());
+  }
+
+  @Test
+  void testMalformedBody() {
+    assertTrue(decode("{\"order_id\":1,\"items\":[{\"productId\":5").isMalformed());
+    assertTrue(decode("not json").isMalformed());
+    assertTrue(decode("[1,2,3]").isMalformed());
+  }
+
+  @Test
+  void testViewIsResetBetweenMessages() {
+    decode("{\"order_id\":1,\"items\":[{\"productId\":5,\"quantity\":null}]}");
+    OrderView order = decode("{\"items\":[]}");
+
+    assertFalse(order.hasOrderId());
+    assertFalse(order.hasInvalidItem());
+    assertEquals(0, order.getItemCount());
+  }
+
+  @Test
+  void testFromMessageUsesPerThreadView() {
+    Message message = new Message("{\"order_id\":42}".getBytes(StandardCharsets.UTF_8), new MessageProperties());
+
+    OrderView order = decoder.fromMessage(message);
+
+    assertSame(OrderView.forCurrentThread(), order);
+    assertEquals(42, order.getOrderId());
+  }
+}
@@ -0,0 +1,139 @@
+package com.cs6650.group13.warehouse.consumer;
+
+import com.cs6650.group13.warehouse.config.RabbitMQConfig;
+import com.cs6650.group13.warehouse.service.WarehouseStatistics;
+import com.rabbitmq.client.Channel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.ConnectException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderRetryRouterTest {
+
+  private static final String RETRY_EXCHANGE = "warehouse-orders-retry-exchange";
+
+  private final RabbitOperations operations = mock(RabbitOperations.class);
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private OrderRetryRouter router;
+
+  @BeforeEach
+  void setUp() {
+    router = router(1);
+  }
+
+  private OrderRetryRouter router(int partitions) {
+    RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+    // Run the publish-and-confirm callback against the mocked channel operations
+    when(rabbitTemplate.invoke(any())).thenAnswer(invocation ->
+        invocation.<RabbitOperations.OperationsCallback<?>>getArgument(0).doInRabbit(operations));
+    OrderRetryRouter retryRouter = new OrderRetryRouter(rabbitTemplate, registry);
+    ReflectionTestUtils.setField(retryRouter, "retryExchangeName", RETRY_EXCHANGE);
+    ReflectionTestUtils.setField(retryRouter, "maxAttempts", 3);
+    ReflectionTestUtils.setField(retryRouter, "partitions", partitions);
+    return retryRouter;
+  }
+
+  private static Message order(Integer retryCount, String consumerQueue) {
+    MessageProperties properties = new MessageProperties();
+    properties.setDeliveryTag(7);
+    properties.setConsumerQueue(consumerQueue);
+    if (retryCount != null) {
+      properties.setHeader(RabbitMQConfig.RETRY_COUNT_HEADER, retryCount);
+    }
+    return new Message("{\"order_id\":1,\"items\":[{\"productId\":100}]}".getBytes(StandardCharsets.UTF_8),
+        properties);
+  }
+
+  private Message lastPublished(String routingKey) {
+    ArgumentCaptor<Message> published = ArgumentCaptor.forClass(Message.class);
+    verify(operations).send(eq(RETRY_EXCHANGE), eq(routingKey), published.capture());
+    return published.getValue();
+  }
+
+  @Test
+  void testRetryCountHeaderGoesUpOnEachAttempt() {
+    router.retryOrPark(order(null, "warehouse-orders-queue"), "invalid item");
+    Message first = lastPublished("retry.1");
+    assertEquals(1, (Integer) first.getMessageProperties().getHeader(RabbitMQConfig.RETRY_COUNT_HEADER));
+    assertEquals("invalid item", first.getMessageProperties().getHeader("x-failure-reason"));
+    assertEquals(MessageDeliveryMode.PERSISTENT, first.getMessageProperties().getDeliveryMode());
+
+    // The broker dead-letters the republished message back with its headers intact
+    router.retryOrPark(first, "invalid item");
+    Message second = lastPublished("retry.2");
+    assertEquals(2, (Integer) second.getMessageProperties().getHeader(RabbitMQConfig.RETRY_COUNT_HEADER));
+    verify(operations, times(2)).waitForConfirmsOrDie(anyLong());
+  }
+
+  @Test
+  void testEachAttemptUsesItsTierThenTheParkingLot() {
+    for (int retryCount = 0; retryCount < 3; retryCount++) {
+      router.retryOrPark(order(retryCount, "warehouse-orders-queue"), "processing error");
+      lastPublished(RabbitMQConfig.retryRoutingKey(retryCount + 1));
+    }
+
+    router.retryOrPark(order(3, "warehouse-orders-queue"), "processing error");
+    Message parked = lastPublished(RabbitMQConfig.PARKED_ROUTING_KEY);
+    assertEquals(4, (Integer) parked.getMessageProperties().getHeader(RabbitMQConfig.RETRY_COUNT_HEADER));
+
+    for (int attempt = 1; attempt <= 3; attempt++) {
+      assertEquals(1, registry.get("warehouse.orders.retried").tag("attempt", String.valueOf(attempt))
+          .counter().count());
+    }
+    assertEquals(1, registry.get("warehouse.orders.parked").counter().count());
+  }
+
+  @Test
+  void testPartitionedOrderIsRoutedBackToItsOwnPartition() {
+    OrderRetryRouter partitioned = router(4);
+
+    partitioned.retryOrPark(order(null, "warehouse-orders-queue.2"), "invalid item");
+    assertEquals(List.of("warehouse-orders-queue.2"), lastPublished("retry.1").getMessageProperties().getHeader("CC"));
+  }
+
+  @Test
+  void testSinglePartitionRelaysOnTheRetryQueueDeadLetterKey() {
+    router.retryOrPark(order(null, "warehouse-orders-queue"), "invalid item");
+    assertNull(lastPublished("retry.1").getMessageProperties().getHeader("CC"));
+  }
+
+  @Test
+  void testFailedRetryPublishFallsBackToRequeue() throws Exception {
+    doThrow(new AmqpConnectException(new ConnectException("retry exchange down")))
+        .when(operations).send(anyString(), anyString(), any(Message.class));
+    Message message = order(null, "warehouse-orders-queue");
+    assertThrows(AmqpConnectException.class, () -> router.retryOrPark(message, "invalid item"));
+
+    OrderMessageConsumer consumer = new OrderMessageConsumer(new WarehouseStatistics(1), router);
+    Channel channel = mock(Channel.class);
+    consumer.receiveOrder(new OrderMessageDecoder().fromMessage(message), channel, 7, message, 0);
+
+    verify(channel).basicNack(7, false, true);
+    verify(channel, never()).basicAck(anyLong(), anyBoolean());
+    assertEquals(0, registry.get("warehouse.orders.parked").counter().count());
+  }
+}
@@ -0,0 +1,181 @@
+package com.cs6650.group13.warehouse.dedup;
+
+import com.cs6650.group13.warehouse.ledger.OrderLedger;
+import com.cs6650.group13.warehouse.service.WarehouseStatistics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderDeduplicatorTest {
+
+  private OrderDeduplicator deduplicator;
+
+  @BeforeEach
+  void setUp() {
+    deduplicator = new OrderDeduplicator(new SimpleMeterRegistry(), 3, 600_000);
+  }
+
+  @Test
+  void testRedeliveryIsDetected() {
+    assertTrue(deduplicator.markIfFirstSeen(1001));
+    assertFalse(deduplicator.markIfFirstSeen(1001));
+    assertTrue(deduplicator.markIfFirstSeen(1002));
+
+    assertEquals(1.0 / 3, deduplicator.getDuplicateRate(), 1e-9);
+  }
+
+  @Test
+  void testForgetAllowsRetry() {
+    assertTrue(deduplicator.markIfFirstSeen(1001));
+    deduplicator.forget(1001);
+    assertTrue(deduplicator.markIfFirstSeen(1001));
+  }
+
+  @Test
+  void testSegmentsRetireAfterRetentionWindow() {
+    deduplicator.markIfFirstSeen(1001);
+
+    deduplicator.rotate();
+    deduplicator.rotate();
+    assertFalse(deduplicator.markIfFirstSeen(1001), "Still inside the retention window");
+
+    deduplicator.rotate();
+    assertTrue(deduplicator.markIfFirstSeen(1001), "Segment holding 1001 should be retired");
+  }
+
+  @Test
+  void testRestartSeedsOnlyTheRetentionWindow(@TempDir Path directory) throws Exception {
+    OrderLedger ledger = new OrderLedger(new WarehouseStatistics(), directory.toString(), 1, 1, 4);
+    ledger.open();
+    int[] productIds = {7};
+    int[] quantities = {1};
+    // Order 1000 from an earlier cart run, then enough newer orders to seal its segment
+    long last = ledger.record(1000, productIds, quantities, 1, () -> { });
+    for (int orderId = 2_000_000; orderId < 2_040_000; orderId++) {
+      last = ledger.record(orderId, productIds, quantities, 1, () -> { });
+    }
+    ledger.awaitDurable(last);
+    ledger.close();
+
+    // The sealed segment was last written two hours ago, outside the one-hour window
+    List<Path> segmentFiles;
+    try (Stream<Path> files = Files.list(directory)) {
+      segmentFiles = files.filter(p -> p.toString().endsWith(".ledger")).sorted().toList();
+    }
+    assertTrue(segmentFiles.size() >= 2);
+    Files.setLastModifiedTime(segmentFiles.get(0),
+        FileTime.fromMillis(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(2)));
+
+    OrderLedger reopened = new OrderLedger(new WarehouseStatistics(), directory.toString(), 1, 1, 4);
+    reopened.open();
+    OrderDeduplicator restarted = new OrderDeduplicator(new SimpleMeterRegistry(), 6, 600_000);
+    ReflectionTestUtils.setField(restarted, "ledger", reopened);
+    restarted.seedFromLedger();
+    reopened.close();
+
+    assertTrue(restarted.markIfFirstSeen(1000), "An order 1000 from a new cart run is recorded again");
+    assertFalse(restarted.markIfFirstSeen(2_039_999), "Orders inside the window stay deduplicated");
+  }
+
+  @Test
+  void testBitmapSwitchesToDenseContainer() {
+    SeenOrderBitmap bitmap = new SeenOrderBitmap();
+    for (int id = 0; id < 10_000; id++) {
+      assertTrue(bitmap.add(id));
+    }
+    assertEquals(10_000, bitmap.cardinality());
+    assertTrue(bitmap.contains(4096));
+    assertFalse(bitmap.contains(10_000));
+    // Dense chunk: roughly one bit per ID rather than two bytes
+    assertTrue(bitmap.sizeInBytes() < 16_000);
+
+    assertTrue(bitmap.remove(5000));
+    assertFalse(bitmap.contains(5000));
+    assertTrue(bitmap.add(-1));
+    assertTrue(bitmap.contains(-1));
+  }
+
+  @Test
+  void testConcurrentFirstSeenIsExactlyOnce() throws InterruptedException {
+    int threads = 8;
+    int ids = 20_000;
+    AtomicInteger firstSeen = new AtomicInteger();
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    CountDownLatch latch = new CountDownLatch(threads);
+
+    // Every thread tries every ID; each must be reported first-seen exactly once
+    for (int t = 0; t < threads; t++) {
+      executor.submit(() -> {
+        try {
+          for (int id = 0; id < ids; id++) {
+            if (deduplicator.markIfFirstSeen(id * 7)) {
+              firstSeen.incrementAndGet();
+            }
+          }
+        } finally {
+          latch.countDown();
+        }
+      });
+    }
+    assertTrue(latch.await(30, TimeUnit.SECONDS));
+    executor.shutdown();
+
+    assertEquals(ids, firstSeen.get());
+  }
+
+  @Test
+  void testFirstSeenIsExactlyOnceAcrossRotations() throws Exception {
+    // More segments than rotations, so none retires during the test and every ID stays seen
+    int rotations = 500;
+    OrderDeduplicator rotating = new OrderDeduplicator(new SimpleMeterRegistry(), rotations + 1, 600_000);
+    int threads = 4;
+    int ids = 1_000;
+    int rounds = 200;
+    ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+    AtomicInteger firstSeen = new AtomicInteger();
+    CountDownLatch done = new CountDownLatch(threads);
+
+    // Each round, every thread races to mark the same fresh IDs while segments rotate
+    for (int t = 0; t < threads; t++) {
+      executor.submit(() -> {
+        try {
+          for (int round = 0; round < rounds; round++) {
+            for (int id = 0; id < ids; id++) {
+              if (rotating.markIfFirstSeen(round * ids + id)) {
+                firstSeen.incrementAndGet();
+              }
+            }
+          }
+        } finally {
+          done.countDown();
+        }
+      });
+    }
+    executor.submit(() -> {
+      for (int i = 0; i < rotations && done.getCount() > 0; i++) {
+        rotating.rotate();
+        LockSupport.parkNanos(20_000);
+      }
+    });
+    assertTrue(done.await(60, TimeUnit.SECONDS));
+    executor.shutdown();
+
+    assertEquals(rounds * ids, firstSeen.get());
+  }
+}
@@ -0,0 +1,116 @@
+package com.cs6650.group13.warehouse.export;
+
+import com.cs6650.group13.warehouse.service.WarehouseStatistics;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.management.ThreadMXBean;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatisticsExporterTest {
+
+  /**
+   * 3 partitions with overlapping products, more than two columnar blocks' worth
+   */
+  private static WarehouseStatistics statistics(int products) {
+    WarehouseStatistics statistics = new WarehouseStatistics(3);
+    for (int productId = 0; productId < products; productId++) {
+      statistics.recordProduct(productId % 3, 1, productId, 1 + productId % 7);
+      if (productId % 5 == 0) {
+        statistics.recordProduct((productId + 1) % 3, 2, productId, 100);
+      }
+    }
+    return statistics;
+  }
+
+  private static byte[] export(WarehouseStatistics statistics, ExportFormat format) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    long rows = StatisticsExporter.write(statistics.openProductCursor(), format, out);
+    assertEquals(statistics.getTotalUniqueProducts(), rows);
+    return out.toByteArray();
+  }
+
+  @Test
+  void testEveryFormatRoundTripsTheMergedQuantities() throws IOException {
+    WarehouseStatistics statistics = statistics(10_000);
+    Map<Integer, Long> expected = statistics.snapshotProductQuantities();
+
+    String[] lines = new String(export(statistics, ExportFormat.CSV), StandardCharsets.US_ASCII).split("\n");
+    assertEquals("product_id,quantity", lines[0]);
+    Map<Integer, Long> csv = new HashMap<>();
+    for (int i = 1; i < lines.length; i++) {
+      String[] fields = lines[i].split(",");
+      assertNull(csv.put(Integer.parseInt(fields[0]), Long.parseLong(fields[1])), "duplicate row " + lines[i]);
+    }
+    assertEquals(expected, csv);
+
+    ObjectMapper mapper = new ObjectMapper();
+    Map<Integer, Long> ndjson = new HashMap<>();
+    for (String line : new String(export(statistics, ExportFormat.NDJSON), StandardCharsets.UTF_8).split("\n")) {
+      JsonNode row = mapper.readTree(line);
+      ndjson.put(row.get("product_id").asInt(), row.get("quantity").asLong());
+    }
+    assertEquals(expected, ndjson);
+
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(export(statistics, ExportFormat.COLUMNAR)));
+    assertEquals(StatisticsExporter.MAGIC, in.readInt());
+    assertEquals(StatisticsExporter.VERSION, in.readInt());
+    Map<Integer, Long> columnar = new HashMap<>();
+    int blocks = 0;
+    for (int rows = in.readInt(); rows != 0; rows = in.readInt()) {
+      assertTrue(rows <= StatisticsExporter.BLOCK_ROWS);
+      int[] productIds = new int[rows];
+      for (int i = 0; i < rows; i++) {
+        productIds[i] = in.readInt();
+      }
+      for (int i = 0; i < rows; i++) {
+        columnar.put(productIds[i], in.readLong());
+      }
+      blocks++;
+    }
+    assertEquals(3, blocks);
+    assertEquals(-1, in.read(), "nothing after the end marker");
+    assertEquals(expected, columnar);
+  }
+
+  @Test
+  void testEmptyStatisticsExportHeaderOnly() throws IOException {
+    WarehouseStatistics statistics = new WarehouseStatistics(2);
+    assertEquals("product_id,quantity\n", new String(export(statistics, ExportFormat.CSV), StandardCharsets.US_ASCII));
+    assertEquals(0, export(statistics, ExportFormat.NDJSON).length);
+    assertEquals(12, export(statistics, ExportFormat.COLUMNAR).length);
+    assertThrows(IllegalArgumentException.class, () -> ExportFormat.parse("xml"));
+  }
+
+  @Test
+  void testExportAllocatesTheSameForAnyCatalogSize() throws IOException {
+    ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    OutputStream discard = OutputStream.nullOutputStream();
+    WarehouseStatistics small = statistics(1_000);
+    WarehouseStatistics large = statistics(300_000);
+    for (ExportFormat format : ExportFormat.values()) {
+      // Warm up, then measure
+      StatisticsExporter.write(large.openProductCursor(), format, discard);
+      long before = threads.getCurrentThreadAllocatedBytes();
+      StatisticsExporter.write(small.openProductCursor(), format, discard);
+      long smallBytes = threads.getCurrentThreadAllocatedBytes() - before;
+      before = threads.getCurrentThreadAllocatedBytes();
+      StatisticsExporter.write(large.openProductCursor(), format, discard);
+      long largeBytes = threads.getCurrentThreadAllocatedBytes() - before;
+      // A materialized snapshot of 300k products alone would be well over 10 MB
+      assertTrue(largeBytes < smallBytes + 256 * 1024,
+          format + ": " + smallBytes + " bytes for 1k products vs " + largeBytes + " for 300k");
+    }
+  }
+}
@@ -0,0 +1,171 @@
+package com.cs6650.group13.warehouse.fulfillment;
+
+import com.cs6650.group13.warehouse.dedup.OrderDeduplicator;
+import com.cs6650.group13.warehouse.ledger.OrderLedger;
+import com.cs6650.group13.warehouse.model.OrderView;
+import com.cs6650.group13.warehouse.service.WarehouseStatistics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FulfillmentPipelineTest {
+
+  private final WarehouseStatistics statistics = new WarehouseStatistics();
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private FulfillmentPipeline pipeline;
+  private OrderLedger ledger;
+
+  @TempDir
+  Path directory;
+
+  @AfterEach
+  void tearDown() throws Exception {
+    if (pipeline != null) {
+      pipeline.stop();
+    }
+    if (ledger != null) {
+      ledger.close();
+    }
+  }
+
+  private FulfillmentPipeline pipeline(int queueCapacity, int batchSize, long pickWorkMillis) {
+    pipeline = new FulfillmentPipeline(statistics, meterRegistry, queueCapacity, batchSize,
+        1, 2, 2, 1, pickWorkMillis, 0);
+    return pipeline;
+  }
+
+  private static OrderView order(int orderId, int... productsAndQuantities) {
+    OrderView order = new OrderView();
+    order.setOrderId(orderId);
+    order.setCustomerId(orderId);
+    order.setShoppingCartId(orderId);
+    for (int i = 0; i < productsAndQuantities.length; i += 2) {
+      order.addItem(productsAndQuantities[i], productsAndQuantities[i + 1], true);
+    }
+    return order;
+  }
+
+  /**
+   * Records outcomes and, on each ACK, what the statistics already showed for the order
+   */
+  private class RecordingCompletion implements FulfillmentTask.Completion {
+    final ConcurrentLinkedQueue<String> outcomes;
+    final CountDownLatch done;
+    final int productId;
+
+    RecordingCompletion(ConcurrentLinkedQueue<String> outcomes, CountDownLatch done, int productId) {
+      this.outcomes = outcomes;
+      this.done = done;
+      this.productId = productId;
+    }
+
+    @Override
+    public void acknowledge() {
+      outcomes.add(statistics.getProductQuantity(productId) > 0 ? "ack" : "ack-before-record");
+      done.countDown();
+    }
+
+    @Override
+    public void reject(String reason) {
+      outcomes.add("reject:" + reason);
+      done.countDown();
+    }
+  }
+
+  @Test
+  void testOrdersAreRecordedBeforeAckAndShipped() throws Exception {
+    ledger = new OrderLedger(statistics, directory.toString(), 1, 1, 4);
+    ledger.open();
+    FulfillmentPipeline pipeline = pipeline(16, 8, 0);
+    ReflectionTestUtils.setField(pipeline, "ledger", ledger);
+    pipeline.start();
+
+    int orders = 500;
+    ConcurrentLinkedQueue<String> outcomes = new ConcurrentLinkedQueue<>();
+    CountDownLatch done = new CountDownLatch(orders);
+    for (int i = 1; i <= orders; i++) {
+      pipeline.submit(order(i, 1000 + i, 2, 7, 1), 0, new RecordingCompletion(outcomes, done, 1000 + i));
+    }
+    assertTrue(done.await(30, TimeUnit.SECONDS));
+    pipeline.stop();
+
+    assertEquals(orders, outcomes.size());
+    assertTrue(outcomes.stream().allMatch("ack"::equals), "every ACK must follow the order's record");
+    assertEquals(orders, statistics.getTotalOrders());
+    assertEquals(orders, statistics.getProductQuantity(7));
+    assertTrue(ledger.getDurableSequence() >= orders, "ACKed orders must be durable");
+    assertEquals(orders, meterRegistry.counter("warehouse.fulfillment.orders", "outcome", "shipped").count());
+    assertEquals(orders * 3.0, meterRegistry.counter("warehouse.fulfillment.units.shipped").count());
+    for (String stage : List.of("validate", "reserve", "pick", "ship")) {
+      assertEquals(orders, meterRegistry.get("warehouse.fulfillment.stage.service").tag("stage", stage)
+          .timer().count(), stage);
+    }
+  }
+
+  @Test
+  void testInvalidOrdersAreRejectedAndDuplicatesAcknowledged() throws Exception {
+    FulfillmentPipeline pipeline = pipeline(16, 8, 0);
+    ReflectionTestUtils.setField(pipeline, "deduplicator", new OrderDeduplicator(meterRegistry, 3, 600_000));
+    pipeline.start();
+
+    OrderView missingId = new OrderView();
+    missingId.addItem(1, 1, true);
+    OrderView invalidItem = order(2);
+    invalidItem.addItem(0, 0, false);
+
+    ConcurrentLinkedQueue<String> outcomes = new ConcurrentLinkedQueue<>();
+    CountDownLatch done = new CountDownLatch(4);
+    pipeline.submit(order(1, 50, 4), 0, new RecordingCompletion(outcomes, done, 50));
+    pipeline.submit(missingId, 0, new RecordingCompletion(outcomes, done, 50));
+    pipeline.submit(invalidItem, 0, new RecordingCompletion(outcomes, done, 50));
+    pipeline.submit(order(1, 50, 4), 0, new RecordingCompletion(outcomes, done, 50));
+    assertTrue(done.await(10, TimeUnit.SECONDS));
+    pipeline.stop();
+
+    assertTrue(outcomes.contains("reject:missing order_id"));
+    assertTrue(outcomes.contains("reject:invalid item"));
+    assertEquals(2, outcomes.stream().filter(outcome -> outcome.startsWith("ack")).count());
+    assertEquals(1, statistics.getTotalOrders());
+    assertEquals(4, statistics.getProductQuantity(50));
+    assertEquals(1, meterRegistry.counter("warehouse.fulfillment.orders", "outcome", "duplicate").count());
+  }
+
+  @Test
+  void testSlowStageFillsItsQueueAndBlocksSubmitters() throws Exception {
+    FulfillmentPipeline pipeline = pipeline(4, 1, 50);
+    pipeline.start();
+
+    ConcurrentLinkedQueue<String> outcomes = new ConcurrentLinkedQueue<>();
+    CountDownLatch done = new CountDownLatch(100);
+    Thread submitter = new Thread(() -> {
+      try {
+        for (int i = 1; i <= 100; i++) {
+          pipeline.submit(order(i, i, 1), 0, new RecordingCompletion(outcomes, done, i));
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    submitter.start();
+
+    // Pick handles 2 orders per 50 ms; every queue in front of it holds at most 4
+    Thread.sleep(300);
+    assertTrue(submitter.isAlive(), "submitter should be held back by the full queues");
+    assertEquals(4, (int) meterRegistry.get("warehouse.fulfillment.stage.queue").tag("stage", "pick")
+        .gauge().value());
+
+    submitter.join(10_000);
+    assertFalse(submitter.isAlive());
+    assertTrue(done.await(10, TimeUnit.SECONDS));
+  }
+}
@@ -0,0 +1,188 @@
+package com.cs6650.group13.warehouse.fulfillment;
+
+import com.cs6650.group13.warehouse.model.OrderView;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WavePlannerTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private static OrderView order(int orderId, int... productsAndQuantities) {
+    OrderView order = new OrderView();
+    order.setOrderId(orderId);
+    for (int i = 0; i < productsAndQuantities.length; i += 2) {
+      order.addItem(productsAndQuantities[i], productsAndQuantities[i + 1], true);
+    }
+    return order;
+  }
+
+  @Test
+  void testFullWaveAggregatesPicksPerProductInBinOrder() {
+    WavePlanner planner = new WavePlanner(meterRegistry, 3, 60_000);
+
+    planner.addOrder(order(1, 30, 2, 10, 1));
+    planner.addOrder(order(2, 10, 4));
+    assertNull(planner.getLastWave());
+    assertEquals(2, planner.getOpenOrders());
+
+    planner.addOrder(order(3, 20, 1, 30, 3));
+
+    Wave wave = planner.getLastWave();
+    assertNotNull(wave);
+    assertEquals(Wave.Trigger.SIZE, wave.getTrigger());
+    assertEquals(3, wave.getOrders());
+    assertEquals(5, wave.getOrderLines());
+    assertEquals(3, wave.getPicks());
+    assertArrayEquals(new int[] {10, 20, 30},
+        new int[] {wave.getProductId(0), wave.getProductId(1), wave.getProductId(2)});
+    assertEquals(5, wave.getUnits(0));
+    assertEquals(1, wave.getUnits(1));
+    assertEquals(5, wave.getUnits(2));
+    assertEquals(2, wave.getLines(0));
+    assertEquals(11, wave.getTotalUnits());
+    assertEquals(0, planner.getOpenOrders());
+
+    assertEquals(11.0 / 3, meterRegistry.get("warehouse.wave.items.per.pick").summary().mean(), 1e-9);
+    assertEquals(3.0, meterRegistry.get("warehouse.wave.size").summary().mean());
+    assertEquals(1.0, meterRegistry.get("warehouse.wave.closed").tag("trigger", "size").counter().count());
+  }
+
+  @Test
+  void testWaveClosesWhenItsFirstOrderIsOldEnough() throws InterruptedException {
+    WavePlanner planner = new WavePlanner(meterRegistry, 1000, 20);
+
+    planner.closeExpiredWave();
+    assertNull(planner.getLastWave(), "an empty wave never closes");
+
+    planner.addOrder(order(1, 5, 1));
+    planner.closeExpiredWave();
+    assertNull(planner.getLastWave());
+
+    Thread.sleep(30);
+    planner.closeExpiredWave();
+    Wave wave = planner.getLastWave();
+    assertNotNull(wave);
+    assertEquals(Wave.Trigger.TIME, wave.getTrigger());
+    assertEquals(1, wave.getOrders());
+    assertTrue(wave.getLatencyNanos() >= 20_000_000L);
+  }
+
+  @Test
+  void testNextWaveStartsEmptyAfterManyProducts() {
+    WavePlanner planner = new WavePlanner(meterRegistry, 200, 60_000);
+
+    // 2000 distinct products: more than the aggregate sized for 200 orders holds before it grows
+    for (int i = 0; i < 200; i++) {
+      OrderView order = order(i);
+      for (int j = 0; j < 10; j++) {
+        order.addItem(19_999 - (i * 10 + j), 1, true);
+      }
+      planner.addOrder(order);
+    }
+    Wave first = planner.getLastWave();
+    assertEquals(2000, first.getPicks());
+    assertEquals(2000, first.getTotalUnits());
+    for (int pick = 1; pick < first.getPicks(); pick++) {
+      assertTrue(first.getProductId(pick - 1) < first.getProductId(pick));
+    }
+
+    planner.addOrder(order(5000, 7, 2));
+    planner.shutdown();
+    Wave second = planner.getLastWave();
+    assertEquals(Wave.Trigger.SHUTDOWN, second.getTrigger());
+    assertEquals(1, second.getPicks());
+    assertEquals(7, second.getProductId(0));
+    assertEquals(2, second.getUnits(0));
+  }
+
+  @Test
+  void testWaveMergesPicksFromEveryPartition() {
+    WavePlanner planner = new WavePlanner(meterRegistry, 4, 60_000, 3);
+
+    planner.addOrder(0, order(1, 10, 1, 20, 2));
+    planner.addOrder(2, order(2, 10, 3));
+    planner.addOrder(1, order(3, 30, 1));
+    assertEquals(3, planner.getOpenOrders());
+    assertNull(planner.getLastWave());
+
+    planner.addOrder(2, order(4, 20, 5, 30, 1));
+
+    Wave wave = planner.getLastWave();
+    assertNotNull(wave);
+    assertEquals(Wave.Trigger.SIZE, wave.getTrigger());
+    assertEquals(4, wave.getOrders());
+    assertEquals(6, wave.getOrderLines());
+    assertEquals(3, wave.getPicks());
+    assertArrayEquals(new int[] {10, 20, 30},
+        new int[] {wave.getProductId(0), wave.getProductId(1), wave.getProductId(2)});
+    assertEquals(4, wave.getUnits(0));
+    assertEquals(7, wave.getUnits(1));
+    assertEquals(2, wave.getUnits(2));
+    assertEquals(2, wave.getLines(2));
+    assertEquals(0, planner.getOpenOrders());
+  }
+
+  /**
+   * One consumer per partition; order i has product i % 50 x1 and its partition's own product x2
+   */
+  private static void addConcurrently(WavePlanner planner, int partitions, int ordersPerPartition)
+      throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(partitions);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int p = 0; p < partitions; p++) {
+      int partition = p;
+      futures.add(executor.submit(() -> {
+        for (int i = 0; i < ordersPerPartition; i++) {
+          planner.addOrder(partition, order(partition * ordersPerPartition + i, i % 50, 1, 1000 + partition, 2));
+        }
+      }));
+    }
+    for (Future<?> future : futures) {
+      future.get();
+    }
+    executor.shutdown();
+  }
+
+  @Test
+  void testConcurrentPartitionsAggregateIntoOneWave() throws Exception {
+    WavePlanner planner = new WavePlanner(meterRegistry, 1_000_000, 60_000, 4);
+
+    addConcurrently(planner, 4, 5_000);
+    assertEquals(20_000, planner.getOpenOrders());
+    planner.shutdown();
+
+    Wave wave = planner.getLastWave();
+    assertEquals(20_000, wave.getOrders());
+    assertEquals(40_000, wave.getOrderLines());
+    assertEquals(54, wave.getPicks());
+    assertEquals(60_000, wave.getTotalUnits());
+    for (int pick = 0; pick < 50; pick++) {
+      assertEquals(400, wave.getUnits(pick));
+    }
+    for (int pick = 50; pick < 54; pick++) {
+      assertEquals(1000 + pick - 50, wave.getProductId(pick));
+      assertEquals(10_000, wave.getUnits(pick));
+    }
+  }
+
+  @Test
+  void testConcurrentSizeClosesLoseNoOrders() throws Exception {
+    WavePlanner planner = new WavePlanner(meterRegistry, 100, 60_000, 4);
+
+    addConcurrently(planner, 4, 5_000);
+    planner.shutdown();
+
+    assertEquals(0, planner.getOpenOrders());
+    assertEquals(20_000, meterRegistry.get("warehouse.wave.size").summary().totalAmount(), 1e-9);
+    assertTrue(meterRegistry.get("warehouse.wave.closed").tag("trigger", "size").counter().count() >= 150);
+  }
+}
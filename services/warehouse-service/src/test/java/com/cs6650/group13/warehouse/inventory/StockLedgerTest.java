@@ -0,0 +1,141 @@
+package com.cs6650.group13.warehouse.inventory;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockLedgerTest {
+
+  private static StockLedger ledger(int stripes, long initialStock, long ttlMs) {
+    return new StockLedger(new SimpleMeterRegistry(), 100, stripes, initialStock, ttlMs);
+  }
+
+  @Test
+  void testReserveCommitAndRelease() {
+    StockLedger ledger = ledger(4, 10, 60_000);
+
+    long first = ledger.reserve(new int[] {1, 2}, new int[] {3, 4}, 2);
+    assertEquals(7, ledger.getAvailable(1));
+    assertEquals(3, ledger.getReserved(1));
+    assertEquals(6, ledger.getAvailable(2));
+
+    assertTrue(ledger.commit(first));
+    assertFalse(ledger.commit(first), "a reservation commits once");
+    assertFalse(ledger.release(first), "a committed reservation cannot be released");
+    assertEquals(7, ledger.getAvailable(1));
+    assertEquals(0, ledger.getReserved(1));
+    assertEquals(3, ledger.getCommitted(1));
+
+    long second = ledger.reserve(new int[] {1}, new int[] {7}, 1);
+    assertNotEquals(first, second);
+    assertEquals(0, ledger.getAvailable(1));
+    assertTrue(ledger.release(second));
+    assertEquals(7, ledger.getAvailable(1));
+    assertEquals(0, ledger.getOpenReservations());
+  }
+
+  @Test
+  void testShortItemReservesNothing() {
+    StockLedger ledger = ledger(4, 10, 60_000);
+
+    InsufficientStockException e = assertThrows(InsufficientStockException.class,
+        () -> ledger.reserve(new int[] {1, 2, 3}, new int[] {5, 11, 1}, 3));
+    assertEquals(2, e.getProductId());
+    assertEquals(10, ledger.getAvailable(1));
+    assertEquals(0, ledger.getReserved(1));
+    assertEquals(10, ledger.getAvailable(2));
+    assertEquals(10, ledger.getAvailable(3));
+    assertEquals(0, ledger.getOpenReservations());
+  }
+
+  @Test
+  void testQuantityLargerThanAnyStripeIsGatheredFromSeveral() {
+    // 10 units over 8 stripes: no stripe holds more than 2
+    StockLedger ledger = ledger(8, 10, 60_000);
+
+    long reservationId = ledger.reserve(new int[] {5}, new int[] {9}, 1);
+    assertEquals(1, ledger.getAvailable(5));
+    assertThrows(InsufficientStockException.class, () -> ledger.reserve(new int[] {5}, new int[] {2}, 1));
+    assertEquals(1, ledger.getAvailable(5));
+
+    ledger.release(reservationId);
+    assertEquals(10, ledger.getAvailable(5));
+  }
+
+  @Test
+  void testInvalidRequestsAreRejected() {
+    StockLedger ledger = ledger(4, 10, 60_000);
+
+    assertThrows(IllegalArgumentException.class, () -> ledger.reserve(new int[] {100}, new int[] {1}, 1));
+    assertThrows(IllegalArgumentException.class, () -> ledger.reserve(new int[] {1}, new int[] {0}, 1));
+    assertThrows(IllegalArgumentException.class, () -> ledger.restock(1, -5));
+    assertThrows(IllegalArgumentException.class, () -> ledger(3, 10, 60_000));
+  }
+
+  @Test
+  void testExpiredReservationsAreReleased() throws InterruptedException {
+    StockLedger ledger = ledger(4, 10, 20);
+
+    long reservationId = ledger.reserve(new int[] {1}, new int[] {4}, 1);
+    ledger.releaseExpired();
+    assertEquals(6, ledger.getAvailable(1), "not expired yet");
+
+    Thread.sleep(30);
+    ledger.releaseExpired();
+    assertEquals(10, ledger.getAvailable(1));
+    assertFalse(ledger.commit(reservationId));
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {1, 8})
+  void testConcurrentReservationsOfAHotProductNeverOversell(int stripes) throws Exception {
+    long stock = 20_000;
+    StockLedger ledger = ledger(stripes, stock, 60_000);
+
+    int threads = 8;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    List<Future<Long>> futures = new ArrayList<>();
+    for (int t = 0; t < threads; t++) {
+      futures.add(executor.submit(() -> {
+        long units = 0;
+        int[] productIds = {0};
+        int[] quantities = {1};
+        for (int i = 0; ; i++) {
+          quantities[0] = 1 + i % 3;
+          try {
+            long reservationId = ledger.reserve(productIds, quantities, 1);
+            if (i % 5 == 0) {
+              ledger.release(reservationId);
+            } else {
+              ledger.commit(reservationId);
+              units += quantities[0];
+            }
+          } catch (InsufficientStockException e) {
+            if (ledger.getAvailable(0) == 0) {
+              return units;
+            }
+          }
+        }
+      }));
+    }
+    long sold = 0;
+    for (Future<Long> future : futures) {
+      sold += future.get();
+    }
+    executor.shutdown();
+
+    assertEquals(stock, sold);
+    assertEquals(stock, ledger.getCommitted(0));
+    assertEquals(0, ledger.getAvailable(0));
+    assertEquals(0, ledger.getReserved(0));
+  }
+}
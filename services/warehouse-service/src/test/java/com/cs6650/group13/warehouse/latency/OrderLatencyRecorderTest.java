@@ -0,0 +1,81 @@
+package com.cs6650.group13.warehouse.latency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderLatencyRecorderTest {
+
+  private static Message publishedMillisAgo(long millis) {
+    Instant publishedAt = Instant.now().minusMillis(millis);
+    MessageProperties properties = new MessageProperties();
+    properties.setHeader(OrderLatencyRecorder.PUBLISH_EPOCH_NS_HEADER,
+        publishedAt.getEpochSecond() * 1_000_000_000L + publishedAt.getNano());
+    return new Message(new byte[0], properties);
+  }
+
+  @Test
+  void testConsumeAndAckLatencyFromPublishHeader() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    OrderLatencyRecorder recorder = new OrderLatencyRecorder(registry);
+
+    for (int i = 0; i < 100; i++) {
+      long publishedAt = recorder.recordConsumed(publishedMillisAgo(50));
+      assertTrue(publishedAt > 0);
+      recorder.recordAcked(publishedAt);
+    }
+    assertEquals(-1, recorder.recordConsumed(new Message(new byte[0], new MessageProperties())));
+    recorder.recordAcked(-1);
+
+    LatencySummary consume = recorder.getConsumeLatency();
+    assertEquals(100, consume.getCount());
+    assertTrue(consume.getP50Ms() >= 50 && consume.getP50Ms() < 1_000, "p50 " + consume.getP50Ms());
+    assertTrue(consume.getMaxMs() >= consume.getP99Ms());
+    assertEquals(100, recorder.getAckLatency().getCount());
+    assertEquals(100, registry.get("warehouse.order.latency").tag("stage", "ack").timer().count());
+
+    // Reads are cumulative until reset
+    recorder.recordConsumed(publishedMillisAgo(10));
+    assertEquals(101, recorder.getConsumeLatency().getCount());
+    recorder.reset();
+    assertEquals(0, recorder.getConsumeLatency().getCount());
+    assertEquals(0, recorder.getAckLatency().getCount());
+  }
+
+  @Test
+  void testPublishTimeInTheFutureCountsAsClockSkew() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    OrderLatencyRecorder recorder = new OrderLatencyRecorder(registry);
+
+    recorder.recordConsumed(publishedMillisAgo(-60_000));
+
+    assertEquals(1, registry.get("warehouse.order.latency.clock.skew").counter().count());
+    assertEquals(0, recorder.getConsumeLatency().getMaxMs());
+  }
+
+  @Test
+  void testSummariesFromSeveralInstancesMerge() {
+    OrderLatencyRecorder fast = new OrderLatencyRecorder(new SimpleMeterRegistry());
+    OrderLatencyRecorder slow = new OrderLatencyRecorder(new SimpleMeterRegistry());
+    for (int i = 0; i < 90; i++) {
+      fast.recordConsumed(publishedMillisAgo(5));
+    }
+    for (int i = 0; i < 10; i++) {
+      slow.recordConsumed(publishedMillisAgo(2_000));
+    }
+
+    LatencySummary merged = OrderLatencyRecorder.merge(List.of(
+        fast.getConsumeLatency().getHistogram(), slow.getConsumeLatency().getHistogram()));
+
+    assertEquals(100, merged.getCount());
+    assertTrue(merged.getP50Ms() < 1_000, "p50 " + merged.getP50Ms());
+    assertTrue(merged.getP99Ms() >= 2_000, "p99 " + merged.getP99Ms());
+    assertThrows(IllegalArgumentException.class, () -> OrderLatencyRecorder.merge(List.of("not a histogram")));
+  }
+}
@@ -0,0 +1,228 @@
+package com.cs6650.group13.warehouse.ledger;
+
+import com.cs6650.group13.warehouse.service.WarehouseStatistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderLedgerTest {
+
+  @TempDir
+  Path directory;
+
+  private OrderLedger openLedger(WarehouseStatistics statistics, int segmentSizeMb) throws Exception {
+    return openLedger(statistics, segmentSizeMb, 4);
+  }
+
+  private OrderLedger openLedger(WarehouseStatistics statistics, int segmentSizeMb,
+                                 int retainedSegments) throws Exception {
+    OrderLedger ledger = new OrderLedger(statistics, directory.toString(), segmentSizeMb, 1,
+        retainedSegments);
+    ledger.open();
+    return ledger;
+  }
+
+  private void recordOrder(OrderLedger ledger, WarehouseStatistics statistics,
+                           int orderId, int productId, int quantity) throws Exception {
+    int[] productIds = {productId};
+    int[] quantities = {quantity};
+    long sequence = ledger.record(orderId, productIds, quantities, 1, () -> {
+      statistics.recordProduct(orderId, productId, quantity);
+      statistics.incrementOrderCount();
+    });
+    ledger.awaitDurable(sequence);
+  }
+
+  @Test
+  void testRestoreFromLedgerWithoutCheckpoint() throws Exception {
+    WarehouseStatistics statistics = new WarehouseStatistics();
+    OrderLedger ledger = openLedger(statistics, 1);
+    recordOrder(ledger, statistics, 1, 100, 5);
+    recordOrder(ledger, statistics, 2, 200, 3);
+    // Simulate a crash: no close(), so no checkpoint is written
+
+    WarehouseStatistics restored = new WarehouseStatistics();
+    openLedger(restored, 1);
+
+    assertEquals(2, restored.getTotalOrders());
+    assertEquals(5, restored.getProductQuantity(100));
+    assertEquals(3, restored.getProductQuantity(200));
+  }
+
+  @Test
+  void testRestoreFromCheckpointAndTail() throws Exception {
+    WarehouseStatistics statistics = new WarehouseStatistics();
+    OrderLedger ledger = openLedger(statistics, 1);
+    recordOrder(ledger, statistics, 1, 100, 5);
+    ledger.checkpoint();
+    recordOrder(ledger, statistics, 2, 100, 2);
+    recordOrder(ledger, statistics, 3, 300, 1);
+
+    WarehouseStatistics restored = new WarehouseStatistics();
+    openLedger(restored, 1);
+
+    assertEquals(3, restored.getTotalOrders());
+    assertEquals(7, restored.getProductQuantity(100));
+    assertEquals(1, restored.getProductQuantity(300));
+  }
+
+  @Test
+  void testCloseWritesCheckpoint() throws Exception {
+    WarehouseStatistics statistics = new WarehouseStatistics();
+    OrderLedger ledger = openLedger(statistics, 1);
+    recordOrder(ledger, statistics, 1, 100, 5);
+    ledger.close();
+
+    assertTrue(Files.exists(directory.resolve(StatisticsCheckpoint.FILE_NAME)));
+
+    WarehouseStatistics restored = new WarehouseStatistics();
+    openLedger(restored, 1);
+    assertEquals(1, restored.getTotalOrders());
+    assertEquals(5, restored.getProductQuantity(100));
+  }
+
+  @Test
+  void testSegmentRollAndOrderLookup() throws Exception {
+    WarehouseStatistics statistics = new WarehouseStatistics();
+    OrderLedger ledger = openLedger(statistics, 1);
+
+    // 1 MB segments: 40k single-item orders (32 bytes each) need at least two segments
+    int[] productIds = {7};
+    int[] quantities = {1};
+    long last = 0;
+    for (int orderId = 1; orderId <= 40_000; orderId++) {
+      last = ledger.record(orderId, productIds, quantities, 1, statistics::incrementOrderCount);
+    }
+    ledger.awaitDurable(last);
+
+    assertTrue(countSegmentFiles() >= 2);
+
+    LedgerRecord record = ledger.findOrder(39_999).orElseThrow();
+    assertEquals(39_999, record.getOrderId());
+    assertEquals(1, record.getItemCount());
+    assertEquals(7, record.getProductId(0));
+    assertTrue(ledger.findOrder(50_000).isEmpty());
+
+    WarehouseStatistics restored = new WarehouseStatistics();
+    OrderLedger reopened = openLedger(restored, 1);
+    assertEquals(40_000, restored.getTotalOrders());
+    assertEquals(40_000, reopened.getIndexedOrderCount());
+    assertTrue(reopened.findOrder(1).isPresent());
+  }
+
+  @Test
+  void testCheckpointReleasesSegmentsPastRetention() throws Exception {
+    WarehouseStatistics statistics = new WarehouseStatistics();
+    OrderLedger ledger = openLedger(statistics, 1, 2);
+
+    // ~32k single-item orders fit a 1 MB segment, so 150k orders span at least four segments
+    int[] productIds = {7};
+    int[] quantities = {1};
+    long last = 0;
+    for (int orderId = 1; orderId <= 150_000; orderId++) {
+      last = ledger.record(orderId, productIds, quantities, 1, statistics::incrementOrderCount);
+    }
+    ledger.awaitDurable(last);
+    assertTrue(countSegmentFiles() >= 4);
+    int indexedBefore = ledger.getIndexedOrderCount();
+
+    ledger.checkpoint();
+
+    assertEquals(2, countSegmentFiles());
+    assertTrue(ledger.getIndexedOrderCount() < indexedBefore);
+    assertTrue(ledger.findOrder(1).isEmpty());
+    assertEquals(150_000, ledger.findOrder(150_000).orElseThrow().getOrderId());
+    int[] visited = {0};
+    ledger.forEachOrderId(orderId -> visited[0]++);
+    assertEquals(ledger.getIndexedOrderCount(), visited[0]);
+
+    // Appends after the release land in the retained window and stay addressable
+    recordOrder(ledger, statistics, 200_000, 7, 1);
+    assertTrue(ledger.findOrder(200_000).isPresent());
+    int indexedAfter = ledger.getIndexedOrderCount();
+    ledger.close();
+
+    WarehouseStatistics restored = new WarehouseStatistics();
+    OrderLedger reopened = openLedger(restored, 1, 2);
+    assertEquals(150_001, restored.getTotalOrders());
+    assertEquals(2, countSegmentFiles());
+    assertEquals(indexedAfter, reopened.getIndexedOrderCount());
+    assertTrue(reopened.findOrder(1).isEmpty());
+    assertTrue(reopened.findOrder(200_000).isPresent());
+    reopened.close();
+
+    // Startup applies retention before scanning when the limit shrinks
+    openLedger(new WarehouseStatistics(), 1, 1);
+    assertEquals(1, countSegmentFiles());
+  }
+
+  @Test
+  void testUncheckpointedSegmentsAreKept() throws Exception {
+    WarehouseStatistics statistics = new WarehouseStatistics();
+    OrderLedger ledger = openLedger(statistics, 1, 1);
+    int[] productIds = {7};
+    int[] quantities = {1};
+    long last = 0;
+    for (int orderId = 1; orderId <= 70_000; orderId++) {
+      last = ledger.record(orderId, productIds, quantities, 1, statistics::incrementOrderCount);
+    }
+    ledger.awaitDurable(last);
+    long segmentsWritten = countSegmentFiles();
+    // Simulate a crash: no checkpoint covers these segments, so a restart must keep them all
+
+    WarehouseStatistics restored = new WarehouseStatistics();
+    OrderLedger reopened = openLedger(restored, 1, 1);
+    assertEquals(segmentsWritten, countSegmentFiles());
+    assertEquals(70_000, restored.getTotalOrders());
+    assertTrue(reopened.findOrder(1).isPresent());
+  }
+
+  @Test
+  void testConcurrentAppendsShareGroupCommits() throws Exception {
+    WarehouseStatistics statistics = new WarehouseStatistics();
+    OrderLedger ledger = openLedger(statistics, 4);
+
+    int threads = 8;
+    int ordersPerThread = 200;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    CountDownLatch latch = new CountDownLatch(threads);
+    for (int t = 0; t < threads; t++) {
+      final int base = t * ordersPerThread;
+      executor.submit(() -> {
+        try {
+          for (int i = 0; i < ordersPerThread; i++) {
+            recordOrder(ledger, statistics, base + i, 100, 1);
+          }
+        } catch (Exception e) {
+          fail(e);
+        } finally {
+          latch.countDown();
+        }
+      });
+    }
+    assertTrue(latch.await(30, TimeUnit.SECONDS));
+    executor.shutdown();
+
+    assertEquals(threads * ordersPerThread, statistics.getTotalOrders());
+    assertEquals(threads * ordersPerThread, ledger.getDurableSequence());
+
+    WarehouseStatistics restored = new WarehouseStatistics();
+    openLedger(restored, 4);
+    assertEquals(threads * ordersPerThread, restored.getProductQuantity(100));
+  }
+
+  private long countSegmentFiles() throws Exception {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.filter(p -> p.toString().endsWith(LedgerSegment.SUFFIX)).count();
+    }
+  }
+}
@@ -0,0 +1,145 @@
+package com.cs6650.group13.warehouse.live;
+
+import com.cs6650.group13.warehouse.service.WarehouseStatistics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LiveStatisticsFeedTest {
+
+  private static final long SECOND = 1_000_000_000L;
+
+  private final WarehouseStatistics statistics = new WarehouseStatistics(2);
+  private final LiveStatisticsFeed feed = new LiveStatisticsFeed(statistics, new SimpleMeterRegistry(), 10, 3);
+
+  /**
+   * Collects events; each send first waits for a permit, so the test decides how slow it is
+   */
+  private static final class Sink implements LiveStatisticsFeed.EventSink {
+    private final BlockingQueue<LiveUpdate> received = new LinkedBlockingQueue<>();
+    private final Semaphore permits;
+    private final CountDownLatch closed = new CountDownLatch(1);
+
+    private Sink(int permits) {
+      this.permits = new Semaphore(permits);
+    }
+
+    @Override
+    public void send(LiveUpdate update) {
+      permits.acquireUninterruptibly();
+      received.add(update);
+    }
+
+    @Override
+    public void close() {
+      closed.countDown();
+    }
+
+    private LiveUpdate next() throws InterruptedException {
+      LiveUpdate update = received.poll(5, TimeUnit.SECONDS);
+      assertNotNull(update, "no event received");
+      return update;
+    }
+  }
+
+  private void order(int partition, int productId, int quantity) {
+    statistics.recordProduct(partition, 1, productId, quantity);
+    statistics.incrementOrderCount(partition);
+  }
+
+  @AfterEach
+  void tearDown() {
+    feed.shutdown();
+  }
+
+  @Test
+  void testEventsCarryOnlyProductsChangedSinceTheLastTick() throws InterruptedException {
+    order(0, 1, 5);
+    order(1, 2, 3);
+    Sink sink = new Sink(Integer.MAX_VALUE);
+    feed.subscribe(sink);
+
+    LiveUpdate first = sink.next();
+    assertEquals(0, first.getTicks());
+    assertEquals(Map.of(1, 5L, 2, 3L), first.getChangedProducts());
+    assertEquals(2, first.getTotalOrders());
+
+    feed.tick(SECOND);
+    assertTrue(sink.next().getChangedProducts().isEmpty(), "the first snapshot is the baseline");
+    order(0, 2, 4);
+    order(1, 3, 1);
+    feed.tick(2 * SECOND);
+
+    LiveUpdate update = sink.next();
+    assertEquals(1, update.getTicks());
+    assertEquals(Map.of(2, 7L, 3, 1L), update.getChangedProducts());
+    assertEquals(4, update.getTotalOrders());
+    assertEquals(13, update.getTotalQuantity());
+    assertEquals(3, update.getUniqueProducts());
+    assertEquals(2.0, update.getOrdersPerSecond(), 1e-9);
+
+    feed.tick(3 * SECOND);
+    LiveUpdate quiet = sink.next();
+    assertTrue(quiet.getChangedProducts().isEmpty());
+    assertEquals(0.0, quiet.getOrdersPerSecond(), 1e-9);
+  }
+
+  @Test
+  void testSlowSubscriberIsConflatedThenDropped() throws InterruptedException {
+    order(0, 1, 1);
+    Sink slow = new Sink(0);
+    Sink fast = new Sink(Integer.MAX_VALUE);
+    feed.subscribe(slow);
+    feed.subscribe(fast);
+    fast.next();
+
+    // The slow subscriber is stuck sending its first event while three ticks change things
+    for (int tick = 1; tick <= 3; tick++) {
+      order(tick % 2, 10 + tick, tick);
+      order(0, 1, 1);
+      feed.tick(tick * SECOND);
+      assertEquals(1, fast.next().getTicks(), "the fast subscriber is not held up");
+    }
+    slow.permits.release(2);
+    assertEquals(0, slow.next().getTicks());
+    LiveUpdate conflated = slow.next();
+    assertEquals(3, conflated.getTicks());
+    assertEquals(Map.of(1, 4L, 11, 1L, 12, 2L, 13, 3L), conflated.getChangedProducts());
+    assertEquals(7, conflated.getTotalOrders());
+
+    // Stuck again for more than max-lag-ticks (3): dropped, and the fast one carries on
+    for (int tick = 4; tick <= 8; tick++) {
+      feed.tick(tick * SECOND);
+      assertEquals(tick, fast.next().getSequence());
+    }
+    assertTrue(slow.closed.await(5, TimeUnit.SECONDS));
+    feed.tick(9 * SECOND);
+    assertEquals(9, fast.next().getSequence());
+    assertTrue(slow.received.isEmpty());
+    slow.permits.release(Integer.MAX_VALUE / 2);
+  }
+
+  @Test
+  void testSubscriberLimit() throws InterruptedException {
+    LiveStatisticsFeed single = new LiveStatisticsFeed(statistics, new SimpleMeterRegistry(), 1, 3);
+    try {
+      Sink sink = new Sink(Integer.MAX_VALUE);
+      LiveStatisticsFeed.Subscription subscription = single.subscribe(sink);
+      sink.next();
+      assertThrows(IllegalStateException.class, () -> single.subscribe(new Sink(Integer.MAX_VALUE)));
+      subscription.cancel();
+      single.subscribe(sink);
+    } finally {
+      single.shutdown();
+    }
+  }
+}
@@ -0,0 +1,139 @@
+package com.cs6650.group13.warehouse.replication;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GCounterStateTest {
+
+  private static StatisticsDelta delta(String replica, long orders, Map<Integer, Long> products) {
+    StatisticsDelta delta = new StatisticsDelta(replica);
+    delta.replica(replica).setOrders(orders);
+    delta.replica(replica).getProducts().putAll(products);
+    return delta;
+  }
+
+  @Test
+  void testMergeIsIdempotentCommutativeAndKeepsTheMaximum() {
+    StatisticsDelta first = delta("a", 10, Map.of(1, 5L, 2, 7L));
+    StatisticsDelta later = delta("a", 12, Map.of(1, 6L));
+    StatisticsDelta other = delta("b", 3, Map.of(2, 1L, 3, 4L));
+
+    GCounterState inOrder = new GCounterState();
+    assertTrue(inOrder.merge(first));
+    assertTrue(inOrder.merge(later));
+    assertTrue(inOrder.merge(other));
+
+    GCounterState shuffled = new GCounterState();
+    shuffled.merge(other);
+    shuffled.merge(later);
+    shuffled.merge(first);
+    assertFalse(shuffled.merge(first), "a stale or repeated delta changes nothing");
+
+    for (GCounterState state : List.of(inOrder, shuffled)) {
+      assertEquals(15, state.getTotalOrders());
+      assertEquals(6, state.getProductQuantity(1));
+      assertEquals(8, state.getProductQuantity(2));
+      assertEquals(4, state.getProductQuantity(3));
+      assertEquals(18, state.getTotalQuantity());
+      assertEquals(3, state.getTotalUniqueProducts());
+      assertEquals(Map.of("a", 12L, "b", 3L), state.getReplicaOrders());
+    }
+  }
+
+  @Test
+  void testDeltaCarriesOnlyWhatThePeerIsMissing() {
+    GCounterState state = new GCounterState();
+    GCounterState peerKnows = new GCounterState();
+    state.merge("a", 2, Map.of(1, 1L, 2, 1L));
+    state.merge("b", 5, Map.of(9, 9L));
+
+    StatisticsDelta full = state.deltaAgainst(peerKnows, "a", "b");
+    assertEquals(3, full.getEntryCount(), "the peer's own entries are left out");
+    peerKnows.merge(full);
+
+    assertTrue(state.deltaAgainst(peerKnows, "a", "b").isEmpty());
+
+    state.merge("a", 3, Map.of(2, 4L));
+    StatisticsDelta next = state.deltaAgainst(peerKnows, "a", "b");
+    assertEquals(Map.of(2, 4L), next.getReplicas().get("a").getProducts());
+    assertEquals(3, next.getReplicas().get("a").getOrders());
+  }
+
+  @Test
+  void testReplicasExchangingLossyDeltasConverge() {
+    int replicas = 3;
+    Random random = new Random(7);
+    GCounterState[] states = new GCounterState[replicas];
+    GCounterState[][] known = new GCounterState[replicas][replicas];
+    long[] orders = new long[replicas];
+    List<Map<Integer, Long>> quantities = new ArrayList<>();
+    for (int r = 0; r < replicas; r++) {
+      states[r] = new GCounterState();
+      quantities.add(new HashMap<>());
+      for (int peer = 0; peer < replicas; peer++) {
+        known[r][peer] = new GCounterState();
+      }
+    }
+
+    long expectedOrders = 0;
+    long expectedQuantity = 0;
+    for (int round = 0; round < 200; round++) {
+      // Each replica records some orders of its own...
+      for (int r = 0; r < replicas; r++) {
+        int newOrders = random.nextInt(5);
+        for (int i = 0; i < newOrders; i++) {
+          int product = random.nextInt(50);
+          int quantity = 1 + random.nextInt(3);
+          quantities.get(r).merge(product, (long) quantity, Long::sum);
+          expectedQuantity += quantity;
+        }
+        orders[r] += newOrders;
+        expectedOrders += newOrders;
+        states[r].merge("r" + r, orders[r], quantities.get(r));
+      }
+      // ...then sends deltas, in random order, a fifth of which are lost
+      List<int[]> sends = new ArrayList<>();
+      for (int from = 0; from < replicas; from++) {
+        for (int to = 0; to < replicas; to++) {
+          if (from != to) {
+            sends.add(new int[] {from, to});
+          }
+        }
+      }
+      Collections.shuffle(sends, random);
+      for (int[] send : sends) {
+        StatisticsDelta delta = states[send[0]].deltaAgainst(known[send[0]][send[1]], "r" + send[0], "r" + send[1]);
+        if (!delta.isEmpty() && random.nextInt(5) != 0) {
+          states[send[1]].merge(delta);
+          known[send[0]][send[1]].merge(delta);
+        }
+      }
+    }
+    // Quiet period: no new orders, no losses
+    for (int pass = 0; pass < 2; pass++) {
+      for (int from = 0; from < replicas; from++) {
+        for (int to = 0; to < replicas; to++) {
+          if (from != to) {
+            StatisticsDelta delta = states[from].deltaAgainst(known[from][to], "r" + from, "r" + to);
+            states[to].merge(delta);
+            known[from][to].merge(delta);
+          }
+        }
+      }
+    }
+
+    for (GCounterState state : states) {
+      assertEquals(expectedOrders, state.getTotalOrders());
+      assertEquals(expectedQuantity, state.getTotalQuantity());
+      assertEquals(states[0].getReplicaOrders(), state.getReplicaOrders());
+    }
+  }
+}
@@ -88,6 +88,23 @@ class WarehouseStatisticsTest {
     assertEquals(numThreads * operationsPerThread, statistics.getTotalOrders());
   }
 
+  @Test
+  void testPartitionsAreMergedOnRead() {
+    WarehouseStatistics partitioned = new WarehouseStatistics(4);
+    partitioned.recordProduct(0, 1, 100, 5);
+    partitioned.incrementOrderCount(0);
+    partitioned.recordProduct(3, 2, 100, 2);
+    partitioned.recordProduct(3, 2, 200, 1);
+    partitioned.incrementOrderCount(3);
+
+    assertEquals(2, partitioned.getTotalOrders());
+    assertEquals(1, partitioned.getPartitionOrders(3));
+    assertEquals(7, partitioned.getProductQuantity(100));
+    assertEquals(2, partitioned.getTotalUniqueProducts());
+    assertEquals(8, partitioned.getTotalQuantity());
+    assertEquals(7L, partitioned.snapshotProductQuantities().get(100));
+  }
+
   @Test
   void testReset() {
     statistics.recordProduct(1, 100, 5);
@@ -0,0 +1,102 @@
+package com.cs6650.group13.warehouse.timeseries;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductTimeSeriesStoreTest {
+
+  @Test
+  void testSeriesRoundTripsIrregularPointsAcrossBlocks() {
+    Random random = new Random(11);
+    ProductSeries series = new ProductSeries();
+    List<long[]> expected = new ArrayList<>();
+    long bucket = 1_000_000;
+    for (int i = 0; i < 5_000; i++) {
+      // Mostly regular spacing with gaps of every size, small counts with the odd spike
+      int gapKind = random.nextInt(20);
+      bucket += gapKind < 15 ? 1 : gapKind < 18 ? 1 + random.nextInt(100) : 1 + random.nextInt(100_000);
+      long value = random.nextInt(10) == 0 ? random.nextLong() : 1 + random.nextInt(8);
+      series.append(bucket, value, 500);
+      expected.add(new long[] {bucket, value});
+    }
+
+    List<long[]> decoded = new ArrayList<>();
+    series.forEach(Long.MIN_VALUE, Long.MAX_VALUE, (b, v) -> decoded.add(new long[] {b, v}));
+    assertEquals(expected.size(), decoded.size());
+    for (int i = 0; i < expected.size(); i++) {
+      assertArrayEquals(expected.get(i), decoded.get(i), "point " + i);
+    }
+    assertEquals(expected.size(), series.getPointCount());
+
+    long from = expected.get(1000)[0];
+    long to = expected.get(3000)[0];
+    List<long[]> range = new ArrayList<>();
+    series.forEach(from, to, (b, v) -> range.add(new long[] {b, v}));
+    assertEquals(2000, range.size());
+    assertArrayEquals(expected.get(1000), range.get(0));
+
+    assertThrows(IllegalArgumentException.class, () -> series.append(expected.get(0)[0], 1, 500));
+    assertTrue(series.dropBefore(Long.MAX_VALUE));
+  }
+
+  @Test
+  void testSteadySeriesCompressesToAFewBitsPerPoint() {
+    ProductSeries series = new ProductSeries();
+    for (int bucket = 0; bucket < 8640; bucket++) {
+      series.append(bucket, 3 + (bucket % 4 == 0 ? 1 : 0), 8640);
+    }
+    assertTrue(series.getSizeBytes() < 8640, "expected < 1 byte per point, got " + series.getSizeBytes());
+  }
+
+  @Test
+  void testBucketsRollUpIntoCoarserTiersAndExpire() {
+    ProductTimeSeriesStore store = new ProductTimeSeriesStore(new SimpleMeterRegistry(), 10, "10s:1m,1m:10m");
+    long start = 1_700_000_000L / 60 * 60;
+    store.flush(start);
+
+    // Product 3: 2 items every 10 s for 5 minutes
+    for (long now = start; now < start + 300; now += 10) {
+      store.record(new int[] {3, 42}, new int[] {2, 1}, 2);
+      store.flush(now + 10);
+    }
+
+    ProductHistory recent = store.getHistory(3, start + 270, start + 300);
+    assertEquals(10, recent.getIntervalSeconds());
+    assertEquals(3, recent.getPoints().size());
+    assertArrayEquals(new long[] {start + 290, 2}, recent.getPoints().get(2));
+
+    ProductHistory older = store.getHistory(3, start, start + 300);
+    assertEquals(60, older.getIntervalSeconds(), "the 10 s tier no longer covers the start");
+    assertEquals(5, older.getPoints().size());
+    for (int i = 0; i < 5; i++) {
+      assertArrayEquals(new long[] {start + 60L * i, 12}, older.getPoints().get(i));
+    }
+    assertTrue(store.getHistory(4, start, start + 300).getPoints().isEmpty());
+
+    // Twenty idle minutes later both tiers have expired everything
+    for (long now = start + 310; now <= start + 1500; now += 10) {
+      store.flush(now);
+    }
+    assertEquals(0, store.getStoredBytes());
+    assertEquals(List.of(0L, 0L), store.getTierStats().stream().map(TierStats::getPoints).toList());
+  }
+
+  @Test
+  void testRejectsInvalidTiersAndQueries() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    assertThrows(IllegalArgumentException.class, () -> new ProductTimeSeriesStore(registry, 10, "10s"));
+    assertThrows(IllegalArgumentException.class, () -> new ProductTimeSeriesStore(registry, 10, "10s:1h,15s:1d"));
+    assertThrows(IllegalArgumentException.class, () -> new ProductTimeSeriesStore(registry, 10, "1m:1h,10s:1d"));
+    assertThrows(IllegalArgumentException.class, () -> new ProductTimeSeriesStore(registry, 10, "1h:1m"));
+
+    ProductTimeSeriesStore store = new ProductTimeSeriesStore(registry, 10, "10s:1h");
+    assertThrows(IllegalArgumentException.class, () -> store.getHistory(10, 0, 60));
+    assertThrows(IllegalArgumentException.class, () -> store.getHistory(1, 60, 60));
+  }
+}
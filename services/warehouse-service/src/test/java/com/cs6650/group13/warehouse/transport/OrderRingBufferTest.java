@@ -0,0 +1,110 @@
+package com.cs6650.group13.warehouse.transport;
+
+import com.cs6650.group13.warehouse.model.OrderView;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderRingBufferTest {
+
+  private static int[] frame(int orderId, int... items) {
+    int[] frame = new int[OrderRingBuffer.FRAME_HEADER + items.length];
+    frame[0] = orderId;
+    frame[1] = orderId + 1;
+    frame[2] = orderId + 2;
+    frame[3] = items.length / 2;
+    System.arraycopy(items, 0, frame, OrderRingBuffer.FRAME_HEADER, items.length);
+    return frame;
+  }
+
+  @Test
+  void testFrameIsCopiedIntoSlot() {
+    OrderRingBuffer ring = new OrderRingBuffer(4);
+    ring.publish(frame(1000, 5, 2, 10, 3));
+
+    List<String> seen = new ArrayList<>();
+    int handled = ring.drain((order, sequence, endOfBatch) -> {
+      assertEquals(0, sequence);
+      assertTrue(endOfBatch);
+      assertEquals(1001, order.getShoppingCartId());
+      assertEquals(1002, order.getCustomerId());
+      assertEquals(2, order.getItemCount());
+      seen.add(order.getOrderId() + ":" + order.getProductIds()[1] + "x" + order.getQuantities()[1]);
+    });
+
+    assertEquals(1, handled);
+    assertEquals(List.of("1000:10x3"), seen);
+    assertEquals(0, ring.getBacklog());
+  }
+
+  @Test
+  void testDrainHandsOverEverythingPublishedAsOneBatch() {
+    OrderRingBuffer ring = new OrderRingBuffer(8);
+    for (int i = 0; i < 5; i++) {
+      ring.publish(frame(i, 1, 1));
+    }
+
+    List<Boolean> ends = new ArrayList<>();
+    assertEquals(5, ring.drain((order, sequence, endOfBatch) -> ends.add(endOfBatch)));
+    assertEquals(List.of(false, false, false, false, true), ends);
+    assertEquals(0, ring.drain((order, sequence, endOfBatch) -> fail("ring should be empty")));
+  }
+
+  @Test
+  void testCapacityMustBePowerOfTwo() {
+    assertThrows(IllegalArgumentException.class, () -> new OrderRingBuffer(1000));
+  }
+
+  @Test
+  void testConcurrentProducersWrapAroundSmallRing() throws Exception {
+    OrderRingBuffer ring = new OrderRingBuffer(16);
+    int producers = 4;
+    int perProducer = 20_000;
+    ExecutorService executor = Executors.newFixedThreadPool(producers);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int p = 0; p < producers; p++) {
+      int producer = p;
+      futures.add(executor.submit(() -> {
+        for (int i = 0; i < perProducer; i++) {
+          // orderId encodes producer and per-producer position
+          ring.publish(frame(producer * perProducer + i, producer, i));
+        }
+      }));
+    }
+
+    int[] lastSeen = new int[producers];
+    java.util.Arrays.fill(lastSeen, -1);
+    long[] received = new long[1];
+    OrderRingBuffer.BatchHandler handler = (OrderView order, long sequence, boolean endOfBatch) -> {
+      int producer = order.getProductIds()[0];
+      int position = order.getQuantities()[0];
+      assertEquals(lastSeen[producer] + 1, position, "per-producer order must be preserved");
+      assertEquals(producer * perProducer + position, order.getOrderId());
+      lastSeen[producer] = position;
+      received[0]++;
+    };
+
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+    while (received[0] < (long) producers * perProducer && System.nanoTime() < deadline) {
+      if (ring.drain(handler) == 0) {
+        Thread.onSpinWait();
+      }
+    }
+    for (Future<?> future : futures) {
+      future.get();
+    }
+    executor.shutdown();
+
+    assertEquals((long) producers * perProducer, received[0]);
+    for (int producer = 0; producer < producers; producer++) {
+      assertEquals(perProducer - 1, lastSeen[producer]);
+    }
+  }
+}
@@ -94,6 +94,7 @@ locals {
     docker run -d \
       -p 8082:8082 \
       --name cca-service \
+      -e SPRING_PROFILES_ACTIVE=random \
       --restart always \
       --log-driver=json-file \
       --log-opt max-size=10m \